@@ -2,12 +2,19 @@ package tech.interview.home.assignment.supercomputer;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class SupercomputerApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(SupercomputerApplication.class, args);
+		ConfigurableApplicationContext context = SpringApplication.run(SupercomputerApplication.class, args);
+		// Training run of the aot-cds build profile: start once so the JVM can archive the loaded classes, then exit
+		if (Boolean.getBoolean("supercomputer.training-run")) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
@@ -0,0 +1,197 @@
+package tech.interview.home.assignment.supercomputer.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.config.AdmissionProperties;
+import tech.interview.home.assignment.supercomputer.config.RouterConfig;
+import tech.interview.home.assignment.supercomputer.exceptions.RateLimitedException;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Admission layer in front of the booking routes: per-customer token buckets for every route and a global
+ * adaptive concurrency limit for the serializable write routes. Rejections are answered immediately with
+ * {@code 429} or {@code 503} and a {@code Retry-After} header.
+ * <p>
+ * Buckets are keyed by the customer id the request acts for, valid under the same rule as booking validation: the
+ * {@link #rateLimit()} filter takes the customer path variable, and handlers that read the customer from the request
+ * body call {@link #admit(Mono, Function)} once the body is decoded. Requests that carry none, such as reads and
+ * cancellations by booking id, are only subject to the concurrency limit.
+ * <p>
+ * Buckets live in a concurrent map without any lock on the request path. A sweep on a timer drops the buckets that
+ * have refilled, which is the same as a fresh bucket, and then arbitrary ones while more than
+ * {@code maxTrackedCustomers} remain, so the cap is approximate between sweeps.
+ */
+@Component
+public class AdmissionControl implements DisposableBean {
+    private static final Pattern CUSTOMER_ID = Pattern.compile("^[a-zA-Z0-9]+$");
+
+    private final AdmissionProperties properties;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<String, TokenBucket> customerBuckets = new ConcurrentHashMap<>();
+    private final AimdConcurrencyLimit writeLimit;
+    private final Counter rateLimited;
+    private final Counter overloaded;
+    private Disposable sweeper = Disposables.disposed();
+
+    @Autowired
+    public AdmissionControl(final AdmissionProperties properties, final MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+        if (properties.enabled()) {
+            // an idle bucket is full again after burst / rate, so sweeping more often finds nothing new to drop
+            this.sweeper = Flux.interval(Duration.ofNanos((long) Math.ceil(properties.customerBurst() / properties.customerRequestsPerSecond() * 1e9)))
+                    .onBackpressureDrop()
+                    .subscribe(tick -> sweep());
+        }
+    }
+
+    AdmissionControl(final AdmissionProperties properties, final MeterRegistry meterRegistry, final LongSupplier nanoClock) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+        this.writeLimit = new AimdConcurrencyLimit(properties.initialConcurrencyLimit(), properties.minConcurrencyLimit(),
+                properties.maxConcurrencyLimit(), properties.targetLatency().toNanos(), properties.backoffRatio());
+        this.rateLimited = Counter.builder("admission.rejected")
+                .tag("reason", "rate-limit")
+                .description("Requests rejected by the per-customer rate limit")
+                .register(meterRegistry);
+        this.overloaded = Counter.builder("admission.rejected")
+                .tag("reason", "concurrency-limit")
+                .description("Write requests rejected by the adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("admission.concurrency.limit", this.writeLimit, AimdConcurrencyLimit::limit)
+                .description("Current adaptive concurrency limit of the write routes")
+                .register(meterRegistry);
+        Gauge.builder("admission.concurrency.in-flight", this.writeLimit, AimdConcurrencyLimit::inFlight)
+                .description("Write requests currently in flight")
+                .register(meterRegistry);
+        Gauge.builder("admission.customers.tracked", this, AdmissionControl::trackedCustomers)
+                .description("Customers with a rate limit bucket")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rate limits requests by the customer path variable.
+     */
+    public HandlerFilterFunction<ServerResponse, ServerResponse> rateLimit() {
+        return (request, next) -> {
+            long waitNanos = tryConsume(request.pathVariables().get(RouterConfig.CUSTOMER_ID_PATH_VARIABLE));
+            if (waitNanos > 0) {
+                return reject(HttpStatus.TOO_MANY_REQUESTS, "Too many requests", waitNanos);
+            }
+            return next.handle(request);
+        };
+    }
+
+    /**
+     * Rate limits a decoded request body by the customer it acts for.
+     *
+     * @return the request, or {@link RateLimitedException} if the customer has no token left
+     */
+    public <T> Mono<T> admit(Mono<T> request, Function<T, String> customerId) {
+        if (!this.properties.enabled()) {
+            return request;
+        }
+        return request.handle((body, sink) -> {
+            long waitNanos = tryConsume(customerId.apply(body));
+            if (waitNanos > 0) {
+                sink.error(new RateLimitedException(retryAfterSeconds(waitNanos)));
+            } else {
+                sink.next(body);
+            }
+        });
+    }
+
+    /**
+     * @return 0 if admitted, otherwise nanoseconds until the customer has a token again
+     */
+    private long tryConsume(String customerId) {
+        if (!this.properties.enabled() || customerId == null || !CUSTOMER_ID.matcher(customerId).matches()) {
+            return 0;
+        }
+
+        long now = this.nanoClock.getAsLong();
+        long waitNanos = this.customerBuckets.computeIfAbsent(customerId,
+                        key -> new TokenBucket(this.properties.customerBurst(), this.properties.customerRequestsPerSecond(), now))
+                .tryConsume(now);
+        if (waitNanos > 0) {
+            this.rateLimited.increment();
+        }
+        return waitNanos;
+    }
+
+    public HandlerFilterFunction<ServerResponse, ServerResponse> concurrencyLimit() {
+        return (request, next) -> {
+            if (!this.properties.enabled()) {
+                return next.handle(request);
+            }
+
+            if (!this.writeLimit.tryAcquire()) {
+                this.overloaded.increment();
+                return reject(HttpStatus.SERVICE_UNAVAILABLE, "Service overloaded", this.properties.overloadRetryAfter().toNanos());
+            }
+            return Mono.defer(() -> {
+                long start = this.nanoClock.getAsLong();
+                return next.handle(request)
+                        .doFinally(signal -> this.writeLimit.release(start, this.nanoClock.getAsLong()));
+            });
+        };
+    }
+
+    /**
+     * Drops the buckets that have refilled, then arbitrary ones down to {@code maxTrackedCustomers}. A bucket that takes
+     * a token while it is dropped only lets its customer through once more.
+     */
+    void sweep() {
+        long now = this.nanoClock.getAsLong();
+        this.customerBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        int excess = this.customerBuckets.size() - this.properties.maxTrackedCustomers();
+        Iterator<String> customers = this.customerBuckets.keySet().iterator();
+        while (excess-- > 0 && customers.hasNext()) {
+            customers.next();
+            customers.remove();
+        }
+    }
+
+    int trackedCustomers() {
+        return this.customerBuckets.size();
+    }
+
+    @Override
+    public void destroy() {
+        this.sweeper.dispose();
+    }
+
+    private static long retryAfterSeconds(long retryAfterNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999L));
+    }
+
+    private static Mono<ServerResponse> reject(HttpStatus status, String title, long retryAfterNanos) {
+        long retryAfterSeconds = retryAfterSeconds(retryAfterNanos);
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, "Retry after " + retryAfterSeconds + " second(s)");
+        problemDetail.setTitle(title);
+        return ServerResponse.status(status)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(BodyInserters.fromValue(problemDetail));
+    }
+}
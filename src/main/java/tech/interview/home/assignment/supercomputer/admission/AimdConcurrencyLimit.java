@@ -0,0 +1,59 @@
+package tech.interview.home.assignment.supercomputer.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adaptive concurrency limit using additive increase / multiplicative decrease driven by observed latency.
+ * The limit grows by one while requests complete within the target latency and the limit is actually used,
+ * and shrinks by the backoff ratio (at most once per target latency period) when they do not.
+ */
+final class AimdConcurrencyLimit {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong lastDecrease = new AtomicLong(Long.MIN_VALUE);
+
+    AimdConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long targetLatencyNanos, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = new AtomicInteger(initialLimit);
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = this.inFlight.get();
+            if (current >= this.limit.get()) {
+                return false;
+            }
+            if (this.inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release(long startNanos, long nowNanos) {
+        int inFlightBeforeRelease = this.inFlight.getAndDecrement();
+        if (nowNanos - startNanos > this.targetLatencyNanos) {
+            long last = this.lastDecrease.get();
+            if ((last == Long.MIN_VALUE || nowNanos - last > this.targetLatencyNanos) && this.lastDecrease.compareAndSet(last, nowNanos)) {
+                this.limit.updateAndGet(current -> Math.max(this.minLimit, (int) (current * this.backoffRatio)));
+            }
+        } else if (inFlightBeforeRelease * 2 >= this.limit.get()) {
+            this.limit.updateAndGet(current -> Math.min(this.maxLimit, current + 1));
+        }
+    }
+
+    int limit() {
+        return this.limit.get();
+    }
+
+    int inFlight() {
+        return this.inFlight.get();
+    }
+}
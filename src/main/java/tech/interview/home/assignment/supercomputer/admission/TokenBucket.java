@@ -0,0 +1,51 @@
+package tech.interview.home.assignment.supercomputer.admission;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket. The bucket state is an immutable snapshot swapped with compare-and-set.
+ */
+final class TokenBucket {
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    TokenBucket(double capacity, double tokensPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000.0;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @return 0 if a token was taken, otherwise nanoseconds until the next token becomes available
+     */
+    long tryConsume(long nowNanos) {
+        while (true) {
+            State current = this.state.get();
+            double tokens = refill(current, nowNanos);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / this.tokensPerNano);
+            }
+            if (this.state.compareAndSet(current, new State(tokens - 1, Math.max(nowNanos, current.timestamp())))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Whether the bucket has refilled completely, so that dropping it loses nothing over a fresh bucket.
+     */
+    boolean isFull(long nowNanos) {
+        return refill(this.state.get(), nowNanos) >= this.capacity;
+    }
+
+    private double refill(State current, long nowNanos) {
+        long elapsed = Math.max(0, nowNanos - current.timestamp());
+        return Math.min(this.capacity, current.tokens() + elapsed * this.tokensPerNano);
+    }
+
+    private record State(double tokens, long timestamp) {
+    }
+}
@@ -0,0 +1,20 @@
+package tech.interview.home.assignment.supercomputer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "supercomputer.admission")
+public record AdmissionProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("20") int customerBurst,
+        @DefaultValue("10") double customerRequestsPerSecond,
+        @DefaultValue("10000") int maxTrackedCustomers,
+        @DefaultValue("32") int initialConcurrencyLimit,
+        @DefaultValue("4") int minConcurrencyLimit,
+        @DefaultValue("512") int maxConcurrencyLimit,
+        @DefaultValue("50ms") Duration targetLatency,
+        @DefaultValue("0.9") double backoffRatio,
+        @DefaultValue("1s") Duration overloadRetryAfter) {
+}
@@ -0,0 +1,9 @@
+package tech.interview.home.assignment.supercomputer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "supercomputer.booking.bulk-cancel")
+public record BulkCancelProperties(
+        @DefaultValue("500") int batchSize) {
+}
@@ -0,0 +1,16 @@
+package tech.interview.home.assignment.supercomputer.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tech.interview.home.assignment.supercomputer.time.CoarseClock;
+
+import java.time.Clock;
+import java.time.ZoneId;
+
+@Configuration
+class ClockConfiguration {
+    @Bean
+    Clock clock(ClockProperties properties) {
+        return new CoarseClock(properties.resolution(), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,11 @@
+package tech.interview.home.assignment.supercomputer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "supercomputer.clock")
+public record ClockProperties(
+        @DefaultValue("10ms") Duration resolution) {
+}
@@ -0,0 +1,15 @@
+package tech.interview.home.assignment.supercomputer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "supercomputer.booking.compaction")
+public record CompactionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1m") Duration interval,
+        @DefaultValue("7d") Duration retention,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("5000") int maxBookingsPerSecond) {
+}
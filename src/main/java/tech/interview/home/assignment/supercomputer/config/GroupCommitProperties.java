@@ -0,0 +1,13 @@
+package tech.interview.home.assignment.supercomputer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "supercomputer.booking.group-commit")
+public record GroupCommitProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("5ms") Duration window,
+        @DefaultValue("64") int maxBatchSize) {
+}
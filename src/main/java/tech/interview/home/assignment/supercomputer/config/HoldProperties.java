@@ -0,0 +1,14 @@
+package tech.interview.home.assignment.supercomputer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "supercomputer.booking.hold")
+public record HoldProperties(
+        @DefaultValue("30s") Duration defaultTtl,
+        @DefaultValue("15m") Duration maxTtl,
+        @DefaultValue("100ms") Duration tick,
+        @DefaultValue("64") int wheelSize) {
+}
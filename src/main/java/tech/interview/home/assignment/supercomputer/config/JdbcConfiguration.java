@@ -0,0 +1,67 @@
+package tech.interview.home.assignment.supercomputer.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Infrastructure of the blocking JDBC booking service, only created when {@code supercomputer.service.type=jdbc}.
+ * The default URL points to the same in-memory H2 database as the R2DBC connection factory. The other writers go
+ * through the R2DBC store on that database, so startup fails with any other {@code supercomputer.storage.type}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "supercomputer.service", name = "type", havingValue = "jdbc")
+class JdbcConfiguration {
+    JdbcConfiguration(final Environment environment) {
+        String storageType = environment.getProperty("supercomputer.storage.type", "r2dbc");
+        if (!"r2dbc".equals(storageType)) {
+            throw new IllegalStateException("supercomputer.service.type=jdbc shares the database with the other writers "
+                    + "and needs supercomputer.storage.type=r2dbc, not " + storageType);
+        }
+    }
+
+    @Bean
+    DataSource dataSource(JdbcServiceProperties properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(properties.url());
+        dataSource.setUsername(properties.username());
+        dataSource.setPassword(properties.password());
+        dataSource.setMaximumPoolSize(properties.maxPoolSize());
+        return dataSource;
+    }
+
+    @Bean
+    JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    @Bean
+    TransactionTemplate bookingTransactionTemplate(DataSource dataSource) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        return transactionTemplate;
+    }
+
+    /**
+     * One virtual thread per blocking call when running on Java 21 (see the {@code java21} profile), otherwise a
+     * platform thread pool as large as the connection pool.
+     */
+    @Bean(destroyMethod = "shutdown")
+    ExecutorService jdbcExecutor(JdbcServiceProperties properties) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(properties.maxPoolSize());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package tech.interview.home.assignment.supercomputer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "supercomputer.jdbc")
+public record JdbcServiceProperties(
+        @DefaultValue("jdbc:h2:mem:supercomputer;DB_CLOSE_DELAY=-1") String url,
+        @DefaultValue("sa") String username,
+        @DefaultValue("") String password,
+        @DefaultValue("32") int maxPoolSize) {
+}
@@ -0,0 +1,14 @@
+package tech.interview.home.assignment.supercomputer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "supercomputer.booking.ledger")
+public record LedgerProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10ms") Duration window,
+        @DefaultValue("1000") int maxBatchSize,
+        @DefaultValue("10000") int snapshotInterval) {
+}
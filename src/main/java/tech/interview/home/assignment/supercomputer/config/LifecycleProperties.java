@@ -0,0 +1,13 @@
+package tech.interview.home.assignment.supercomputer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "supercomputer.booking.lifecycle")
+public record LifecycleProperties(
+        @DefaultValue("1s") Duration tick,
+        @DefaultValue("64") int wheelSize,
+        @DefaultValue("1000") int batchSize) {
+}
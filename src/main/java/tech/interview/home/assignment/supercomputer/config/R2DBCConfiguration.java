@@ -1,9 +1,20 @@
 package tech.interview.home.assignment.supercomputer.config;
 
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
 
 @Configuration
 @EnableR2dbcRepositories
 class R2DBCConfiguration {
-}
\ No newline at end of file
+    @Bean
+    TransactionalOperator serializableTransactionalOperator(ReactiveTransactionManager transactionManager) {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        return TransactionalOperator.create(transactionManager, definition);
+    }
+}
@@ -0,0 +1,10 @@
+package tech.interview.home.assignment.supercomputer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "supercomputer.booking.recurring")
+public record RecurringProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1000") int maxOccurrences) {
+}
@@ -1,25 +1,43 @@
 package tech.interview.home.assignment.supercomputer.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.server.HandlerFilterFunction;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.admission.AdmissionControl;
+import tech.interview.home.assignment.supercomputer.controllers.BookingBulkCancelHandler;
 import tech.interview.home.assignment.supercomputer.controllers.BookingHandler;
+import tech.interview.home.assignment.supercomputer.controllers.BookingHoldHandler;
+import tech.interview.home.assignment.supercomputer.controllers.BookingTransferHandler;
+import tech.interview.home.assignment.supercomputer.controllers.LedgerHandler;
+import tech.interview.home.assignment.supercomputer.controllers.RecurringBookingHandler;
+import tech.interview.home.assignment.supercomputer.controllers.UtilizationHandler;
+import tech.interview.home.assignment.supercomputer.controllers.WaitlistHandler;
 import tech.interview.home.assignment.supercomputer.exceptions.BookingAlreadyCanceledException;
+import tech.interview.home.assignment.supercomputer.exceptions.DomainException;
+import tech.interview.home.assignment.supercomputer.exceptions.QuotaExceededException;
+import tech.interview.home.assignment.supercomputer.exceptions.RateLimitedException;
 import tech.interview.home.assignment.supercomputer.exceptions.ResourceNotFoundException;
 import tech.interview.home.assignment.supercomputer.exceptions.TimeIntervalAlreadyBookedException;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
 import static org.springframework.web.reactive.function.server.RequestPredicates.accept;
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
 import static org.springframework.web.reactive.function.server.RouterFunctions.route;
 
 @Configuration
 public class RouterConfig {
     private static final String ENDPOINT_BASE = "/api/supercomputer/v1/bookings/";
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
     public static final String CUSTOMER_ID_PATH_VARIABLE = "customerId";
     private static final String VIEW_BOOKINGS_FOR_CUSTOMER =  ENDPOINT_BASE + "customer/{" + CUSTOMER_ID_PATH_VARIABLE + "}";
     public static final String BOOKING_ID_PATH_VARIABLE = "bookingId";
@@ -28,52 +46,158 @@ public class RouterConfig {
     private static final String CHECK_BOOKING =  ENDPOINT_BASE + "check";
     private static final String ADD_BOOKING =  ENDPOINT_BASE + "add";
     private static final String CANCEL_BOOKING =  ENDPOINT_BASE + "cancel/" + "{" + BOOKING_ID_PATH_VARIABLE + "}";
+    private static final String BULK_CANCEL_FOR_CUSTOMER =  ENDPOINT_BASE + "bulk-cancel/customer/{" + CUSTOMER_ID_PATH_VARIABLE + "}";
+    private static final String BULK_CANCEL_IN_TIME_INTERVAL =  ENDPOINT_BASE + "bulk-cancel/time-interval";
+    private static final String IMPORT_BOOKINGS =  ENDPOINT_BASE + "import";
+    private static final String EXPORT_BOOKINGS =  ENDPOINT_BASE + "export";
+    private static final String VIEW_UTILIZATION =  ENDPOINT_BASE + "utilization";
+    public static final String HOLD_TOKEN_PATH_VARIABLE = "token";
+    private static final String HOLD_BOOKING =  ENDPOINT_BASE + "hold";
+    private static final String CONFIRM_HOLD =  ENDPOINT_BASE + "confirm/" + "{" + HOLD_TOKEN_PATH_VARIABLE + "}";
+    public static final String WAITLIST_ENTRY_ID_PATH_VARIABLE = "entryId";
+    private static final String REGISTER_WAITLIST =  ENDPOINT_BASE + "waitlist";
+    public static final String VIEW_WAITLIST_ENTRY_BASE =  ENDPOINT_BASE + "waitlist/";
+    private static final String WAITLIST_ENTRY =  VIEW_WAITLIST_ENTRY_BASE + "{" + WAITLIST_ENTRY_ID_PATH_VARIABLE + "}";
+    private static final String VIEW_LEDGER_HISTORY =  ENDPOINT_BASE + "ledger/id/{" + BOOKING_ID_PATH_VARIABLE + "}";
+    private static final String VIEW_LEDGER_FOR_CUSTOMER =  ENDPOINT_BASE + "ledger/customer/{" + CUSTOMER_ID_PATH_VARIABLE + "}";
+    public static final String RECURRING_ID_PATH_VARIABLE = "ruleId";
+    private static final String ADD_RECURRING =  ENDPOINT_BASE + "recurring";
+    public static final String VIEW_RECURRING_BASE =  ENDPOINT_BASE + "recurring/";
+    private static final String RECURRING_RULE =  VIEW_RECURRING_BASE + "{" + RECURRING_ID_PATH_VARIABLE + "}";
 
     @Bean
-    public RouterFunction<ServerResponse> routes(BookingHandler handler) {
+    public RouterFunction<ServerResponse> routes(BookingHandler handler, AdmissionControl admissionControl) {
         return route()
                 .GET(VIEW_BOOKINGS_FOR_CUSTOMER, accept(APPLICATION_JSON), handler::getBookings)
                 .GET(VIEW_BOOKING_BY_ID, accept(APPLICATION_JSON), handler::getBookingById)
                 .POST(CHECK_BOOKING, accept(APPLICATION_JSON), handler::checkBooking)
-                .POST(ADD_BOOKING, accept(APPLICATION_JSON), handler::addBooking)
-                .PUT(CANCEL_BOOKING, accept(APPLICATION_JSON), handler::cancelBooking)
-                .filter(resourceNotFoundExceptionHandler())
-                .filter(resourceIllegalArgumentExceptionHandler())
-                .filter(timeIntervalAlreadyBookedExceptionHandler())
-                .filter(bookingAlreadyCanceledExceptionHandler())
+                .add(route()
+                        .POST(ADD_BOOKING, accept(APPLICATION_JSON), handler::addBooking)
+                        .PUT(CANCEL_BOOKING, accept(APPLICATION_JSON), handler::cancelBooking)
+                        .filter(admissionControl.concurrencyLimit())
+                        .build())
+                .filter(admissionControl.rateLimit())
+                .filter(rejectionHandler())
                 .build();
     }
 
-    private HandlerFilterFunction<ServerResponse, ServerResponse> resourceNotFoundExceptionHandler() {
-        return (request, next) -> next.handle(request)
-                .onErrorResume(ResourceNotFoundException.class, e -> ServerResponse.notFound().build());
+    @Bean
+    public RouterFunction<ServerResponse> bulkCancelRoutes(BookingBulkCancelHandler handler, AdmissionControl admissionControl) {
+        return route()
+                .PUT(BULK_CANCEL_FOR_CUSTOMER, accept(APPLICATION_JSON), handler::cancelForCustomer)
+                .PUT(BULK_CANCEL_IN_TIME_INTERVAL, accept(APPLICATION_JSON), handler::cancelInTimeInterval)
+                .filter(admissionControl.concurrencyLimit())
+                .filter(admissionControl.rateLimit())
+                .filter(rejectionHandler())
+                .build();
     }
 
-    private HandlerFilterFunction<ServerResponse, ServerResponse> resourceIllegalArgumentExceptionHandler() {
-        return (request, next) -> next.handle(request)
-                .onErrorResume(IllegalArgumentException.class, e -> {
-                    ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
-                    problemDetail.setTitle("Illegal arguments");
-                    return ServerResponse.badRequest().body(BodyInserters.fromValue(problemDetail));
-                });
+    @Bean
+    public RouterFunction<ServerResponse> transferRoutes(BookingTransferHandler handler, AdmissionControl admissionControl) {
+        return route()
+                .add(route()
+                        .POST(IMPORT_BOOKINGS, contentType(APPLICATION_NDJSON, TEXT_CSV), handler::importBookings)
+                        .filter(admissionControl.concurrencyLimit())
+                        .build())
+                .GET(EXPORT_BOOKINGS, handler::exportBookings)
+                .filter(admissionControl.rateLimit())
+                .filter(rejectionHandler())
+                .build();
     }
 
-    private HandlerFilterFunction<ServerResponse, ServerResponse> timeIntervalAlreadyBookedExceptionHandler() {
-        return (request, next) -> next.handle(request)
-                .onErrorResume(TimeIntervalAlreadyBookedException.class, e -> {
-                    ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
-                    problemDetail.setTitle("Time interval already booked");
-                    return ServerResponse.badRequest().body(BodyInserters.fromValue(problemDetail));
-                });
+    @Bean
+    public RouterFunction<ServerResponse> utilizationRoutes(UtilizationHandler handler, AdmissionControl admissionControl) {
+        return route()
+                .GET(VIEW_UTILIZATION, accept(APPLICATION_JSON), handler::getUtilization)
+                .filter(admissionControl.rateLimit())
+                .filter(rejectionHandler())
+                .build();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> holdRoutes(BookingHoldHandler handler, AdmissionControl admissionControl) {
+        return route()
+                .POST(HOLD_BOOKING, accept(APPLICATION_JSON), handler::hold)
+                .POST(CONFIRM_HOLD, accept(APPLICATION_JSON), handler::confirm)
+                .filter(admissionControl.concurrencyLimit())
+                .filter(admissionControl.rateLimit())
+                .filter(rejectionHandler())
+                .build();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> waitlistRoutes(WaitlistHandler handler, AdmissionControl admissionControl) {
+        return route()
+                .POST(REGISTER_WAITLIST, accept(APPLICATION_JSON), handler::register)
+                .GET(WAITLIST_ENTRY, accept(APPLICATION_JSON), handler::getEntry)
+                .DELETE(WAITLIST_ENTRY, handler::withdraw)
+                .filter(admissionControl.rateLimit())
+                .filter(rejectionHandler())
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "supercomputer.booking.ledger", name = "enabled", havingValue = "true")
+    public RouterFunction<ServerResponse> ledgerRoutes(LedgerHandler handler, AdmissionControl admissionControl) {
+        return route()
+                .GET(VIEW_LEDGER_HISTORY, accept(APPLICATION_JSON), handler::getHistory)
+                .GET(VIEW_LEDGER_FOR_CUSTOMER, accept(APPLICATION_JSON), handler::getBookingsAsOf)
+                .filter(admissionControl.rateLimit())
+                .filter(rejectionHandler())
+                .build();
     }
 
-    private HandlerFilterFunction<ServerResponse, ServerResponse> bookingAlreadyCanceledExceptionHandler() {
+    @Bean
+    @ConditionalOnProperty(prefix = "supercomputer.booking.recurring", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public RouterFunction<ServerResponse> recurringRoutes(RecurringBookingHandler handler, AdmissionControl admissionControl) {
+        return route()
+                .add(route()
+                        .POST(ADD_RECURRING, accept(APPLICATION_JSON), handler::add)
+                        .DELETE(RECURRING_RULE, handler::cancel)
+                        .filter(admissionControl.concurrencyLimit())
+                        .build())
+                .GET(RECURRING_RULE, accept(APPLICATION_JSON), handler::getRule)
+                .filter(admissionControl.rateLimit())
+                .filter(rejectionHandler())
+                .build();
+    }
+
+    /**
+     * Maps every rejection with one {@code onErrorResume}: unknown resources answer 404, rate limited bodies 429 with
+     * {@code Retry-After}, all other rejections 400 with a problem detail.
+     */
+    private static HandlerFilterFunction<ServerResponse, ServerResponse> rejectionHandler() {
         return (request, next) -> next.handle(request)
-                .onErrorResume(BookingAlreadyCanceledException.class, e -> {
-                    ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
-                    problemDetail.setTitle("Booking already canceled");
-                    return ServerResponse.badRequest().body(BodyInserters.fromValue(problemDetail));
-                });
+                .onErrorResume(e -> e instanceof DomainException || e instanceof IllegalArgumentException, RouterConfig::reject);
     }
-}
 
+    private static Mono<ServerResponse> reject(Throwable e) {
+        if (e instanceof ResourceNotFoundException) {
+            return ServerResponse.notFound().build();
+        }
+        if (e instanceof RateLimitedException rateLimited) {
+            ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+            problemDetail.setTitle("Too many requests");
+            return ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(rateLimited.getRetryAfterSeconds()))
+                    .body(BodyInserters.fromValue(problemDetail));
+        }
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+        if (e instanceof TimeIntervalAlreadyBookedException conflict) {
+            problemDetail.setTitle("Time interval already booked");
+            if (!conflict.getConflicting().isEmpty()) {
+                problemDetail.setProperty("conflicting", conflict.getConflicting());
+                problemDetail.setProperty("earlierAlternative", conflict.getEarlierAlternative());
+                problemDetail.setProperty("laterAlternative", conflict.getLaterAlternative());
+            }
+        } else if (e instanceof QuotaExceededException) {
+            problemDetail.setTitle("Booked time quota exceeded");
+        } else if (e instanceof BookingAlreadyCanceledException) {
+            problemDetail.setTitle("Booking already canceled");
+        } else {
+            problemDetail.setTitle("Illegal arguments");
+        }
+        return ServerResponse.badRequest().body(BodyInserters.fromValue(problemDetail));
+    }
+}
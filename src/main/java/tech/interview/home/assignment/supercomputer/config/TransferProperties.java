@@ -0,0 +1,10 @@
+package tech.interview.home.assignment.supercomputer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "supercomputer.booking.transfer")
+public record TransferProperties(
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("256") int exportChunkSize) {
+}
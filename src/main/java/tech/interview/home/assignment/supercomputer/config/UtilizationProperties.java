@@ -0,0 +1,13 @@
+package tech.interview.home.assignment.supercomputer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.LocalDate;
+
+@ConfigurationProperties(prefix = "supercomputer.booking.utilization")
+public record UtilizationProperties(
+        @DefaultValue("2000-01-01") LocalDate firstDay,
+        @DefaultValue("36525") int days,
+        @DefaultValue("3660") int maxPeriods) {
+}
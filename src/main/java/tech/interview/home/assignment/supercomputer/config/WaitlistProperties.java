@@ -0,0 +1,12 @@
+package tech.interview.home.assignment.supercomputer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "supercomputer.booking.waitlist")
+public record WaitlistProperties(
+        @DefaultValue("5") int maxPerCustomer,
+        @DefaultValue("1m") Duration sweepInterval) {
+}
@@ -0,0 +1,10 @@
+package tech.interview.home.assignment.supercomputer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "supercomputer.booking.warmup")
+public record WarmupProperties(
+        @DefaultValue("10000") int chunkSize,
+        @DefaultValue("4") int parallelism) {
+}
@@ -0,0 +1,14 @@
+package tech.interview.home.assignment.supercomputer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "supercomputer.booking.write-retry")
+public record WriteRetryProperties(
+        @DefaultValue("10") int maxAttempts,
+        @DefaultValue("5ms") Duration minBackoff,
+        @DefaultValue("500ms") Duration maxBackoff,
+        @DefaultValue("0.5") double jitter) {
+}
@@ -0,0 +1,36 @@
+package tech.interview.home.assignment.supercomputer.controllers;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.config.RouterConfig;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.services.BookingBulkCancelService;
+
+@Component
+public class BookingBulkCancelHandler {
+    private final BookingBulkCancelService service;
+
+    public BookingBulkCancelHandler(final BookingBulkCancelService service) {
+        this.service = service;
+    }
+
+    public Mono<ServerResponse> cancelForCustomer(ServerRequest request) {
+        return this.service.cancelForCustomer(request.pathVariable(RouterConfig.CUSTOMER_ID_PATH_VARIABLE))
+                .flatMap(x -> ServerResponse
+                        .ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(BodyInserters.fromValue(x)));
+    }
+
+    public Mono<ServerResponse> cancelInTimeInterval(ServerRequest request) {
+        return this.service.cancelInTimeInterval(request.bodyToMono(TimeInterval.class))
+                .flatMap(x -> ServerResponse
+                        .ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(BodyInserters.fromValue(x)));
+    }
+}
@@ -1,42 +1,86 @@
 package tech.interview.home.assignment.supercomputer.controllers;
 
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpOutputMessage;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserter;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.admission.AdmissionControl;
 import tech.interview.home.assignment.supercomputer.config.RouterConfig;
 import tech.interview.home.assignment.supercomputer.model.dto.CheckBookingRequestDto;
 import tech.interview.home.assignment.supercomputer.model.dto.NewBookingRequestDto;
 import tech.interview.home.assignment.supercomputer.services.BookingService;
+import tech.interview.home.assignment.supercomputer.services.BookingVersions;
 
 import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Booking endpoints. Reads carry an {@code ETag} taken from {@link BookingVersions} before the read, and a matching
+ * {@code If-None-Match} is answered with {@code 304} from the version counters alone. Bookings are written from
+ * the JSON bytes kept by {@link BookingJsonCache}, customer lists are assembled from them into one buffer.
+ */
 @Component
 public class BookingHandler {
     private final BookingService service;
+    private final BookingVersions versions;
+    private final BookingJsonCache jsonCache;
+    private final AdmissionControl admissionControl;
 
-    public BookingHandler(final BookingService service) {
+    public BookingHandler(final BookingService service,
+                          final BookingVersions versions,
+                          final BookingJsonCache jsonCache,
+                          final AdmissionControl admissionControl) {
         this.service = service;
+        this.versions = versions;
+        this.jsonCache = jsonCache;
+        this.admissionControl = admissionControl;
     }
 
     public Mono<ServerResponse> getBookings(ServerRequest request) {
-        return this.service.findForCustomer(Mono.just(request.pathVariable(RouterConfig.CUSTOMER_ID_PATH_VARIABLE)))
+        String customerId = request.pathVariable(RouterConfig.CUSTOMER_ID_PATH_VARIABLE);
+        String eTag = this.versions.customerETag(customerId);
+        if (isNotModified(request, eTag)) {
+            return notModified(eTag);
+        }
+
+        return this.service.findForCustomer(Mono.just(customerId))
+                .map(this.jsonCache::json)
                 .collect(Collectors.toList())
                 .flatMap(x -> ServerResponse
                         .ok()
+                        .eTag(eTag)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .body(BodyInserters.fromValue(x)));
+                        .body(jsonArray(x)));
     }
 
     public Mono<ServerResponse> getBookingById(ServerRequest request) {
-        return this.service.findById(Long.parseLong(request.pathVariable(RouterConfig.BOOKING_ID_PATH_VARIABLE)))
+        long bookingId = Long.parseLong(request.pathVariable(RouterConfig.BOOKING_ID_PATH_VARIABLE));
+        String eTag = this.versions.bookingETag(bookingId);
+        if (isNotModified(request, eTag)) {
+            return notModified(eTag);
+        }
+        if (matchesAny(request)) {
+            return this.service.findById(bookingId)
+                    .then(notModified(eTag));
+        }
+
+        return this.service.findById(bookingId)
+                .map(this.jsonCache::json)
                 .flatMap(x -> ServerResponse
                         .ok()
+                        .eTag(eTag)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .body(BodyInserters.fromValue(x))
+                        .body(json(x))
                 );
     }
 
@@ -49,7 +93,7 @@ public class BookingHandler {
     }
 
     public Mono<ServerResponse> addBooking(ServerRequest request) {
-        return this.service.addBooking(request.bodyToMono(NewBookingRequestDto.class))
+        return this.service.addBooking(this.admissionControl.admit(request.bodyToMono(NewBookingRequestDto.class), NewBookingRequestDto::customerId))
                 .flatMap(bookingId -> ServerResponse
                                 .created(URI.create(RouterConfig.VIEW_BOOKING_BY_ID_BASE + bookingId.toString()))
                                 .build()
@@ -62,4 +106,62 @@ public class BookingHandler {
                         .noContent()
                         .build());
     }
+
+    /**
+     * Writes the bytes without copying them.
+     */
+    private static BodyInserter<byte[], ReactiveHttpOutputMessage> json(byte[] json) {
+        return (message, context) -> message.writeWith(Mono.fromSupplier(() -> message.bufferFactory().wrap(json)));
+    }
+
+    /**
+     * Writes the encoded elements as one JSON array into a single buffer from the response's (pooled) buffer factory.
+     */
+    private static BodyInserter<List<byte[]>, ReactiveHttpOutputMessage> jsonArray(List<byte[]> elements) {
+        return (message, context) -> message.writeWith(Mono.fromSupplier(() -> {
+            int length = 2 + Math.max(elements.size() - 1, 0);
+            for (byte[] element : elements) {
+                length += element.length;
+            }
+
+            DataBuffer buffer = message.bufferFactory().allocateBuffer(length);
+            buffer.write((byte) '[');
+            for (int i = 0; i < elements.size(); i++) {
+                if (i > 0) {
+                    buffer.write((byte) ',');
+                }
+                buffer.write(elements.get(i));
+            }
+            return buffer.write((byte) ']');
+        }));
+    }
+
+    /**
+     * Whether {@code If-None-Match} lists the tag. The customer list always has a current representation, so
+     * {@code *} matches it too.
+     */
+    private static boolean isNotModified(ServerRequest request, String eTag) {
+        return ifNoneMatch(request).anyMatch(tag -> tag.equals(eTag) || (tag.equals("*") && eTag.startsWith("\"c-")));
+    }
+
+    /**
+     * Whether {@code If-None-Match} is {@code *}, which only matches a booking that exists.
+     */
+    private static boolean matchesAny(ServerRequest request) {
+        return ifNoneMatch(request).anyMatch(tag -> tag.equals("*"));
+    }
+
+    private static Stream<String> ifNoneMatch(ServerRequest request) {
+        return request.headers().header(HttpHeaders.IF_NONE_MATCH).stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag);
+    }
+
+    private static Mono<ServerResponse> notModified(String eTag) {
+        return ServerResponse
+                .status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .build();
+    }
 }
@@ -0,0 +1,41 @@
+package tech.interview.home.assignment.supercomputer.controllers;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.admission.AdmissionControl;
+import tech.interview.home.assignment.supercomputer.config.RouterConfig;
+import tech.interview.home.assignment.supercomputer.model.dto.HoldRequestDto;
+import tech.interview.home.assignment.supercomputer.services.BookingHoldService;
+
+import java.net.URI;
+
+@Component
+public class BookingHoldHandler {
+    private final BookingHoldService service;
+    private final AdmissionControl admissionControl;
+
+    public BookingHoldHandler(final BookingHoldService service,
+                              final AdmissionControl admissionControl) {
+        this.service = service;
+        this.admissionControl = admissionControl;
+    }
+
+    public Mono<ServerResponse> hold(ServerRequest request) {
+        return this.service.hold(this.admissionControl.admit(request.bodyToMono(HoldRequestDto.class), HoldRequestDto::customerId))
+                .flatMap(x -> ServerResponse
+                        .ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(BodyInserters.fromValue(x)));
+    }
+
+    public Mono<ServerResponse> confirm(ServerRequest request) {
+        return this.service.confirm(request.pathVariable(RouterConfig.HOLD_TOKEN_PATH_VARIABLE))
+                .flatMap(bookingId -> ServerResponse
+                        .created(URI.create(RouterConfig.VIEW_BOOKING_BY_ID_BASE + bookingId.toString()))
+                        .build());
+    }
+}
@@ -0,0 +1,81 @@
+package tech.interview.home.assignment.supercomputer.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import tech.interview.home.assignment.supercomputer.config.ResponseCacheProperties;
+import tech.interview.home.assignment.supercomputer.model.dto.BookingResponseDto;
+
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JSON encoding of single bookings, cached per booking id. Apart from its status a booking never changes after it
+ * has been created, so an entry is valid as long as its status matches the booking that was read; a cancellation
+ * invalidates the entry by changing the status. Once {@code max-entries} is reached, a tenth of the entries is
+ * dropped in no particular order.
+ */
+@Component
+public class BookingJsonCache {
+    private final ObjectMapper objectMapper;
+    private final ResponseCacheProperties properties;
+    private final Counter hits;
+    private final Counter misses;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public BookingJsonCache(final ObjectMapper objectMapper,
+                            final ResponseCacheProperties properties,
+                            final MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.hits = meterRegistry.counter("booking.response-cache.hits");
+        this.misses = meterRegistry.counter("booking.response-cache.misses");
+    }
+
+    /**
+     * JSON encoding of the booking. The returned array must not be modified.
+     */
+    public byte[] json(BookingResponseDto booking) {
+        if (!this.properties.enabled()) {
+            return encode(booking);
+        }
+
+        Entry entry = this.entries.get(booking.id());
+        if (entry != null && entry.status().equals(booking.status())) {
+            this.hits.increment();
+            return entry.json();
+        }
+
+        this.misses.increment();
+        byte[] json = encode(booking);
+        if (this.entries.size() >= this.properties.maxEntries()) {
+            evict();
+        }
+        this.entries.put(booking.id(), new Entry(booking.status(), json));
+        return json;
+    }
+
+    private byte[] encode(BookingResponseDto booking) {
+        try {
+            return this.objectMapper.writeValueAsBytes(booking);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void evict() {
+        int toEvict = Math.max(this.properties.maxEntries() / 10, 1);
+        Iterator<Long> ids = this.entries.keySet().iterator();
+        while (toEvict-- > 0 && ids.hasNext()) {
+            ids.next();
+            ids.remove();
+        }
+    }
+
+    private record Entry(String status, byte[] json) {
+    }
+}
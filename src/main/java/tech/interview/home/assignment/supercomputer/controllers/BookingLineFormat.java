@@ -0,0 +1,113 @@
+package tech.interview.home.assignment.supercomputer.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import tech.interview.home.assignment.supercomputer.exceptions.InvalidRequestException;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.model.dto.BookingResponseDto;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Line based formats of bulk import and export. Every line holds one booking in the shape of {@link BookingResponseDto}.
+ */
+enum BookingLineFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON) {
+        @Override
+        BookingResponseDto parse(String line, ObjectMapper objectMapper) {
+            try {
+                return objectMapper.readValue(line, BookingResponseDto.class);
+            } catch (JsonProcessingException e) {
+                throw new InvalidRequestException("Illegal booking line: " + e.getOriginalMessage());
+            }
+        }
+
+        @Override
+        String format(BookingResponseDto booking, ObjectMapper objectMapper) {
+            try {
+                return objectMapper.writeValueAsString(booking);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    },
+
+    CSV(MediaType.parseMediaType("text/csv")) {
+        private static final String HEADER = "id,customerId,status,from,to";
+
+        @Override
+        boolean isHeader(String line) {
+            return HEADER.equals(line);
+        }
+
+        @Override
+        String header() {
+            return HEADER;
+        }
+
+        @Override
+        BookingResponseDto parse(String line, ObjectMapper objectMapper) {
+            String[] columns = line.split(",", -1);
+            if (columns.length != 5) {
+                throw new InvalidRequestException("Illegal booking line: Expected 5 columns, got " + columns.length);
+            }
+
+            return new BookingResponseDto(
+                    columns[0].isEmpty() ? 0 : Long.parseLong(columns[0]),
+                    columns[1],
+                    columns[2].isEmpty() ? null : columns[2],
+                    new TimeInterval(dateTime(columns[3]), dateTime(columns[4])));
+        }
+
+        @Override
+        String format(BookingResponseDto booking, ObjectMapper objectMapper) {
+            return String.join(",",
+                    Long.toString(booking.id()),
+                    booking.customerId(),
+                    booking.status(),
+                    DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(booking.timeInterval().from()),
+                    DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(booking.timeInterval().to()));
+        }
+
+        private static LocalDateTime dateTime(String column) {
+            return column.isEmpty() ? null : LocalDateTime.parse(column);
+        }
+    };
+
+    private final MediaType mediaType;
+
+    BookingLineFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    MediaType mediaType() {
+        return this.mediaType;
+    }
+
+    boolean isHeader(String line) {
+        return false;
+    }
+
+    /**
+     * Header line of the export, or {@code null} if the format has none.
+     */
+    String header() {
+        return null;
+    }
+
+    abstract BookingResponseDto parse(String line, ObjectMapper objectMapper);
+
+    abstract String format(BookingResponseDto booking, ObjectMapper objectMapper);
+
+    static BookingLineFormat forContentType(MediaType contentType) {
+        return CSV.mediaType.isCompatibleWith(contentType) ? CSV : NDJSON;
+    }
+
+    static BookingLineFormat forAccept(List<MediaType> accept) {
+        return accept.stream().anyMatch(CSV.mediaType::equalsTypeAndSubtype) ? CSV : NDJSON;
+    }
+}
@@ -0,0 +1,88 @@
+package tech.interview.home.assignment.supercomputer.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.config.TransferProperties;
+import tech.interview.home.assignment.supercomputer.services.BookingTransferService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming bulk import and export of bookings as NDJSON or CSV. Request bodies are split into lines as they
+ * arrive and responses are written in chunks of lines, so neither side is ever held in memory as a whole.
+ */
+@Component
+public class BookingTransferHandler {
+    private static final StringDecoder LINE_DECODER = StringDecoder.textPlainOnly(List.of("\n"), true);
+    private static final ResolvableType STRING_TYPE = ResolvableType.forClass(String.class);
+
+    private final BookingTransferService service;
+    private final ObjectMapper objectMapper;
+    private final TransferProperties properties;
+    private final DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+    public BookingTransferHandler(final BookingTransferService service,
+                                  final ObjectMapper objectMapper,
+                                  final TransferProperties properties) {
+        this.service = service;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    public Mono<ServerResponse> importBookings(ServerRequest request) {
+        BookingLineFormat format = BookingLineFormat.forContentType(
+                request.headers().contentType().orElse(MediaType.APPLICATION_NDJSON));
+        Flux<String> lines = LINE_DECODER
+                .decode(request.body(BodyExtractors.toDataBuffers()), STRING_TYPE, null, Map.of())
+                .map(BookingTransferHandler::stripCarriageReturn)
+                .filter(line -> !format.isHeader(line));
+
+        return this.service.importBookings(lines, line -> format.parse(line, this.objectMapper))
+                .flatMap(result -> ServerResponse
+                        .ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(BodyInserters.fromValue(result)));
+    }
+
+    public Mono<ServerResponse> exportBookings(ServerRequest request) {
+        BookingLineFormat format = BookingLineFormat.forAccept(request.headers().accept());
+        Flux<String> lines = this.service.exportBookings()
+                .map(booking -> format.format(booking, this.objectMapper));
+        if (format.header() != null) {
+            lines = Flux.just(format.header()).concatWith(lines);
+        }
+
+        Flux<DataBuffer> chunks = lines
+                .buffer(this.properties.exportChunkSize())
+                .map(this::toDataBuffer);
+
+        return ServerResponse
+                .ok()
+                .contentType(format.mediaType())
+                .body(BodyInserters.fromDataBuffers(chunks));
+    }
+
+    private DataBuffer toDataBuffer(List<String> lines) {
+        StringBuilder chunk = new StringBuilder(lines.size() * 96);
+        lines.forEach(line -> chunk.append(line).append('\n'));
+        return this.bufferFactory.wrap(chunk.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String stripCarriageReturn(String line) {
+        return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+    }
+}
@@ -0,0 +1,55 @@
+package tech.interview.home.assignment.supercomputer.controllers;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.config.RouterConfig;
+import tech.interview.home.assignment.supercomputer.exceptions.InvalidRequestException;
+import tech.interview.home.assignment.supercomputer.services.BookingLedger;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(prefix = "supercomputer.booking.ledger", name = "enabled", havingValue = "true")
+public class LedgerHandler {
+    private final BookingLedger ledger;
+
+    public LedgerHandler(final BookingLedger ledger) {
+        this.ledger = ledger;
+    }
+
+    public Mono<ServerResponse> getHistory(ServerRequest request) {
+        return this.ledger.history(Long.parseLong(request.pathVariable(RouterConfig.BOOKING_ID_PATH_VARIABLE)))
+                .collect(Collectors.toList())
+                .flatMap(x -> ServerResponse
+                        .ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(BodyInserters.fromValue(x)));
+    }
+
+    public Mono<ServerResponse> getBookingsAsOf(ServerRequest request) {
+        return Mono.fromCallable(() -> at(request))
+                .flatMap(at -> this.ledger.customerAsOf(request.pathVariable(RouterConfig.CUSTOMER_ID_PATH_VARIABLE), at)
+                        .collect(Collectors.toList()))
+                .flatMap(x -> ServerResponse
+                        .ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(BodyInserters.fromValue(x)));
+    }
+
+    private static LocalDateTime at(ServerRequest request) {
+        String value = request.queryParam("at")
+                .orElseThrow(() -> new InvalidRequestException("Illegal arguments: Missing value for at!"));
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidRequestException("Illegal arguments: at is not a date and time (yyyy-MM-ddTHH:mm:ss)!");
+        }
+    }
+}
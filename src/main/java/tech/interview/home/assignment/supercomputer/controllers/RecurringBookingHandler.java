@@ -0,0 +1,49 @@
+package tech.interview.home.assignment.supercomputer.controllers;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.admission.AdmissionControl;
+import tech.interview.home.assignment.supercomputer.config.RouterConfig;
+import tech.interview.home.assignment.supercomputer.model.dto.RecurringRequestDto;
+import tech.interview.home.assignment.supercomputer.services.RecurringBookings;
+
+import java.net.URI;
+
+@Component
+@ConditionalOnProperty(prefix = "supercomputer.booking.recurring", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RecurringBookingHandler {
+    private final RecurringBookings recurring;
+    private final AdmissionControl admissionControl;
+
+    public RecurringBookingHandler(final RecurringBookings recurring,
+                                   final AdmissionControl admissionControl) {
+        this.recurring = recurring;
+        this.admissionControl = admissionControl;
+    }
+
+    public Mono<ServerResponse> add(ServerRequest request) {
+        return this.recurring.add(this.admissionControl.admit(request.bodyToMono(RecurringRequestDto.class), RecurringRequestDto::customerId))
+                .flatMap(rule -> ServerResponse
+                        .created(URI.create(RouterConfig.VIEW_RECURRING_BASE + rule.id()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(BodyInserters.fromValue(rule)));
+    }
+
+    public Mono<ServerResponse> getRule(ServerRequest request) {
+        return this.recurring.findById(Long.parseLong(request.pathVariable(RouterConfig.RECURRING_ID_PATH_VARIABLE)))
+                .flatMap(rule -> ServerResponse
+                        .ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(BodyInserters.fromValue(rule)));
+    }
+
+    public Mono<ServerResponse> cancel(ServerRequest request) {
+        return this.recurring.cancel(Long.parseLong(request.pathVariable(RouterConfig.RECURRING_ID_PATH_VARIABLE)))
+                .then(ServerResponse.noContent().build());
+    }
+}
@@ -0,0 +1,55 @@
+package tech.interview.home.assignment.supercomputer.controllers;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.exceptions.InvalidRequestException;
+import tech.interview.home.assignment.supercomputer.services.BookingUtilization;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+@Component
+public class UtilizationHandler {
+    private final BookingUtilization utilization;
+
+    public UtilizationHandler(final BookingUtilization utilization) {
+        this.utilization = utilization;
+    }
+
+    public Mono<ServerResponse> getUtilization(ServerRequest request) {
+        return Mono.fromCallable(() -> this.utilization.report(
+                        date(request, "from"),
+                        date(request, "to"),
+                        granularity(request)))
+                .flatMap(periods -> periods.collect(Collectors.toList()))
+                .flatMap(x -> ServerResponse
+                        .ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(BodyInserters.fromValue(x)));
+    }
+
+    private static LocalDate date(ServerRequest request, String name) {
+        String value = request.queryParam(name)
+                .orElseThrow(() -> new InvalidRequestException("Illegal arguments: Missing value for " + name + "!"));
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidRequestException("Illegal arguments: " + name + " is not a date (yyyy-MM-dd)!");
+        }
+    }
+
+    private static BookingUtilization.Granularity granularity(ServerRequest request) {
+        String value = request.queryParam("granularity").orElse(BookingUtilization.Granularity.DAY.name());
+        try {
+            return BookingUtilization.Granularity.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Illegal arguments: Granularity must be day or week!");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package tech.interview.home.assignment.supercomputer.controllers;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.admission.AdmissionControl;
+import tech.interview.home.assignment.supercomputer.config.RouterConfig;
+import tech.interview.home.assignment.supercomputer.model.dto.WaitlistRequestDto;
+import tech.interview.home.assignment.supercomputer.services.BookingWaitlist;
+
+import java.net.URI;
+
+@Component
+public class WaitlistHandler {
+    private final BookingWaitlist waitlist;
+    private final AdmissionControl admissionControl;
+
+    public WaitlistHandler(final BookingWaitlist waitlist,
+                           final AdmissionControl admissionControl) {
+        this.waitlist = waitlist;
+        this.admissionControl = admissionControl;
+    }
+
+    public Mono<ServerResponse> register(ServerRequest request) {
+        return this.waitlist.register(this.admissionControl.admit(request.bodyToMono(WaitlistRequestDto.class), WaitlistRequestDto::customerId))
+                .flatMap(entry -> ServerResponse
+                        .created(URI.create(RouterConfig.VIEW_WAITLIST_ENTRY_BASE + entry.id()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(BodyInserters.fromValue(entry)));
+    }
+
+    public Mono<ServerResponse> getEntry(ServerRequest request) {
+        return this.waitlist.findById(Long.parseLong(request.pathVariable(RouterConfig.WAITLIST_ENTRY_ID_PATH_VARIABLE)))
+                .flatMap(entry -> ServerResponse
+                        .ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(BodyInserters.fromValue(entry)));
+    }
+
+    public Mono<ServerResponse> withdraw(ServerRequest request) {
+        return this.waitlist.withdraw(Long.parseLong(request.pathVariable(RouterConfig.WAITLIST_ENTRY_ID_PATH_VARIABLE)))
+                .then(ServerResponse.noContent().build());
+    }
+}
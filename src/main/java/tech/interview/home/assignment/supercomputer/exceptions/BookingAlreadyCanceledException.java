@@ -1,6 +1,6 @@
 package tech.interview.home.assignment.supercomputer.exceptions;
 
-public class BookingAlreadyCanceledException extends RuntimeException {
+public class BookingAlreadyCanceledException extends DomainException {
     public BookingAlreadyCanceledException(String message) {
         super(message);
     }
@@ -0,0 +1,11 @@
+package tech.interview.home.assignment.supercomputer.exceptions;
+
+/**
+ * Base of the errors a request is rejected with. Rejections are an expected outcome on the write path and are only
+ * ever turned into a response, so they neither capture a stack trace nor collect suppressed exceptions.
+ */
+public abstract class DomainException extends RuntimeException {
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,16 @@
+package tech.interview.home.assignment.supercomputer.exceptions;
+
+/**
+ * Request that fails validation. An {@link IllegalArgumentException}, so callers that handle illegal arguments keep
+ * working, but without the stack trace of one; see {@link DomainException}.
+ */
+public class InvalidRequestException extends IllegalArgumentException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,7 @@
+package tech.interview.home.assignment.supercomputer.exceptions;
+
+public class QuotaExceededException extends DomainException {
+    public QuotaExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package tech.interview.home.assignment.supercomputer.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class RateLimitedException extends DomainException {
+    private final long retryAfterSeconds;
+
+    public RateLimitedException(long retryAfterSeconds) {
+        super("Retry after " + retryAfterSeconds + " second(s)");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
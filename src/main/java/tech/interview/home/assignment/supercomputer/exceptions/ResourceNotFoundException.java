@@ -1,6 +1,6 @@
 package tech.interview.home.assignment.supercomputer.exceptions;
 
-public class ResourceNotFoundException extends RuntimeException {
+public class ResourceNotFoundException extends DomainException {
     public ResourceNotFoundException(String message) {
         super(message);
     }
@@ -3,12 +3,43 @@ package tech.interview.home.assignment.supercomputer.exceptions;
 import lombok.Getter;
 import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The requested interval overlaps occupied ones. When the store knows them, the exception carries the conflicting
+ * intervals and the nearest free intervals of the same length before and after the requested one, so the client can
+ * rebook without probing; {@code null} alternatives mean none was found.
+ */
 @Getter
-public class TimeIntervalAlreadyBookedException extends RuntimeException {
+public class TimeIntervalAlreadyBookedException extends DomainException {
     private final TimeInterval timeInterval;
+    private final List<TimeInterval> conflicting;
+    private final TimeInterval earlierAlternative;
+    private final TimeInterval laterAlternative;
 
     public TimeIntervalAlreadyBookedException(TimeInterval timeInterval) {
+        this(timeInterval, List.of(), null, null);
+    }
+
+    public TimeIntervalAlreadyBookedException(TimeInterval timeInterval,
+                                              List<TimeInterval> conflicting,
+                                              TimeInterval earlierAlternative,
+                                              TimeInterval laterAlternative) {
         super("Time interval from " + timeInterval.from() + " to " + timeInterval.to() + " is already booked!");
         this.timeInterval = timeInterval;
+        this.conflicting = conflicting;
+        this.earlierAlternative = earlierAlternative;
+        this.laterAlternative = laterAlternative;
+    }
+
+    /**
+     * @return this conflict without the earlier alternative if that starts before {@code now}
+     */
+    public TimeIntervalAlreadyBookedException notBefore(LocalDateTime now) {
+        if (this.earlierAlternative == null || !this.earlierAlternative.from().isBefore(now)) {
+            return this;
+        }
+        return new TimeIntervalAlreadyBookedException(this.timeInterval, this.conflicting, null, this.laterAlternative);
     }
 }
@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
 @Setter
 @EqualsAndHashCode
 @ToString
-@Builder
+@Builder(toBuilder = true)
 @Table(name = "BOOKINGS")
 public class Booking {
     @Id
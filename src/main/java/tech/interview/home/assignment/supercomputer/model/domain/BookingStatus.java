@@ -1,6 +1,53 @@
 package tech.interview.home.assignment.supercomputer.model.domain;
 
 public enum BookingStatus {
+    /**
+     * Booking whose interval has not started yet.
+     */
     ACTIVE,
-    CANCELED
+    CANCELED,
+    /**
+     * Tentative hold that occupies its interval until it is confirmed or expires.
+     */
+    HELD,
+    /**
+     * Hold that expired before it was confirmed.
+     */
+    EXPIRED,
+    /**
+     * Booking whose interval has started but not ended yet.
+     */
+    IN_PROGRESS,
+    /**
+     * Booking whose interval has ended.
+     */
+    COMPLETED;
+
+    /**
+     * Whether a booking in this status occupies its time interval, so that no other booking may overlap it.
+     */
+    public boolean occupies() {
+        return this == ACTIVE || this == HELD || this == IN_PROGRESS;
+    }
+
+    /**
+     * Whether a booking in this status is one of the customer's current bookings, upcoming or running.
+     */
+    public boolean current() {
+        return this == ACTIVE || this == IN_PROGRESS;
+    }
+
+    /**
+     * Whether a booking in this status was booked and not canceled, whatever its place in the lifecycle.
+     */
+    public boolean confirmed() {
+        return this == ACTIVE || this == IN_PROGRESS || this == COMPLETED;
+    }
+
+    /**
+     * Whether a booking in this status never took place.
+     */
+    public boolean voided() {
+        return this == CANCELED || this == EXPIRED;
+    }
 }
@@ -0,0 +1,59 @@
+package tech.interview.home.assignment.supercomputer.model.domain;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Closed time interval as two epoch second values, used internally instead of {@link TimeInterval} so that
+ * validation and conflict decisions are plain {@code long} comparisons. Booking times are zone-less local times,
+ * they are encoded as if they were UTC; {@link #now(Clock)} applies the same encoding to the current local time.
+ * Sub-second precision is dropped.
+ */
+public record EpochInterval(long from, long to) {
+
+    public static EpochInterval of(LocalDateTime from, LocalDateTime to) {
+        return new EpochInterval(epochSecond(from), epochSecond(to));
+    }
+
+    public static EpochInterval of(Booking booking) {
+        return of(booking.getTimeIntervalFrom(), booking.getTimeIntervalTo());
+    }
+
+    public static long epochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public static LocalDateTime dateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Current local time of the clock in the same encoding as the interval bounds.
+     */
+    public static long now(Clock clock) {
+        long epochMilli = clock.millis();
+        long epochSecond = Math.floorDiv(epochMilli, 1000);
+        return epochSecond + clock.getZone().getRules().getOffset(clock.instant()).getTotalSeconds();
+    }
+
+    public static boolean overlap(long from, long to, long otherFrom, long otherTo) {
+        return from <= otherTo && to >= otherFrom;
+    }
+
+    public boolean overlaps(EpochInterval other) {
+        return overlap(this.from, this.to, other.from, other.to);
+    }
+
+    public LocalDateTime fromDateTime() {
+        return dateTime(this.from);
+    }
+
+    public LocalDateTime toDateTime() {
+        return dateTime(this.to);
+    }
+
+    public TimeInterval toTimeInterval() {
+        return new TimeInterval(fromDateTime(), toDateTime());
+    }
+}
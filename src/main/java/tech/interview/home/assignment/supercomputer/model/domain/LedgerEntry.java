@@ -0,0 +1,49 @@
+package tech.interview.home.assignment.supercomputer.model.domain;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * One event of the booking ledger, numbered by {@code seq} in commit order. Carries the full state of the booking
+ * after the event; customer and interval are {@code null} only for transitions of bookings the ledger never saw
+ * created.
+ */
+public record LedgerEntry(
+        long seq,
+        LedgerEventType type,
+        long bookingId,
+        String customerId,
+        BookingStatus status,
+        LocalDateTime timeIntervalFrom,
+        LocalDateTime timeIntervalTo,
+        LocalDateTime recordedAt) {
+
+    public static LedgerEntry of(long seq, LedgerEventType type, Booking booking, LocalDateTime recordedAt) {
+        return new LedgerEntry(seq, type, booking.getId(), booking.getCustomerId(), booking.getStatus(),
+                booking.getTimeIntervalFrom(), booking.getTimeIntervalTo(), recordedAt);
+    }
+
+    /**
+     * Applies the event to a state keyed by booking id.
+     */
+    public void applyTo(Map<Long, Booking> bookings) {
+        if (this.customerId != null) {
+            bookings.put(this.bookingId, toBooking());
+            return;
+        }
+        Booking previous = bookings.get(this.bookingId);
+        if (previous != null) {
+            bookings.put(this.bookingId, previous.toBuilder().status(this.status).build());
+        }
+    }
+
+    public Booking toBooking() {
+        return Booking.builder()
+                .id(this.bookingId)
+                .customerId(this.customerId)
+                .status(this.status)
+                .timeIntervalFrom(this.timeIntervalFrom)
+                .timeIntervalTo(this.timeIntervalTo)
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package tech.interview.home.assignment.supercomputer.model.domain;
+
+public enum LedgerEventType {
+    /**
+     * Booking or hold was created, its status tells which.
+     */
+    CREATED,
+    /**
+     * Hold was confirmed.
+     */
+    CONFIRMED,
+    CANCELED,
+    EXPIRED,
+    STARTED,
+    COMPLETED;
+
+    /**
+     * Type of the transition of an existing booking to {@code target}.
+     */
+    public static LedgerEventType transitionTo(BookingStatus target) {
+        return switch (target) {
+            case ACTIVE -> CONFIRMED;
+            case CANCELED -> CANCELED;
+            case EXPIRED -> EXPIRED;
+            case IN_PROGRESS -> STARTED;
+            case COMPLETED -> COMPLETED;
+            case HELD -> throw new IllegalArgumentException("Illegal transition: Bookings are never put back on hold!");
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package tech.interview.home.assignment.supercomputer.model.domain;
+
+import java.time.Duration;
+
+public enum Recurrence {
+    DAILY(Duration.ofDays(1)),
+    WEEKLY(Duration.ofDays(7));
+
+    private final long periodSeconds;
+
+    Recurrence(Duration period) {
+        this.periodSeconds = period.toSeconds();
+    }
+
+    /**
+     * Time between the starts of two consecutive occurrences; every period divides the longest one.
+     */
+    public long periodSeconds() {
+        return this.periodSeconds;
+    }
+}
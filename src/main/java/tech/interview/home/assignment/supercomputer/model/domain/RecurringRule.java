@@ -0,0 +1,119 @@
+package tech.interview.home.assignment.supercomputer.model.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recurring booking stored as one record: {@code occurrences} copies of the {@code first} interval, one every period
+ * of the recurrence. Occurrences are never materialized as a whole; whether the rule occurs in an interval is
+ * computed from the index of the first occurrence that can reach it, and {@link #occurrencesIn} only expands the
+ * occurrences within the queried range. An occurrence is shorter than the period, so occurrences of one rule never
+ * overlap each other. A canceled rule keeps the occurrences that had started, possibly none.
+ */
+public record RecurringRule(long id, String customerId, Recurrence recurrence, EpochInterval first, int occurrences) {
+
+    public long period() {
+        return this.recurrence.periodSeconds();
+    }
+
+    public long duration() {
+        return this.first.to() - this.first.from();
+    }
+
+    public EpochInterval occurrence(long index) {
+        long shift = index * period();
+        return new EpochInterval(this.first.from() + shift, this.first.to() + shift);
+    }
+
+    public EpochInterval last() {
+        return occurrence(this.occurrences - 1);
+    }
+
+    /**
+     * From the start of the first occurrence to the end of the last one.
+     */
+    public EpochInterval span() {
+        return new EpochInterval(this.first.from(), last().to());
+    }
+
+    /**
+     * Whether any occurrence overlaps the interval, in constant time.
+     */
+    public boolean occursIn(EpochInterval interval) {
+        long index = firstIndexReaching(interval.from());
+        return index < this.occurrences && occurrence(index).from() <= interval.to();
+    }
+
+    /**
+     * The occurrences overlapping the interval, in order.
+     */
+    public List<EpochInterval> occurrencesIn(EpochInterval interval) {
+        List<EpochInterval> occurring = new ArrayList<>();
+        for (long index = firstIndexReaching(interval.from()); index < this.occurrences; index++) {
+            EpochInterval occurrence = occurrence(index);
+            if (occurrence.from() > interval.to()) {
+                break;
+            }
+            occurring.add(occurrence);
+        }
+        return occurring;
+    }
+
+    /**
+     * Whether an occurrence of this rule overlaps one of {@code other}. Both rules repeat with the shorter of their
+     * periods, so if their occurrences do not meet within that period they never do. Otherwise the occurrences of
+     * the sparser rule within both spans are walked, each checked against the other rule in constant time.
+     */
+    public boolean overlaps(RecurringRule other) {
+        if (!span().overlaps(other.span())) {
+            return false;
+        }
+        long period = Math.min(period(), other.period());
+        long offset = Math.floorMod(other.first.from() - this.first.from(), period);
+        if (offset > duration() && offset + other.duration() < period) {
+            return false;
+        }
+
+        RecurringRule sparse = period() >= other.period() ? this : other;
+        RecurringRule dense = sparse == this ? other : this;
+        long to = Math.min(span().to(), other.span().to());
+        for (long index = sparse.firstIndexReaching(Math.max(span().from(), other.span().from())); index < sparse.occurrences; index++) {
+            EpochInterval occurrence = sparse.occurrence(index);
+            if (occurrence.from() > to) {
+                return false;
+            }
+            if (dense.occursIn(occurrence)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of occurrences that have started at {@code now}.
+     */
+    public int startedBy(long now) {
+        if (now < this.first.from()) {
+            return 0;
+        }
+        return (int) Math.min(this.occurrences, Math.floorDiv(now - this.first.from(), period()) + 1);
+    }
+
+    /**
+     * The rule cut down to its first {@code occurrences} occurrences.
+     */
+    public RecurringRule truncated(int occurrences) {
+        return new RecurringRule(this.id, this.customerId, this.recurrence, this.first, occurrences);
+    }
+
+    public RecurringRule withId(long id) {
+        return new RecurringRule(id, this.customerId, this.recurrence, this.first, this.occurrences);
+    }
+
+    /**
+     * Index of the first occurrence that ends at or after {@code from}, never negative.
+     */
+    private long firstIndexReaching(long from) {
+        return Math.max(0, -Math.floorDiv(this.first.to() - from, period()));
+    }
+}
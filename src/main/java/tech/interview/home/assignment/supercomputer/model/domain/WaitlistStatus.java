@@ -0,0 +1,9 @@
+package tech.interview.home.assignment.supercomputer.model.domain;
+
+public enum WaitlistStatus {
+    WAITING,
+    /**
+     * A freed interval was booked for the request.
+     */
+    ASSIGNED
+}
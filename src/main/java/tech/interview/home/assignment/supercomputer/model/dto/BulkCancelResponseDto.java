@@ -0,0 +1,8 @@
+package tech.interview.home.assignment.supercomputer.model.dto;
+
+import java.util.List;
+
+public record BulkCancelResponseDto(
+        int canceled,
+        List<Long> bookingIds) {
+}
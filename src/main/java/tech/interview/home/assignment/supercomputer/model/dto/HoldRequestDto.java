@@ -0,0 +1,9 @@
+package tech.interview.home.assignment.supercomputer.model.dto;
+
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+
+public record HoldRequestDto(
+        String customerId,
+        TimeInterval timeInterval,
+        Long ttlSeconds) {
+}
@@ -0,0 +1,12 @@
+package tech.interview.home.assignment.supercomputer.model.dto;
+
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+
+import java.time.LocalDateTime;
+
+public record HoldResponseDto(
+        String token,
+        long bookingId,
+        TimeInterval timeInterval,
+        LocalDateTime expiresAt) {
+}
@@ -0,0 +1,7 @@
+package tech.interview.home.assignment.supercomputer.model.dto;
+
+public record ImportResultDto(
+        long imported,
+        long conflicting,
+        long invalid) {
+}
@@ -0,0 +1,15 @@
+package tech.interview.home.assignment.supercomputer.model.dto;
+
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+
+import java.time.LocalDateTime;
+
+public record LedgerEntryDto(
+        long seq,
+        String type,
+        long bookingId,
+        String customerId,
+        String status,
+        TimeInterval timeInterval,
+        LocalDateTime recordedAt) {
+}
@@ -0,0 +1,18 @@
+package tech.interview.home.assignment.supercomputer.model.dto;
+
+import tech.interview.home.assignment.supercomputer.model.domain.Recurrence;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+
+import java.time.LocalDateTime;
+
+/**
+ * Recurring booking ending either after {@code occurrences} or with the last occurrence starting no later than
+ * {@code until}.
+ */
+public record RecurringRequestDto(
+        String customerId,
+        Recurrence recurrence,
+        TimeInterval first,
+        LocalDateTime until,
+        Integer occurrences) {
+}
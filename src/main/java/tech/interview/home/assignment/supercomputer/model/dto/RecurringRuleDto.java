@@ -0,0 +1,13 @@
+package tech.interview.home.assignment.supercomputer.model.dto;
+
+import tech.interview.home.assignment.supercomputer.model.domain.Recurrence;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+
+public record RecurringRuleDto(
+        long id,
+        String customerId,
+        Recurrence recurrence,
+        TimeInterval first,
+        TimeInterval last,
+        int occurrences) {
+}
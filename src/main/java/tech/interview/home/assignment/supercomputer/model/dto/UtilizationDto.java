@@ -0,0 +1,10 @@
+package tech.interview.home.assignment.supercomputer.model.dto;
+
+import java.time.LocalDate;
+
+public record UtilizationDto(
+        LocalDate from,
+        LocalDate to,
+        long bookedSeconds,
+        double utilization) {
+}
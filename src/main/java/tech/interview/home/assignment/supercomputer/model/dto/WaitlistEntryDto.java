@@ -0,0 +1,13 @@
+package tech.interview.home.assignment.supercomputer.model.dto;
+
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.model.domain.WaitlistStatus;
+
+public record WaitlistEntryDto(
+        long id,
+        String customerId,
+        TimeInterval window,
+        long durationSeconds,
+        WaitlistStatus status,
+        Long bookingId) {
+}
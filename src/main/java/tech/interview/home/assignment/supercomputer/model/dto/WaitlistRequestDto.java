@@ -0,0 +1,9 @@
+package tech.interview.home.assignment.supercomputer.model.dto;
+
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+
+public record WaitlistRequestDto(
+        String customerId,
+        TimeInterval window,
+        Long durationSeconds) {
+}
@@ -6,6 +6,7 @@ import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
 import tech.interview.home.assignment.supercomputer.model.domain.Booking;
 import tech.interview.home.assignment.supercomputer.model.dto.BookingResponseDto;
+import tech.interview.home.assignment.supercomputer.model.dto.HoldRequestDto;
 import tech.interview.home.assignment.supercomputer.model.dto.NewBookingRequestDto;
 
 @Mapper(componentModel = "spring", injectionStrategy = InjectionStrategy.CONSTRUCTOR)
@@ -17,9 +18,24 @@ public interface BookingMapper {
     })
     Booking requestDtoToEntity(NewBookingRequestDto dto);
 
+    @Mappings({
+            @Mapping(target = "id", ignore = true),
+            @Mapping(target = "status", ignore = true),
+            @Mapping(source = "dto.timeInterval.from", target = "timeIntervalFrom"),
+            @Mapping(source = "dto.timeInterval.to", target = "timeIntervalTo")
+    })
+    Booking holdRequestDtoToEntity(HoldRequestDto dto);
+
     @Mappings({
             @Mapping(source = "entity.timeIntervalFrom", target = "timeInterval.from"),
             @Mapping(source = "entity.timeIntervalTo", target = "timeInterval.to")
     })
     BookingResponseDto entityToResponseDto(Booking entity);
+
+    @Mappings({
+            @Mapping(target = "id", ignore = true),
+            @Mapping(source = "dto.timeInterval.from", target = "timeIntervalFrom"),
+            @Mapping(source = "dto.timeInterval.to", target = "timeIntervalTo")
+    })
+    Booking exportedDtoToEntity(BookingResponseDto dto);
 }
@@ -0,0 +1,25 @@
+package tech.interview.home.assignment.supercomputer.repositories;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+
+import java.time.LocalDateTime;
+
+public interface BookingArchiveRepository {
+    /**
+     * Moves up to {@code limit} canceled bookings and bookings that ended before {@code endedBefore} from
+     * {@code BOOKINGS} to {@code BOOKINGS_ARCHIVE}, stamped with {@code archivedAt}. Has to run inside a transaction.
+     *
+     * @return number of archived bookings
+     */
+    Mono<Integer> archive(LocalDateTime endedBefore, LocalDateTime archivedAt, int limit);
+
+    Mono<Booking> findArchivedById(long id);
+
+    Flux<Booking> findAllArchived();
+
+    Mono<Long> findMaxArchivedId();
+
+    Flux<Booking> findArchivedByIdBetween(long fromId, long toId);
+}
@@ -0,0 +1,95 @@
+package tech.interview.home.assignment.supercomputer.repositories;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+
+import java.time.LocalDateTime;
+
+class BookingArchiveRepositoryImpl implements BookingArchiveRepository {
+    private static final String SELECT_ARCHIVABLE = "SELECT ID FROM BOOKINGS " +
+            "WHERE STATUS IN ('CANCELED', 'EXPIRED') OR TIME_INTERVAL_TO < :endedBefore " +
+            "ORDER BY ID LIMIT :limit";
+    private static final String COPY = "INSERT INTO BOOKINGS_ARCHIVE " +
+            "(ID, CUSTOMER_ID, STATUS, TIME_INTERVAL_FROM, TIME_INTERVAL_TO, ARCHIVED_AT) " +
+            "SELECT ID, CUSTOMER_ID, STATUS, TIME_INTERVAL_FROM, TIME_INTERVAL_TO, :archivedAt " +
+            "FROM BOOKINGS WHERE ID IN (:ids)";
+    private static final String DELETE = "DELETE FROM BOOKINGS WHERE ID IN (:ids)";
+    private static final String FIND_BY_ID = "SELECT * FROM BOOKINGS_ARCHIVE WHERE ID = :id";
+    private static final String FIND_ALL = "SELECT * FROM BOOKINGS_ARCHIVE";
+    private static final String FIND_MAX_ID = "SELECT COALESCE(MAX(ID), 0) AS MAX_ID FROM BOOKINGS_ARCHIVE";
+    private static final String FIND_BY_ID_BETWEEN = "SELECT * FROM BOOKINGS_ARCHIVE WHERE ID BETWEEN :fromId AND :toId";
+
+    private final DatabaseClient databaseClient;
+
+    BookingArchiveRepositoryImpl(final DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @Override
+    public Mono<Integer> archive(LocalDateTime endedBefore, LocalDateTime archivedAt, int limit) {
+        return this.databaseClient.sql(SELECT_ARCHIVABLE)
+                .bind("endedBefore", endedBefore)
+                .bind("limit", limit)
+                .map(row -> row.get("ID", Long.class))
+                .all()
+                .collectList()
+                .flatMap(ids -> {
+                    if (ids.isEmpty()) {
+                        return Mono.just(0);
+                    }
+
+                    return this.databaseClient.sql(COPY)
+                            .bind("archivedAt", archivedAt)
+                            .bind("ids", ids)
+                            .fetch()
+                            .rowsUpdated()
+                            .then(this.databaseClient.sql(DELETE).bind("ids", ids).fetch().rowsUpdated())
+                            .map(Long::intValue);
+                });
+    }
+
+    @Override
+    public Mono<Booking> findArchivedById(long id) {
+        return this.databaseClient.sql(FIND_BY_ID)
+                .bind("id", id)
+                .map(BookingArchiveRepositoryImpl::toBooking)
+                .one();
+    }
+
+    @Override
+    public Flux<Booking> findAllArchived() {
+        return this.databaseClient.sql(FIND_ALL)
+                .map(BookingArchiveRepositoryImpl::toBooking)
+                .all();
+    }
+
+    @Override
+    public Mono<Long> findMaxArchivedId() {
+        return this.databaseClient.sql(FIND_MAX_ID)
+                .map(row -> row.get("MAX_ID", Long.class))
+                .one();
+    }
+
+    @Override
+    public Flux<Booking> findArchivedByIdBetween(long fromId, long toId) {
+        return this.databaseClient.sql(FIND_BY_ID_BETWEEN)
+                .bind("fromId", fromId)
+                .bind("toId", toId)
+                .map(BookingArchiveRepositoryImpl::toBooking)
+                .all();
+    }
+
+    private static Booking toBooking(Readable row) {
+        return Booking.builder()
+                .id(row.get("ID", Long.class))
+                .customerId(row.get("CUSTOMER_ID", String.class))
+                .status(BookingStatus.valueOf(row.get("STATUS", String.class)))
+                .timeIntervalFrom(row.get("TIME_INTERVAL_FROM", LocalDateTime.class))
+                .timeIntervalTo(row.get("TIME_INTERVAL_TO", LocalDateTime.class))
+                .build();
+    }
+}
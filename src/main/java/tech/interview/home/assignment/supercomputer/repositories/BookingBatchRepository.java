@@ -0,0 +1,15 @@
+package tech.interview.home.assignment.supercomputer.repositories;
+
+import reactor.core.publisher.Flux;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+
+import java.util.List;
+
+public interface BookingBatchRepository {
+    /**
+     * Inserts all bookings with one prepared statement executed as a batch, one set of bindings per booking.
+     *
+     * @return generated ids, in the order of the given bookings
+     */
+    Flux<Long> insertAll(List<Booking> bookings);
+}
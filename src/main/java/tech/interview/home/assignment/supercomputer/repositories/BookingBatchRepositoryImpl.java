@@ -0,0 +1,43 @@
+package tech.interview.home.assignment.supercomputer.repositories;
+
+import io.r2dbc.spi.Statement;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+
+import java.util.List;
+
+class BookingBatchRepositoryImpl implements BookingBatchRepository {
+    private static final String INSERT = "INSERT INTO BOOKINGS (CUSTOMER_ID, STATUS, TIME_INTERVAL_FROM, TIME_INTERVAL_TO) " +
+            "VALUES ($1, $2, $3, $4)";
+
+    private final DatabaseClient databaseClient;
+
+    BookingBatchRepositoryImpl(final DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @Override
+    public Flux<Long> insertAll(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return Flux.empty();
+        }
+
+        return this.databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(INSERT);
+            for (int i = 0; i < bookings.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                Booking booking = bookings.get(i);
+                statement.bind(0, booking.getCustomerId())
+                        .bind(1, booking.getStatus().name())
+                        .bind(2, booking.getTimeIntervalFrom())
+                        .bind(3, booking.getTimeIntervalTo());
+            }
+
+            return Flux.from(statement.returnGeneratedValues("ID").execute())
+                    .concatMap(result -> result.map((row, metadata) -> row.get("ID", Long.class)));
+        });
+    }
+}
@@ -0,0 +1,39 @@
+package tech.interview.home.assignment.supercomputer.repositories;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.LedgerEntry;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingLedgerRepository {
+    /**
+     * Appends the events to {@code BOOKING_EVENTS} with one prepared statement executed as a batch.
+     */
+    Mono<Void> appendEvents(List<LedgerEntry> entries);
+
+    Mono<Long> findMaxEventSeq();
+
+    Flux<LedgerEntry> findEventsByBookingId(long bookingId);
+
+    /**
+     * Events after {@code seq} recorded up to {@code recordedUntil}, in order of their sequence number.
+     */
+    Flux<LedgerEntry> findEventsAfter(long seq, LocalDateTime recordedUntil);
+
+    /**
+     * Stores the state after event {@code seq}. The rows are written before the snapshot itself, so a snapshot that
+     * can be found is always complete.
+     */
+    Mono<Void> saveSnapshot(long seq, LocalDateTime takenAt, Collection<Booking> bookings);
+
+    /**
+     * @return sequence number of the latest snapshot taken up to {@code takenUntil}, empty if there is none
+     */
+    Mono<Long> findLatestSnapshotSeq(LocalDateTime takenUntil);
+
+    Flux<Booking> findSnapshotEntries(long seq);
+}
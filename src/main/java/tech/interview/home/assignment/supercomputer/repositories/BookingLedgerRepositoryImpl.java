@@ -0,0 +1,158 @@
+package tech.interview.home.assignment.supercomputer.repositories;
+
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Statement;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.LedgerEntry;
+import tech.interview.home.assignment.supercomputer.model.domain.LedgerEventType;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+class BookingLedgerRepositoryImpl implements BookingLedgerRepository {
+    private static final String APPEND_EVENT = "INSERT INTO BOOKING_EVENTS " +
+            "(SEQ, TYPE, BOOKING_ID, CUSTOMER_ID, STATUS, TIME_INTERVAL_FROM, TIME_INTERVAL_TO, RECORDED_AT) " +
+            "VALUES ($1, $2, $3, $4, $5, $6, $7, $8)";
+    private static final String FIND_MAX_EVENT_SEQ = "SELECT COALESCE(MAX(SEQ), 0) AS MAX_SEQ FROM BOOKING_EVENTS";
+    private static final String FIND_EVENTS_BY_BOOKING_ID = "SELECT * FROM BOOKING_EVENTS WHERE BOOKING_ID = :bookingId ORDER BY SEQ";
+    private static final String FIND_EVENTS_AFTER = "SELECT * FROM BOOKING_EVENTS " +
+            "WHERE SEQ > :seq AND RECORDED_AT <= :recordedUntil ORDER BY SEQ";
+    private static final String SAVE_SNAPSHOT_ENTRY = "INSERT INTO BOOKING_SNAPSHOT_ENTRIES " +
+            "(SNAPSHOT_SEQ, BOOKING_ID, CUSTOMER_ID, STATUS, TIME_INTERVAL_FROM, TIME_INTERVAL_TO) " +
+            "VALUES ($1, $2, $3, $4, $5, $6)";
+    private static final String SAVE_SNAPSHOT = "INSERT INTO BOOKING_SNAPSHOTS (SEQ, TAKEN_AT) VALUES (:seq, :takenAt)";
+    private static final String FIND_LATEST_SNAPSHOT_SEQ = "SELECT SEQ FROM BOOKING_SNAPSHOTS " +
+            "WHERE TAKEN_AT <= :takenUntil ORDER BY SEQ DESC LIMIT 1";
+    private static final String FIND_SNAPSHOT_ENTRIES = "SELECT * FROM BOOKING_SNAPSHOT_ENTRIES WHERE SNAPSHOT_SEQ = :seq";
+
+    private final DatabaseClient databaseClient;
+
+    BookingLedgerRepositoryImpl(final DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @Override
+    public Mono<Void> appendEvents(List<LedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return this.databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(APPEND_EVENT);
+            for (int i = 0; i < entries.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                LedgerEntry entry = entries.get(i);
+                statement.bind(0, entry.seq())
+                        .bind(1, entry.type().name())
+                        .bind(2, entry.bookingId())
+                        .bind(4, entry.status().name())
+                        .bind(7, entry.recordedAt());
+                bindNullable(statement, 3, entry.customerId(), String.class);
+                bindNullable(statement, 5, entry.timeIntervalFrom(), LocalDateTime.class);
+                bindNullable(statement, 6, entry.timeIntervalTo(), LocalDateTime.class);
+            }
+
+            return Flux.from(statement.execute()).concatMap(result -> result.getRowsUpdated());
+        }).then();
+    }
+
+    @Override
+    public Mono<Long> findMaxEventSeq() {
+        return this.databaseClient.sql(FIND_MAX_EVENT_SEQ)
+                .map(row -> row.get("MAX_SEQ", Long.class))
+                .one();
+    }
+
+    @Override
+    public Flux<LedgerEntry> findEventsByBookingId(long bookingId) {
+        return this.databaseClient.sql(FIND_EVENTS_BY_BOOKING_ID)
+                .bind("bookingId", bookingId)
+                .map(BookingLedgerRepositoryImpl::toEntry)
+                .all();
+    }
+
+    @Override
+    public Flux<LedgerEntry> findEventsAfter(long seq, LocalDateTime recordedUntil) {
+        return this.databaseClient.sql(FIND_EVENTS_AFTER)
+                .bind("seq", seq)
+                .bind("recordedUntil", recordedUntil)
+                .map(BookingLedgerRepositoryImpl::toEntry)
+                .all();
+    }
+
+    @Override
+    public Mono<Void> saveSnapshot(long seq, LocalDateTime takenAt, Collection<Booking> bookings) {
+        Mono<Void> entries = bookings.isEmpty() ? Mono.empty() : this.databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(SAVE_SNAPSHOT_ENTRY);
+            boolean first = true;
+            for (Booking booking : bookings) {
+                if (!first) {
+                    statement.add();
+                }
+                first = false;
+                statement.bind(0, seq)
+                        .bind(1, booking.getId())
+                        .bind(2, booking.getCustomerId())
+                        .bind(3, booking.getStatus().name())
+                        .bind(4, booking.getTimeIntervalFrom())
+                        .bind(5, booking.getTimeIntervalTo());
+            }
+
+            return Flux.from(statement.execute()).concatMap(result -> result.getRowsUpdated());
+        }).then();
+
+        return entries.then(this.databaseClient.sql(SAVE_SNAPSHOT)
+                .bind("seq", seq)
+                .bind("takenAt", takenAt)
+                .then());
+    }
+
+    @Override
+    public Mono<Long> findLatestSnapshotSeq(LocalDateTime takenUntil) {
+        return this.databaseClient.sql(FIND_LATEST_SNAPSHOT_SEQ)
+                .bind("takenUntil", takenUntil)
+                .map(row -> row.get("SEQ", Long.class))
+                .one();
+    }
+
+    @Override
+    public Flux<Booking> findSnapshotEntries(long seq) {
+        return this.databaseClient.sql(FIND_SNAPSHOT_ENTRIES)
+                .bind("seq", seq)
+                .map(row -> Booking.builder()
+                        .id(row.get("BOOKING_ID", Long.class))
+                        .customerId(row.get("CUSTOMER_ID", String.class))
+                        .status(BookingStatus.valueOf(row.get("STATUS", String.class)))
+                        .timeIntervalFrom(row.get("TIME_INTERVAL_FROM", LocalDateTime.class))
+                        .timeIntervalTo(row.get("TIME_INTERVAL_TO", LocalDateTime.class))
+                        .build())
+                .all();
+    }
+
+    private static <T> void bindNullable(Statement statement, int index, T value, Class<T> type) {
+        if (value == null) {
+            statement.bindNull(index, type);
+        } else {
+            statement.bind(index, value);
+        }
+    }
+
+    private static LedgerEntry toEntry(Readable row) {
+        return new LedgerEntry(
+                row.get("SEQ", Long.class),
+                LedgerEventType.valueOf(row.get("TYPE", String.class)),
+                row.get("BOOKING_ID", Long.class),
+                row.get("CUSTOMER_ID", String.class),
+                BookingStatus.valueOf(row.get("STATUS", String.class)),
+                row.get("TIME_INTERVAL_FROM", LocalDateTime.class),
+                row.get("TIME_INTERVAL_TO", LocalDateTime.class),
+                row.get("RECORDED_AT", LocalDateTime.class));
+    }
+}
@@ -0,0 +1,18 @@
+package tech.interview.home.assignment.supercomputer.repositories;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.model.domain.RecurringRule;
+
+public interface BookingRecurrenceRepository {
+    Mono<Void> insertRule(RecurringRule rule);
+
+    Flux<RecurringRule> findRules();
+
+    Mono<Long> findMaxRuleId();
+
+    /**
+     * Cuts the rule down to its first {@code occurrences} occurrences, unless it already has no more.
+     */
+    Mono<Void> truncateRule(long id, int occurrences);
+}
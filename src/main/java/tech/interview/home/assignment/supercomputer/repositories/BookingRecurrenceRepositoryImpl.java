@@ -0,0 +1,65 @@
+package tech.interview.home.assignment.supercomputer.repositories;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+import tech.interview.home.assignment.supercomputer.model.domain.Recurrence;
+import tech.interview.home.assignment.supercomputer.model.domain.RecurringRule;
+
+import java.time.LocalDateTime;
+
+class BookingRecurrenceRepositoryImpl implements BookingRecurrenceRepository {
+    private static final String INSERT_RULE = "INSERT INTO RECURRING_BOOKINGS " +
+            "(ID, CUSTOMER_ID, RECURRENCE, TIME_INTERVAL_FROM, TIME_INTERVAL_TO, OCCURRENCES) " +
+            "VALUES (:id, :customerId, :recurrence, :timeIntervalFrom, :timeIntervalTo, :occurrences)";
+    private static final String FIND_RULES = "SELECT * FROM RECURRING_BOOKINGS";
+    private static final String FIND_MAX_RULE_ID = "SELECT COALESCE(MAX(ID), 0) AS MAX_ID FROM RECURRING_BOOKINGS";
+    private static final String TRUNCATE_RULE = "UPDATE RECURRING_BOOKINGS SET OCCURRENCES = :occurrences " +
+            "WHERE ID = :id AND OCCURRENCES > :occurrences";
+
+    private final DatabaseClient databaseClient;
+
+    BookingRecurrenceRepositoryImpl(final DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @Override
+    public Mono<Void> insertRule(RecurringRule rule) {
+        return this.databaseClient.sql(INSERT_RULE)
+                .bind("id", rule.id())
+                .bind("customerId", rule.customerId())
+                .bind("recurrence", rule.recurrence().name())
+                .bind("timeIntervalFrom", rule.first().fromDateTime())
+                .bind("timeIntervalTo", rule.first().toDateTime())
+                .bind("occurrences", rule.occurrences())
+                .then();
+    }
+
+    @Override
+    public Flux<RecurringRule> findRules() {
+        return this.databaseClient.sql(FIND_RULES)
+                .map(row -> new RecurringRule(
+                        row.get("ID", Long.class),
+                        row.get("CUSTOMER_ID", String.class),
+                        Recurrence.valueOf(row.get("RECURRENCE", String.class)),
+                        EpochInterval.of(row.get("TIME_INTERVAL_FROM", LocalDateTime.class), row.get("TIME_INTERVAL_TO", LocalDateTime.class)),
+                        row.get("OCCURRENCES", Integer.class)))
+                .all();
+    }
+
+    @Override
+    public Mono<Long> findMaxRuleId() {
+        return this.databaseClient.sql(FIND_MAX_RULE_ID)
+                .map(row -> row.get("MAX_ID", Long.class))
+                .one();
+    }
+
+    @Override
+    public Mono<Void> truncateRule(long id, int occurrences) {
+        return this.databaseClient.sql(TRUNCATE_RULE)
+                .bind("id", id)
+                .bind("occurrences", occurrences)
+                .then();
+    }
+}
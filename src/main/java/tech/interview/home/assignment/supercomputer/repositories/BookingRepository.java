@@ -1,5 +1,6 @@
 package tech.interview.home.assignment.supercomputer.repositories;
 
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Flux;
@@ -7,18 +8,89 @@ import reactor.core.publisher.Mono;
 import tech.interview.home.assignment.supercomputer.model.domain.Booking;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 
-public interface BookingRepository extends ReactiveCrudRepository<Booking, Long> {
+public interface BookingRepository extends ReactiveCrudRepository<Booking, Long>, BookingBatchRepository, BookingArchiveRepository,
+        BookingLedgerRepository, BookingRecurrenceRepository {
     @Query("SELECT * " +
             "FROM BOOKINGS " +
-            "WHERE STATUS = 'ACTIVE' " +
+            "WHERE STATUS IN ('ACTIVE', 'IN_PROGRESS') " +
             "AND CUSTOMER_ID = :customerId")
     Flux<Booking> findByCustomerId(Mono<String> customerId);
 
+    /**
+     * Locks the single row every insert of an occupying booking locks first, also the inserts of the JDBC booking
+     * service, so that checks and inserts on the same database are serialized.
+     */
+    @Query("SELECT ID FROM BOOKING_WRITE_LOCK WHERE ID = 1 FOR UPDATE")
+    Mono<Integer> lockWrites();
+
+    @Query("SELECT ID " +
+            "FROM BOOKINGS " +
+            "WHERE ID IN (:ids) " +
+            "AND STATUS = :status " +
+            "FOR UPDATE")
+    Flux<Long> lockIdsWithStatus(Collection<Long> ids, String status);
+
+    @Modifying
+    @Query("UPDATE BOOKINGS SET STATUS = :status WHERE ID IN (:ids)")
+    Mono<Integer> updateStatus(Collection<Long> ids, String status);
+
+    @Query("SELECT COALESCE(MAX(ID), 0) FROM BOOKINGS")
+    Mono<Long> findMaxId();
+
+    Flux<Booking> findByIdBetween(long fromId, long toId);
+
     @Query("SELECT CASE WHEN COUNT(*) > 0 THEN TRUE ELSE FALSE END " +
             "FROM BOOKINGS " +
-            "WHERE STATUS = 'ACTIVE' " +
+            "WHERE STATUS IN ('ACTIVE', 'HELD', 'IN_PROGRESS') " +
             "AND TIME_INTERVAL_FROM <= :timeIntervalTo " +
             "AND TIME_INTERVAL_TO >= :timeIntervalFrom")
     Mono<Boolean> isTimeIntervalAlreadyBooked(LocalDateTime timeIntervalFrom, LocalDateTime timeIntervalTo);
+
+    /**
+     * Occupying (active, held and in-progress) bookings overlapping the given interval. They never overlap each other,
+     * so apart from the ones starting within the interval only the last one starting before it can overlap; both parts
+     * are index range scans on the interval start instead of a scan over all earlier bookings.
+     */
+    @Query("SELECT * " +
+            "FROM BOOKINGS " +
+            "WHERE STATUS IN ('ACTIVE', 'HELD', 'IN_PROGRESS') " +
+            "AND TIME_INTERVAL_FROM BETWEEN :timeIntervalFrom AND :timeIntervalTo " +
+            "UNION ALL " +
+            "SELECT * FROM (" +
+            "SELECT * " +
+            "FROM BOOKINGS " +
+            "WHERE STATUS IN ('ACTIVE', 'HELD', 'IN_PROGRESS') " +
+            "AND TIME_INTERVAL_FROM < :timeIntervalFrom " +
+            "ORDER BY TIME_INTERVAL_FROM DESC " +
+            "LIMIT 1) " +
+            "WHERE TIME_INTERVAL_TO >= :timeIntervalFrom")
+    Flux<Booking> findActiveInTimeInterval(LocalDateTime timeIntervalFrom, LocalDateTime timeIntervalTo);
+
+    /**
+     * Occupying bookings starting within the given interval plus up to {@code neighbours} on either side of it, the
+     * input for the alternatives of a conflict.
+     */
+    @Query("SELECT * " +
+            "FROM BOOKINGS " +
+            "WHERE STATUS IN ('ACTIVE', 'HELD', 'IN_PROGRESS') " +
+            "AND TIME_INTERVAL_FROM BETWEEN :timeIntervalFrom AND :timeIntervalTo " +
+            "UNION ALL " +
+            "SELECT * FROM (" +
+            "SELECT * " +
+            "FROM BOOKINGS " +
+            "WHERE STATUS IN ('ACTIVE', 'HELD', 'IN_PROGRESS') " +
+            "AND TIME_INTERVAL_FROM < :timeIntervalFrom " +
+            "ORDER BY TIME_INTERVAL_FROM DESC " +
+            "LIMIT :neighbours) " +
+            "UNION ALL " +
+            "SELECT * FROM (" +
+            "SELECT * " +
+            "FROM BOOKINGS " +
+            "WHERE STATUS IN ('ACTIVE', 'HELD', 'IN_PROGRESS') " +
+            "AND TIME_INTERVAL_FROM > :timeIntervalTo " +
+            "ORDER BY TIME_INTERVAL_FROM " +
+            "LIMIT :neighbours)")
+    Flux<Booking> findOccupyingAround(LocalDateTime timeIntervalFrom, LocalDateTime timeIntervalTo, int neighbours);
 }
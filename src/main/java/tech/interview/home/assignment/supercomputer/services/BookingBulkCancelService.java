@@ -0,0 +1,111 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.config.BulkCancelProperties;
+import tech.interview.home.assignment.supercomputer.exceptions.InvalidRequestException;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.model.dto.BulkCancelResponseDto;
+import tech.interview.home.assignment.supercomputer.storage.BookingStore;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cancels all active bookings of a customer, or all active bookings overlapping a time interval such as a
+ * maintenance window. Matching bookings are canceled in batches of {@code batch-size}, each with one set-based
+ * {@link BookingStore#compareAndSetStatuses} write, and the in-memory indexes, version counters and the waitlist are
+ * updated once per batch. Bookings that started or were canceled in the meantime are skipped; held and in-progress
+ * bookings are never touched.
+ */
+@Service
+public class BookingBulkCancelService {
+    private final BookingStore store;
+    private final BookingStateVersion stateVersion;
+    private final BookingUtilization utilization;
+    private final CustomerQuota quota;
+    private final BookingVersions versions;
+    private final BookingWaitlist waitlist;
+    private final BulkCancelProperties properties;
+    private final BookingValidation validation;
+
+    public BookingBulkCancelService(final BookingStore store,
+                                    final BookingStateVersion stateVersion,
+                                    final BookingUtilization utilization,
+                                    final CustomerQuota quota,
+                                    final BookingVersions versions,
+                                    final BookingWaitlist waitlist,
+                                    final BulkCancelProperties properties,
+                                    final Clock clock) {
+        this.store = store;
+        this.stateVersion = stateVersion;
+        this.utilization = utilization;
+        this.quota = quota;
+        this.versions = versions;
+        this.waitlist = waitlist;
+        this.properties = properties;
+        this.validation = new BookingValidation(clock);
+    }
+
+    public Mono<BulkCancelResponseDto> cancelForCustomer(String customerId) {
+        return Mono.defer(() -> {
+            this.validation.checkCustomerId(customerId);
+            return cancel(this.store.findActiveByCustomerId(customerId));
+        });
+    }
+
+    /**
+     * Cancels the active bookings overlapping the interval. Unlike a new booking, the interval may have started.
+     */
+    public Mono<BulkCancelResponseDto> cancelInTimeInterval(Mono<TimeInterval> timeInterval) {
+        return timeInterval
+                .switchIfEmpty(Mono.error(() -> new InvalidRequestException("Illegal arguments: Time interval is not present!")))
+                .flatMap(req -> cancel(this.store.findOccupying(this.validation.checkRange(req.from(), req.to()))));
+    }
+
+    /**
+     * Collects the candidates before the first write, so no read stays open across the batches, and cancels them
+     * in id order.
+     */
+    private Mono<BulkCancelResponseDto> cancel(Flux<Booking> candidates) {
+        return candidates
+                .filter(booking -> booking.getStatus() == BookingStatus.ACTIVE)
+                .sort(Comparator.comparing(Booking::getId))
+                .buffer(this.properties.batchSize())
+                .concatMap(this::cancelBatch)
+                .reduce(new ArrayList<Long>(), (ids, canceled) -> {
+                    ids.addAll(canceled);
+                    return ids;
+                })
+                .map(ids -> new BulkCancelResponseDto(ids.size(), ids));
+    }
+
+    private Mono<List<Long>> cancelBatch(List<Booking> batch) {
+        Map<Long, Booking> byId = new LinkedHashMap<>();
+        batch.forEach(booking -> byId.put(booking.getId(), booking));
+
+        return this.store.compareAndSetStatuses(byId.keySet(), BookingStatus.ACTIVE, BookingStatus.CANCELED)
+                .doOnNext(changed -> {
+                    if (changed.isEmpty()) {
+                        return;
+                    }
+
+                    List<Booking> canceled = changed.stream().map(byId::get).toList();
+                    for (Booking booking : canceled) {
+                        this.utilization.remove(booking);
+                        this.quota.remove(booking);
+                    }
+                    this.versions.bookingsChanged(canceled);
+                    this.stateVersion.increment();
+                    this.waitlist.released(canceled);
+                });
+    }
+}
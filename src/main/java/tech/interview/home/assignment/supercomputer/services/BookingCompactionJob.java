@@ -0,0 +1,89 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.config.CompactionProperties;
+import tech.interview.home.assignment.supercomputer.storage.BookingStore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Background job that periodically moves canceled bookings and bookings that ended before the retention cutoff
+ * out of the live set into the archive, so the hot path only ever scans active bookings. Bookings are moved in
+ * batches with a pause between full batches, which bounds the archival rate to
+ * {@code max-bookings-per-second}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "supercomputer.booking.compaction", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class BookingCompactionJob implements DisposableBean {
+    private final BookingStore store;
+    private final BookingStateVersion stateVersion;
+    private final BookingVersions versions;
+    private final CompactionProperties properties;
+    private final Clock clock;
+    private final Duration batchPause;
+    private final Counter archivedCounter;
+    private final Counter failureCounter;
+    private final Disposable schedule;
+
+    public BookingCompactionJob(final BookingStore store,
+                                final BookingStateVersion stateVersion,
+                                final BookingVersions versions,
+                                final CompactionProperties properties,
+                                final Clock clock,
+                                final MeterRegistry meterRegistry) {
+        this.store = store;
+        this.stateVersion = stateVersion;
+        this.versions = versions;
+        this.properties = properties;
+        this.clock = clock;
+        this.batchPause = Duration.ofNanos(1_000_000_000L * properties.batchSize() / properties.maxBookingsPerSecond());
+        this.archivedCounter = meterRegistry.counter("booking.compaction.archived");
+        this.failureCounter = meterRegistry.counter("booking.compaction.failures");
+        this.schedule = Flux.interval(properties.interval())
+                .onBackpressureDrop()
+                .concatMap(tick -> compact().onErrorResume(e -> {
+                    this.failureCounter.increment();
+                    return Mono.empty();
+                }), 1)
+                .subscribe();
+    }
+
+    /**
+     * Runs one compaction pass until a batch comes back partially filled.
+     *
+     * @return number of archived bookings
+     */
+    public Mono<Long> compact() {
+        return Mono.defer(() -> {
+            LocalDateTime endedBefore = LocalDateTime.now(this.clock).minus(this.properties.retention());
+            int batchSize = this.properties.batchSize();
+
+            return Mono.defer(() -> this.store.archive(endedBefore, LocalDateTime.now(this.clock), batchSize))
+                    .doOnNext(archived -> {
+                        if (archived > 0) {
+                            this.archivedCounter.increment(archived);
+                            this.stateVersion.increment();
+                            this.versions.archived();
+                        }
+                    })
+                    .delayUntil(archived -> archived < batchSize ? Mono.empty() : Mono.delay(this.batchPause))
+                    .repeat()
+                    .takeUntil(archived -> archived < batchSize)
+                    .reduce(0L, Long::sum);
+        });
+    }
+
+    @Override
+    public void destroy() {
+        this.schedule.dispose();
+    }
+}
@@ -0,0 +1,91 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import tech.interview.home.assignment.supercomputer.config.GroupCommitProperties;
+import tech.interview.home.assignment.supercomputer.exceptions.TimeIntervalAlreadyBookedException;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.storage.BatchInsertResult;
+import tech.interview.home.assignment.supercomputer.storage.BookingStore;
+
+import java.time.Duration;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Group commit stage for new bookings. Requests are collected for a short window (or until the batch is full),
+ * decided in submission order against the current state and against earlier requests of the same batch, and the
+ * accepted ones are persisted with one {@link BookingStore#insertAllIfAvailable(List)} call.
+ */
+@Component
+@ConditionalOnProperty(prefix = "supercomputer.booking.group-commit", name = "enabled", havingValue = "true")
+public class BookingGroupCommitter implements DisposableBean {
+    private static final Duration EMIT_TIMEOUT = Duration.ofSeconds(1);
+
+    private final BookingStore store;
+    private final BookingStateVersion stateVersion;
+    private final Sinks.Many<PendingBooking> queue = Sinks.many().unicast().onBackpressureBuffer();
+    private final Disposable pipeline;
+
+    public BookingGroupCommitter(final BookingStore store,
+                                 final BookingStateVersion stateVersion,
+                                 final GroupCommitProperties properties) {
+        this.store = store;
+        this.stateVersion = stateVersion;
+        this.pipeline = this.queue.asFlux()
+                .bufferTimeout(properties.maxBatchSize(), properties.window())
+                .concatMap(this::commit)
+                .subscribe();
+    }
+
+    /**
+     * Submits an already validated booking to the next batch.
+     *
+     * @return id of the persisted booking, or {@link TimeIntervalAlreadyBookedException} if it lost to an existing
+     * booking or to an earlier request of the same batch
+     */
+    public Mono<Long> submit(Booking booking) {
+        return Mono.defer(() -> {
+            PendingBooking pending = new PendingBooking(booking, Sinks.one());
+            this.queue.emitNext(pending, Sinks.EmitFailureHandler.busyLooping(EMIT_TIMEOUT));
+            return pending.result().asMono();
+        });
+    }
+
+    @Override
+    public void destroy() {
+        this.queue.tryEmitComplete();
+        this.pipeline.dispose();
+    }
+
+    private Mono<Void> commit(List<PendingBooking> batch) {
+        Map<Booking, PendingBooking> pendingByBooking = new IdentityHashMap<>(batch.size());
+        batch.forEach(pending -> pendingByBooking.put(pending.booking(), pending));
+
+        return this.store.insertAllIfAvailable(batch.stream().map(PendingBooking::booking).toList())
+                .doOnNext(result -> complete(result, pendingByBooking))
+                .onErrorResume(e -> {
+                    batch.forEach(pending -> pending.result().tryEmitError(e));
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void complete(BatchInsertResult result, Map<Booking, PendingBooking> pendingByBooking) {
+        if (!result.accepted().isEmpty()) {
+            this.stateVersion.increment();
+        }
+        result.accepted().forEach(booking -> pendingByBooking.get(booking).result().tryEmitValue(booking.getId()));
+        result.rejected().forEach(booking -> pendingByBooking.get(booking).result().tryEmitError(
+                new TimeIntervalAlreadyBookedException(new TimeInterval(booking.getTimeIntervalFrom(), booking.getTimeIntervalTo()))));
+    }
+
+    private record PendingBooking(Booking booking, Sinks.One<Long> result) {
+    }
+}
@@ -0,0 +1,229 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.config.HoldProperties;
+import tech.interview.home.assignment.supercomputer.exceptions.InvalidRequestException;
+import tech.interview.home.assignment.supercomputer.exceptions.ResourceNotFoundException;
+import tech.interview.home.assignment.supercomputer.exceptions.TimeIntervalAlreadyBookedException;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.model.dto.HoldRequestDto;
+import tech.interview.home.assignment.supercomputer.model.dto.HoldResponseDto;
+import tech.interview.home.assignment.supercomputer.model.mappers.BookingMapper;
+import tech.interview.home.assignment.supercomputer.storage.BookingStore;
+import tech.interview.home.assignment.supercomputer.time.TimingWheel;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Two-phase booking. A hold is stored as a {@link BookingStatus#HELD} booking, so it occupies its interval for every
+ * conflict check, and is created with the same atomic check-and-insert and quota reservation as a booking.
+ * Confirming the returned token is a single status transition to {@link BookingStatus#ACTIVE}, so the end user's
+ * confirmation never sits inside the serializable check-and-insert.
+ * <p>
+ * Unconfirmed holds expire after their TTL: tokens wait on a {@link TimingWheel} advanced every {@code tick}, and
+ * whoever removes a token from the live holds first, confirmation or expiry, decides its fate. Tokens live in memory,
+ * so a hold can only be confirmed on the instance that created it, and holds left over by a previous run are
+ * expired on startup.
+ */
+@Service
+public class BookingHoldService implements WarmupTarget, DisposableBean {
+    private final BookingStore store;
+    private final BookingMapper mapper;
+    private final BookingStateVersion stateVersion;
+    private final BookingUtilization utilization;
+    private final CustomerQuota quota;
+    private final BookingVersions versions;
+    private final BookingLifecycle lifecycle;
+    private final BookingWaitlist waitlist;
+    private final Optional<RecurringBookings> recurring;
+    private final HoldProperties properties;
+    private final Clock clock;
+    private final BookingValidation validation;
+    private final Counter expiredCounter;
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+    private final TimingWheel<String> expirations;
+    private final Disposable ticker;
+
+    public BookingHoldService(final BookingStore store,
+                              final BookingMapper mapper,
+                              final BookingStateVersion stateVersion,
+                              final BookingUtilization utilization,
+                              final CustomerQuota quota,
+                              final BookingVersions versions,
+                              final BookingLifecycle lifecycle,
+                              final BookingWaitlist waitlist,
+                              final Optional<RecurringBookings> recurring,
+                              final HoldProperties properties,
+                              final Clock clock,
+                              final MeterRegistry meterRegistry) {
+        this.store = store;
+        this.mapper = mapper;
+        this.stateVersion = stateVersion;
+        this.utilization = utilization;
+        this.quota = quota;
+        this.versions = versions;
+        this.lifecycle = lifecycle;
+        this.waitlist = waitlist;
+        this.recurring = recurring;
+        this.properties = properties;
+        this.clock = clock;
+        this.validation = new BookingValidation(clock);
+        this.expiredCounter = meterRegistry.counter("booking.holds.expired");
+        meterRegistry.gaugeMapSize("booking.holds.live", List.of(), this.holds);
+        this.expirations = new TimingWheel<>(properties.tick().toMillis(), properties.wheelSize(), clock.millis());
+        this.ticker = Flux.interval(properties.tick())
+                .onBackpressureDrop()
+                .subscribe(tick -> expireDue());
+    }
+
+    /**
+     * Holds the interval for the requested TTL, or the default TTL if none is given.
+     *
+     * @return the token that confirms the hold
+     */
+    public Mono<HoldResponseDto> hold(Mono<HoldRequestDto> request) {
+        return request.flatMap(req -> {
+            Duration ttl = ttl(req.ttlSeconds());
+            Booking booking = this.mapper.holdRequestDtoToEntity(req);
+            this.validation.checkData(booking);
+            booking.setStatus(BookingStatus.HELD);
+
+            CustomerQuota.Reservation reservation = this.quota.reserve(booking);
+            return guard(booking)
+                    .map(held -> {
+                        reservation.commit(held.getId());
+                        this.stateVersion.increment();
+
+                        long expiresAt = this.clock.millis() + ttl.toMillis();
+                        String token = UUID.randomUUID().toString();
+                        this.holds.put(token, new Hold(held.getId(), held.getCustomerId(), expiresAt));
+                        this.expirations.add(token, expiresAt);
+                        return new HoldResponseDto(token, held.getId(),
+                                new TimeInterval(held.getTimeIntervalFrom(), held.getTimeIntervalTo()),
+                                LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAt), this.clock.getZone()));
+                    })
+                    .doOnError(e -> reservation.release())
+                    .doOnCancel(reservation::release)
+                    .onErrorMap(TimeIntervalAlreadyBookedException.class, this.validation::upcomingAlternatives);
+        });
+    }
+
+    /**
+     * Turns the hold into an active booking.
+     *
+     * @return id of the booking, or {@link ResourceNotFoundException} if the token is unknown or the hold expired
+     */
+    public Mono<Long> confirm(String token) {
+        return Mono.defer(() -> {
+            Hold hold = this.holds.remove(token);
+            if (hold == null) {
+                return Mono.error(notFound(token));
+            }
+            if (hold.expiresAt() <= this.clock.millis()) {
+                return expire(hold).then(Mono.error(notFound(token)));
+            }
+
+            return this.store.compareAndSetStatus(hold.bookingId(), BookingStatus.HELD, BookingStatus.ACTIVE)
+                    .filter(previous -> previous.getStatus() == BookingStatus.HELD)
+                    .switchIfEmpty(Mono.error(() -> notFound(token)))
+                    .map(previous -> {
+                        Booking active = previous.toBuilder().status(BookingStatus.ACTIVE).build();
+                        this.utilization.add(active);
+                        this.lifecycle.schedule(active);
+                        this.versions.bookingChanged(previous.getId(), previous.getCustomerId());
+                        return previous.getId();
+                    })
+                    .doOnError(e -> !(e instanceof ResourceNotFoundException), e -> rearm(token, hold, hold.expiresAt()));
+        });
+    }
+
+    /**
+     * Expires the holds left over by a previous run, their tokens are gone.
+     */
+    @Override
+    public void load(List<Booking> bookings) {
+        Flux.fromIterable(bookings)
+                .filter(booking -> booking.getStatus() == BookingStatus.HELD)
+                .concatMap(booking -> expire(new Hold(booking.getId(), booking.getCustomerId(), 0)))
+                .blockLast();
+    }
+
+    /**
+     * Expires every hold whose TTL has passed, up to one tick late.
+     */
+    void expireDue() {
+        this.expirations.advance(this.clock.millis(), token -> {
+            Hold hold = this.holds.remove(token);
+            if (hold != null) {
+                expire(hold).subscribe(null, e -> rearm(token, hold, this.clock.millis() + this.properties.tick().toMillis()));
+            }
+        });
+    }
+
+    private Mono<Void> expire(Hold hold) {
+        return this.store.compareAndSetStatus(hold.bookingId(), BookingStatus.HELD, BookingStatus.EXPIRED)
+                .filter(previous -> previous.getStatus() == BookingStatus.HELD)
+                .doOnNext(previous -> {
+                    this.quota.remove(previous);
+                    this.versions.bookingChanged(previous.getId(), previous.getCustomerId());
+                    this.stateVersion.increment();
+                    this.expiredCounter.increment();
+                    this.waitlist.released(previous);
+                })
+                .then();
+    }
+
+    /**
+     * Puts back a hold whose confirmation or expiry failed in the store; it must not occupy its interval forever.
+     */
+    private void rearm(String token, Hold hold, long expiresAt) {
+        this.holds.put(token, hold);
+        this.expirations.add(token, Math.max(expiresAt, this.clock.millis()));
+    }
+
+    private Mono<Booking> guard(Booking booking) {
+        Mono<Booking> insert = this.store.insertIfAvailable(booking);
+        return this.recurring
+                .map(recurring -> recurring.guard(booking, insert))
+                .orElse(insert);
+    }
+
+    private Duration ttl(Long ttlSeconds) {
+        if (ttlSeconds == null) {
+            return this.properties.defaultTtl();
+        }
+        if (ttlSeconds < 1 || ttlSeconds > this.properties.maxTtl().toSeconds()) {
+            throw new InvalidRequestException("Illegal arguments: Hold TTL must be between 1 and "
+                    + this.properties.maxTtl().toSeconds() + " seconds!");
+        }
+        return Duration.ofSeconds(ttlSeconds);
+    }
+
+    private static ResourceNotFoundException notFound(String token) {
+        return new ResourceNotFoundException("Hold " + token + " does not exist or has expired!");
+    }
+
+    @Override
+    public void destroy() {
+        this.ticker.dispose();
+    }
+
+    private record Hold(long bookingId, String customerId, long expiresAt) {
+    }
+}
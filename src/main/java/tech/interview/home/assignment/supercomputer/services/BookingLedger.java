@@ -0,0 +1,261 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import tech.interview.home.assignment.supercomputer.config.LedgerProperties;
+import tech.interview.home.assignment.supercomputer.exceptions.ResourceNotFoundException;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.LedgerEntry;
+import tech.interview.home.assignment.supercomputer.model.domain.LedgerEventType;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.model.dto.BookingResponseDto;
+import tech.interview.home.assignment.supercomputer.model.dto.LedgerEntryDto;
+import tech.interview.home.assignment.supercomputer.model.mappers.BookingMapper;
+import tech.interview.home.assignment.supercomputer.repositories.BookingRepository;
+import tech.interview.home.assignment.supercomputer.storage.BookingEvent;
+import tech.interview.home.assignment.supercomputer.storage.BookingStore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Append-only ledger of every committed booking event in {@code BOOKING_EVENTS}. The store publishes each insert and
+ * status transition; events are stamped with the time they were committed, numbered in commit order and appended in
+ * batches of up to {@code max-batch-size} collected for {@code window}, so appending never sits in a write transaction.
+ * The ledger folds the events into its own copy of the current state, and every {@code snapshot-interval} events that
+ * state is written as a snapshot.
+ * <p>
+ * The state as of any time is rebuilt from the latest snapshot taken up to then plus the events recorded after it.
+ * History starts when the ledger is first enabled: the bookings loaded on that start become the first snapshot. On
+ * later starts every loaded booking that the restored state misses or holds differently, because it changed while the
+ * ledger was off or its event was lost, is recorded with a correcting event stamped with the load time.
+ * <p>
+ * Sequence numbers and the folded state only advance once a batch is appended, so a batch that fails is counted in
+ * {@code booking.ledger.failures} and lost without leaving a gap or reaching a snapshot; the next start corrects the
+ * state it missed. A snapshot that fails is retried with the next batch.
+ */
+@Service
+@ConditionalOnProperty(prefix = "supercomputer.booking.ledger", name = "enabled", havingValue = "true")
+public class BookingLedger implements WarmupTarget, DisposableBean {
+    private static final Duration EMIT_TIMEOUT = Duration.ofSeconds(1);
+    private static final LocalDateTime END_OF_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final BookingRepository repo;
+    private final BookingMapper mapper;
+    private final LedgerProperties properties;
+    private final Clock clock;
+    private final BookingValidation validation;
+    private final Counter appendedCounter;
+    private final Counter failureCounter;
+    private final Sinks.Many<Recorded> queue = Sinks.many().unicast().onBackpressureBuffer();
+    private final Map<Long, Booking> state = new HashMap<>();
+    private long seq;
+    private long snapshotSeq;
+    private Disposable pipeline;
+
+    public BookingLedger(final BookingStore store,
+                         final BookingRepository repo,
+                         final BookingMapper mapper,
+                         final LedgerProperties properties,
+                         final Clock clock,
+                         final MeterRegistry meterRegistry) {
+        this.repo = repo;
+        this.mapper = mapper;
+        this.properties = properties;
+        this.clock = clock;
+        this.validation = new BookingValidation(clock);
+        this.appendedCounter = meterRegistry.counter("booking.ledger.appended");
+        this.failureCounter = meterRegistry.counter("booking.ledger.failures");
+        store.addListener(event -> this.queue.emitNext(new Recorded(event, LocalDateTime.now(clock)),
+                Sinks.EmitFailureHandler.busyLooping(EMIT_TIMEOUT)));
+    }
+
+    /**
+     * Restores the folded state from the latest snapshot and the events after it, or takes the first snapshot from
+     * the loaded bookings, then starts appending the events queued since startup.
+     */
+    @Override
+    public void load(List<Booking> bookings) {
+        this.seq = this.repo.findMaxEventSeq().blockOptional().orElse(0L);
+        Long latest = this.repo.findLatestSnapshotSeq(END_OF_TIME).block();
+        if (latest == null && this.seq == 0) {
+            this.repo.saveSnapshot(0, LocalDateTime.now(this.clock), bookings).block();
+            bookings.forEach(booking -> this.state.put(booking.getId(), booking));
+        } else {
+            this.state.putAll(replay(END_OF_TIME).block());
+            this.snapshotSeq = latest == null ? 0 : latest;
+            reconcile(bookings);
+        }
+
+        this.pipeline = this.queue.asFlux()
+                .bufferTimeout(this.properties.maxBatchSize(), this.properties.window())
+                .concatMap(this::append)
+                .subscribe();
+    }
+
+    /**
+     * Appends a correcting event for every loaded booking the restored state misses or holds differently. Bookings
+     * only the state knows are left alone, they may have been archived.
+     */
+    private void reconcile(List<Booking> bookings) {
+        LocalDateTime now = LocalDateTime.now(this.clock);
+        Map<Long, Booking> changed = new HashMap<>();
+        List<LedgerEntry> entries = new ArrayList<>();
+        bookings.stream()
+                .sorted(Comparator.comparing(Booking::getId))
+                .forEach(booking -> {
+                    LedgerEventType type = correction(this.state.get(booking.getId()), booking);
+                    if (type != null) {
+                        LedgerEntry entry = LedgerEntry.of(this.seq + entries.size() + 1, type, booking, now);
+                        entry.applyTo(changed);
+                        entries.add(entry);
+                    }
+                });
+        if (!entries.isEmpty()) {
+            write(entries, changed, now).block();
+        }
+    }
+
+    /**
+     * @return {@code null} if the recorded state matches the current one, the transition to the current status if
+     * only the status differs, {@link LedgerEventType#CREATED} otherwise
+     */
+    private static LedgerEventType correction(Booking recorded, Booking current) {
+        if (recorded != null && recorded.getStatus() == current.getStatus()
+                && Objects.equals(recorded.getCustomerId(), current.getCustomerId())
+                && Objects.equals(recorded.getTimeIntervalFrom(), current.getTimeIntervalFrom())
+                && Objects.equals(recorded.getTimeIntervalTo(), current.getTimeIntervalTo())) {
+            return null;
+        }
+        if (recorded == null || recorded.getCustomerId() == null || current.getStatus() == BookingStatus.HELD
+                || !Objects.equals(recorded.getTimeIntervalFrom(), current.getTimeIntervalFrom())
+                || !Objects.equals(recorded.getTimeIntervalTo(), current.getTimeIntervalTo())) {
+            return LedgerEventType.CREATED;
+        }
+        return LedgerEventType.transitionTo(current.getStatus());
+    }
+
+    /**
+     * @return all events of the booking in commit order, or {@link ResourceNotFoundException} if there are none
+     */
+    public Flux<LedgerEntryDto> history(long bookingId) {
+        return this.repo.findEventsByBookingId(bookingId)
+                .map(BookingLedger::toDto)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("No events for booking with id " + bookingId + "!")));
+    }
+
+    /**
+     * @return the customer's bookings in the state they were in at {@code at}, whatever their status, ordered by id
+     */
+    public Flux<BookingResponseDto> customerAsOf(String customerId, LocalDateTime at) {
+        return Mono.fromRunnable(() -> this.validation.checkCustomerId(customerId))
+                .then(replay(at))
+                .flatMapIterable(bookings -> bookings.values().stream()
+                        .filter(booking -> customerId.equals(booking.getCustomerId()))
+                        .sorted(Comparator.comparing(Booking::getId))
+                        .toList())
+                .map(this.mapper::entityToResponseDto);
+    }
+
+    /**
+     * Rebuilds the state as of {@code at} from the latest snapshot taken up to then and the events recorded after it.
+     */
+    Mono<Map<Long, Booking>> replay(LocalDateTime at) {
+        return this.repo.findLatestSnapshotSeq(at)
+                .flatMap(snapshot -> this.repo.findSnapshotEntries(snapshot)
+                        .collectMap(Booking::getId, booking -> booking, HashMap::new)
+                        .map(bookings -> new Replay(snapshot, bookings)))
+                .switchIfEmpty(Mono.fromSupplier(() -> new Replay(0, new HashMap<>())))
+                .flatMap(replay -> this.repo.findEventsAfter(replay.seq(), at)
+                        .doOnNext(entry -> entry.applyTo(replay.bookings()))
+                        .then(Mono.just(replay.bookings())));
+    }
+
+    private Mono<Void> append(List<Recorded> batch) {
+        return Mono.defer(() -> {
+            Map<Long, Booking> changed = new HashMap<>();
+            List<LedgerEntry> entries = new ArrayList<>(batch.size());
+            for (Recorded recorded : batch) {
+                LedgerEntry entry = entry(this.seq + entries.size() + 1, recorded, changed);
+                entry.applyTo(changed);
+                entries.add(entry);
+            }
+            return write(entries, changed, batch.get(batch.size() - 1).recordedAt());
+        });
+    }
+
+    /**
+     * Appends the entries, folds their changes into the state and takes a snapshot when one is due.
+     */
+    private Mono<Void> write(List<LedgerEntry> entries, Map<Long, Booking> changed, LocalDateTime recordedAt) {
+        return this.repo.appendEvents(entries)
+                .then(Mono.defer(() -> {
+                    this.seq += entries.size();
+                    this.state.putAll(changed);
+                    this.appendedCounter.increment(entries.size());
+                    if (this.seq - this.snapshotSeq < this.properties.snapshotInterval()) {
+                        return Mono.<Void>empty();
+                    }
+                    long snapshot = this.seq;
+                    return this.repo.saveSnapshot(snapshot, recordedAt, List.copyOf(this.state.values()))
+                            .doOnSuccess(x -> this.snapshotSeq = snapshot);
+                }))
+                .onErrorResume(e -> {
+                    this.failureCounter.increment();
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Completes transitions the store only knows by id with the folded state of the booking, including the changes of
+     * the batch that are not folded in yet.
+     */
+    private LedgerEntry entry(long seq, Recorded recorded, Map<Long, Booking> changed) {
+        BookingEvent event = recorded.event();
+        LedgerEventType type = event.created() ? LedgerEventType.CREATED : LedgerEventType.transitionTo(event.status());
+        Booking booking = event.booking();
+        if (booking == null) {
+            Booking previous = changed.containsKey(event.bookingId()) ? changed.get(event.bookingId()) : this.state.get(event.bookingId());
+            if (previous == null) {
+                return new LedgerEntry(seq, type, event.bookingId(), null, event.status(), null, null, recorded.recordedAt());
+            }
+            booking = previous.toBuilder().status(event.status()).build();
+        }
+        return LedgerEntry.of(seq, type, booking, recorded.recordedAt());
+    }
+
+    private static LedgerEntryDto toDto(LedgerEntry entry) {
+        return new LedgerEntryDto(entry.seq(), entry.type().name(), entry.bookingId(), entry.customerId(), entry.status().name(),
+                entry.timeIntervalFrom() == null ? null : new TimeInterval(entry.timeIntervalFrom(), entry.timeIntervalTo()),
+                entry.recordedAt());
+    }
+
+    @Override
+    public void destroy() {
+        this.queue.tryEmitComplete();
+        if (this.pipeline != null) {
+            this.pipeline.dispose();
+        }
+    }
+
+    private record Recorded(BookingEvent event, LocalDateTime recordedAt) {
+    }
+
+    private record Replay(long seq, Map<Long, Booking> bookings) {
+    }
+}
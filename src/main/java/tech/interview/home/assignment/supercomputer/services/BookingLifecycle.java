@@ -0,0 +1,185 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.config.LifecycleProperties;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+import tech.interview.home.assignment.supercomputer.storage.BookingStore;
+import tech.interview.home.assignment.supercomputer.time.TimingWheel;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Moves bookings through their lifecycle: an {@link BookingStatus#ACTIVE} booking becomes
+ * {@link BookingStatus#IN_PROGRESS} when its interval starts and {@link BookingStatus#COMPLETED} when it ends, so
+ * past bookings drop out of the customer views and the occupancy indexes. Transitions wait on a {@link TimingWheel}
+ * advanced every {@code tick}; the ones that fired are persisted together, one
+ * {@link BookingStore#compareAndSetStatuses} per kind of transition and {@code batch-size} bookings, so bookings
+ * canceled in the meantime are simply skipped. Batches that fail are retried on the next tick.
+ * <p>
+ * Bookings are scheduled by the write paths once committed and by the startup warm-up, which also catches up on
+ * transitions missed while the application was down.
+ */
+@Service
+public class BookingLifecycle implements WarmupTarget, DisposableBean {
+    private static final Comparator<Transition> IN_LIFECYCLE_ORDER = Comparator.comparing(Transition::expected)
+            .thenComparing(Transition::target);
+
+    private final BookingStore store;
+    private final BookingVersions versions;
+    private final LifecycleProperties properties;
+    private final Clock clock;
+    private final TimingWheel<Transition> wheel;
+    private final Queue<Transition> due = new ConcurrentLinkedQueue<>();
+    private final Counter startedCounter;
+    private final Counter completedCounter;
+    private final Counter failureCounter;
+    private final Disposable ticker;
+
+    public BookingLifecycle(final BookingStore store,
+                            final BookingVersions versions,
+                            final LifecycleProperties properties,
+                            final Clock clock,
+                            final MeterRegistry meterRegistry) {
+        this.store = store;
+        this.versions = versions;
+        this.properties = properties;
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(properties.tick().toMillis(), properties.wheelSize(), now());
+        this.startedCounter = meterRegistry.counter("booking.lifecycle.transitions", "status", BookingStatus.IN_PROGRESS.name());
+        this.completedCounter = meterRegistry.counter("booking.lifecycle.transitions", "status", BookingStatus.COMPLETED.name());
+        this.failureCounter = meterRegistry.counter("booking.lifecycle.failures");
+        meterRegistry.gauge("booking.lifecycle.scheduled", this.wheel, TimingWheel::size);
+        this.ticker = Flux.interval(properties.tick())
+                .onBackpressureDrop()
+                .concatMap(tick -> advance(), 1)
+                .subscribe();
+    }
+
+    /**
+     * Schedules the next transition of a committed booking. Bookings that are not active or in progress have no
+     * further transitions.
+     */
+    public void schedule(Booking booking) {
+        EpochInterval interval = EpochInterval.of(booking);
+        long start = interval.from() * 1000;
+        long end = interval.to() * 1000;
+        switch (booking.getStatus()) {
+            case ACTIVE -> {
+                if (end <= now()) {
+                    enqueue(new Transition(booking.getId(), booking.getCustomerId(), BookingStatus.ACTIVE, BookingStatus.COMPLETED, end, end));
+                } else {
+                    enqueue(new Transition(booking.getId(), booking.getCustomerId(), BookingStatus.ACTIVE, BookingStatus.IN_PROGRESS, start, end));
+                }
+            }
+            case IN_PROGRESS ->
+                    enqueue(new Transition(booking.getId(), booking.getCustomerId(), BookingStatus.IN_PROGRESS, BookingStatus.COMPLETED, end, end));
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Schedules all loaded bookings; transitions that were due while the application was down run on the first tick.
+     */
+    @Override
+    public void load(List<Booking> bookings) {
+        bookings.forEach(this::schedule);
+    }
+
+    /**
+     * Advances the wheel to now and persists every transition that is due, starts before completions.
+     */
+    Mono<Void> advance() {
+        return Mono.defer(() -> {
+            this.wheel.advance(now(), this.due::add);
+            List<Transition> transitions = new ArrayList<>();
+            Transition transition;
+            while ((transition = this.due.poll()) != null) {
+                transitions.add(transition);
+            }
+            transitions.sort(IN_LIFECYCLE_ORDER);
+
+            return Flux.fromIterable(transitions)
+                    .bufferUntilChanged(t -> t.expected().name() + t.target().name())
+                    .concatMapIterable(this::batches)
+                    .concatMap(this::persist)
+                    .then();
+        });
+    }
+
+    private List<List<Transition>> batches(List<Transition> transitions) {
+        List<List<Transition>> batches = new ArrayList<>();
+        for (int i = 0; i < transitions.size(); i += this.properties.batchSize()) {
+            batches.add(transitions.subList(i, Math.min(i + this.properties.batchSize(), transitions.size())));
+        }
+        return batches;
+    }
+
+    private Mono<Void> persist(List<Transition> batch) {
+        Map<Long, Transition> byId = new LinkedHashMap<>();
+        batch.forEach(transition -> byId.put(transition.bookingId(), transition));
+        Transition first = batch.get(0);
+
+        return this.store.compareAndSetStatuses(byId.keySet(), first.expected(), first.target())
+                .doOnNext(changed -> {
+                    for (long id : changed) {
+                        Transition transition = byId.get(id);
+                        this.versions.bookingChanged(id, transition.customerId());
+                        if (transition.target() == BookingStatus.IN_PROGRESS) {
+                            this.startedCounter.increment();
+                            enqueue(new Transition(id, transition.customerId(), BookingStatus.IN_PROGRESS, BookingStatus.COMPLETED,
+                                    transition.end(), transition.end()));
+                        } else {
+                            this.completedCounter.increment();
+                        }
+                    }
+                })
+                .then()
+                .onErrorResume(e -> {
+                    this.failureCounter.increment();
+                    this.due.addAll(batch);
+                    return Mono.empty();
+                });
+    }
+
+    private void enqueue(Transition transition) {
+        if (!this.wheel.add(transition, transition.at())) {
+            this.due.add(transition);
+        }
+    }
+
+    /**
+     * Current local time in milliseconds, in the encoding of {@link EpochInterval}.
+     */
+    private long now() {
+        return EpochInterval.now(this.clock) * 1000;
+    }
+
+    @Override
+    public void destroy() {
+        this.ticker.dispose();
+    }
+
+    /**
+     * Status change of a booking due at {@code at}; {@code end} is kept to schedule the completion of a started
+     * booking.
+     */
+    private record Transition(long bookingId, String customerId, BookingStatus expected, BookingStatus target, long at,
+                              long end) {
+    }
+}
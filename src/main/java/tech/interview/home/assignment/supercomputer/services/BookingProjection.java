@@ -0,0 +1,240 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import tech.interview.home.assignment.supercomputer.config.ProjectionProperties;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+import tech.interview.home.assignment.supercomputer.storage.BookingEvent;
+import tech.interview.home.assignment.supercomputer.storage.BookingStore;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read model of the bookings, kept apart from the store that decides conflicts. The store publishes every committed
+ * insert and status transition; events are queued on the writing thread and applied on a single thread to three
+ * projections: all bookings by id, current bookings by customer and occupying bookings by start. Reads are lock-free
+ * and never wait for a write transaction.
+ * <p>
+ * The projections trail the store. The lag of every applied event is recorded in {@code booking.projection.lag}, and
+ * the projections only count as {@link #fresh()} while the oldest unapplied event is at most {@code max-lag} old;
+ * readers fall back to the store otherwise. Events published during the warm-up are held back until the projections
+ * are loaded and replayed on top of them; replaying an event that the loaded state already contains changes nothing.
+ * <p>
+ * Reads that are sent with an entity tag must not be older than the tag. The store publishes an event before the
+ * writer bumps {@link BookingVersions}, so a tag taken before the read only counts changes whose events were already
+ * published; {@link #caughtUp(long)} and {@link #caughtUp(String)} tell whether all of those are applied for a booking
+ * or a customer. Status events that only carry an id do not tell the customer, while one of them is pending no
+ * customer counts as caught up.
+ */
+@Service
+@ConditionalOnProperty(prefix = "supercomputer.booking.projection", name = "enabled", havingValue = "true")
+public class BookingProjection implements WarmupTarget, DisposableBean {
+    private final long maxLagNanos;
+    private final Timer lag;
+    private final Queue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicInteger work = new AtomicInteger();
+    private final Scheduler applier;
+    private final ConcurrentMap<Long, Integer> pendingByBooking = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> pendingByCustomer = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingWithoutCustomer = new AtomicInteger();
+    private final ConcurrentMap<Long, Booking> byId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentNavigableMap<Long, Booking>> byCustomer = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Long, Booking> byStart = new ConcurrentSkipListMap<>();
+    private volatile boolean loaded;
+
+    @Autowired
+    public BookingProjection(final BookingStore store,
+                             final ProjectionProperties properties,
+                             final MeterRegistry meterRegistry) {
+        this(store, properties, meterRegistry, Schedulers.newSingle("booking-projection"));
+    }
+
+    BookingProjection(final BookingStore store,
+                      final ProjectionProperties properties,
+                      final MeterRegistry meterRegistry,
+                      final Scheduler applier) {
+        this.applier = applier;
+        this.maxLagNanos = properties.maxLag().toNanos();
+        this.lag = meterRegistry.timer("booking.projection.lag");
+        meterRegistry.gauge("booking.projection.pending", this.pendingCount);
+        store.addListener(this::publish);
+    }
+
+    /**
+     * Whether the projections are loaded and trail the store by at most {@code max-lag}.
+     */
+    public boolean fresh() {
+        if (!this.loaded) {
+            return false;
+        }
+        Pending oldest = this.pending.peek();
+        return oldest == null || System.nanoTime() - oldest.publishedAt() <= this.maxLagNanos;
+    }
+
+    /**
+     * Whether the projections are fresh and every event of the booking published so far is applied.
+     */
+    public boolean caughtUp(long bookingId) {
+        return fresh() && !this.pendingByBooking.containsKey(bookingId);
+    }
+
+    /**
+     * Whether the projections are fresh and every event of the customer's bookings published so far is applied.
+     */
+    public boolean caughtUp(String customerId) {
+        return fresh() && this.pendingWithoutCustomer.get() == 0 && !this.pendingByCustomer.containsKey(customerId);
+    }
+
+    /**
+     * @return copy of the booking, or {@code null} if the projection does not know it
+     */
+    public Booking findById(long id) {
+        return copy(this.byId.get(id));
+    }
+
+    /**
+     * @return copies of the customer's current bookings, ordered by id
+     */
+    public List<Booking> findForCustomer(String customerId) {
+        Map<Long, Booking> bookings = this.byCustomer.get(customerId);
+        return bookings == null ? List.of() : bookings.values().stream().map(BookingProjection::copy).toList();
+    }
+
+    public boolean isTimeIntervalAlreadyBooked(EpochInterval interval) {
+        Map.Entry<Long, Booking> candidate = this.byStart.floorEntry(interval.to());
+        return candidate != null && EpochInterval.epochSecond(candidate.getValue().getTimeIntervalTo()) >= interval.from();
+    }
+
+    /**
+     * Loads the projections and replays the events published in the meantime. Nothing is applied before, so loading
+     * does not race with the applier.
+     */
+    @Override
+    public void load(List<Booking> bookings) {
+        bookings.forEach(this::put);
+        this.loaded = true;
+        drain();
+    }
+
+    private void publish(BookingEvent event) {
+        track(event, 1);
+        this.pending.add(new Pending(event, System.nanoTime()));
+        this.pendingCount.incrementAndGet();
+        if (this.loaded) {
+            drain();
+        }
+    }
+
+    /**
+     * Schedules the applier unless it is already scheduled; a publish that races with a running applier makes it loop
+     * once more.
+     */
+    private void drain() {
+        if (this.work.getAndIncrement() == 0) {
+            this.applier.schedule(this::applyPending);
+        }
+    }
+
+    private void applyPending() {
+        int missed = 1;
+        do {
+            Pending next;
+            while ((next = this.pending.peek()) != null) {
+                apply(next.event());
+                this.pending.poll();
+                track(next.event(), -1);
+                this.pendingCount.decrementAndGet();
+                this.lag.record(System.nanoTime() - next.publishedAt(), TimeUnit.NANOSECONDS);
+            }
+            missed = this.work.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void track(BookingEvent event, int delta) {
+        this.pendingByBooking.merge(event.bookingId(), delta, BookingProjection::sumOrRemove);
+        if (event.booking() != null) {
+            this.pendingByCustomer.merge(event.booking().getCustomerId(), delta, BookingProjection::sumOrRemove);
+        } else {
+            this.pendingWithoutCustomer.addAndGet(delta);
+        }
+    }
+
+    private static Integer sumOrRemove(Integer count, Integer delta) {
+        int sum = count + delta;
+        return sum == 0 ? null : sum;
+    }
+
+    private void apply(BookingEvent event) {
+        if (event.booking() != null) {
+            put(event.booking());
+            return;
+        }
+        Booking previous = this.byId.get(event.bookingId());
+        if (previous != null) {
+            put(previous.toBuilder().status(event.status()).build());
+        }
+    }
+
+    private void put(Booking booking) {
+        Booking previous = this.byId.put(booking.getId(), booking);
+        if (previous != null) {
+            unindex(previous);
+        }
+        index(booking);
+    }
+
+    private void index(Booking booking) {
+        if (booking.getStatus().occupies()) {
+            this.byStart.put(EpochInterval.epochSecond(booking.getTimeIntervalFrom()), booking);
+        }
+        if (booking.getStatus().current()) {
+            this.byCustomer.computeIfAbsent(booking.getCustomerId(), key -> new ConcurrentSkipListMap<>())
+                    .put(booking.getId(), booking);
+        }
+    }
+
+    /**
+     * Removes by value: with events of different bookings applied out of commit order, the start may already belong
+     * to the booking that took over the interval.
+     */
+    private void unindex(Booking booking) {
+        if (booking.getStatus().occupies()) {
+            this.byStart.remove(EpochInterval.epochSecond(booking.getTimeIntervalFrom()), booking);
+        }
+        if (booking.getStatus().current()) {
+            Map<Long, Booking> bookings = this.byCustomer.get(booking.getCustomerId());
+            if (bookings != null) {
+                bookings.remove(booking.getId());
+            }
+        }
+    }
+
+    private static Booking copy(Booking booking) {
+        return booking == null ? null : booking.toBuilder().build();
+    }
+
+    @Override
+    public void destroy() {
+        this.applier.dispose();
+    }
+
+    private record Pending(BookingEvent event, long publishedAt) {
+    }
+}
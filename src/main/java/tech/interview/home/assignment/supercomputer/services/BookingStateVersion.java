@@ -0,0 +1,23 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the booking state. It is incremented after every committed booking change and
+ * before the change is reported back to the caller, so any request issued after a caller has observed a
+ * change sees a newer version.
+ */
+@Component
+public class BookingStateVersion {
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return this.version.get();
+    }
+
+    public long increment() {
+        return this.version.incrementAndGet();
+    }
+}
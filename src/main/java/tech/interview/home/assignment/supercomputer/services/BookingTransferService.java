@@ -0,0 +1,159 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.config.TransferProperties;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+import tech.interview.home.assignment.supercomputer.model.dto.BookingResponseDto;
+import tech.interview.home.assignment.supercomputer.model.dto.ImportResultDto;
+import tech.interview.home.assignment.supercomputer.model.mappers.BookingMapper;
+import tech.interview.home.assignment.supercomputer.storage.BatchInsertResult;
+import tech.interview.home.assignment.supercomputer.storage.BookingStore;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bulk import and export of bookings. Both directions stream: import holds at most one batch of parsed bookings
+ * at a time and export emits bookings as the store reads them.
+ */
+@Service
+public class BookingTransferService {
+    private final BookingStore store;
+    private final BookingMapper mapper;
+    private final BookingStateVersion stateVersion;
+    private final BookingUtilization utilization;
+    private final CustomerQuota quota;
+    private final BookingVersions versions;
+    private final BookingLifecycle lifecycle;
+    private final TransferProperties properties;
+    private final Optional<RecurringBookings> recurring;
+    private final BookingValidation validation;
+
+    public BookingTransferService(final BookingStore store,
+                                  final BookingMapper mapper,
+                                  final BookingStateVersion stateVersion,
+                                  final BookingUtilization utilization,
+                                  final CustomerQuota quota,
+                                  final BookingVersions versions,
+                                  final BookingLifecycle lifecycle,
+                                  final TransferProperties properties,
+                                  final Optional<RecurringBookings> recurring,
+                                  final Clock clock) {
+        this.store = store;
+        this.mapper = mapper;
+        this.stateVersion = stateVersion;
+        this.utilization = utilization;
+        this.quota = quota;
+        this.versions = versions;
+        this.lifecycle = lifecycle;
+        this.properties = properties;
+        this.recurring = recurring;
+        this.validation = new BookingValidation(clock);
+    }
+
+    /**
+     * Imports bookings from the given lines. Lines that cannot be parsed or fail validation are counted as invalid,
+     * active bookings overlapping an earlier imported or an existing active booking, or an occurrence of a recurring
+     * booking, are counted as conflicting.
+     * Imported bookings get new ids; the status defaults to active.
+     */
+    public Mono<ImportResultDto> importBookings(Flux<String> lines, Function<String, BookingResponseDto> parser) {
+        return Mono.defer(() -> {
+            ImportCounts counts = new ImportCounts();
+            return lines
+                    .filter(line -> !line.isBlank())
+                    .<Booking>handle((line, sink) -> {
+                        try {
+                            Booking booking = this.mapper.exportedDtoToEntity(parser.apply(line));
+                            this.validation.checkImported(booking);
+                            if (booking.getStatus() == null) {
+                                booking.setStatus(BookingStatus.ACTIVE);
+                            }
+                            sink.next(booking);
+                        } catch (RuntimeException e) {
+                            counts.invalid++;
+                        }
+                    })
+                    .buffer(this.properties.batchSize())
+                    .concatMap(this::importBatch)
+                    .doOnNext(result -> {
+                        counts.imported += result.accepted().size();
+                        result.accepted().forEach(booking -> {
+                            this.utilization.add(booking);
+                            this.quota.add(booking);
+                            this.lifecycle.schedule(booking);
+                            this.versions.customerChanged(booking.getCustomerId());
+                        });
+                        counts.conflicting += result.rejected().size();
+                        if (!result.accepted().isEmpty()) {
+                            this.stateVersion.increment();
+                        }
+                    })
+                    .then(Mono.fromSupplier(() -> new ImportResultDto(counts.imported, counts.conflicting, counts.invalid)));
+        });
+    }
+
+    /**
+     * Streams all live and archived bookings.
+     */
+    public Flux<BookingResponseDto> exportBookings() {
+        return this.store.findAll()
+                .map(this.mapper::entityToResponseDto);
+    }
+
+    /**
+     * Sorts the batch by start and sweeps it once, so occupying bookings overlapping another booking of the same batch
+     * are rejected without a store round trip. The store then decides the rest against the current state, guarded
+     * against the recurring bookings.
+     */
+    private Mono<BatchInsertResult> importBatch(List<Booking> batch) {
+        List<Booking> sorted = new ArrayList<>(batch);
+        sorted.sort(Comparator.comparing(Booking::getTimeIntervalFrom));
+
+        List<Booking> candidates = new ArrayList<>(sorted.size());
+        List<Booking> overlapping = new ArrayList<>();
+        long lastActiveTo = Long.MIN_VALUE;
+        for (Booking booking : sorted) {
+            if (!booking.getStatus().occupies()) {
+                candidates.add(booking);
+                continue;
+            }
+
+            EpochInterval interval = EpochInterval.of(booking);
+            if (interval.from() <= lastActiveTo) {
+                overlapping.add(booking);
+            } else {
+                candidates.add(booking);
+                lastActiveTo = interval.to();
+            }
+        }
+
+        if (candidates.isEmpty()) {
+            return Mono.just(new BatchInsertResult(List.of(), overlapping));
+        }
+
+        Mono<BatchInsertResult> inserted = this.recurring
+                .map(recurring -> recurring.guardAll(candidates, this.store::insertAllIfAvailable))
+                .orElseGet(() -> this.store.insertAllIfAvailable(candidates));
+        return inserted
+                .map(result -> {
+                    List<Booking> rejected = new ArrayList<>(result.rejected());
+                    rejected.addAll(overlapping);
+                    return new BatchInsertResult(result.accepted(), rejected);
+                });
+    }
+
+    private static final class ImportCounts {
+        private long imported;
+        private long conflicting;
+        private long invalid;
+    }
+}
@@ -0,0 +1,134 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.config.UtilizationProperties;
+import tech.interview.home.assignment.supercomputer.exceptions.InvalidRequestException;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+import tech.interview.home.assignment.supercomputer.model.dto.UtilizationDto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Booked seconds per day, maintained incrementally by the write paths: every committed active booking adds its
+ * seconds to the days it covers and every cancellation subtracts them again. The counters live in a
+ * {@link RangeFenwickTree} over {@code days} days starting at {@code first-day}, so both updates and sums over any
+ * range of days take O(log n), independent of the length of the booking or the range. Bookings that end keep
+ * counting, also once archived.
+ */
+@Component
+public class BookingUtilization implements WarmupTarget {
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    public enum Granularity {
+        DAY,
+        WEEK
+    }
+
+    private final UtilizationProperties properties;
+    private final long firstEpochDay;
+    private final RangeFenwickTree bookedSeconds;
+
+    public BookingUtilization(final UtilizationProperties properties) {
+        this.properties = properties;
+        this.firstEpochDay = properties.firstDay().toEpochDay();
+        this.bookedSeconds = new RangeFenwickTree(properties.days());
+    }
+
+    /**
+     * Counts the booking if it is confirmed, see {@link BookingStatus#confirmed()}.
+     */
+    public void add(Booking booking) {
+        if (booking.getStatus().confirmed()) {
+            apply(EpochInterval.of(booking), 1);
+        }
+    }
+
+    /**
+     * Stops counting a booking that was active.
+     */
+    public void remove(Booking booking) {
+        apply(EpochInterval.of(booking), -1);
+    }
+
+    /**
+     * Counts all confirmed bookings.
+     */
+    @Override
+    public void load(List<Booking> bookings) {
+        bookings.forEach(this::add);
+    }
+
+    /**
+     * Booked seconds and utilization for each day or ISO week (Monday to Sunday) touching the given range of days.
+     */
+    public Flux<UtilizationDto> report(LocalDate from, LocalDate to, Granularity granularity) {
+        return Mono.fromCallable(() -> periods(from, to, granularity))
+                .flatMapIterable(periods -> periods);
+    }
+
+    private List<UtilizationDto> periods(LocalDate from, LocalDate to, Granularity granularity) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new InvalidRequestException("Illegal utilization range: From must not be after to!");
+        }
+
+        LocalDate first = granularity == Granularity.WEEK ? from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : from;
+        LocalDate last = granularity == Granularity.WEEK ? to.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY)) : to;
+        int periodDays = granularity == Granularity.WEEK ? 7 : 1;
+        long periods = (ChronoUnit.DAYS.between(first, last) + 1) / periodDays;
+        if (periods > this.properties.maxPeriods()) {
+            throw new InvalidRequestException("Illegal utilization range: At most " + this.properties.maxPeriods() + " periods can be reported!");
+        }
+
+        List<UtilizationDto> result = new ArrayList<>((int) periods);
+        for (LocalDate start = first; !start.isAfter(last); start = start.plusDays(periodDays)) {
+            LocalDate end = start.plusDays(periodDays - 1L);
+            long seconds = bookedSeconds(start, end);
+            result.add(new UtilizationDto(start, end, seconds, (double) seconds / (periodDays * SECONDS_PER_DAY)));
+        }
+        return result;
+    }
+
+    /**
+     * Booked seconds of the days from {@code from} to {@code to}, both inclusive. Days outside the tracked range
+     * count as unbooked.
+     */
+    public long bookedSeconds(LocalDate from, LocalDate to) {
+        long first = Math.max(from.toEpochDay() - this.firstEpochDay, 0);
+        long last = Math.min(to.toEpochDay() - this.firstEpochDay, this.bookedSeconds.size() - 1L);
+        return first > last ? 0 : this.bookedSeconds.sum((int) first, (int) last);
+    }
+
+    /**
+     * Adds the seconds of the interval to the days it covers: the partial first and last days on their own and the
+     * full days in between as one range update. The seconds of days outside the tracked range are dropped.
+     */
+    private void apply(EpochInterval interval, int sign) {
+        long firstDay = Math.floorDiv(interval.from(), SECONDS_PER_DAY);
+        long lastDay = Math.floorDiv(interval.to(), SECONDS_PER_DAY);
+        if (firstDay == lastDay) {
+            addToDays(firstDay, firstDay, sign * (interval.to() - interval.from()));
+            return;
+        }
+
+        addToDays(firstDay, firstDay, sign * ((firstDay + 1) * SECONDS_PER_DAY - interval.from()));
+        addToDays(firstDay + 1, lastDay - 1, sign * SECONDS_PER_DAY);
+        addToDays(lastDay, lastDay, sign * (interval.to() - lastDay * SECONDS_PER_DAY));
+    }
+
+    private void addToDays(long fromEpochDay, long toEpochDay, long seconds) {
+        long first = Math.max(fromEpochDay - this.firstEpochDay, 0);
+        long last = Math.min(toEpochDay - this.firstEpochDay, this.bookedSeconds.size() - 1L);
+        if (first <= last && seconds != 0) {
+            this.bookedSeconds.add((int) first, (int) last, seconds);
+        }
+    }
+}
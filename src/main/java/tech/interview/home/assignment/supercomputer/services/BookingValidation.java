@@ -0,0 +1,168 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import tech.interview.home.assignment.supercomputer.exceptions.BookingAlreadyCanceledException;
+import tech.interview.home.assignment.supercomputer.exceptions.InvalidRequestException;
+import tech.interview.home.assignment.supercomputer.exceptions.TimeIntervalAlreadyBookedException;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+import tech.interview.home.assignment.supercomputer.model.domain.RecurringRule;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.model.dto.RecurringRequestDto;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Validation of booking requests shared by the booking service implementations.
+ */
+final class BookingValidation {
+    private final Clock clock;
+
+    BookingValidation(final Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Checks a new booking and truncates its times to seconds, the precision of all conflict checks, so the stored
+     * interval is exactly the one that was checked.
+     */
+    void checkData(Booking booking) {
+        checkCustomerId(booking.getCustomerId());
+        checkDates(booking.getTimeIntervalFrom(), booking.getTimeIntervalTo());
+        truncateToSeconds(booking);
+    }
+
+    /**
+     * Checks an imported booking. Unlike new bookings, imported history may lie in the past. Holds cannot be
+     * imported, their tokens are not exported.
+     */
+    void checkImported(Booking booking) {
+        if (booking.getStatus() == BookingStatus.HELD) {
+            throw new InvalidRequestException("Illegal arguments: Holds cannot be imported!");
+        }
+        checkCustomerId(booking.getCustomerId());
+        checkIfDatesArePresent(booking.getTimeIntervalFrom(), booking.getTimeIntervalTo());
+        checkDatesFromAfterTo(EpochInterval.of(booking.getTimeIntervalFrom(), booking.getTimeIntervalTo()));
+        truncateToSeconds(booking);
+    }
+
+    private static void truncateToSeconds(Booking booking) {
+        booking.setTimeIntervalFrom(booking.getTimeIntervalFrom().truncatedTo(ChronoUnit.SECONDS));
+        booking.setTimeIntervalTo(booking.getTimeIntervalTo().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * Checks a waitlist request: the window must lie in the future and be at least as long as the duration.
+     */
+    EpochInterval checkWaitlistRequest(String customerId, LocalDateTime windowFrom, LocalDateTime windowTo, Long durationSeconds) {
+        checkCustomerId(customerId);
+        EpochInterval window = checkDates(windowFrom, windowTo);
+        if (durationSeconds == null || durationSeconds < 1 || durationSeconds > window.to() - window.from()) {
+            throw new InvalidRequestException("Illegal arguments: Duration must be between 1 second and the length of the window!");
+        }
+        return window;
+    }
+
+    /**
+     * Checks a recurring booking request: the first occurrence must lie in the future and be shorter than the period,
+     * and the rule must end with either an end date or a number of occurrences, at most {@code maxOccurrences}.
+     *
+     * @return the rule without an id
+     */
+    RecurringRule checkRecurringRequest(RecurringRequestDto request, int maxOccurrences) {
+        checkCustomerId(request.customerId());
+        if (request.recurrence() == null) {
+            throw new InvalidRequestException("Illegal arguments: Missing value for recurrence!");
+        }
+        TimeInterval first = request.first() == null ? new TimeInterval(null, null) : request.first();
+        EpochInterval interval = checkDates(first.from(), first.to());
+        long period = request.recurrence().periodSeconds();
+        if (interval.to() - interval.from() >= period) {
+            throw new InvalidRequestException("Illegal arguments: Occurrences must be shorter than the recurrence period!");
+        }
+        if ((request.until() == null) == (request.occurrences() == null)) {
+            throw new InvalidRequestException("Illegal arguments: Exactly one of until and occurrences must be given!");
+        }
+
+        long occurrences = request.occurrences() != null
+                ? request.occurrences()
+                : Math.floorDiv(EpochInterval.epochSecond(request.until()) - interval.from(), period) + 1;
+        if (occurrences < 1 || occurrences > maxOccurrences) {
+            throw new InvalidRequestException("Illegal arguments: A recurring booking must have between 1 and "
+                    + maxOccurrences + " occurrences!");
+        }
+        return new RecurringRule(0, request.customerId(), request.recurrence(), interval, (int) occurrences);
+    }
+
+    /**
+     * Checks an interval that may already have started, such as a maintenance window.
+     */
+    EpochInterval checkRange(LocalDateTime intervalFrom, LocalDateTime intervalTo) {
+        checkIfDatesArePresent(intervalFrom, intervalTo);
+        EpochInterval interval = EpochInterval.of(intervalFrom, intervalTo);
+        checkDatesFromAfterTo(interval);
+        return interval;
+    }
+
+    /**
+     * Drops the earlier alternative of a conflict if it already started; the stores do not know the time.
+     */
+    TimeIntervalAlreadyBookedException upcomingAlternatives(TimeIntervalAlreadyBookedException conflict) {
+        return conflict.notBefore(EpochInterval.dateTime(EpochInterval.now(this.clock)));
+    }
+
+    /**
+     * Error for cancelling a live booking that is no longer active.
+     */
+    static RuntimeException notCancelable(long bookingId, BookingStatus status) {
+        return switch (status) {
+            case IN_PROGRESS -> new InvalidRequestException("Illegal arguments: Booking with ID " + bookingId + " has already started!");
+            case COMPLETED -> new InvalidRequestException("Illegal arguments: Booking with ID " + bookingId + " has already ended!");
+            case HELD -> new InvalidRequestException("Illegal arguments: Booking with ID " + bookingId + " is a hold; it is released when it expires unconfirmed!");
+            case EXPIRED -> new InvalidRequestException("Illegal arguments: Booking with ID " + bookingId + " is a hold that has already expired!");
+            default -> new BookingAlreadyCanceledException("Booking with ID "+ bookingId + " is already canceled!");
+        };
+    }
+
+    void checkCustomerId(String customerId) {
+        if(customerId == null || customerId.isEmpty()) {
+            throw new InvalidRequestException("Illegal arguments: Customer ID is not present!");
+        }
+
+        if(!customerId.matches("^[a-zA-Z0-9]*$")) {
+            throw new InvalidRequestException("Illegal arguments: Customer ID should contain only alphanumeric characters!");
+        }
+    }
+
+    EpochInterval checkDates(LocalDateTime intervalFrom, LocalDateTime intervalTo) {
+        checkIfDatesArePresent(intervalFrom, intervalTo);
+        EpochInterval interval = EpochInterval.of(intervalFrom, intervalTo);
+        checkDatesFromAfterTo(interval);
+        checkDatesInThePast(interval);
+        return interval;
+    }
+
+    private void checkIfDatesArePresent(LocalDateTime intervalFrom, LocalDateTime intervalTo) {
+        if(intervalFrom == null) {
+            throw new InvalidRequestException("Illegal time interval arguments: Missing value for time interval from!!!");
+        }
+
+        if(intervalTo == null) {
+            throw new InvalidRequestException("Illegal time interval arguments: Missing value for time interval to!!!");
+        }
+    }
+
+    private void checkDatesFromAfterTo(EpochInterval interval) {
+        if (interval.from() >= interval.to()) {
+            throw new InvalidRequestException("Illegal time interval arguments: Time interval from must be before time interval to!!!");
+        }
+    }
+
+    private void checkDatesInThePast(EpochInterval interval) {
+        if(interval.from() < EpochInterval.now(this.clock)) {
+            throw new InvalidRequestException("Illegal time interval: Time interval should not be in the past!");
+        }
+    }
+}
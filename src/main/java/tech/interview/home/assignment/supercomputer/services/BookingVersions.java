@@ -0,0 +1,108 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import org.springframework.stereotype.Component;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Version counters of the customer booking lists and of single bookings, used as entity tags of the read endpoints.
+ * A customer's version is bumped whenever one of their bookings is added or changes, a booking's version whenever
+ * the booking changes. Versions are drawn from one sequence, so a customer or booking never gets the same version
+ * twice. Tags also carry a random instance id, so tags handed out before a restart never match.
+ * <p>
+ * Compaction changes the customer lists without touching single bookings, so it bumps one shared archive generation
+ * that is part of every tag, and then drops all versions, so archived bookings and their customers do not keep entries
+ * forever. A dropped version reads as {@code 0}, which under the new generation was never handed out for any other
+ * state.
+ * <p>
+ * Versions are bumped after the change is committed. Readers take the tag before they read, so a tag is never
+ * newer than the data sent with it; reads served from {@link BookingProjection} only use it once it has applied the
+ * changes of the booking or customer published so far.
+ */
+@Component
+public class BookingVersions {
+    private final String instance = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong archiveGeneration = new AtomicLong();
+    private final ReadWriteLock pruneLock = new ReentrantReadWriteLock();
+    private final Map<String, Long> customerVersions = new ConcurrentHashMap<>();
+    private final Map<Long, Long> bookingVersions = new ConcurrentHashMap<>();
+
+    public void customerChanged(String customerId) {
+        this.pruneLock.readLock().lock();
+        try {
+            this.customerVersions.put(customerId, this.sequence.incrementAndGet());
+        } finally {
+            this.pruneLock.readLock().unlock();
+        }
+    }
+
+    public void bookingChanged(long bookingId, String customerId) {
+        this.pruneLock.readLock().lock();
+        try {
+            this.bookingVersions.put(bookingId, this.sequence.incrementAndGet());
+            this.customerVersions.put(customerId, this.sequence.incrementAndGet());
+        } finally {
+            this.pruneLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bumps every booking and each of their customers once.
+     */
+    public void bookingsChanged(Collection<Booking> bookings) {
+        Set<String> customers = new HashSet<>();
+        this.pruneLock.readLock().lock();
+        try {
+            for (Booking booking : bookings) {
+                this.bookingVersions.put(booking.getId(), this.sequence.incrementAndGet());
+                customers.add(booking.getCustomerId());
+            }
+            customers.forEach(customerId -> this.customerVersions.put(customerId, this.sequence.incrementAndGet()));
+        } finally {
+            this.pruneLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Starts a new archive generation and drops all versions. Runs while no version is being bumped, so no bump is
+     * lost between the two.
+     */
+    public void archived() {
+        this.pruneLock.writeLock().lock();
+        try {
+            this.archiveGeneration.incrementAndGet();
+            this.customerVersions.clear();
+            this.bookingVersions.clear();
+        } finally {
+            this.pruneLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tags read the version before the generation, so a version dropped by {@link #archived()} is always read under
+     * the generation that dropped it.
+     */
+    public String customerETag(String customerId) {
+        long version = this.customerVersions.getOrDefault(customerId, 0L);
+        return "\"c-" + this.instance + "-" + this.archiveGeneration.get() + "-" + version + "\"";
+    }
+
+    public String bookingETag(long bookingId) {
+        long version = this.bookingVersions.getOrDefault(bookingId, 0L);
+        return "\"b-" + this.instance + "-" + this.archiveGeneration.get() + "-" + bookingId + "-" + version + "\"";
+    }
+
+    int trackedVersions() {
+        return this.customerVersions.size() + this.bookingVersions.size();
+    }
+}
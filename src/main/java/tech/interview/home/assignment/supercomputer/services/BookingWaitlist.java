@@ -0,0 +1,387 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import tech.interview.home.assignment.supercomputer.config.WaitlistProperties;
+import tech.interview.home.assignment.supercomputer.exceptions.InvalidRequestException;
+import tech.interview.home.assignment.supercomputer.exceptions.QuotaExceededException;
+import tech.interview.home.assignment.supercomputer.exceptions.ResourceNotFoundException;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.model.domain.WaitlistStatus;
+import tech.interview.home.assignment.supercomputer.model.dto.WaitlistEntryDto;
+import tech.interview.home.assignment.supercomputer.model.dto.WaitlistRequestDto;
+import tech.interview.home.assignment.supercomputer.storage.BookingStore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Waitlist for time that is already booked. Customers register a window and a duration; a request is tried right
+ * away, and whenever a cancellation, an expired hold or a canceled recurring booking frees an interval, the requests
+ * whose window overlaps it are looked up in a {@link WaitlistIndex} and tried in registration order. Each try books
+ * the earliest free time of the request's whole window, so a request can also get time next to the freed interval,
+ * with the same atomic check-and-insert and quota reservation as a new booking. Freed intervals are assigned one at a
+ * time, so waiting customers never race each other; a try on registration may race an assignment, the atomic insert
+ * decides and the loser keeps waiting.
+ * <p>
+ * The waitlist lives in memory per instance. Requests are dropped once their window can no longer fit the duration,
+ * assignments are remembered until the end of their window.
+ */
+@Service
+public class BookingWaitlist implements DisposableBean {
+    private static final Duration EMIT_TIMEOUT = Duration.ofSeconds(1);
+
+    private final BookingStore store;
+    private final BookingStateVersion stateVersion;
+    private final BookingUtilization utilization;
+    private final CustomerQuota quota;
+    private final BookingVersions versions;
+    private final BookingLifecycle lifecycle;
+    private final Optional<RecurringBookings> recurring;
+    private final WaitlistProperties properties;
+    private final Clock clock;
+    private final BookingValidation validation;
+    private final Counter assignedCounter;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Object lock = new Object();
+    private final WaitlistIndex<Entry> index = new WaitlistIndex<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, Integer> waitingByCustomer = new HashMap<>();
+    private final Sinks.Many<EpochInterval> released = Sinks.many().unicast().onBackpressureBuffer();
+    private final Disposable pipeline;
+    private final Disposable sweeper;
+
+    public BookingWaitlist(final BookingStore store,
+                           final BookingStateVersion stateVersion,
+                           final BookingUtilization utilization,
+                           final CustomerQuota quota,
+                           final BookingVersions versions,
+                           final BookingLifecycle lifecycle,
+                           final Optional<RecurringBookings> recurring,
+                           final WaitlistProperties properties,
+                           final Clock clock,
+                           final MeterRegistry meterRegistry) {
+        this.store = store;
+        this.stateVersion = stateVersion;
+        this.utilization = utilization;
+        this.quota = quota;
+        this.versions = versions;
+        this.lifecycle = lifecycle;
+        this.recurring = recurring;
+        this.properties = properties;
+        this.clock = clock;
+        this.validation = new BookingValidation(clock);
+        this.assignedCounter = meterRegistry.counter("booking.waitlist.assigned");
+        meterRegistry.gauge("booking.waitlist.waiting", this, BookingWaitlist::waiting);
+        recurring.ifPresent(rules -> rules.addListener(this::released));
+        this.pipeline = this.released.asFlux()
+                .concatMap(this::assign)
+                .subscribe();
+        this.sweeper = Flux.interval(properties.sweepInterval())
+                .onBackpressureDrop()
+                .subscribe(tick -> sweep());
+    }
+
+    /**
+     * Puts the request on the waitlist and tries to book it right away.
+     *
+     * @return the entry, assigned if its window had room, or {@link IllegalArgumentException} if the request is invalid or the customer
+     * already waits for {@code max-per-customer} windows
+     */
+    public Mono<WaitlistEntryDto> register(Mono<WaitlistRequestDto> request) {
+        return request.map(req -> {
+            TimeInterval window = req.window() == null ? new TimeInterval(null, null) : req.window();
+            EpochInterval interval = this.validation.checkWaitlistRequest(req.customerId(), window.from(), window.to(), req.durationSeconds());
+
+            synchronized (this.lock) {
+                int waiting = this.waitingByCustomer.getOrDefault(req.customerId(), 0);
+                if (waiting >= this.properties.maxPerCustomer()) {
+                    throw new InvalidRequestException("Illegal arguments: Customer " + req.customerId() + " already waits for "
+                            + waiting + " windows!");
+                }
+
+                Entry entry = new Entry(this.sequence.incrementAndGet(), req.customerId(), interval, req.durationSeconds());
+                this.entries.put(entry.id(), entry);
+                enlist(entry);
+                return entry;
+            }
+        }).flatMap(entry -> tryAssign(entry)
+                .then(Mono.fromCallable(() -> {
+                    synchronized (this.lock) {
+                        return toDto(this.entries.getOrDefault(entry.id(), entry));
+                    }
+                })));
+    }
+
+    /**
+     * @return the entry, or {@link ResourceNotFoundException} if it does not exist, was withdrawn or has lapsed
+     */
+    public Mono<WaitlistEntryDto> findById(long id) {
+        return Mono.fromCallable(() -> {
+            synchronized (this.lock) {
+                Entry entry = this.entries.get(id);
+                if (entry == null) {
+                    throw notFound(id);
+                }
+                return toDto(entry);
+            }
+        });
+    }
+
+    /**
+     * Takes a waiting request off the waitlist.
+     *
+     * @return {@link ResourceNotFoundException} if the entry does not exist or was already assigned
+     */
+    public Mono<Void> withdraw(long id) {
+        return Mono.fromRunnable(() -> {
+            synchronized (this.lock) {
+                Entry entry = this.entries.get(id);
+                if (entry == null || entry.bookingId() != null) {
+                    throw notFound(id);
+                }
+                this.entries.remove(id);
+                delist(entry);
+            }
+        });
+    }
+
+    /**
+     * Offers the interval of a canceled booking or an expired hold to the waitlist. Returns immediately, the
+     * assignment runs in the background.
+     */
+    public void released(Booking booking) {
+        synchronized (this.lock) {
+            if (this.index.size() == 0) {
+                return;
+            }
+        }
+        this.released.emitNext(EpochInterval.of(booking), Sinks.EmitFailureHandler.busyLooping(EMIT_TIMEOUT));
+    }
+
+    /**
+     * Offers the intervals of bookings canceled together to the waitlist, adjacent intervals merged into one, so a
+     * request may get time that spanned several of them.
+     */
+    public void released(List<Booking> bookings) {
+        synchronized (this.lock) {
+            if (this.index.size() == 0) {
+                return;
+            }
+        }
+
+        List<EpochInterval> intervals = bookings.stream()
+                .map(EpochInterval::of)
+                .sorted(Comparator.comparingLong(EpochInterval::from))
+                .toList();
+        EpochInterval merged = null;
+        for (EpochInterval interval : intervals) {
+            if (merged != null && interval.from() <= merged.to() + 1) {
+                merged = new EpochInterval(merged.from(), Math.max(merged.to(), interval.to()));
+                continue;
+            }
+            if (merged != null) {
+                this.released.emitNext(merged, Sinks.EmitFailureHandler.busyLooping(EMIT_TIMEOUT));
+            }
+            merged = interval;
+        }
+        if (merged != null) {
+            this.released.emitNext(merged, Sinks.EmitFailureHandler.busyLooping(EMIT_TIMEOUT));
+        }
+    }
+
+    /**
+     * Tries the waiting requests overlapping the freed interval in registration order.
+     */
+    Mono<Void> assign(EpochInterval freed) {
+        return Mono.defer(() -> {
+            List<Entry> candidates;
+            synchronized (this.lock) {
+                candidates = this.index.overlapping(freed);
+            }
+            return Flux.fromIterable(candidates)
+                    .concatMap(this::tryAssign)
+                    .then();
+        });
+    }
+
+    /**
+     * Books the request at the earliest time of its window that is not in the past and free of bookings and of
+     * recurring booking occurrences.
+     */
+    private Mono<Long> tryAssign(Entry entry) {
+        return Mono.defer(() -> {
+            long from = Math.max(entry.window().from(), EpochInterval.now(this.clock));
+            if (from + entry.durationSeconds() > entry.window().to()) {
+                return Mono.empty();
+            }
+            EpochInterval range = new EpochInterval(from, entry.window().to());
+            return this.store.findOccupying(range)
+                    .map(EpochInterval::of)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(this.recurring
+                            .map(recurring -> recurring.occurringIn(range))
+                            .orElse(List.of()))))
+                    .collectList()
+                    .mapNotNull(occupied -> earliestFit(occupied, range, entry.durationSeconds()))
+                    .flatMap(interval -> book(entry, interval));
+        });
+    }
+
+    /**
+     * Earliest interval of the given length within {@code range} that overlaps none of the occupied ones, which may
+     * overlap each other.
+     */
+    static EpochInterval earliestFit(List<EpochInterval> occupied, EpochInterval range, long durationSeconds) {
+        List<EpochInterval> sorted = occupied.stream()
+                .sorted(Comparator.comparingLong(EpochInterval::from))
+                .toList();
+        long from = range.from();
+        for (EpochInterval interval : sorted) {
+            if (from + durationSeconds < interval.from()) {
+                break;
+            }
+            from = Math.max(from, interval.to() + 1);
+        }
+        return from + durationSeconds <= range.to() ? new EpochInterval(from, from + durationSeconds) : null;
+    }
+
+    private Mono<Long> book(Entry entry, EpochInterval interval) {
+        return Mono.defer(() -> {
+            synchronized (this.lock) {
+                if (!this.entries.containsKey(entry.id()) || !delist(entry)) {
+                    return Mono.empty();
+                }
+            }
+
+            Booking booking = Booking.builder()
+                    .customerId(entry.customerId())
+                    .status(BookingStatus.ACTIVE)
+                    .timeIntervalFrom(interval.fromDateTime())
+                    .timeIntervalTo(interval.toDateTime())
+                    .build();
+            CustomerQuota.Reservation reservation;
+            try {
+                reservation = this.quota.reserve(booking);
+            } catch (QuotaExceededException e) {
+                relist(entry);
+                return Mono.empty();
+            }
+
+            return guard(booking)
+                    .map(inserted -> {
+                        reservation.commit(inserted.getId());
+                        this.utilization.add(inserted);
+                        this.lifecycle.schedule(inserted);
+                        this.versions.customerChanged(inserted.getCustomerId());
+                        this.stateVersion.increment();
+                        this.assignedCounter.increment();
+                        synchronized (this.lock) {
+                            this.entries.put(entry.id(), entry.assigned(inserted.getId()));
+                        }
+                        return inserted.getId();
+                    })
+                    .onErrorResume(e -> {
+                        reservation.release();
+                        relist(entry);
+                        return Mono.empty();
+                    });
+        });
+    }
+
+    private Mono<Booking> guard(Booking booking) {
+        Mono<Booking> insert = this.store.insertIfAvailable(booking);
+        return this.recurring
+                .map(recurring -> recurring.guard(booking, insert))
+                .orElse(insert);
+    }
+
+    /**
+     * Drops waiting requests whose window can no longer fit their duration and assignments whose window has ended.
+     */
+    void sweep() {
+        long now = EpochInterval.now(this.clock);
+        synchronized (this.lock) {
+            this.entries.values().removeIf(entry -> {
+                if (entry.bookingId() != null) {
+                    return entry.window().to() < now;
+                }
+                if (entry.window().to() - entry.durationSeconds() < now) {
+                    delist(entry);
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+
+    private int waiting() {
+        synchronized (this.lock) {
+            return this.index.size();
+        }
+    }
+
+    private void enlist(Entry entry) {
+        this.index.add(entry.id(), entry.window(), entry);
+        this.waitingByCustomer.merge(entry.customerId(), 1, Integer::sum);
+    }
+
+    private boolean delist(Entry entry) {
+        if (!this.index.remove(entry.id(), entry.window())) {
+            return false;
+        }
+        this.waitingByCustomer.computeIfPresent(entry.customerId(), (customerId, count) -> count == 1 ? null : count - 1);
+        return true;
+    }
+
+    /**
+     * Puts back a request whose assignment failed, unless it was withdrawn in the meantime.
+     */
+    private void relist(Entry entry) {
+        synchronized (this.lock) {
+            if (this.entries.containsKey(entry.id())) {
+                enlist(entry);
+            }
+        }
+    }
+
+    private static WaitlistEntryDto toDto(Entry entry) {
+        return new WaitlistEntryDto(entry.id(), entry.customerId(), entry.window().toTimeInterval(), entry.durationSeconds(),
+                entry.bookingId() == null ? WaitlistStatus.WAITING : WaitlistStatus.ASSIGNED, entry.bookingId());
+    }
+
+    private static ResourceNotFoundException notFound(long id) {
+        return new ResourceNotFoundException("Waitlist entry with id " + id + " does not exist!");
+    }
+
+    @Override
+    public void destroy() {
+        this.released.tryEmitComplete();
+        this.pipeline.dispose();
+        this.sweeper.dispose();
+    }
+
+    private record Entry(long id, String customerId, EpochInterval window, long durationSeconds, Long bookingId) {
+        Entry(long id, String customerId, EpochInterval window, long durationSeconds) {
+            this(id, customerId, window, durationSeconds, null);
+        }
+
+        Entry assigned(long bookingId) {
+            return new Entry(this.id, this.customerId, this.window, this.durationSeconds, bookingId);
+        }
+    }
+}
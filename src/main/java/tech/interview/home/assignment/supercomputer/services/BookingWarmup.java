@@ -0,0 +1,165 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import tech.interview.home.assignment.supercomputer.config.WarmupProperties;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.storage.BookingStore;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Rebuilds the in-memory state of all {@link WarmupTarget}s on startup. The id space is split into chunks of
+ * {@code chunk-size} ids that are read from the store {@code parallelism} at a time on a fork-join pool, where every
+ * chunk is also sorted into a run as soon as it arrives; drivers that block the subscribing thread read in parallel
+ * as well. The runs are merged into one list ordered by start.
+ * <p>
+ * Loading runs as a lifecycle phase before the web server starts, so no request can change the store while it is
+ * read and be counted twice by the targets. The readiness group also includes this health indicator, which reports
+ * the load rate and duration.
+ */
+@Component
+public class BookingWarmup implements HealthIndicator, SmartLifecycle {
+    static final Comparator<Booking> BY_START = Comparator.comparing(Booking::getTimeIntervalFrom)
+            .thenComparing(Booking::getId);
+    /**
+     * Before the reactive web server, which starts at {@code Integer.MAX_VALUE - 2048}.
+     */
+    static final int PHASE = Integer.MAX_VALUE - 4096;
+
+    private final BookingStore store;
+    private final List<WarmupTarget> targets;
+    private final WarmupProperties properties;
+    private volatile Result result;
+
+    public BookingWarmup(final BookingStore store,
+                         final List<WarmupTarget> targets,
+                         final WarmupProperties properties) {
+        this.store = store;
+        this.targets = targets;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        if (this.result == null) {
+            load();
+        }
+    }
+
+    @Override
+    public void stop() {
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.result != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    void load() {
+        long start = System.nanoTime();
+        long maxId = this.store.findMaxId().blockOptional().orElse(0L);
+        int chunkSize = this.properties.chunkSize();
+        int chunks = (int) ((maxId + chunkSize - 1) / chunkSize);
+
+        Scheduler pool = Schedulers.fromExecutorService(new ForkJoinPool(this.properties.parallelism()));
+        List<List<Booking>> runs;
+        try {
+            runs = Flux.range(0, chunks)
+                    .flatMap(chunk -> this.store.findAllByIdRange(chunk * (long) chunkSize + 1, Math.min((chunk + 1L) * chunkSize, maxId))
+                                    .collectList()
+                                    .map(BookingWarmup::sort)
+                                    .subscribeOn(pool),
+                            this.properties.parallelism())
+                    .collectList()
+                    .block();
+        } finally {
+            pool.dispose();
+        }
+
+        List<Booking> bookings = merge(runs);
+        this.targets.forEach(target -> target.load(bookings));
+        this.result = new Result(bookings.size(), chunks, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    @Override
+    public Health health() {
+        Result loaded = this.result;
+        if (loaded == null) {
+            return Health.outOfService().build();
+        }
+        return Health.up()
+                .withDetail("bookings", loaded.bookings())
+                .withDetail("chunks", loaded.chunks())
+                .withDetail("duration", loaded.duration().toMillis() + "ms")
+                .withDetail("bookingsPerSecond", Math.round(loaded.bookingsPerSecond()))
+                .build();
+    }
+
+    private static List<Booking> sort(List<Booking> run) {
+        ArrayList<Booking> sorted = new ArrayList<>(run);
+        sorted.sort(BY_START);
+        return sorted;
+    }
+
+    /**
+     * K-way merge of sorted runs, O(n log k).
+     */
+    static List<Booking> merge(List<List<Booking>> runs) {
+        int size = runs.stream().mapToInt(List::size).sum();
+        List<Booking> merged = new ArrayList<>(size);
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Math.max(runs.size(), 1), Comparator.comparing(Cursor::head, BY_START));
+        for (List<Booking> run : runs) {
+            if (!run.isEmpty()) {
+                heads.add(new Cursor(run));
+            }
+        }
+
+        Cursor cursor;
+        while ((cursor = heads.poll()) != null) {
+            merged.add(cursor.head());
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    private static final class Cursor {
+        private final List<Booking> run;
+        private int index;
+
+        private Cursor(List<Booking> run) {
+            this.run = run;
+        }
+
+        Booking head() {
+            return this.run.get(this.index);
+        }
+
+        boolean advance() {
+            return ++this.index < this.run.size();
+        }
+    }
+
+    record Result(long bookings, int chunks, Duration duration) {
+        double bookingsPerSecond() {
+            return this.bookings / Math.max(this.duration.toNanos() / 1_000_000_000.0, 1e-9);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import tech.interview.home.assignment.supercomputer.config.QuotaProperties;
+import tech.interview.home.assignment.supercomputer.exceptions.QuotaExceededException;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+
+import java.time.Clock;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps the booked time each customer holds in bookings that have not ended yet, with one atomic counter per
+ * customer instead of a {@code SUM} over {@code BOOKINGS} in the write transaction. A new booking first reserves its
+ * length on the counter and either commits the reservation once it is persisted or releases it if the insert fails.
+ * Cancellations subtract the booking again and bookings that end decay out of the counters: every committed booking
+ * waits in a queue ordered by its end, which is drained whenever a reservation is made.
+ */
+@Component
+public class CustomerQuota implements WarmupTarget {
+    private final QuotaProperties properties;
+    private final Clock clock;
+    private final Counter rejections;
+    private final Map<String, AtomicLong> bookedSeconds = new ConcurrentHashMap<>();
+    private final Map<Long, Held> heldByBookingId = new ConcurrentHashMap<>();
+    private final PriorityBlockingQueue<Held> byEnd = new PriorityBlockingQueue<>(1024, Comparator.comparingLong(Held::end));
+
+    public CustomerQuota(final QuotaProperties properties,
+                         final Clock clock,
+                         final MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.clock = clock;
+        this.rejections = meterRegistry.counter("booking.quota.rejections");
+    }
+
+    /**
+     * Reserves the length of the booking on the customer's counter.
+     *
+     * @throws QuotaExceededException if quotas are enabled and the reservation would exceed the maximum booked time
+     */
+    public Reservation reserve(Booking booking) {
+        decay();
+
+        EpochInterval interval = EpochInterval.of(booking);
+        long seconds = interval.to() - interval.from();
+        long limit = this.properties.maxBookedTime().toSeconds();
+        AtomicLong counter = counter(booking.getCustomerId());
+        long current;
+        do {
+            current = counter.get();
+            if (this.properties.enabled() && current + seconds > limit) {
+                this.rejections.increment();
+                throw new QuotaExceededException("Customer " + booking.getCustomerId() + " would hold "
+                        + (current + seconds) / 3600.0 + " booked hours, at most " + limit / 3600.0 + " are allowed!");
+            }
+        } while (!counter.compareAndSet(current, current + seconds));
+
+        return new Reservation(booking, interval.to(), seconds);
+    }
+
+    /**
+     * Counts a booking that was persisted without a reservation, such as an imported one. Bookings that are not
+     * confirmed or have already ended are not counted.
+     */
+    public void add(Booking booking) {
+        if (!booking.getStatus().confirmed()) {
+            return;
+        }
+
+        EpochInterval interval = EpochInterval.of(booking);
+        if (interval.to() > EpochInterval.now(this.clock)) {
+            long seconds = interval.to() - interval.from();
+            counter(booking.getCustomerId()).addAndGet(seconds);
+            hold(booking.getId(), booking.getCustomerId(), interval.to(), seconds);
+        }
+    }
+
+    /**
+     * Stops counting a canceled booking.
+     */
+    public void remove(Booking booking) {
+        Held held = this.heldByBookingId.remove(booking.getId());
+        if (held != null) {
+            held.release();
+        }
+    }
+
+    /**
+     * Booked seconds the customer holds in bookings that have not ended yet.
+     */
+    public long bookedSeconds(String customerId) {
+        decay();
+        AtomicLong counter = this.bookedSeconds.get(customerId);
+        return counter == null ? 0 : counter.get();
+    }
+
+    /**
+     * Counts the confirmed bookings that have not ended yet.
+     */
+    @Override
+    public void load(List<Booking> bookings) {
+        bookings.forEach(this::add);
+    }
+
+    private void decay() {
+        long now = EpochInterval.now(this.clock);
+        Held head;
+        while ((head = this.byEnd.peek()) != null && head.end() <= now) {
+            Held held = this.byEnd.poll();
+            if (held == null) {
+                return;
+            }
+            if (held.end() > now) {
+                this.byEnd.add(held);
+                return;
+            }
+            this.heldByBookingId.remove(held.bookingId(), held);
+            held.release();
+        }
+    }
+
+    private void hold(long bookingId, String customerId, long end, long seconds) {
+        Held held = new Held(bookingId, customerId, end, seconds);
+        this.heldByBookingId.put(bookingId, held);
+        this.byEnd.add(held);
+    }
+
+    private AtomicLong counter(String customerId) {
+        return this.bookedSeconds.computeIfAbsent(customerId, id -> new AtomicLong());
+    }
+
+    /**
+     * Booked time reserved for a booking that is being persisted. Exactly one of {@link #commit(long)} and
+     * {@link #release()} takes effect.
+     */
+    public final class Reservation {
+        private final Booking booking;
+        private final long end;
+        private final long seconds;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Reservation(Booking booking, long end, long seconds) {
+            this.booking = booking;
+            this.end = end;
+            this.seconds = seconds;
+        }
+
+        /**
+         * Keeps the reserved time until the persisted booking ends or is canceled.
+         */
+        public void commit(long bookingId) {
+            if (this.done.compareAndSet(false, true)) {
+                hold(bookingId, this.booking.getCustomerId(), this.end, this.seconds);
+            }
+        }
+
+        /**
+         * Gives the reserved time back because the booking was not persisted.
+         */
+        public void release() {
+            if (this.done.compareAndSet(false, true)) {
+                counter(this.booking.getCustomerId()).addAndGet(-this.seconds);
+            }
+        }
+    }
+
+    private final class Held {
+        private final long bookingId;
+        private final String customerId;
+        private final long end;
+        private final long seconds;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Held(long bookingId, String customerId, long end, long seconds) {
+            this.bookingId = bookingId;
+            this.customerId = customerId;
+            this.end = end;
+            this.seconds = seconds;
+        }
+
+        long bookingId() {
+            return this.bookingId;
+        }
+
+        long end() {
+            return this.end;
+        }
+
+        void release() {
+            if (this.released.compareAndSet(false, true)) {
+                counter(this.customerId).addAndGet(-this.seconds);
+            }
+        }
+    }
+}
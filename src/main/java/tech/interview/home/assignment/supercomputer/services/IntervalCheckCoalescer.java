@@ -0,0 +1,62 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of availability lookups. Concurrent checks of the same time interval share one
+ * in-flight lookup. Lookups are keyed by the current {@link BookingStateVersion}, so a check issued after a
+ * committed booking change never joins a lookup that was started before it.
+ */
+@Component
+public class IntervalCheckCoalescer {
+    private final ConcurrentMap<LookupKey, Mono<Boolean>> inFlight = new ConcurrentHashMap<>();
+    private final BookingStateVersion stateVersion;
+    private final Counter requests;
+    private final Counter lookups;
+
+    public IntervalCheckCoalescer(final BookingStateVersion stateVersion,
+                                  final MeterRegistry meterRegistry) {
+        this.stateVersion = stateVersion;
+        this.requests = Counter.builder("booking.check.requests")
+                .description("Availability checks requested")
+                .register(meterRegistry);
+        this.lookups = Counter.builder("booking.check.lookups")
+                .description("Availability lookups executed against the repository")
+                .register(meterRegistry);
+        Gauge.builder("booking.check.coalescing.ratio", this, IntervalCheckCoalescer::coalescingRatio)
+                .description("Share of availability checks served by an already in-flight lookup")
+                .register(meterRegistry);
+    }
+
+    public Mono<Boolean> isTimeIntervalAlreadyBooked(EpochInterval interval, Supplier<Mono<Boolean>> lookup) {
+        return Mono.defer(() -> {
+            this.requests.increment();
+            LookupKey key = new LookupKey(interval.from(), interval.to(), this.stateVersion.current());
+            return this.inFlight.computeIfAbsent(key, k -> startLookup(k, lookup));
+        });
+    }
+
+    double coalescingRatio() {
+        double requested = this.requests.count();
+        return requested == 0 ? 0 : 1 - this.lookups.count() / requested;
+    }
+
+    private Mono<Boolean> startLookup(LookupKey key, Supplier<Mono<Boolean>> lookup) {
+        this.lookups.increment();
+        return lookup.get()
+                .doFinally(signal -> this.inFlight.remove(key))
+                .cache();
+    }
+
+    private record LookupKey(long from, long to, long version) {
+    }
+}
@@ -0,0 +1,332 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import tech.interview.home.assignment.supercomputer.config.WriteRetryProperties;
+import tech.interview.home.assignment.supercomputer.exceptions.BookingAlreadyCanceledException;
+import tech.interview.home.assignment.supercomputer.exceptions.InvalidRequestException;
+import tech.interview.home.assignment.supercomputer.exceptions.ResourceNotFoundException;
+import tech.interview.home.assignment.supercomputer.exceptions.TimeIntervalAlreadyBookedException;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.model.dto.BookingResponseDto;
+import tech.interview.home.assignment.supercomputer.model.dto.CheckBookingRequestDto;
+import tech.interview.home.assignment.supercomputer.model.dto.CheckBookingResponseDto;
+import tech.interview.home.assignment.supercomputer.model.dto.NewBookingRequestDto;
+import tech.interview.home.assignment.supercomputer.model.mappers.BookingMapper;
+import tech.interview.home.assignment.supercomputer.storage.Conflicts;
+import tech.interview.home.assignment.supercomputer.storage.R2dbcBookingStore;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Booking service on plain JDBC with blocking transactions. New bookings are serialized by locking the single
+ * {@code BOOKING_WRITE_LOCK} row before the availability check, so the check and the insert see every booking
+ * committed before them (H2 does not prevent the phantom insert under serializable isolation). Every call runs as ordinary sequential
+ * code on the {@code jdbcExecutor} (a virtual thread per call on Java 21) and is only wrapped into a
+ * {@link Mono}/{@link Flux} at the end, so the handlers stay unchanged. Selected with
+ * {@code supercomputer.service.type=jdbc}.
+ * <p>
+ * Holds, the waitlist, bulk cancellation and imports still write through the {@link R2dbcBookingStore} on the same
+ * database, which locks the same row, so this service only runs with {@code supercomputer.storage.type=r2dbc}. Its
+ * commits are published through that store, so the store listeners see every write. New bookings are checked against
+ * the recurring bookings before and after the insert, the same way as in the reactive service.
+ */
+@Service
+@ConditionalOnProperty(prefix = "supercomputer.service", name = "type", havingValue = "jdbc")
+public class JdbcBookingService implements BookingService {
+    private static final String COLUMNS = "ID, CUSTOMER_ID, STATUS, TIME_INTERVAL_FROM, TIME_INTERVAL_TO";
+    private static final String FIND_BY_ID = "SELECT " + COLUMNS + " FROM BOOKINGS WHERE ID = ?";
+    private static final String FIND_ARCHIVED_BY_ID = "SELECT " + COLUMNS + " FROM BOOKINGS_ARCHIVE WHERE ID = ?";
+    private static final String FIND_FOR_CUSTOMER = "SELECT " + COLUMNS + " FROM BOOKINGS WHERE STATUS IN ('ACTIVE', 'IN_PROGRESS') AND CUSTOMER_ID = ?";
+    private static final String COUNT_OVERLAPPING = "SELECT COUNT(*) FROM BOOKINGS " +
+            "WHERE STATUS IN ('ACTIVE', 'HELD', 'IN_PROGRESS') AND TIME_INTERVAL_FROM <= ? AND TIME_INTERVAL_TO >= ?";
+    private static final String OCCUPYING = "SELECT " + COLUMNS + " FROM BOOKINGS WHERE STATUS IN ('ACTIVE', 'HELD', 'IN_PROGRESS') ";
+    private static final String FIND_OCCUPYING_AROUND = OCCUPYING + "AND TIME_INTERVAL_FROM BETWEEN ? AND ? " +
+            "UNION ALL SELECT * FROM (" + OCCUPYING + "AND TIME_INTERVAL_FROM < ? ORDER BY TIME_INTERVAL_FROM DESC LIMIT ?) " +
+            "UNION ALL SELECT * FROM (" + OCCUPYING + "AND TIME_INTERVAL_FROM > ? ORDER BY TIME_INTERVAL_FROM LIMIT ?)";
+    private static final String INSERT = "INSERT INTO BOOKINGS (CUSTOMER_ID, STATUS, TIME_INTERVAL_FROM, TIME_INTERVAL_TO) VALUES (?, ?, ?, ?)";
+    private static final String LOCK_WRITES = "SELECT ID FROM BOOKING_WRITE_LOCK WHERE ID = 1 FOR UPDATE";
+    private static final String LOCK_BOOKING = "SELECT " + COLUMNS + " FROM BOOKINGS WHERE ID = ? FOR UPDATE";
+    private static final String UPDATE_STATUS = "UPDATE BOOKINGS SET STATUS = ? WHERE ID = ?";
+
+    private static final RowMapper<Booking> ROW_MAPPER = (rs, rowNum) -> Booking.builder()
+            .id(rs.getLong("ID"))
+            .customerId(rs.getString("CUSTOMER_ID"))
+            .status(BookingStatus.valueOf(rs.getString("STATUS")))
+            .timeIntervalFrom(rs.getObject("TIME_INTERVAL_FROM", LocalDateTime.class))
+            .timeIntervalTo(rs.getObject("TIME_INTERVAL_TO", LocalDateTime.class))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final R2dbcBookingStore store;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingMapper mapper;
+    private final BookingStateVersion stateVersion;
+    private final BookingUtilization utilization;
+    private final CustomerQuota quota;
+    private final BookingVersions versions;
+    private final BookingLifecycle lifecycle;
+    private final BookingWaitlist waitlist;
+    private final Optional<RecurringBookings> recurring;
+    private final BookingValidation validation;
+    private final WriteRetryProperties writeRetry;
+    private final Counter retries;
+    private final Scheduler scheduler;
+
+    public JdbcBookingService(final JdbcTemplate jdbcTemplate,
+                              final R2dbcBookingStore store,
+                              final TransactionTemplate bookingTransactionTemplate,
+                              final BookingMapper mapper,
+                              final BookingStateVersion stateVersion,
+                              final BookingUtilization utilization,
+                              final CustomerQuota quota,
+                              final BookingVersions versions,
+                              final BookingLifecycle lifecycle,
+                              final BookingWaitlist waitlist,
+                              final Optional<RecurringBookings> recurring,
+                              final Clock clock,
+                              final WriteRetryProperties writeRetry,
+                              final MeterRegistry meterRegistry,
+                              final ExecutorService jdbcExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.store = store;
+        this.transactionTemplate = bookingTransactionTemplate;
+        this.mapper = mapper;
+        this.stateVersion = stateVersion;
+        this.utilization = utilization;
+        this.quota = quota;
+        this.versions = versions;
+        this.lifecycle = lifecycle;
+        this.waitlist = waitlist;
+        this.recurring = recurring;
+        this.validation = new BookingValidation(clock);
+        this.writeRetry = writeRetry;
+        this.retries = meterRegistry.counter("booking.write.retries");
+        this.scheduler = Schedulers.fromExecutorService(jdbcExecutor);
+    }
+
+    @Override
+    public Mono<BookingResponseDto> findById(Long id) {
+        return blocking(() -> this.mapper.entityToResponseDto(findBooking(id)));
+    }
+
+    @Override
+    public Flux<BookingResponseDto> findForCustomer(Mono<String> customerId) {
+        return customerId.flatMapMany(customer -> blocking(() -> this.jdbcTemplate.query(FIND_FOR_CUSTOMER, ROW_MAPPER, customer))
+                .flatMapIterable(bookings -> bookings))
+                .map(this.mapper::entityToResponseDto);
+    }
+
+    @Override
+    public Mono<CheckBookingResponseDto> checkTimeInterval(Mono<CheckBookingRequestDto> timeInterval) {
+        return timeInterval.flatMap(req -> blocking(() -> {
+            EpochInterval interval = this.validation.checkDates(req.timeInterval().from(), req.timeInterval().to());
+            boolean booked = this.recurring.map(recurring -> recurring.isTimeIntervalAlreadyBooked(interval)).orElse(false)
+                    || isTimeIntervalAlreadyBooked(interval);
+            return new CheckBookingResponseDto(req.timeInterval(), !booked);
+        }));
+    }
+
+    @Override
+    public Mono<Long> addBooking(Mono<NewBookingRequestDto> booking) {
+        return booking.flatMap(req -> blocking(() -> {
+            Booking entity = this.mapper.requestDtoToEntity(req);
+            this.validation.checkData(entity);
+            entity.setStatus(BookingStatus.ACTIVE);
+            EpochInterval interval = EpochInterval.of(entity);
+
+            CustomerQuota.Reservation reservation = this.quota.reserve(entity);
+            try {
+                checkRecurring(interval);
+                long id = inTransaction(() -> {
+                    this.jdbcTemplate.queryForObject(LOCK_WRITES, Integer.class);
+                    if (isTimeIntervalAlreadyBooked(interval)) {
+                        throw conflict(interval);
+                    }
+                    return insert(entity);
+                });
+                entity.setId(id);
+                this.store.inserted(entity);
+                guardRecurring(entity, interval);
+            } catch (TimeIntervalAlreadyBookedException e) {
+                reservation.release();
+                throw this.validation.upcomingAlternatives(e);
+            } catch (RuntimeException e) {
+                reservation.release();
+                throw e;
+            }
+            reservation.commit(entity.getId());
+            this.utilization.add(entity);
+            this.lifecycle.schedule(entity.toBuilder().build());
+            this.versions.customerChanged(entity.getCustomerId());
+            this.stateVersion.increment();
+            return entity.getId();
+        }));
+    }
+
+    /**
+     * Rejects the interval if an occurrence of a recurring booking overlaps it.
+     */
+    private void checkRecurring(EpochInterval interval) {
+        List<TimeInterval> occurring = recurringOccurrences(interval);
+        if (!occurring.isEmpty()) {
+            throw new TimeIntervalAlreadyBookedException(interval.toTimeInterval(), occurring, null, null);
+        }
+    }
+
+    /**
+     * Cancels the inserted booking again if a recurring booking that occurs in its interval was added in the meantime,
+     * like {@link RecurringBookings#guard}.
+     */
+    private void guardRecurring(Booking inserted, EpochInterval interval) {
+        List<TimeInterval> added = recurringOccurrences(interval);
+        if (added.isEmpty()) {
+            return;
+        }
+        inTransaction(() -> this.jdbcTemplate.update(UPDATE_STATUS, BookingStatus.CANCELED.name(), inserted.getId()));
+        this.store.statusChanged(inserted, BookingStatus.CANCELED);
+        this.versions.bookingChanged(inserted.getId(), inserted.getCustomerId());
+        this.stateVersion.increment();
+        throw new TimeIntervalAlreadyBookedException(interval.toTimeInterval(), added, null, null);
+    }
+
+    private List<TimeInterval> recurringOccurrences(EpochInterval interval) {
+        return this.recurring
+                .map(recurring -> recurring.occurringIn(interval).stream()
+                        .map(EpochInterval::toTimeInterval)
+                        .toList())
+                .orElse(List.of());
+    }
+
+    @Override
+    public Mono<Boolean> cancelBooking(Long bookingId) {
+        return blocking(() -> {
+            Booking canceled = inTransaction(() -> {
+                List<Booking> locked = this.jdbcTemplate.query(LOCK_BOOKING, ROW_MAPPER, bookingId);
+                if (locked.isEmpty()) {
+                    return null;
+                }
+                if (locked.get(0).getStatus() != BookingStatus.ACTIVE) {
+                    throw BookingValidation.notCancelable(bookingId, locked.get(0).getStatus());
+                }
+
+                this.jdbcTemplate.update(UPDATE_STATUS, BookingStatus.CANCELED.name(), bookingId);
+                return locked.get(0);
+            });
+
+            if (canceled == null) {
+                Booking archived = findBooking(bookingId);
+                if (archived.getStatus().confirmed()) {
+                    throw new InvalidRequestException("Illegal arguments: Booking with ID " + bookingId + " has already ended!");
+                }
+                throw new BookingAlreadyCanceledException("Booking with ID "+ bookingId + " is already canceled!");
+            }
+
+            this.store.statusChanged(canceled, BookingStatus.CANCELED);
+            this.utilization.remove(canceled);
+            this.quota.remove(canceled);
+            this.versions.bookingChanged(bookingId, canceled.getCustomerId());
+            this.stateVersion.increment();
+            this.waitlist.released(canceled);
+            return true;
+        });
+    }
+
+    private Booking findBooking(Long id) {
+        List<Booking> bookings = this.jdbcTemplate.query(FIND_BY_ID, ROW_MAPPER, id);
+        if (bookings.isEmpty()) {
+            bookings = this.jdbcTemplate.query(FIND_ARCHIVED_BY_ID, ROW_MAPPER, id);
+        }
+        if (bookings.isEmpty()) {
+            throw new ResourceNotFoundException("Booking with id " + id + " does not exist!");
+        }
+        return bookings.get(0);
+    }
+
+    private boolean isTimeIntervalAlreadyBooked(EpochInterval interval) {
+        Integer overlapping = this.jdbcTemplate.queryForObject(COUNT_OVERLAPPING, Integer.class,
+                interval.toDateTime(), interval.fromDateTime());
+        return overlapping != null && overlapping > 0;
+    }
+
+    /**
+     * Builds the conflict from the occupying bookings overlapping the interval and up to
+     * {@link Conflicts#NEIGHBOURS} on either side, still under the write lock that detected it.
+     */
+    private TimeIntervalAlreadyBookedException conflict(EpochInterval interval) {
+        List<Booking> occupied = this.jdbcTemplate.query(FIND_OCCUPYING_AROUND, ROW_MAPPER,
+                interval.fromDateTime(), interval.toDateTime(),
+                interval.fromDateTime(), Conflicts.NEIGHBOURS,
+                interval.toDateTime(), Conflicts.NEIGHBOURS);
+        return Conflicts.of(interval, occupied, Conflicts.NEIGHBOURS);
+    }
+
+    private long insert(Booking booking) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        this.jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS);
+            statement.setString(1, booking.getCustomerId());
+            statement.setString(2, booking.getStatus().name());
+            statement.setObject(3, booking.getTimeIntervalFrom());
+            statement.setObject(4, booking.getTimeIntervalTo());
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    /**
+     * Runs the work in one transaction, retrying it with exponential backoff when the transaction is aborted by a
+     * transient failure such as a lock timeout or deadlock.
+     */
+    private <T> T inTransaction(Supplier<T> work) {
+        long backoff = this.writeRetry.minBackoff().toMillis();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return this.transactionTemplate.execute(status -> work.get());
+            } catch (TransientDataAccessException e) {
+                if (attempt > this.writeRetry.maxAttempts()) {
+                    throw e;
+                }
+                this.retries.increment();
+                sleep(backoff);
+                backoff = Math.min(backoff * 2, this.writeRetry.maxBackoff().toMillis());
+            }
+        }
+    }
+
+    private <T> Mono<T> blocking(Callable<T> work) {
+        return Mono.fromCallable(work).subscribeOn(this.scheduler);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
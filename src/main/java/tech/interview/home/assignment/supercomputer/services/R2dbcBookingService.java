@@ -1,34 +1,69 @@
 package tech.interview.home.assignment.supercomputer.services;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
-import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import tech.interview.home.assignment.supercomputer.exceptions.BookingAlreadyCanceledException;
+import reactor.core.publisher.Sinks;
+import tech.interview.home.assignment.supercomputer.exceptions.InvalidRequestException;
 import tech.interview.home.assignment.supercomputer.exceptions.ResourceNotFoundException;
 import tech.interview.home.assignment.supercomputer.exceptions.TimeIntervalAlreadyBookedException;
 import tech.interview.home.assignment.supercomputer.model.domain.Booking;
 import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
-import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
 import tech.interview.home.assignment.supercomputer.model.dto.BookingResponseDto;
 import tech.interview.home.assignment.supercomputer.model.dto.CheckBookingRequestDto;
 import tech.interview.home.assignment.supercomputer.model.dto.CheckBookingResponseDto;
 import tech.interview.home.assignment.supercomputer.model.dto.NewBookingRequestDto;
 import tech.interview.home.assignment.supercomputer.model.mappers.BookingMapper;
-import tech.interview.home.assignment.supercomputer.repositories.BookingRepository;
+import tech.interview.home.assignment.supercomputer.storage.BookingStore;
 
-import java.time.LocalDateTime;
+import java.time.Clock;
+import java.util.Optional;
 
 @Service
+@ConditionalOnProperty(prefix = "supercomputer.service", name = "type", havingValue = "reactive", matchIfMissing = true)
 public class R2dbcBookingService implements BookingService {
-    private final BookingRepository repo;
+    private final BookingStore store;
     private final BookingMapper mapper;
-
-    public R2dbcBookingService(final BookingRepository repo,
-                               final BookingMapper mapper) {
-        this.repo = repo;
+    private final BookingStateVersion stateVersion;
+    private final BookingUtilization utilization;
+    private final CustomerQuota quota;
+    private final BookingVersions versions;
+    private final BookingLifecycle lifecycle;
+    private final BookingWaitlist waitlist;
+    private final IntervalCheckCoalescer checkCoalescer;
+    private final Optional<BookingGroupCommitter> groupCommitter;
+    private final Optional<BookingProjection> projection;
+    private final Optional<RecurringBookings> recurring;
+    private final BookingValidation validation;
+
+    public R2dbcBookingService(final BookingStore store,
+                               final BookingMapper mapper,
+                               final BookingStateVersion stateVersion,
+                               final BookingUtilization utilization,
+                               final CustomerQuota quota,
+                               final BookingVersions versions,
+                               final BookingLifecycle lifecycle,
+                               final BookingWaitlist waitlist,
+                               final IntervalCheckCoalescer checkCoalescer,
+                               final Optional<BookingGroupCommitter> groupCommitter,
+                               final Optional<BookingProjection> projection,
+                               final Optional<RecurringBookings> recurring,
+                               final Clock clock) {
+        this.store = store;
         this.mapper = mapper;
+        this.stateVersion = stateVersion;
+        this.utilization = utilization;
+        this.quota = quota;
+        this.versions = versions;
+        this.lifecycle = lifecycle;
+        this.waitlist = waitlist;
+        this.checkCoalescer = checkCoalescer;
+        this.groupCommitter = groupCommitter;
+        this.projection = projection;
+        this.recurring = recurring;
+        this.validation = new BookingValidation(clock);
     }
 
     @Override
@@ -39,98 +74,115 @@ public class R2dbcBookingService implements BookingService {
 
     @Override
     public Flux<BookingResponseDto> findForCustomer(Mono<String> customerId) {
-        return this.repo.findByCustomerId(customerId)
+        return customerId.flatMapMany(id -> this.projection
+                        .filter(projection -> projection.caughtUp(id))
+                        .map(projection -> Flux.fromIterable(projection.findForCustomer(id)))
+                        .orElseGet(() -> this.store.findActiveByCustomerId(id)))
                 .map(this.mapper::entityToResponseDto);
     }
 
     @Override
     public Mono<CheckBookingResponseDto> checkTimeInterval(Mono<CheckBookingRequestDto> timeInterval) {
-        return timeInterval.map(x -> {
-            checkDates(x.timeInterval().from(), x.timeInterval().to());
-            return x;
-        }).flatMap(req -> this.repo.isTimeIntervalAlreadyBooked(req.timeInterval().from(), req.timeInterval().to())
-                .map(x -> !x)
-                .map(x -> new CheckBookingResponseDto(req.timeInterval(), x)));
+        return timeInterval.flatMap(req -> {
+            EpochInterval interval = this.validation.checkDates(req.timeInterval().from(), req.timeInterval().to());
+            if (this.recurring.map(recurring -> recurring.isTimeIntervalAlreadyBooked(interval)).orElse(false)) {
+                return Mono.just(new CheckBookingResponseDto(req.timeInterval(), false));
+            }
+            Mono<Boolean> booked = freshProjection()
+                    .map(projection -> Mono.just(projection.isTimeIntervalAlreadyBooked(interval)))
+                    .orElseGet(() -> this.checkCoalescer.isTimeIntervalAlreadyBooked(interval, () -> this.store.isTimeIntervalAlreadyBooked(interval)));
+            return booked
+                    .map(x -> !x)
+                    .map(x -> new CheckBookingResponseDto(req.timeInterval(), x));
+        });
     }
 
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
     public Mono<Long> addBooking(Mono<NewBookingRequestDto> booking) {
-        return booking
+        Mono<Booking> validated = booking
                 .map(this.mapper::requestDtoToEntity)
                 .map(req -> {
-                    checkData(req);
+                    this.validation.checkData(req);
                     req.setStatus(BookingStatus.ACTIVE);
                     return req;
-                })
-                .flatMap(req -> this.repo.isTimeIntervalAlreadyBooked(req.getTimeIntervalFrom(), req.getTimeIntervalTo())
-                        .map(alreadyBooked -> {
-                            if(alreadyBooked) {
-                                throw new TimeIntervalAlreadyBookedException(new TimeInterval(req.getTimeIntervalFrom(), req.getTimeIntervalTo()));
-                            }
-                            this.repo.save(req).subscribe();
-                            return req;
-                        }))
+                });
+
+        return validated.flatMap(req -> {
+            CustomerQuota.Reservation reservation = this.quota.reserve(req);
+            // a submitted booking may still be committed, by its batch or its transaction, after the caller went away,
+            // so the write and its bookkeeping run to their outcome instead of being canceled with the caller
+            Sinks.One<Long> outcome = Sinks.one();
+            insert(req)
+                    .doOnNext(id -> {
+                        reservation.commit(id);
+                        this.utilization.add(req);
+                        this.lifecycle.schedule(req.toBuilder().id(id).build());
+                        this.versions.customerChanged(req.getCustomerId());
+                    })
+                    .doOnError(e -> reservation.release())
+                    .subscribe(outcome::tryEmitValue, outcome::tryEmitError, outcome::tryEmitEmpty);
+            return outcome.asMono()
+                    .onErrorMap(TimeIntervalAlreadyBookedException.class, this.validation::upcomingAlternatives);
+        });
+    }
+
+    private Mono<Long> insert(Booking booking) {
+        Mono<Booking> insert = this.groupCommitter
+                .map(committer -> committer.submit(booking).map(id -> booking.toBuilder().id(id).build()))
+                .orElseGet(() -> this.store.insertIfAvailable(booking)
+                        .doOnNext(inserted -> this.stateVersion.increment()));
+        return this.recurring
+                .map(recurring -> recurring.guard(booking, insert))
+                .orElse(insert)
                 .map(Booking::getId);
     }
 
     @Override
     public Mono<Boolean> cancelBooking(Long bookingId) {
-        return findByIdReturnEntity(bookingId).doOnNext(x -> {
-            if(x.getStatus() != BookingStatus.ACTIVE) {
-                throw new BookingAlreadyCanceledException("Booking with ID "+ bookingId + " is already canceled!");
-            }
-
-            x.setStatus(BookingStatus.CANCELED);
-            this.repo.save(x).subscribe();
-        }).flatMap(x -> Mono.just(true));
-    }
-
-    private Mono<Booking> findByIdReturnEntity(Long id) {
-        return this.repo.findById(id)
-                .switchIfEmpty(Mono.error(new ResourceNotFoundException("Booking with id " + id + " does not exist!")));
-    }
-
-    private void checkData(Booking booking) {
-        checkCustomerId(booking.getCustomerId());
-        checkDates(booking.getTimeIntervalFrom(), booking.getTimeIntervalTo());
-    }
-
-    private void checkCustomerId(String customerId) {
-        if(customerId == null || customerId.isEmpty()) {
-            throw new IllegalArgumentException("Illegal arguments: Customer ID is not present!");
-        }
-
-        if(!customerId.matches("^[a-zA-Z0-9]*$")) {
-            throw new IllegalArgumentException("Illegal arguments: Customer ID should contain only alphanumeric characters!");
-        }
+        return this.store.compareAndSetStatus(bookingId, BookingStatus.ACTIVE, BookingStatus.CANCELED)
+                .switchIfEmpty(Mono.defer(() -> findArchived(bookingId)))
+                .map(previous -> {
+                    if(previous.getStatus() != BookingStatus.ACTIVE) {
+                        throw BookingValidation.notCancelable(bookingId, previous.getStatus());
+                    }
+
+                    this.utilization.remove(previous);
+                    this.quota.remove(previous);
+                    this.versions.bookingChanged(bookingId, previous.getCustomerId());
+                    this.stateVersion.increment();
+                    this.waitlist.released(previous);
+                    return true;
+                });
     }
 
-    private void checkDates(LocalDateTime intervalFrom, LocalDateTime intervalTo) {
-        checkIfDatesArePresent(intervalFrom, intervalTo);
-        checkDatesFromAfterTo(intervalFrom, intervalTo);
-        checkDatesInThePast(intervalFrom);
+    private Mono<Booking> findArchived(Long bookingId) {
+        return findByIdReturnEntity(bookingId)
+                .map(archived -> {
+                    if(archived.getStatus().confirmed()) {
+                        throw new InvalidRequestException("Illegal arguments: Booking with ID " + bookingId + " has already ended!");
+                    }
+                    return archived;
+                });
     }
 
-    private void checkIfDatesArePresent(LocalDateTime intervalFrom, LocalDateTime intervalTo) {
-        if(intervalFrom == null) {
-            throw new IllegalArgumentException("Illegal time interval arguments: Missing value for time interval from!!!");
-        }
-
-        if(intervalTo == null) {
-            throw new IllegalArgumentException("Illegal time interval arguments: Missing value for time interval to!!!");
-        }
+    /**
+     * Reads from the projection while it has applied every published event of the booking, so the result is never
+     * older than an entity tag taken before; a booking it does not know yet may have just been committed, so misses go
+     * to the store.
+     */
+    private Mono<Booking> findByIdReturnEntity(Long id) {
+        return Mono.defer(() -> Mono.justOrEmpty(this.projection
+                        .filter(projection -> projection.caughtUp(id))
+                        .map(projection -> projection.findById(id))))
+                .switchIfEmpty(Mono.defer(() -> this.store.findById(id)))
+                .switchIfEmpty(Mono.error(() -> notFound(id)));
     }
 
-    private void checkDatesFromAfterTo(LocalDateTime intervalFrom, LocalDateTime intervalTo) {
-        if (intervalFrom.isAfter(intervalTo) || intervalFrom.isEqual(intervalTo)) {
-            throw new IllegalArgumentException("Illegal time interval arguments: Time interval from must be before time interval to!!!");
-        }
+    private Optional<BookingProjection> freshProjection() {
+        return this.projection.filter(BookingProjection::fresh);
     }
 
-    private void checkDatesInThePast(LocalDateTime intervalFrom) {
-        if(intervalFrom.isBefore(LocalDateTime.now())) {
-            throw new IllegalArgumentException("Illegal time interval: Time interval should not be in the past!");
-        }
+    private static ResourceNotFoundException notFound(Long id) {
+        return new ResourceNotFoundException("Booking with id " + id + " does not exist!");
     }
 }
@@ -0,0 +1,64 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fenwick (binary indexed) tree over a fixed number of slots that supports adding a value to a range of slots and
+ * summing a range of slots, both in O(log n). It keeps two trees, {@code b1} and {@code b2}, so that the prefix sum
+ * up to slot {@code i} is {@code prefix(b1, i) * i - prefix(b2, i)}.
+ * <p>
+ * Cells are updated with atomic adds, so concurrent updates never get lost. A sum read concurrently with an update
+ * may include only part of that update.
+ */
+final class RangeFenwickTree {
+    private final int size;
+    private final AtomicLongArray b1;
+    private final AtomicLongArray b2;
+
+    RangeFenwickTree(int size) {
+        this.size = size;
+        this.b1 = new AtomicLongArray(size + 1);
+        this.b2 = new AtomicLongArray(size + 1);
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Adds the value to every slot from {@code from} to {@code to}, both inclusive and zero based.
+     */
+    void add(int from, int to, long value) {
+        add(from + 1, value, value * from);
+        if (to + 2 <= this.size) {
+            add(to + 2, -value, -value * (to + 1));
+        }
+    }
+
+    /**
+     * Sum of the slots from {@code from} to {@code to}, both inclusive and zero based.
+     */
+    long sum(int from, int to) {
+        return prefixSum(to + 1) - prefixSum(from);
+    }
+
+    private void add(int index, long value1, long value2) {
+        for (int i = index; i <= this.size; i += i & -i) {
+            this.b1.addAndGet(i, value1);
+            this.b2.addAndGet(i, value2);
+        }
+    }
+
+    /**
+     * Sum of the first {@code count} slots.
+     */
+    private long prefixSum(int count) {
+        long sum1 = 0;
+        long sum2 = 0;
+        for (int i = count; i > 0; i -= i & -i) {
+            sum1 += this.b1.get(i);
+            sum2 += this.b2.get(i);
+        }
+        return sum1 * count - sum2;
+    }
+}
@@ -0,0 +1,131 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+import tech.interview.home.assignment.supercomputer.model.domain.Recurrence;
+import tech.interview.home.assignment.supercomputer.model.domain.RecurringRule;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Index over recurring rules that answers whether any rule occurs in an interval without expanding occurrences.
+ * Rules of one recurrence are kept sorted by phase, the start of their first occurrence modulo the period, together
+ * with a multiset of their occurrence lengths. An occurrence overlapping {@code [from, to]} starts between
+ * {@code from} minus the longest occurrence and {@code to}, so only the rules whose phase falls into that range taken
+ * modulo the period are candidates, and each candidate is checked in constant time. Queries spanning a whole period
+ * check every rule of the recurrence. Rules without occurrences left are only kept for lookups by id. Not thread-safe.
+ */
+final class RecurrenceIndex {
+    private final Map<Recurrence, Phases> byRecurrence = new EnumMap<>(Recurrence.class);
+    private final Map<Long, RecurringRule> rules = new HashMap<>();
+
+    void add(RecurringRule rule) {
+        this.rules.put(rule.id(), rule);
+        if (rule.occurrences() == 0) {
+            return;
+        }
+        this.byRecurrence.computeIfAbsent(rule.recurrence(), recurrence -> new Phases()).add(rule);
+    }
+
+    boolean remove(long id) {
+        RecurringRule rule = this.rules.remove(id);
+        if (rule == null) {
+            return false;
+        }
+        if (rule.occurrences() == 0) {
+            return true;
+        }
+        Phases phases = this.byRecurrence.get(rule.recurrence());
+        phases.remove(rule);
+        if (phases.lengths.isEmpty()) {
+            this.byRecurrence.remove(rule.recurrence());
+        }
+        return true;
+    }
+
+    RecurringRule get(long id) {
+        return this.rules.get(id);
+    }
+
+    /**
+     * Rules with an occurrence overlapping the given closed interval, in ascending id order.
+     */
+    List<RecurringRule> occurringIn(EpochInterval interval) {
+        if (this.rules.isEmpty()) {
+            return List.of();
+        }
+
+        NavigableMap<Long, RecurringRule> byId = new TreeMap<>();
+        this.byRecurrence.forEach((recurrence, phases) -> {
+            for (Map<Long, RecurringRule> rules : phases.candidates(recurrence.periodSeconds(), interval)) {
+                rules.forEach((id, rule) -> {
+                    if (rule.occursIn(interval)) {
+                        byId.put(id, rule);
+                    }
+                });
+            }
+        });
+        return new ArrayList<>(byId.values());
+    }
+
+    /**
+     * Rules with an occurrence overlapping one of {@code rule}'s. New rules are rare, so this checks every rule.
+     */
+    List<RecurringRule> overlapping(RecurringRule rule) {
+        return this.rules.values().stream()
+                .filter(other -> other.occurrences() > 0 && rule.overlaps(other))
+                .sorted(Comparator.comparingLong(RecurringRule::id))
+                .toList();
+    }
+
+    int size() {
+        return this.rules.size();
+    }
+
+    private static final class Phases {
+        private final NavigableMap<Long, Map<Long, RecurringRule>> byPhase = new TreeMap<>();
+        private final NavigableMap<Long, Integer> lengths = new TreeMap<>();
+
+        void add(RecurringRule rule) {
+            this.byPhase.computeIfAbsent(phase(rule), key -> new HashMap<>()).put(rule.id(), rule);
+            this.lengths.merge(rule.duration(), 1, Integer::sum);
+        }
+
+        void remove(RecurringRule rule) {
+            long phase = phase(rule);
+            Map<Long, RecurringRule> rules = this.byPhase.get(phase);
+            rules.remove(rule.id());
+            if (rules.isEmpty()) {
+                this.byPhase.remove(phase);
+            }
+            this.lengths.computeIfPresent(rule.duration(), (length, count) -> count == 1 ? null : count - 1);
+        }
+
+        Collection<Map<Long, RecurringRule>> candidates(long period, EpochInterval interval) {
+            long earliestStart = interval.from() - this.lengths.lastKey();
+            if (interval.to() - earliestStart >= period) {
+                return this.byPhase.values();
+            }
+
+            long from = Math.floorMod(earliestStart, period);
+            long to = Math.floorMod(interval.to(), period);
+            if (from <= to) {
+                return this.byPhase.subMap(from, true, to, true).values();
+            }
+            List<Map<Long, RecurringRule>> wrapped = new ArrayList<>(this.byPhase.tailMap(from, true).values());
+            wrapped.addAll(this.byPhase.headMap(to, true).values());
+            return wrapped;
+        }
+
+        private static long phase(RecurringRule rule) {
+            return Math.floorMod(rule.first().from(), rule.period());
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.config.RecurringProperties;
+import tech.interview.home.assignment.supercomputer.exceptions.ResourceNotFoundException;
+import tech.interview.home.assignment.supercomputer.exceptions.TimeIntervalAlreadyBookedException;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+import tech.interview.home.assignment.supercomputer.model.domain.RecurringRule;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.model.dto.RecurringRequestDto;
+import tech.interview.home.assignment.supercomputer.model.dto.RecurringRuleDto;
+import tech.interview.home.assignment.supercomputer.repositories.BookingRepository;
+import tech.interview.home.assignment.supercomputer.storage.BatchInsertResult;
+import tech.interview.home.assignment.supercomputer.storage.BookingStore;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Recurring bookings: a daily or weekly interval repeated up to an end date or a number of times, stored as one
+ * {@link RecurringRule} in {@code RECURRING_BOOKINGS} and kept in a {@link RecurrenceIndex}, so a whole series is
+ * checked and booked at once instead of one booking per occurrence. Occurrences are expanded only within the range
+ * that is checked.
+ * <p>
+ * Rules and bookings live in different places, so neither check is atomic with the other side's writes. Both sides
+ * publish before they check instead: a new rule is indexed before the bookings within its span are checked, and a new
+ * booking is checked against the index again once inserted, so of two overlapping writes at least one sees the
+ * other and backs out. A booking that backs out stays behind as {@link BookingStatus#CANCELED}. Rules do not count
+ * towards the customer quota and utilization, and their occurrences never go through the lifecycle.
+ * <p>
+ * Canceling a rule keeps the occurrences that have started and hands the freed ones to the listeners, such as the
+ * waitlist. Both add and cancel change a rule under the index lock: a rule canceled while its add is still inserting
+ * it is only cut down in the index, and the add writes the cut once its insert is done.
+ */
+@Service
+@ConditionalOnProperty(prefix = "supercomputer.booking.recurring", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RecurringBookings implements WarmupTarget {
+    private final BookingStore store;
+    private final BookingRepository repo;
+    private final BookingStateVersion stateVersion;
+    private final BookingVersions versions;
+    private final RecurringProperties properties;
+    private final Clock clock;
+    private final BookingValidation validation;
+    private final AtomicLong ids = new AtomicLong();
+    private final Object lock = new Object();
+    private final RecurrenceIndex index = new RecurrenceIndex();
+    private final Set<Long> inserting = new HashSet<>();
+    private final List<Consumer<List<Booking>>> listeners = new CopyOnWriteArrayList<>();
+
+    public RecurringBookings(final BookingStore store,
+                             final BookingRepository repo,
+                             final BookingStateVersion stateVersion,
+                             final BookingVersions versions,
+                             final RecurringProperties properties,
+                             final Clock clock) {
+        this.store = store;
+        this.repo = repo;
+        this.stateVersion = stateVersion;
+        this.versions = versions;
+        this.properties = properties;
+        this.clock = clock;
+        this.validation = new BookingValidation(clock);
+    }
+
+    /**
+     * Registers a listener for the occurrences freed by canceled rules, passed as canceled bookings of the rule's
+     * customer.
+     */
+    public void addListener(Consumer<List<Booking>> listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Loads the stored rules; the bookings are not needed.
+     */
+    @Override
+    public void load(List<Booking> bookings) {
+        this.ids.set(this.repo.findMaxRuleId().blockOptional().orElse(0L));
+        List<RecurringRule> rules = this.repo.findRules().collectList().block();
+        synchronized (this.lock) {
+            rules.forEach(this.index::add);
+        }
+    }
+
+    /**
+     * Books every occurrence of the rule, or none.
+     *
+     * @return the rule, or {@link TimeIntervalAlreadyBookedException} if an occurrence overlaps another rule's or an
+     * occupying booking, the latter listed as conflicting
+     */
+    public Mono<RecurringRuleDto> add(Mono<RecurringRequestDto> request) {
+        return request.flatMap(req -> {
+            RecurringRule rule = this.validation.checkRecurringRequest(req, this.properties.maxOccurrences())
+                    .withId(this.ids.incrementAndGet());
+            synchronized (this.lock) {
+                if (!this.index.overlapping(rule).isEmpty()) {
+                    return Mono.error(new TimeIntervalAlreadyBookedException(rule.first().toTimeInterval()));
+                }
+                this.index.add(rule);
+                this.inserting.add(rule.id());
+            }
+
+            return this.store.findOccupying(rule.span())
+                    .map(EpochInterval::of)
+                    .filter(rule::occursIn)
+                    .map(EpochInterval::toTimeInterval)
+                    .collectList()
+                    .flatMap(conflicting -> conflicting.isEmpty()
+                            ? this.repo.insertRule(rule)
+                            : Mono.error(new TimeIntervalAlreadyBookedException(rule.first().toTimeInterval(), conflicting, null, null)))
+                    .doOnError(e -> unlist(rule.id()))
+                    .doOnCancel(() -> unlist(rule.id()))
+                    .then(Mono.defer(() -> inserted(rule)))
+                    .map(inserted -> {
+                        this.stateVersion.increment();
+                        return toDto(inserted);
+                    });
+        });
+    }
+
+    /**
+     * Writes the cut of a rule canceled while it was inserted.
+     */
+    private Mono<RecurringRule> inserted(RecurringRule rule) {
+        RecurringRule current;
+        synchronized (this.lock) {
+            this.inserting.remove(rule.id());
+            current = this.index.get(rule.id());
+        }
+        if (current == null || current.occurrences() == rule.occurrences()) {
+            return Mono.just(rule);
+        }
+        return this.repo.truncateRule(rule.id(), current.occurrences())
+                .thenReturn(current);
+    }
+
+    /**
+     * @return the rule, or {@link ResourceNotFoundException} if it does not exist
+     */
+    public Mono<RecurringRuleDto> findById(long id) {
+        return Mono.fromCallable(() -> {
+            synchronized (this.lock) {
+                RecurringRule rule = this.index.get(id);
+                if (rule == null) {
+                    throw notFound(id);
+                }
+                return toDto(rule);
+            }
+        });
+    }
+
+    /**
+     * Cancels the occurrences of the rule that have not started yet and offers them to the listeners. The rule
+     * stays, with the occurrences that had started; canceling it again changes nothing.
+     *
+     * @return {@link ResourceNotFoundException} if the rule does not exist
+     */
+    public Mono<Void> cancel(long id) {
+        return Mono.defer(() -> {
+            RecurringRule rule;
+            int kept;
+            boolean inserting;
+            synchronized (this.lock) {
+                rule = this.index.get(id);
+                if (rule == null) {
+                    return Mono.error(notFound(id));
+                }
+                kept = rule.startedBy(EpochInterval.now(this.clock));
+                if (kept == rule.occurrences()) {
+                    return Mono.empty();
+                }
+                this.index.remove(id);
+                this.index.add(rule.truncated(kept));
+                inserting = this.inserting.contains(id);
+            }
+
+            this.stateVersion.increment();
+            return (inserting ? Mono.<Void>empty() : this.repo.truncateRule(id, kept))
+                    .then(Mono.fromRunnable(() -> release(rule, kept)));
+        });
+    }
+
+    private void release(RecurringRule rule, int from) {
+        List<Booking> freed = new ArrayList<>(rule.occurrences() - from);
+        for (int index = from; index < rule.occurrences(); index++) {
+            EpochInterval occurrence = rule.occurrence(index);
+            freed.add(Booking.builder()
+                    .customerId(rule.customerId())
+                    .status(BookingStatus.CANCELED)
+                    .timeIntervalFrom(occurrence.fromDateTime())
+                    .timeIntervalTo(occurrence.toDateTime())
+                    .build());
+        }
+        this.listeners.forEach(listener -> listener.accept(freed));
+    }
+
+    /**
+     * Whether an occurrence of any rule overlaps the interval.
+     */
+    public boolean isTimeIntervalAlreadyBooked(EpochInterval interval) {
+        synchronized (this.lock) {
+            return !this.index.occurringIn(interval).isEmpty();
+        }
+    }
+
+    /**
+     * Inserts the booking with {@code insert} unless a rule occurs in its interval, and cancels it again if a rule
+     * that does was added in the meantime.
+     *
+     * @return the inserted booking, or {@link TimeIntervalAlreadyBookedException} listing the occurrences in the way
+     */
+    public Mono<Booking> guard(Booking booking, Mono<Booking> insert) {
+        return Mono.defer(() -> {
+            EpochInterval interval = EpochInterval.of(booking);
+            List<TimeInterval> occurring = occurrencesIn(interval);
+            if (!occurring.isEmpty()) {
+                return Mono.error(new TimeIntervalAlreadyBookedException(interval.toTimeInterval(), occurring, null, null));
+            }
+
+            return insert.flatMap(inserted -> {
+                List<TimeInterval> added = occurrencesIn(interval);
+                if (added.isEmpty()) {
+                    return Mono.just(inserted);
+                }
+                return this.store.compareAndSetStatus(inserted.getId(), inserted.getStatus(), BookingStatus.CANCELED)
+                        .doOnNext(previous -> {
+                            this.versions.bookingChanged(previous.getId(), previous.getCustomerId());
+                            this.stateVersion.increment();
+                        })
+                        .then(Mono.error(new TimeIntervalAlreadyBookedException(interval.toTimeInterval(), added, null, null)));
+            });
+        });
+    }
+
+    /**
+     * Batch variant of {@link #guard}: occupying bookings a rule occurs in are rejected before {@code insert}, and
+     * inserted ones that a rule added in the meantime occurs in are canceled again and rejected as well.
+     */
+    public Mono<BatchInsertResult> guardAll(List<Booking> bookings, Function<List<Booking>, Mono<BatchInsertResult>> insert) {
+        return Mono.defer(() -> {
+            List<Booking> candidates = new ArrayList<>(bookings.size());
+            List<Booking> occurring = new ArrayList<>();
+            for (Booking booking : bookings) {
+                (blocked(booking) ? occurring : candidates).add(booking);
+            }
+            if (candidates.isEmpty()) {
+                return Mono.just(new BatchInsertResult(List.of(), occurring));
+            }
+
+            return insert.apply(candidates).flatMap(result -> {
+                List<Booking> accepted = new ArrayList<>(result.accepted().size());
+                List<Booking> added = new ArrayList<>();
+                for (Booking booking : result.accepted()) {
+                    (blocked(booking) ? added : accepted).add(booking);
+                }
+                List<Booking> rejected = new ArrayList<>(result.rejected());
+                rejected.addAll(occurring);
+                rejected.addAll(added);
+                if (added.isEmpty()) {
+                    return Mono.just(new BatchInsertResult(accepted, rejected));
+                }
+
+                return Flux.fromIterable(added)
+                        .concatMap(booking -> this.store.compareAndSetStatus(booking.getId(), booking.getStatus(), BookingStatus.CANCELED))
+                        .doOnNext(previous -> this.versions.bookingChanged(previous.getId(), previous.getCustomerId()))
+                        .then(Mono.fromSupplier(() -> {
+                            this.stateVersion.increment();
+                            return new BatchInsertResult(accepted, rejected);
+                        }));
+            });
+        });
+    }
+
+    /**
+     * Whether the booking occupies its interval and an occurrence of any rule overlaps it.
+     */
+    private boolean blocked(Booking booking) {
+        return booking.getStatus().occupies() && isTimeIntervalAlreadyBooked(EpochInterval.of(booking));
+    }
+
+    /**
+     * The occurrences of all rules overlapping the interval, in no particular order.
+     */
+    public List<EpochInterval> occurringIn(EpochInterval interval) {
+        List<RecurringRule> rules;
+        synchronized (this.lock) {
+            rules = this.index.occurringIn(interval);
+        }
+        return rules.stream()
+                .flatMap(rule -> rule.occurrencesIn(interval).stream())
+                .toList();
+    }
+
+    private List<TimeInterval> occurrencesIn(EpochInterval interval) {
+        return occurringIn(interval).stream()
+                .map(EpochInterval::toTimeInterval)
+                .toList();
+    }
+
+    private void unlist(long id) {
+        synchronized (this.lock) {
+            this.index.remove(id);
+            this.inserting.remove(id);
+        }
+    }
+
+    private static RecurringRuleDto toDto(RecurringRule rule) {
+        return new RecurringRuleDto(rule.id(), rule.customerId(), rule.recurrence(), rule.first().toTimeInterval(),
+                rule.occurrences() == 0 ? null : rule.last().toTimeInterval(), rule.occurrences());
+    }
+
+    private static ResourceNotFoundException notFound(long id) {
+        return new ResourceNotFoundException("Recurring booking with id " + id + " does not exist!");
+    }
+}
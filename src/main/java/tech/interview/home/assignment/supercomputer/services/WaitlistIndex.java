@@ -0,0 +1,70 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Interval index over the time windows of waiting requests. Windows are kept sorted by start together with a
+ * multiset of their lengths, so a query for the windows overlapping {@code [from, to]} only scans the starts from
+ * {@code from} minus the longest window up to {@code to}. Results come in ascending id order, which is the order the
+ * requests were registered in. Not thread-safe.
+ *
+ * @param <T> item type
+ */
+final class WaitlistIndex<T> {
+    private final NavigableMap<Long, Map<Long, Item<T>>> byStart = new TreeMap<>();
+    private final NavigableMap<Long, Integer> lengths = new TreeMap<>();
+    private int size;
+
+    void add(long id, EpochInterval window, T value) {
+        this.byStart.computeIfAbsent(window.from(), key -> new HashMap<>()).put(id, new Item<>(window, value));
+        this.lengths.merge(window.to() - window.from(), 1, Integer::sum);
+        this.size++;
+    }
+
+    boolean remove(long id, EpochInterval window) {
+        Map<Long, Item<T>> items = this.byStart.get(window.from());
+        if (items == null || items.remove(id) == null) {
+            return false;
+        }
+        if (items.isEmpty()) {
+            this.byStart.remove(window.from());
+        }
+        this.lengths.computeIfPresent(window.to() - window.from(), (length, count) -> count == 1 ? null : count - 1);
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Values whose window overlaps the given closed interval, in ascending id order.
+     */
+    List<T> overlapping(EpochInterval interval) {
+        if (this.size == 0) {
+            return List.of();
+        }
+
+        long longest = this.lengths.lastKey();
+        NavigableMap<Long, T> byId = new TreeMap<>();
+        for (Map<Long, Item<T>> items : this.byStart.subMap(interval.from() - longest, true, interval.to(), true).values()) {
+            items.forEach((id, item) -> {
+                if (item.window().to() >= interval.from()) {
+                    byId.put(id, item.value());
+                }
+            });
+        }
+        return new ArrayList<>(byId.values());
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    private record Item<T>(EpochInterval window, T value) {
+    }
+}
@@ -0,0 +1,16 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+
+import java.util.List;
+
+/**
+ * In-memory state that {@link BookingWarmup} rebuilds from the stored bookings on startup, before bookings are
+ * written.
+ */
+public interface WarmupTarget {
+    /**
+     * @param bookings all live and archived bookings, ordered by start and id
+     */
+    void load(List<Booking> bookings);
+}
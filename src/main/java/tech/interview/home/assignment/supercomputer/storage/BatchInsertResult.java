@@ -0,0 +1,12 @@
+package tech.interview.home.assignment.supercomputer.storage;
+
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+
+import java.util.List;
+
+/**
+ * Outcome of {@link BookingStore#insertAllIfAvailable(List)}. Accepted bookings carry their generated ids, both
+ * lists keep the submission order.
+ */
+public record BatchInsertResult(List<Booking> accepted, List<Booking> rejected) {
+}
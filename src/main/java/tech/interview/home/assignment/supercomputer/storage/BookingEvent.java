@@ -0,0 +1,23 @@
+package tech.interview.home.assignment.supercomputer.storage;
+
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+
+/**
+ * Committed change of one booking: an insert ({@code created}), or a status transition. {@code booking} is the new
+ * state of the booking, or {@code null} when the store only knows the id, as after a set-based status update.
+ */
+public record BookingEvent(long bookingId, BookingStatus status, Booking booking, boolean created) {
+
+    static BookingEvent inserted(Booking booking) {
+        return new BookingEvent(booking.getId(), booking.getStatus(), booking.toBuilder().build(), true);
+    }
+
+    static BookingEvent statusChanged(Booking previous, BookingStatus status) {
+        return new BookingEvent(previous.getId(), status, previous.toBuilder().status(status).build(), false);
+    }
+
+    static BookingEvent statusChanged(long bookingId, BookingStatus status) {
+        return new BookingEvent(bookingId, status, null, false);
+    }
+}
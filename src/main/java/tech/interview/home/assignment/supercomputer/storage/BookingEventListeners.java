@@ -0,0 +1,23 @@
+package tech.interview.home.assignment.supercomputer.storage;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Listeners of a store's committed changes. Stores publish on the writing thread, so listeners only hand the
+ * event off.
+ */
+final class BookingEventListeners {
+    private final List<Consumer<BookingEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    void add(Consumer<BookingEvent> listener) {
+        this.listeners.add(listener);
+    }
+
+    void publish(BookingEvent event) {
+        for (Consumer<BookingEvent> listener : this.listeners) {
+            listener.accept(event);
+        }
+    }
+}
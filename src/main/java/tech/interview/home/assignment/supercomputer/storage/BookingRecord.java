@@ -0,0 +1,82 @@
+package tech.interview.home.assignment.supercomputer.storage;
+
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Flyweight over one fixed-width booking record inside a {@link ByteBuffer}. A single instance is re-pointed at
+ * different records with {@link #wrap(ByteBuffer, int)}, so reading a record allocates nothing.
+ *
+ * <pre>
+ * offset  size  field
+ *      0     8  id
+ *      8     8  time interval from, epoch seconds (UTC)
+ *     16     8  time interval to, epoch seconds (UTC)
+ *     24     4  customer dictionary key
+ *     28     1  status ordinal
+ *     29     1  archived flag
+ *     30     2  padding
+ * </pre>
+ */
+final class BookingRecord {
+    static final int SIZE = 32;
+
+    private static final int ID = 0;
+    private static final int FROM = 8;
+    private static final int TO = 16;
+    private static final int CUSTOMER = 24;
+    private static final int STATUS = 28;
+    private static final int ARCHIVED = 29;
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+
+    private ByteBuffer buffer;
+    private int offset;
+
+    BookingRecord wrap(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    long id() {
+        return this.buffer.getLong(this.offset + ID);
+    }
+
+    long fromEpochSecond() {
+        return this.buffer.getLong(this.offset + FROM);
+    }
+
+    long toEpochSecond() {
+        return this.buffer.getLong(this.offset + TO);
+    }
+
+    int customerKey() {
+        return this.buffer.getInt(this.offset + CUSTOMER);
+    }
+
+    BookingStatus status() {
+        return STATUSES[this.buffer.get(this.offset + STATUS)];
+    }
+
+    boolean archived() {
+        return this.buffer.get(this.offset + ARCHIVED) != 0;
+    }
+
+    void write(long id, long fromEpochSecond, long toEpochSecond, int customerKey, BookingStatus status) {
+        this.buffer.putLong(this.offset + ID, id)
+                .putLong(this.offset + FROM, fromEpochSecond)
+                .putLong(this.offset + TO, toEpochSecond)
+                .putInt(this.offset + CUSTOMER, customerKey)
+                .put(this.offset + STATUS, (byte) status.ordinal())
+                .put(this.offset + ARCHIVED, (byte) 0);
+    }
+
+    void status(BookingStatus status) {
+        this.buffer.put(this.offset + STATUS, (byte) status.ordinal());
+    }
+
+    void archive() {
+        this.buffer.put(this.offset + ARCHIVED, (byte) 1);
+    }
+}
@@ -0,0 +1,93 @@
+package tech.interview.home.assignment.supercomputer.storage;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.exceptions.TimeIntervalAlreadyBookedException;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Storage SPI beneath the booking service. Implementations are selected with {@code supercomputer.storage.type}.
+ * Time intervals are closed: two bookings overlap if each one starts before or when the other one ends. Active,
+ * in-progress and held bookings occupy their interval ({@link BookingStatus#occupies()}), no two of them overlap.
+ */
+public interface BookingStore {
+    /**
+     * Looks the booking up among live bookings first and among archived ones second.
+     */
+    Mono<Booking> findById(long id);
+
+    Flux<Booking> findActiveByCustomerId(String customerId);
+
+    /**
+     * Streams all live and archived bookings, in no particular order.
+     */
+    Flux<Booking> findAll();
+
+    /**
+     * Highest id of all live and archived bookings, {@code 0} if there are none.
+     */
+    Mono<Long> findMaxId();
+
+    /**
+     * Streams the live and archived bookings with ids from {@code fromId} to {@code toId}, both inclusive, in no
+     * particular order.
+     */
+    Flux<Booking> findAllByIdRange(long fromId, long toId);
+
+    Mono<Boolean> isTimeIntervalAlreadyBooked(EpochInterval interval);
+
+    /**
+     * Streams the occupying bookings overlapping the interval, in no particular order.
+     */
+    Flux<Booking> findOccupying(EpochInterval interval);
+
+    /**
+     * Atomically checks that the time interval of the booking is free and inserts it.
+     *
+     * @return the inserted booking with its generated id, or {@link TimeIntervalAlreadyBookedException}
+     */
+    Mono<Booking> insertIfAvailable(Booking booking);
+
+    /**
+     * Atomically decides all bookings in the given order, each one against the current state and the bookings
+     * accepted before it, and inserts the accepted ones. Bookings that do not occupy their interval never conflict.
+     */
+    Mono<BatchInsertResult> insertAllIfAvailable(List<Booking> bookings);
+
+    /**
+     * Atomically sets the status of a booking to {@code target} if it currently is {@code expected}.
+     *
+     * @return the booking as it was before the call (the transition happened if its status equals
+     * {@code expected}), or empty if the booking does not exist or is archived. Archived bookings are read-only.
+     */
+    Mono<Booking> compareAndSetStatus(long id, BookingStatus expected, BookingStatus target);
+
+    /**
+     * Atomically sets the status of every given booking that currently is {@code expected} to {@code target}, in one
+     * write. Bookings in another status, archived and unknown ones are left alone.
+     *
+     * @return ids of the bookings whose status changed
+     */
+    Mono<List<Long>> compareAndSetStatuses(Collection<Long> ids, BookingStatus expected, BookingStatus target);
+
+    /**
+     * Moves up to {@code limit} canceled bookings and bookings that ended before {@code endedBefore} out of the
+     * live set into the archive. Stores that record when a booking was archived record {@code archivedAt}.
+     *
+     * @return number of archived bookings, less than {@code limit} once nothing is left to archive
+     */
+    Mono<Integer> archive(LocalDateTime endedBefore, LocalDateTime archivedAt, int limit);
+
+    /**
+     * Registers a listener for every committed insert and status transition. Changes of a single booking are
+     * published in commit order; archiving publishes nothing, archived bookings never change again.
+     */
+    void addListener(Consumer<BookingEvent> listener);
+}
@@ -0,0 +1,25 @@
+package tech.interview.home.assignment.supercomputer.storage;
+
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+
+import java.util.Map;
+import java.util.NavigableMap;
+
+final class Bookings {
+    private Bookings() {
+    }
+
+    static boolean overlap(Booking a, Booking b) {
+        return EpochInterval.of(a).overlaps(EpochInterval.of(b));
+    }
+
+    /**
+     * Overlap check against disjoint intervals keyed by their start: only the last interval starting before the end
+     * of the checked one can overlap it.
+     */
+    static boolean overlapsAny(NavigableMap<Long, Long> disjointEndByStart, EpochInterval interval) {
+        Map.Entry<Long, Long> candidate = disjointEndByStart.floorEntry(interval.to());
+        return candidate != null && candidate.getValue() >= interval.from();
+    }
+}
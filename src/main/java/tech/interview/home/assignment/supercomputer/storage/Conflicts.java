@@ -0,0 +1,121 @@
+package tech.interview.home.assignment.supercomputer.storage;
+
+import tech.interview.home.assignment.supercomputer.exceptions.TimeIntervalAlreadyBookedException;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Builds the conflict of a rejected interval from the occupied intervals around it, keyed by their start. Occupied
+ * intervals never overlap, so walking them by start from the conflicting ones outwards finds the nearest gaps that
+ * fit an interval of the requested length: the latest one ending before the first conflict and the earliest one
+ * starting after the last conflict.
+ */
+public final class Conflicts {
+    /**
+     * Occupying bookings loaded on either side of a conflict to search for alternatives, by the stores that query
+     * around it.
+     */
+    public static final int NEIGHBOURS = 64;
+
+    private Conflicts() {
+    }
+
+    /**
+     * @param occupied       occupied intervals by start, at least all that overlap the requested interval
+     * @param endOf          end of an occupied interval in epoch seconds
+     * @param completeBefore whether {@code occupied} holds every interval before the requested one; otherwise a gap
+     *                       before the first known interval is not an alternative
+     * @param completeAfter  the same after the requested interval
+     */
+    public static <V> TimeIntervalAlreadyBookedException of(EpochInterval requested,
+                                                            NavigableMap<Long, V> occupied,
+                                                            ToLongFunction<V> endOf,
+                                                            boolean completeBefore,
+                                                            boolean completeAfter) {
+        List<TimeInterval> conflicting = new ArrayList<>();
+        long firstStart = Long.MAX_VALUE;
+        long lastStart = Long.MIN_VALUE;
+        long lastEnd = Long.MIN_VALUE;
+
+        Map.Entry<Long, V> before = occupied.lowerEntry(requested.from());
+        if (before != null && endOf.applyAsLong(before.getValue()) >= requested.from()) {
+            firstStart = before.getKey();
+        }
+        NavigableMap<Long, V> overlapping = occupied.subMap(firstStart == Long.MAX_VALUE ? requested.from() : firstStart, true,
+                requested.to(), true);
+        for (Map.Entry<Long, V> entry : overlapping.entrySet()) {
+            long end = endOf.applyAsLong(entry.getValue());
+            conflicting.add(new EpochInterval(entry.getKey(), end).toTimeInterval());
+            firstStart = Math.min(firstStart, entry.getKey());
+            lastStart = entry.getKey();
+            lastEnd = end;
+        }
+        if (conflicting.isEmpty()) {
+            return new TimeIntervalAlreadyBookedException(requested.toTimeInterval());
+        }
+
+        long length = requested.to() - requested.from();
+        return new TimeIntervalAlreadyBookedException(requested.toTimeInterval(), conflicting,
+                earlier(occupied, endOf, firstStart, length, completeBefore),
+                later(occupied, endOf, lastStart, lastEnd, length, completeAfter));
+    }
+
+    /**
+     * Conflict from the result of a query for the occupying bookings starting within the requested interval plus up
+     * to {@code neighbours} on either side of it; a side that hit the limit is not searched beyond it.
+     */
+    public static TimeIntervalAlreadyBookedException of(EpochInterval requested, List<Booking> occupied, int neighbours) {
+        NavigableMap<Long, Long> endByStart = new TreeMap<>();
+        int before = 0;
+        int after = 0;
+        for (Booking booking : occupied) {
+            EpochInterval interval = EpochInterval.of(booking);
+            endByStart.put(interval.from(), interval.to());
+            if (interval.from() < requested.from()) {
+                before++;
+            } else if (interval.from() > requested.to()) {
+                after++;
+            }
+        }
+        return of(requested, endByStart, end -> end, before < neighbours, after < neighbours);
+    }
+
+    private static <V> TimeInterval earlier(NavigableMap<Long, V> occupied, ToLongFunction<V> endOf, long blockStart,
+                                            long length, boolean complete) {
+        while (true) {
+            Map.Entry<Long, V> previous = occupied.lowerEntry(blockStart);
+            long gapEnd = blockStart - 1;
+            if (previous == null) {
+                return complete ? new EpochInterval(gapEnd - length, gapEnd).toTimeInterval() : null;
+            }
+            if (gapEnd - endOf.applyAsLong(previous.getValue()) - 1 >= length) {
+                return new EpochInterval(gapEnd - length, gapEnd).toTimeInterval();
+            }
+            blockStart = previous.getKey();
+        }
+    }
+
+    private static <V> TimeInterval later(NavigableMap<Long, V> occupied, ToLongFunction<V> endOf, long blockStart,
+                                          long blockEnd, long length, boolean complete) {
+        while (true) {
+            Map.Entry<Long, V> next = occupied.higherEntry(blockStart);
+            long gapStart = blockEnd + 1;
+            if (next == null) {
+                return complete ? new EpochInterval(gapStart, gapStart + length).toTimeInterval() : null;
+            }
+            if (next.getKey() - 1 - gapStart >= length) {
+                return new EpochInterval(gapStart, gapStart + length).toTimeInterval();
+            }
+            blockStart = next.getKey();
+            blockEnd = endOf.applyAsLong(next.getValue());
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package tech.interview.home.assignment.supercomputer.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Pure in-memory booking store. Occupying (active, in-progress or held) bookings never overlap, so keyed by their start they
+ * form a sorted set of disjoint intervals and an overlap check only has to look at the last booking starting before the end of the
+ * checked interval. Reads are lock-free, writes are serialized. Stored bookings are never mutated, callers always
+ * get copies. Archived bookings are moved to a separate map that is only consulted by {@link #findById(long)}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "supercomputer.storage", name = "type", havingValue = "in-memory")
+public class InMemoryBookingStore implements BookingStore {
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentMap<Long, Booking> bookings = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Booking> archived = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Long, Booking> activeByStart = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, ConcurrentNavigableMap<Long, Booking>> activeByCustomer = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private final BookingEventListeners listeners = new BookingEventListeners();
+
+    @Override
+    public Mono<Booking> findById(long id) {
+        return Mono.fromSupplier(() -> {
+            Booking booking = this.bookings.get(id);
+            return copy(booking != null ? booking : this.archived.get(id));
+        });
+    }
+
+    @Override
+    public Flux<Booking> findActiveByCustomerId(String customerId) {
+        return Flux.defer(() -> {
+            Map<Long, Booking> customerBookings = this.activeByCustomer.get(customerId);
+            return customerBookings == null ? Flux.empty() : Flux.fromIterable(customerBookings.values()).map(InMemoryBookingStore::copy);
+        });
+    }
+
+    @Override
+    public Flux<Booking> findAll() {
+        return Flux.concat(Flux.fromIterable(this.bookings.values()), Flux.fromIterable(this.archived.values()))
+                .map(InMemoryBookingStore::copy);
+    }
+
+    @Override
+    public Mono<Long> findMaxId() {
+        return Mono.fromSupplier(this.sequence::get);
+    }
+
+    @Override
+    public Flux<Booking> findAllByIdRange(long fromId, long toId) {
+        return Flux.defer(() -> {
+            List<Booking> range = new ArrayList<>();
+            for (long id = Math.max(fromId, 1); id <= Math.min(toId, this.sequence.get()); id++) {
+                Booking booking = this.bookings.get(id);
+                if (booking == null) {
+                    booking = this.archived.get(id);
+                }
+                if (booking != null) {
+                    range.add(copy(booking));
+                }
+            }
+            return Flux.fromIterable(range);
+        });
+    }
+
+    @Override
+    public Mono<Boolean> isTimeIntervalAlreadyBooked(EpochInterval interval) {
+        return Mono.fromSupplier(() -> overlapsActive(interval));
+    }
+
+    @Override
+    public Flux<Booking> findOccupying(EpochInterval interval) {
+        return Flux.defer(() -> {
+            Map.Entry<Long, Booking> before = this.activeByStart.floorEntry(interval.from());
+            long from = before == null ? interval.from() : before.getKey();
+            return Flux.fromIterable(this.activeByStart.subMap(from, true, interval.to(), true).values())
+                    .filter(booking -> EpochInterval.epochSecond(booking.getTimeIntervalTo()) >= interval.from())
+                    .map(InMemoryBookingStore::copy);
+        });
+    }
+
+    @Override
+    public Mono<Booking> insertIfAvailable(Booking booking) {
+        return Mono.fromCallable(() -> {
+            synchronized (this.writeLock) {
+                EpochInterval interval = EpochInterval.of(booking);
+                if (overlapsActive(interval)) {
+                    throw Conflicts.of(interval, this.activeByStart, occupied -> EpochInterval.epochSecond(occupied.getTimeIntervalTo()), true, true);
+                }
+                insert(booking);
+                this.listeners.publish(BookingEvent.inserted(booking));
+                return booking;
+            }
+        });
+    }
+
+    @Override
+    public Mono<BatchInsertResult> insertAllIfAvailable(List<Booking> bookings) {
+        return Mono.fromCallable(() -> {
+            List<Booking> accepted = new ArrayList<>(bookings.size());
+            List<Booking> rejected = new ArrayList<>();
+            synchronized (this.writeLock) {
+                for (Booking booking : bookings) {
+                    if (booking.getStatus().occupies() && overlapsActive(EpochInterval.of(booking))) {
+                        rejected.add(booking);
+                    } else {
+                        insert(booking);
+                        this.listeners.publish(BookingEvent.inserted(booking));
+                        accepted.add(booking);
+                    }
+                }
+            }
+            return new BatchInsertResult(accepted, rejected);
+        });
+    }
+
+    @Override
+    public Mono<Booking> compareAndSetStatus(long id, BookingStatus expected, BookingStatus target) {
+        return Mono.fromSupplier(() -> {
+            synchronized (this.writeLock) {
+                Booking previous = this.bookings.get(id);
+                if (previous == null || previous.getStatus() != expected) {
+                    return copy(previous);
+                }
+
+                Booking updated = previous.toBuilder().status(target).build();
+                unindex(previous);
+                this.bookings.put(id, updated);
+                index(updated);
+                this.listeners.publish(BookingEvent.statusChanged(previous, target));
+                return copy(previous);
+            }
+        });
+    }
+
+    @Override
+    public Mono<List<Long>> compareAndSetStatuses(Collection<Long> ids, BookingStatus expected, BookingStatus target) {
+        return Mono.fromSupplier(() -> {
+            List<Long> changed = new ArrayList<>(ids.size());
+            synchronized (this.writeLock) {
+                for (long id : ids) {
+                    Booking previous = this.bookings.get(id);
+                    if (previous != null && previous.getStatus() == expected) {
+                        Booking updated = previous.toBuilder().status(target).build();
+                        unindex(previous);
+                        this.bookings.put(id, updated);
+                        index(updated);
+                        this.listeners.publish(BookingEvent.statusChanged(previous, target));
+                        changed.add(id);
+                    }
+                }
+            }
+            return changed;
+        });
+    }
+
+    @Override
+    public Mono<Integer> archive(LocalDateTime endedBefore, LocalDateTime archivedAt, int limit) {
+        return Mono.fromSupplier(() -> {
+            synchronized (this.writeLock) {
+                List<Booking> archivable = this.bookings.values().stream()
+                        .filter(booking -> booking.getStatus().voided() || booking.getTimeIntervalTo().isBefore(endedBefore))
+                        .limit(limit)
+                        .toList();
+                for (Booking booking : archivable) {
+                    unindex(booking);
+                    this.bookings.remove(booking.getId());
+                    this.archived.put(booking.getId(), booking);
+                }
+                return archivable.size();
+            }
+        });
+    }
+
+    @Override
+    public void addListener(Consumer<BookingEvent> listener) {
+        this.listeners.add(listener);
+    }
+
+    private boolean overlapsActive(EpochInterval interval) {
+        Map.Entry<Long, Booking> candidate = this.activeByStart.floorEntry(interval.to());
+        return candidate != null && EpochInterval.epochSecond(candidate.getValue().getTimeIntervalTo()) >= interval.from();
+    }
+
+    private void insert(Booking booking) {
+        booking.setId(this.sequence.incrementAndGet());
+        Booking stored = copy(booking);
+        this.bookings.put(stored.getId(), stored);
+        index(stored);
+    }
+
+    private void index(Booking booking) {
+        if (booking.getStatus().occupies()) {
+            this.activeByStart.put(EpochInterval.epochSecond(booking.getTimeIntervalFrom()), booking);
+        }
+        if (booking.getStatus().current()) {
+            this.activeByCustomer.computeIfAbsent(booking.getCustomerId(), key -> new ConcurrentSkipListMap<>())
+                    .put(booking.getId(), booking);
+        }
+    }
+
+    private void unindex(Booking booking) {
+        if (booking.getStatus().occupies()) {
+            this.activeByStart.remove(EpochInterval.epochSecond(booking.getTimeIntervalFrom()), booking);
+        }
+        if (booking.getStatus().current()) {
+            Map<Long, Booking> customerBookings = this.activeByCustomer.get(booking.getCustomerId());
+            if (customerBookings != null) {
+                customerBookings.remove(booking.getId());
+            }
+        }
+    }
+
+    private static Booking copy(Booking booking) {
+        return booking == null ? null : booking.toBuilder().build();
+    }
+}
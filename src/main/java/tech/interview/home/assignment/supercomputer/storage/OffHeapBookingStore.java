@@ -0,0 +1,315 @@
+package tech.interview.home.assignment.supercomputer.storage;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+
+/**
+ * In-memory booking store that keeps every booking as a fixed-width {@link BookingRecord} in direct
+ * {@link ByteBuffer} segments outside the Java heap. Ids are assigned sequentially, so a record is addressed by its
+ * id alone. Only the indexes (occupying bookings by start, current ones by customer) and the customer dictionary
+ * live on the heap; canceled, past and archived bookings cost no heap objects at all. {@link Booking} objects are
+ * materialized only when a booking leaves the store.
+ * <p>
+ * Times are stored as {@link EpochInterval} epoch seconds. Reads are lock-free, writes are
+ * serialized, and a record becomes visible once the published size covers its id.
+ */
+@Component
+@ConditionalOnProperty(prefix = "supercomputer.storage", name = "type", havingValue = "off-heap")
+public class OffHeapBookingStore implements BookingStore {
+    private static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 20;
+
+    private final int recordsPerSegment;
+    private volatile ByteBuffer[] segments = new ByteBuffer[0];
+    private volatile long size;
+    private long archivedPrefix;
+
+    private final ConcurrentMap<String, Integer> customerKeys = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, String> customerIds = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Long, Long> activeByStart = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<Integer, ConcurrentSkipListSet<Long>> activeByCustomer = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private final BookingEventListeners listeners = new BookingEventListeners();
+
+    @Autowired
+    public OffHeapBookingStore() {
+        this(DEFAULT_RECORDS_PER_SEGMENT);
+    }
+
+    OffHeapBookingStore(final int recordsPerSegment) {
+        this.recordsPerSegment = recordsPerSegment;
+    }
+
+    @Override
+    public Mono<Booking> findById(long id) {
+        return Mono.fromSupplier(() -> id < 1 || id > this.size ? null : materialize(record(id)));
+    }
+
+    @Override
+    public Flux<Booking> findActiveByCustomerId(String customerId) {
+        return Flux.defer(() -> {
+            Integer customerKey = this.customerKeys.get(customerId);
+            ConcurrentSkipListSet<Long> ids = customerKey == null ? null : this.activeByCustomer.get(customerKey);
+            if (ids == null) {
+                return Flux.empty();
+            }
+
+            BookingRecord record = new BookingRecord();
+            List<Booking> bookings = new ArrayList<>();
+            for (long id : ids) {
+                if (wrap(record, id).status().current()) {
+                    bookings.add(materialize(record));
+                }
+            }
+            return Flux.fromIterable(bookings);
+        });
+    }
+
+    @Override
+    public Flux<Booking> findAll() {
+        return Flux.defer(() -> Flux.range(0, (int) this.size))
+                .map(index -> materialize(record(index + 1L)));
+    }
+
+    @Override
+    public Mono<Long> findMaxId() {
+        return Mono.fromSupplier(() -> this.size);
+    }
+
+    @Override
+    public Flux<Booking> findAllByIdRange(long fromId, long toId) {
+        return Flux.defer(() -> {
+            long first = Math.max(fromId, 1);
+            long last = Math.min(toId, this.size);
+            return first > last ? Flux.empty() : Flux.range(0, (int) (last - first + 1))
+                    .map(index -> materialize(record(first + index)));
+        });
+    }
+
+    @Override
+    public Mono<Boolean> isTimeIntervalAlreadyBooked(EpochInterval interval) {
+        return Mono.fromSupplier(() -> overlapsActive(interval));
+    }
+
+    @Override
+    public Flux<Booking> findOccupying(EpochInterval interval) {
+        return Flux.defer(() -> {
+            Map.Entry<Long, Long> before = this.activeByStart.floorEntry(interval.from());
+            long from = before == null ? interval.from() : before.getKey();
+            List<Booking> occupying = new ArrayList<>();
+            BookingRecord record = new BookingRecord();
+            for (long id : this.activeByStart.subMap(from, true, interval.to(), true).values()) {
+                if (wrap(record, id).toEpochSecond() >= interval.from()) {
+                    occupying.add(materialize(record));
+                }
+            }
+            return Flux.fromIterable(occupying);
+        });
+    }
+
+    @Override
+    public Mono<Booking> insertIfAvailable(Booking booking) {
+        return Mono.fromCallable(() -> {
+            synchronized (this.writeLock) {
+                EpochInterval interval = EpochInterval.of(booking);
+                if (overlapsActive(interval)) {
+                    throw Conflicts.of(interval, this.activeByStart, id -> record(id).toEpochSecond(), true, true);
+                }
+                insert(booking);
+                this.listeners.publish(BookingEvent.inserted(booking));
+                return booking;
+            }
+        });
+    }
+
+    @Override
+    public Mono<BatchInsertResult> insertAllIfAvailable(List<Booking> bookings) {
+        return Mono.fromCallable(() -> {
+            List<Booking> accepted = new ArrayList<>(bookings.size());
+            List<Booking> rejected = new ArrayList<>();
+            synchronized (this.writeLock) {
+                for (Booking booking : bookings) {
+                    if (booking.getStatus().occupies() && overlapsActive(EpochInterval.of(booking))) {
+                        rejected.add(booking);
+                    } else {
+                        insert(booking);
+                        this.listeners.publish(BookingEvent.inserted(booking));
+                        accepted.add(booking);
+                    }
+                }
+            }
+            return new BatchInsertResult(accepted, rejected);
+        });
+    }
+
+    @Override
+    public Mono<Booking> compareAndSetStatus(long id, BookingStatus expected, BookingStatus target) {
+        return Mono.fromSupplier(() -> {
+            synchronized (this.writeLock) {
+                if (id < 1 || id > this.size) {
+                    return null;
+                }
+
+                BookingRecord record = record(id);
+                if (record.archived()) {
+                    return null;
+                }
+
+                Booking previous = materialize(record);
+                if (record.status() == expected) {
+                    unindex(record);
+                    record.status(target);
+                    index(record);
+                    this.listeners.publish(BookingEvent.statusChanged(previous, target));
+                }
+                return previous;
+            }
+        });
+    }
+
+    @Override
+    public Mono<List<Long>> compareAndSetStatuses(Collection<Long> ids, BookingStatus expected, BookingStatus target) {
+        return Mono.fromSupplier(() -> {
+            List<Long> changed = new ArrayList<>(ids.size());
+            synchronized (this.writeLock) {
+                BookingRecord record = new BookingRecord();
+                for (long id : ids) {
+                    if (id < 1 || id > this.size) {
+                        continue;
+                    }
+
+                    wrap(record, id);
+                    if (!record.archived() && record.status() == expected) {
+                        unindex(record);
+                        record.status(target);
+                        index(record);
+                        this.listeners.publish(BookingEvent.statusChanged(materialize(record), target));
+                        changed.add(id);
+                    }
+                }
+            }
+            return changed;
+        });
+    }
+
+    @Override
+    public Mono<Integer> archive(LocalDateTime endedBefore, LocalDateTime archivedAt, int limit) {
+        return Mono.fromSupplier(() -> {
+            long endedBeforeEpochSecond = EpochInterval.epochSecond(endedBefore);
+            int archived = 0;
+            synchronized (this.writeLock) {
+                BookingRecord record = new BookingRecord();
+                for (long id = this.archivedPrefix + 1; id <= this.size && archived < limit; id++) {
+                    wrap(record, id);
+                    if (!record.archived()
+                            && (record.status().voided() || record.toEpochSecond() < endedBeforeEpochSecond)) {
+                        unindex(record);
+                        record.archive();
+                        archived++;
+                    }
+                }
+                while (this.archivedPrefix < this.size && wrap(record, this.archivedPrefix + 1).archived()) {
+                    this.archivedPrefix++;
+                }
+            }
+            return archived;
+        });
+    }
+
+    @Override
+    public void addListener(Consumer<BookingEvent> listener) {
+        this.listeners.add(listener);
+    }
+
+    private boolean overlapsActive(EpochInterval interval) {
+        Map.Entry<Long, Long> candidate = this.activeByStart.floorEntry(interval.to());
+        return candidate != null && record(candidate.getValue()).toEpochSecond() >= interval.from();
+    }
+
+    private void insert(Booking booking) {
+        long id = this.size + 1;
+        int segment = (int) ((id - 1) / this.recordsPerSegment);
+        if (segment == this.segments.length) {
+            ByteBuffer[] grown = Arrays.copyOf(this.segments, segment + 1);
+            grown[segment] = ByteBuffer.allocateDirect(this.recordsPerSegment * BookingRecord.SIZE);
+            this.segments = grown;
+        }
+
+        EpochInterval interval = EpochInterval.of(booking);
+        BookingRecord record = record(id);
+        record.write(id, interval.from(), interval.to(),
+                customerKey(booking.getCustomerId()), booking.getStatus());
+        index(record);
+        booking.setId(id);
+        this.size = id;
+    }
+
+    private int customerKey(String customerId) {
+        return this.customerKeys.computeIfAbsent(customerId, key -> {
+            int customerKey = this.customerKeys.size();
+            this.customerIds.put(customerKey, key);
+            return customerKey;
+        });
+    }
+
+    private void index(BookingRecord record) {
+        if (record.status().occupies()) {
+            this.activeByStart.put(record.fromEpochSecond(), record.id());
+        }
+        if (record.status().current()) {
+            this.activeByCustomer.computeIfAbsent(record.customerKey(), key -> new ConcurrentSkipListSet<>())
+                    .add(record.id());
+        }
+    }
+
+    private void unindex(BookingRecord record) {
+        if (record.status().occupies()) {
+            this.activeByStart.remove(record.fromEpochSecond(), record.id());
+        }
+        if (record.status().current()) {
+            ConcurrentSkipListSet<Long> customerBookings = this.activeByCustomer.get(record.customerKey());
+            if (customerBookings != null) {
+                customerBookings.remove(record.id());
+            }
+        }
+    }
+
+    private BookingRecord record(long id) {
+        return wrap(new BookingRecord(), id);
+    }
+
+    private BookingRecord wrap(BookingRecord record, long id) {
+        long index = id - 1;
+        return record.wrap(this.segments[(int) (index / this.recordsPerSegment)],
+                (int) (index % this.recordsPerSegment) * BookingRecord.SIZE);
+    }
+
+    private Booking materialize(BookingRecord record) {
+        return Booking.builder()
+                .id(record.id())
+                .customerId(this.customerIds.get(record.customerKey()))
+                .status(record.status())
+                .timeIntervalFrom(EpochInterval.dateTime(record.fromEpochSecond()))
+                .timeIntervalTo(EpochInterval.dateTime(record.toEpochSecond()))
+                .build();
+    }
+}
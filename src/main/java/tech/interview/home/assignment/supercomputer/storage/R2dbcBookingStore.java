@@ -0,0 +1,218 @@
+package tech.interview.home.assignment.supercomputer.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.exceptions.TimeIntervalAlreadyBookedException;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+import tech.interview.home.assignment.supercomputer.repositories.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Booking store backed by the R2DBC {@link BookingRepository}. Every write runs in one serializable transaction,
+ * retried on serialization conflicts. H2 does not prevent phantom inserts under serializable isolation, so inserts
+ * first lock the {@code BOOKING_WRITE_LOCK} row, the same row the JDBC booking service locks; that service writes to
+ * the same tables and publishes its commits through {@link #inserted(Booking)} and
+ * {@link #statusChanged(Booking, BookingStatus)}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "supercomputer.storage", name = "type", havingValue = "r2dbc", matchIfMissing = true)
+public class R2dbcBookingStore implements BookingStore {
+    private final BookingRepository repo;
+    private final TransactionalOperator transactionalOperator;
+    private final SerializationFailureRetry writeRetry;
+    private final BookingEventListeners listeners = new BookingEventListeners();
+
+    public R2dbcBookingStore(final BookingRepository repo,
+                             final TransactionalOperator transactionalOperator,
+                             final SerializationFailureRetry writeRetry) {
+        this.repo = repo;
+        this.transactionalOperator = transactionalOperator;
+        this.writeRetry = writeRetry;
+    }
+
+    @Override
+    public Mono<Booking> findById(long id) {
+        return this.repo.findById(id)
+                .switchIfEmpty(Mono.defer(() -> this.repo.findArchivedById(id)));
+    }
+
+    @Override
+    public Flux<Booking> findActiveByCustomerId(String customerId) {
+        return this.repo.findByCustomerId(Mono.just(customerId));
+    }
+
+    @Override
+    public Flux<Booking> findAll() {
+        return this.repo.findAll()
+                .concatWith(this.repo.findAllArchived());
+    }
+
+    @Override
+    public Mono<Long> findMaxId() {
+        return Mono.zip(this.repo.findMaxId(), this.repo.findMaxArchivedId(), Math::max);
+    }
+
+    @Override
+    public Flux<Booking> findAllByIdRange(long fromId, long toId) {
+        return this.repo.findByIdBetween(fromId, toId)
+                .concatWith(this.repo.findArchivedByIdBetween(fromId, toId));
+    }
+
+    @Override
+    public Mono<Boolean> isTimeIntervalAlreadyBooked(EpochInterval interval) {
+        return this.repo.isTimeIntervalAlreadyBooked(interval.fromDateTime(), interval.toDateTime());
+    }
+
+    @Override
+    public Flux<Booking> findOccupying(EpochInterval interval) {
+        return this.repo.findActiveInTimeInterval(interval.fromDateTime(), interval.toDateTime());
+    }
+
+    @Override
+    public Mono<Booking> insertIfAvailable(Booking booking) {
+        return inTransaction(() -> {
+            booking.setId(null);
+            return this.repo.lockWrites()
+                    .then(this.repo.isTimeIntervalAlreadyBooked(booking.getTimeIntervalFrom(), booking.getTimeIntervalTo()))
+                    .flatMap(alreadyBooked -> {
+                        if(alreadyBooked) {
+                            return conflict(EpochInterval.of(booking)).flatMap(Mono::error);
+                        }
+                        return this.repo.save(booking);
+                    });
+        }).doOnNext(inserted -> this.listeners.publish(BookingEvent.inserted(inserted)));
+    }
+
+    @Override
+    public Mono<BatchInsertResult> insertAllIfAvailable(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return Mono.just(new BatchInsertResult(List.of(), List.of()));
+        }
+
+        LocalDateTime from = bookings.stream().map(Booking::getTimeIntervalFrom).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = bookings.stream().map(Booking::getTimeIntervalTo).max(Comparator.naturalOrder()).orElseThrow();
+
+        return inTransaction(() -> this.repo.lockWrites()
+                .thenMany(this.repo.findActiveInTimeInterval(from, to))
+                .collectList()
+                .flatMap(existing -> {
+                    NavigableMap<Long, Long> activeEndByStart = new TreeMap<>();
+                    existing.forEach(booking -> activeEndByStart.put(EpochInterval.epochSecond(booking.getTimeIntervalFrom()),
+                            EpochInterval.epochSecond(booking.getTimeIntervalTo())));
+
+                    List<Booking> accepted = new ArrayList<>(bookings.size());
+                    List<Booking> rejected = new ArrayList<>();
+                    for (Booking booking : bookings) {
+                        if (!booking.getStatus().occupies()) {
+                            accepted.add(booking);
+                            continue;
+                        }
+
+                        EpochInterval interval = EpochInterval.of(booking);
+                        if (Bookings.overlapsAny(activeEndByStart, interval)) {
+                            rejected.add(booking);
+                        } else {
+                            activeEndByStart.put(interval.from(), interval.to());
+                            accepted.add(booking);
+                        }
+                    }
+
+                    return this.repo.insertAll(accepted)
+                            .collectList()
+                            .map(ids -> {
+                                for (int i = 0; i < accepted.size(); i++) {
+                                    accepted.get(i).setId(ids.get(i));
+                                }
+                                return new BatchInsertResult(accepted, rejected);
+                            });
+                }))
+                .doOnNext(result -> result.accepted().forEach(booking -> this.listeners.publish(BookingEvent.inserted(booking))));
+    }
+
+    @Override
+    public Mono<Booking> compareAndSetStatus(long id, BookingStatus expected, BookingStatus target) {
+        return inTransaction(() -> this.repo.findById(id)
+                .flatMap(booking -> {
+                    Booking previous = booking.toBuilder().build();
+                    if (booking.getStatus() != expected) {
+                        return Mono.just(previous);
+                    }
+
+                    booking.setStatus(target);
+                    return this.repo.save(booking).thenReturn(previous);
+                }))
+                .doOnNext(previous -> {
+                    if (previous.getStatus() == expected) {
+                        this.listeners.publish(BookingEvent.statusChanged(previous, target));
+                    }
+                });
+    }
+
+    @Override
+    public Mono<List<Long>> compareAndSetStatuses(Collection<Long> ids, BookingStatus expected, BookingStatus target) {
+        if (ids.isEmpty()) {
+            return Mono.just(List.of());
+        }
+
+        return inTransaction(() -> this.repo.lockIdsWithStatus(ids, expected.name())
+                .collectList()
+                .flatMap(changed -> changed.isEmpty()
+                        ? Mono.just(changed)
+                        : this.repo.updateStatus(changed, target.name()).thenReturn(changed)))
+                .doOnNext(changed -> changed.forEach(id -> this.listeners.publish(BookingEvent.statusChanged(id, target))));
+    }
+
+    @Override
+    public Mono<Integer> archive(LocalDateTime endedBefore, LocalDateTime archivedAt, int limit) {
+        return inTransaction(() -> this.repo.archive(endedBefore, archivedAt, limit));
+    }
+
+    @Override
+    public void addListener(Consumer<BookingEvent> listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Publishes an insert another writer on the same database has committed.
+     */
+    public void inserted(Booking booking) {
+        this.listeners.publish(BookingEvent.inserted(booking));
+    }
+
+    /**
+     * Publishes a status transition another writer on the same database has committed.
+     */
+    public void statusChanged(Booking previous, BookingStatus status) {
+        this.listeners.publish(BookingEvent.statusChanged(previous, status));
+    }
+
+    /**
+     * Builds the conflict inside the transaction that detected it, from the occupying bookings overlapping the interval
+     * and up to {@link Conflicts#NEIGHBOURS} on either side. A side that hit the limit is not searched beyond it.
+     */
+    private Mono<TimeIntervalAlreadyBookedException> conflict(EpochInterval interval) {
+        return this.repo.findOccupyingAround(interval.fromDateTime(), interval.toDateTime(), Conflicts.NEIGHBOURS)
+                .collectList()
+                .map(occupied -> Conflicts.of(interval, occupied, Conflicts.NEIGHBOURS));
+    }
+
+    private <T> Mono<T> inTransaction(Supplier<Mono<T>> work) {
+        return Mono.defer(work)
+                .as(this.transactionalOperator::transactional)
+                .retryWhen(this.writeRetry.spec());
+    }
+}
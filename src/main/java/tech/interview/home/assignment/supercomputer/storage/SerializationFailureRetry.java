@@ -0,0 +1,44 @@
+package tech.interview.home.assignment.supercomputer.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.R2dbcRollbackException;
+import io.r2dbc.spi.R2dbcTransientResourceException;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+import tech.interview.home.assignment.supercomputer.config.WriteRetryProperties;
+
+/**
+ * Retry policy for serializable booking writes: transactions aborted because of a serialization conflict are
+ * retried with bounded exponential backoff and jitter. Every retry is counted.
+ */
+@Component
+public class SerializationFailureRetry {
+    private final RetryBackoffSpec retrySpec;
+
+    public SerializationFailureRetry(final WriteRetryProperties properties, final MeterRegistry meterRegistry) {
+        Counter retries = Counter.builder("booking.write.retries")
+                .description("Booking write transactions retried after a serialization conflict")
+                .register(meterRegistry);
+        this.retrySpec = Retry.backoff(properties.maxAttempts(), properties.minBackoff())
+                .maxBackoff(properties.maxBackoff())
+                .jitter(properties.jitter())
+                .filter(SerializationFailureRetry::isSerializationFailure)
+                .doBeforeRetry(signal -> retries.increment())
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    public Retry spec() {
+        return this.retrySpec;
+    }
+
+    static boolean isSerializationFailure(Throwable e) {
+        return e instanceof ConcurrencyFailureException
+                || e instanceof TransientDataAccessException
+                || e instanceof R2dbcRollbackException
+                || e instanceof R2dbcTransientResourceException;
+    }
+}
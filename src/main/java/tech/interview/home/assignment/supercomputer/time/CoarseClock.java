@@ -0,0 +1,59 @@
+package tech.interview.home.assignment.supercomputer.time;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clock that reads the system time once per tick and serves the cached value in between. Reading it is a single
+ * volatile load, at the cost of being up to one resolution behind the system clock.
+ */
+public final class CoarseClock extends Clock implements AutoCloseable {
+    private final AtomicLong millis;
+    private final Disposable ticker;
+    private final ZoneId zone;
+
+    public CoarseClock(final Duration resolution, final ZoneId zone) {
+        this.millis = new AtomicLong(System.currentTimeMillis());
+        this.ticker = Flux.interval(resolution, resolution)
+                .onBackpressureDrop()
+                .subscribe(tick -> this.millis.set(System.currentTimeMillis()));
+        this.zone = zone;
+    }
+
+    private CoarseClock(final CoarseClock source, final ZoneId zone) {
+        this.millis = source.millis;
+        this.ticker = source.ticker;
+        this.zone = zone;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return this.zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return zone.equals(this.zone) ? this : new CoarseClock(this, zone);
+    }
+
+    @Override
+    public long millis() {
+        return this.millis.get();
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis());
+    }
+
+    @Override
+    public void close() {
+        this.ticker.dispose();
+    }
+}
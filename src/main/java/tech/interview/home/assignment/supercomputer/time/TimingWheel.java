@@ -0,0 +1,147 @@
+package tech.interview.home.assignment.supercomputer.time;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel. Level {@code n} has {@code wheelSize} buckets of {@code tick * wheelSize^n}
+ * milliseconds each, and an item goes to the lowest level whose span still covers its expiration. Adding an item is
+ * O(1); advancing by one tick expires one bucket of the lowest level and, whenever a higher level's bucket boundary
+ * is crossed, moves the items of that bucket down a level. Levels are added on demand, so expirations of any
+ * distance are supported. Items expire up to one tick late, never early. An empty wheel jumps straight to the current
+ * time. Items cannot be removed, owners that give up on an item ignore it once it expires.
+ *
+ * @param <T> item type
+ */
+public final class TimingWheel<T> {
+    private final long tick;
+    private final int wheelSize;
+    private final List<Level<T>> levels = new ArrayList<>();
+    private long current;
+    private int size;
+
+    /**
+     * @param tick      resolution in milliseconds
+     * @param wheelSize buckets per level
+     * @param start     current time in milliseconds
+     */
+    public TimingWheel(long tick, int wheelSize, long start) {
+        if (tick < 1 || wheelSize < 2) {
+            throw new IllegalArgumentException("Illegal timing wheel: Tick must be positive and a level needs at least two buckets!");
+        }
+        this.tick = tick;
+        this.wheelSize = wheelSize;
+        this.current = start - Math.floorMod(start, tick);
+        this.levels.add(new Level<>(tick, wheelSize));
+    }
+
+    /**
+     * Adds an item that expires at {@code expiration} milliseconds.
+     *
+     * @return false if the item has already expired and was not added
+     */
+    public synchronized boolean add(T item, long expiration) {
+        if (expiration < this.current) {
+            return false;
+        }
+        insert(new Entry<>(item, expiration));
+        this.size++;
+        return true;
+    }
+
+    /**
+     * Advances the wheel to {@code now} and passes every item that expired on the way to {@code expired}, in
+     * order of their tick.
+     */
+    public void advance(long now, Consumer<T> expired) {
+        List<T> due = new ArrayList<>();
+        synchronized (this) {
+            if (this.size == 0 && this.current + this.tick <= now) {
+                this.current = now - Math.floorMod(now, this.tick);
+            }
+            while (this.current + this.tick <= now) {
+                ArrayDeque<Entry<T>> bucket = this.levels.get(0).bucket(this.current);
+                this.current += this.tick;
+                for (Entry<T> entry : bucket) {
+                    due.add(entry.item());
+                }
+                this.size -= bucket.size();
+                bucket.clear();
+                cascade();
+            }
+        }
+        due.forEach(expired);
+    }
+
+    public synchronized int size() {
+        return this.size;
+    }
+
+    /**
+     * Moves the items of every higher-level bucket that starts at the current time down to the lower levels.
+     */
+    private void cascade() {
+        for (int i = 1; i < this.levels.size(); i++) {
+            Level<T> level = this.levels.get(i);
+            if (this.current % level.tick() != 0) {
+                return;
+            }
+
+            ArrayDeque<Entry<T>> bucket = level.bucket(this.current);
+            List<Entry<T>> entries = new ArrayList<>(bucket);
+            bucket.clear();
+            entries.forEach(this::insert);
+        }
+    }
+
+    /**
+     * A level's window is {@code [current, current + levelTick * wheelSize)}; level {@code n > 0} only takes items at
+     * least one of its ticks away, so the buckets of a window never wrap onto each other.
+     */
+    private void insert(Entry<T> entry) {
+        long delta = entry.expiration() - this.current;
+        int index = 0;
+        Level<T> level = this.levels.get(0);
+        while (delta >= level.span()) {
+            index++;
+            if (index == this.levels.size()) {
+                this.levels.add(new Level<>(level.span(), this.wheelSize));
+            }
+            level = this.levels.get(index);
+        }
+        level.bucket(entry.expiration()).add(entry);
+    }
+
+    private record Entry<T>(T item, long expiration) {
+    }
+
+    private static final class Level<T> {
+        private final long tick;
+        private final long span;
+        private final ArrayDeque<Entry<T>>[] buckets;
+
+        @SuppressWarnings("unchecked")
+        private Level(long tick, int wheelSize) {
+            this.tick = tick;
+            this.span = Math.multiplyExact(tick, wheelSize);
+            this.buckets = new ArrayDeque[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                this.buckets[i] = new ArrayDeque<>();
+            }
+        }
+
+        long tick() {
+            return this.tick;
+        }
+
+        long span() {
+            return this.span;
+        }
+
+        ArrayDeque<Entry<T>> bucket(long time) {
+            return this.buckets[(int) Math.floorMod(Math.floorDiv(time, this.tick), (long) this.buckets.length)];
+        }
+    }
+}
@@ -4,4 +4,63 @@ CREATE TABLE IF NOT EXISTS BOOKINGS(
     STATUS VARCHAR(255),
     TIME_INTERVAL_FROM DATETIME,
     TIME_INTERVAL_TO DATETIME
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS BOOKINGS_TIME_INTERVAL_FROM_IDX ON BOOKINGS(TIME_INTERVAL_FROM);
+CREATE INDEX IF NOT EXISTS BOOKINGS_STATUS_TIME_INTERVAL_FROM_IDX ON BOOKINGS(STATUS, TIME_INTERVAL_FROM);
+-- the composite index also serves lookups by customer alone
+DROP INDEX IF EXISTS BOOKINGS_CUSTOMER_ID_IDX;
+CREATE INDEX IF NOT EXISTS BOOKINGS_CUSTOMER_ID_STATUS_IDX ON BOOKINGS(CUSTOMER_ID, STATUS);
+
+CREATE TABLE IF NOT EXISTS BOOKINGS_ARCHIVE(
+    ID LONG PRIMARY KEY,
+    CUSTOMER_ID VARCHAR(255),
+    STATUS VARCHAR(255),
+    TIME_INTERVAL_FROM DATETIME,
+    TIME_INTERVAL_TO DATETIME,
+    ARCHIVED_AT DATETIME
+);
+
+CREATE TABLE IF NOT EXISTS BOOKING_WRITE_LOCK(
+    ID INT PRIMARY KEY
+);
+MERGE INTO BOOKING_WRITE_LOCK KEY(ID) VALUES (1);
+
+CREATE TABLE IF NOT EXISTS BOOKING_EVENTS(
+    SEQ LONG PRIMARY KEY,
+    TYPE VARCHAR(255),
+    BOOKING_ID LONG,
+    CUSTOMER_ID VARCHAR(255),
+    STATUS VARCHAR(255),
+    TIME_INTERVAL_FROM DATETIME,
+    TIME_INTERVAL_TO DATETIME,
+    RECORDED_AT DATETIME
+);
+
+CREATE INDEX IF NOT EXISTS BOOKING_EVENTS_BOOKING_ID_IDX ON BOOKING_EVENTS(BOOKING_ID);
+
+CREATE TABLE IF NOT EXISTS BOOKING_SNAPSHOTS(
+    SEQ LONG PRIMARY KEY,
+    TAKEN_AT DATETIME
+);
+
+CREATE INDEX IF NOT EXISTS BOOKING_SNAPSHOTS_TAKEN_AT_IDX ON BOOKING_SNAPSHOTS(TAKEN_AT);
+
+CREATE TABLE IF NOT EXISTS BOOKING_SNAPSHOT_ENTRIES(
+    SNAPSHOT_SEQ LONG,
+    BOOKING_ID LONG,
+    CUSTOMER_ID VARCHAR(255),
+    STATUS VARCHAR(255),
+    TIME_INTERVAL_FROM DATETIME,
+    TIME_INTERVAL_TO DATETIME,
+    PRIMARY KEY (SNAPSHOT_SEQ, BOOKING_ID)
+);
+
+CREATE TABLE IF NOT EXISTS RECURRING_BOOKINGS(
+    ID LONG PRIMARY KEY,
+    CUSTOMER_ID VARCHAR(255),
+    RECURRENCE VARCHAR(255),
+    TIME_INTERVAL_FROM DATETIME,
+    TIME_INTERVAL_TO DATETIME,
+    OCCURRENCES INT
+);
@@ -1,27 +1,40 @@
 package tech.interview.home.assignment.supercomputer;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.admission.AdmissionControl;
+import tech.interview.home.assignment.supercomputer.config.AdmissionProperties;
+import tech.interview.home.assignment.supercomputer.config.ResponseCacheProperties;
 import tech.interview.home.assignment.supercomputer.config.RouterConfig;
 import tech.interview.home.assignment.supercomputer.controllers.BookingHandler;
+import tech.interview.home.assignment.supercomputer.controllers.BookingJsonCache;
+import tech.interview.home.assignment.supercomputer.exceptions.QuotaExceededException;
 import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
 import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
 import tech.interview.home.assignment.supercomputer.model.dto.BookingResponseDto;
 import tech.interview.home.assignment.supercomputer.model.dto.CheckBookingResponseDto;
+import tech.interview.home.assignment.supercomputer.model.dto.NewBookingRequestDto;
 import tech.interview.home.assignment.supercomputer.services.BookingService;
+import tech.interview.home.assignment.supercomputer.services.BookingVersions;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -45,8 +58,13 @@ public class BookingEndpointTests {
     @BeforeEach
     void setUpBeforeEach() {
         bookingService = mock(BookingService.class);
-        BookingHandler bookingHandler = new BookingHandler(bookingService);
-        RouterFunction<?> routes = new RouterConfig().routes(bookingHandler);
+        AdmissionProperties admissionProperties = new AdmissionProperties(true, 20, 10, 10_000, 32, 4, 512,
+                Duration.ofMillis(50), 0.9, Duration.ofSeconds(1));
+        AdmissionControl admissionControl = new AdmissionControl(admissionProperties, new SimpleMeterRegistry());
+        BookingHandler bookingHandler = new BookingHandler(bookingService, new BookingVersions(),
+                new BookingJsonCache(Jackson2ObjectMapperBuilder.json().build(), new ResponseCacheProperties(true, 100), new SimpleMeterRegistry()),
+                admissionControl);
+        RouterFunction<?> routes = new RouterConfig().routes(bookingHandler, admissionControl);
         client = WebTestClient
                 .bindToRouterFunction(routes)
                 .build();
@@ -72,6 +90,30 @@ public class BookingEndpointTests {
                 .jsonPath("$.timeInterval.to").isNotEmpty();
     }
 
+    @Test
+    @DisplayName("Test get booking by id: Conditional GET with the returned ETag is answered 304")
+    void getBookingByIdNotModified() {
+        when(bookingService.findById(any())).thenReturn(Mono.just(responseDto));
+
+        String eTag = client.get()
+                .uri("/api/supercomputer/v1/bookings/id/" + id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+
+        client.get()
+                .uri("/api/supercomputer/v1/bookings/id/" + id)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, eTag)
+                .expectBody().isEmpty();
+        verify(bookingService, times(1)).findById(any());
+    }
+
     @Test
     @DisplayName("Test get bookings for customer")
     void getCustomerBookings() {
@@ -89,6 +131,19 @@ public class BookingEndpointTests {
                 .jsonPath("$[1].id").isNotEmpty();
     }
 
+    @Test
+    @DisplayName("Test get bookings for customer without bookings")
+    void getCustomerBookingsEmpty() {
+        when(bookingService.findForCustomer(any())).thenReturn(Flux.empty());
+
+        client.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/supercomputer/v1/bookings/customer/" + customerId)
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[]");
+    }
+
     @Test
     @DisplayName("Test check time interval")
     void testCheckTimeInterval() {
@@ -122,6 +177,53 @@ public class BookingEndpointTests {
                 .expectBody().isEmpty();
     }
 
+    @Test
+    @DisplayName("Test add booking over the booked time quota: 400 Bad request with problem detail")
+    void testAddBookingOverQuota() {
+        when(bookingService.addBooking(any())).thenReturn(Mono.error(new QuotaExceededException("Customer " + customerId + " is over quota!")));
+
+        client.post()
+                .uri(uriBuilder -> uriBuilder.path("/api/supercomputer/v1/bookings/add")
+                        .build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Booked time quota exceeded")
+                .jsonPath("$.detail").isEqualTo("Customer " + customerId + " is over quota!");
+    }
+
+    @Test
+    @DisplayName("Test add booking above the customer's burst: 429 Too many requests with Retry-After")
+    void testAddBookingRateLimited() {
+        when(bookingService.addBooking(any())).thenAnswer(invocation -> invocation.<Mono<NewBookingRequestDto>>getArgument(0).thenReturn(id));
+        AdmissionControl admissionControl = new AdmissionControl(new AdmissionProperties(true, 1, 0.001, 10_000, 32, 4, 512,
+                Duration.ofMillis(50), 0.9, Duration.ofSeconds(1)), new SimpleMeterRegistry());
+        BookingHandler bookingHandler = new BookingHandler(bookingService, new BookingVersions(),
+                new BookingJsonCache(Jackson2ObjectMapperBuilder.json().build(), new ResponseCacheProperties(true, 100), new SimpleMeterRegistry()),
+                admissionControl);
+        WebTestClient rateLimitedClient = WebTestClient
+                .bindToRouterFunction(new RouterConfig().routes(bookingHandler, admissionControl))
+                .build();
+        NewBookingRequestDto request = new NewBookingRequestDto(customerId, timeInterval);
+
+        rateLimitedClient.post()
+                .uri("/api/supercomputer/v1/bookings/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated();
+        rateLimitedClient.post()
+                .uri("/api/supercomputer/v1/bookings/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+                .expectHeader().exists(HttpHeaders.RETRY_AFTER)
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Too many requests");
+        admissionControl.destroy();
+    }
+
     @Test
     @DisplayName("Test cancellation of booking")
     void testCancellationOfBooking() {
@@ -0,0 +1,161 @@
+package tech.interview.home.assignment.supercomputer.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import tech.interview.home.assignment.supercomputer.config.AdmissionProperties;
+import tech.interview.home.assignment.supercomputer.config.RouterConfig;
+import tech.interview.home.assignment.supercomputer.exceptions.RateLimitedException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlTest {
+    private static final HandlerFunction<ServerResponse> ok = request -> ServerResponse.ok().build();
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("Rate limit: Customer exceeding the burst is rejected with 429 and Retry-After")
+    void rateLimitRejectsBurst() {
+        AdmissionControl admissionControl = admissionControl(2, 1, 8, Duration.ofMillis(50));
+        var filter = admissionControl.rateLimit();
+
+        assertStatus(HttpStatus.OK, filter.filter(request("Customer1"), ok));
+        assertStatus(HttpStatus.OK, filter.filter(request("Customer1"), ok));
+        StepVerifier
+                .create(filter.filter(request("Customer1"), ok))
+                .consumeNextWith(res -> assertAll(
+                        () -> assertEquals(HttpStatus.TOO_MANY_REQUESTS, res.statusCode()),
+                        () -> assertEquals("1", res.headers().getFirst(HttpHeaders.RETRY_AFTER))
+                ))
+                .verifyComplete();
+        assertStatus(HttpStatus.OK, filter.filter(request("Customer2"), ok));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertStatus(HttpStatus.OK, filter.filter(request("Customer1"), ok));
+    }
+
+    @Test
+    @DisplayName("Rate limit: Decoded body is admitted by its customer, bodies without a valid one pass")
+    void admitKeysOnDecodedCustomerId() {
+        AdmissionControl admissionControl = admissionControl(1, 1, 8, Duration.ofMillis(50));
+
+        StepVerifier
+                .create(admissionControl.admit(Mono.just("Customer1"), Function.identity()))
+                .expectNext("Customer1")
+                .verifyComplete();
+        StepVerifier
+                .create(admissionControl.admit(Mono.just("Customer1"), Function.identity()))
+                .expectErrorSatisfies(e -> assertEquals(1, assertInstanceOf(RateLimitedException.class, e).getRetryAfterSeconds()))
+                .verify();
+        StepVerifier
+                .create(admissionControl.admit(Mono.just("Customer2"), Function.identity()))
+                .expectNext("Customer2")
+                .verifyComplete();
+        for (int i = 0; i < 2; i++) {
+            StepVerifier
+                    .create(admissionControl.admit(Mono.just("not valid"), Function.identity()))
+                    .expectNext("not valid")
+                    .verifyComplete();
+        }
+        assertEquals(2, admissionControl.trackedCustomers());
+    }
+
+    @Test
+    @DisplayName("Rate limit: Sweep drops refilled buckets, then arbitrary ones down to the tracked customer cap")
+    void sweepCapsTrackedCustomers() {
+        AdmissionControl admissionControl = admissionControl(1, 1, 8, Duration.ofMillis(50));
+        var filter = admissionControl.rateLimit();
+
+        assertStatus(HttpStatus.OK, filter.filter(request("Customer0"), ok));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        for (int i = 1; i <= 150; i++) {
+            assertStatus(HttpStatus.OK, filter.filter(request("Customer" + i), ok));
+        }
+        assertEquals(151, admissionControl.trackedCustomers());
+
+        admissionControl.sweep();
+        assertEquals(100, admissionControl.trackedCustomers());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        admissionControl.sweep();
+        assertEquals(0, admissionControl.trackedCustomers());
+    }
+
+    @Test
+    @DisplayName("Concurrency limit: Requests above the limit are rejected with 503 and Retry-After")
+    void concurrencyLimitRejectsOverload() {
+        AdmissionControl admissionControl = admissionControl(100, 100, 1, Duration.ofMillis(50));
+        var filter = admissionControl.concurrencyLimit();
+        Sinks.One<ServerResponse> pending = Sinks.one();
+
+        StepVerifier
+                .create(filter.filter(request("Customer1"), request -> pending.asMono()))
+                .then(() -> StepVerifier
+                        .create(filter.filter(request("Customer2"), ok))
+                        .consumeNextWith(res -> assertAll(
+                                () -> assertEquals(HttpStatus.SERVICE_UNAVAILABLE, res.statusCode()),
+                                () -> assertEquals("1", res.headers().getFirst(HttpHeaders.RETRY_AFTER))
+                        ))
+                        .verifyComplete())
+                .then(() -> ServerResponse.ok().build().subscribe(pending::tryEmitValue))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertStatus(HttpStatus.OK, filter.filter(request("Customer2"), ok));
+    }
+
+    @Test
+    @DisplayName("Concurrency limit: Limit shrinks on slow requests and grows on fast ones")
+    void concurrencyLimitAdaptsToLatency() {
+        AimdConcurrencyLimit limit = new AimdConcurrencyLimit(10, 2, 20, TimeUnit.MILLISECONDS.toNanos(50), 0.5);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        assertFalse(limit.tryAcquire());
+
+        limit.release(0, TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(5, limit.limit());
+
+        limit.release(0, TimeUnit.MILLISECONDS.toNanos(120));
+        assertEquals(5, limit.limit(), "Limit should shrink at most once per target latency period");
+
+        limit.release(0, TimeUnit.MILLISECONDS.toNanos(10));
+        assertEquals(6, limit.limit());
+        assertEquals(7, limit.inFlight());
+    }
+
+    private AdmissionControl admissionControl(int burst, double requestsPerSecond, int concurrencyLimit, Duration targetLatency) {
+        AdmissionProperties properties = new AdmissionProperties(true, burst, requestsPerSecond, 100, concurrencyLimit,
+                1, concurrencyLimit, targetLatency, 0.9, Duration.ofSeconds(1));
+        return new AdmissionControl(properties, new SimpleMeterRegistry(), now::get);
+    }
+
+    private static ServerRequest request(String customerId) {
+        return MockServerRequest.builder()
+                .pathVariable(RouterConfig.CUSTOMER_ID_PATH_VARIABLE, customerId)
+                .build();
+    }
+
+    private static void assertStatus(HttpStatus status, Mono<ServerResponse> response) {
+        StepVerifier
+                .create(response)
+                .consumeNextWith(res -> assertEquals(status, res.statusCode()))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,26 @@
+package tech.interview.home.assignment.supercomputer.benchmarks;
+
+import java.util.Arrays;
+
+/**
+ * Throughput and latency percentiles of one benchmark run.
+ */
+record BenchmarkResult(String name, int requests, long elapsedNanos, long[] latenciesNanos) {
+
+    double throughput() {
+        return this.requests / (this.elapsedNanos / 1_000_000_000.0);
+    }
+
+    double percentileMillis(double percentile) {
+        long[] sorted = this.latenciesNanos.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile / 100.0 * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-40s %10.0f req/s   p50 %8.2f ms   p99 %8.2f ms",
+                this.name, throughput(), percentileMillis(50), percentileMillis(99));
+    }
+}
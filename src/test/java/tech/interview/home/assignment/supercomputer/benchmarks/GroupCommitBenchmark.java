@@ -0,0 +1,109 @@
+package tech.interview.home.assignment.supercomputer.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.config.GroupCommitProperties;
+import tech.interview.home.assignment.supercomputer.config.WriteRetryProperties;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.repositories.BookingRepository;
+import tech.interview.home.assignment.supercomputer.services.BookingGroupCommitter;
+import tech.interview.home.assignment.supercomputer.services.BookingStateVersion;
+import tech.interview.home.assignment.supercomputer.storage.R2dbcBookingStore;
+import tech.interview.home.assignment.supercomputer.storage.SerializationFailureRetry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Throughput/latency tradeoff of the group commit stage compared to one serializable transaction per booking.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataR2dbcTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///group-commit-benchmark;DB_CLOSE_DELAY=-1")
+class GroupCommitBenchmark {
+    private static final int REQUESTS = 5_000;
+    private static final int CONCURRENCY = 128;
+
+    @Autowired
+    private BookingRepository repository;
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    private final AtomicLong slot = new AtomicLong();
+
+    @Test
+    @DisplayName("Group commit: throughput and latency per window and batch size")
+    void groupCommit() {
+        TransactionalOperator transactionalOperator = serializableTransactionalOperator();
+        R2dbcBookingStore store = new R2dbcBookingStore(this.repository, transactionalOperator, writeRetry());
+
+        System.out.println(run("transaction per booking", booking -> this.repository
+                .isTimeIntervalAlreadyBooked(booking.getTimeIntervalFrom(), booking.getTimeIntervalTo())
+                .flatMap(booked -> this.repository.save(booking))
+                .map(Booking::getId)
+                .as(transactionalOperator::transactional)));
+
+        for (Duration window : new Duration[]{Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(20)}) {
+            for (int batchSize : new int[]{16, 64, 256}) {
+                BookingGroupCommitter committer = new BookingGroupCommitter(store, new BookingStateVersion(),
+                        new GroupCommitProperties(true, window, batchSize));
+                System.out.println(run("group commit window=" + window.toMillis() + "ms batch=" + batchSize, committer::submit));
+                committer.destroy();
+            }
+        }
+    }
+
+    private BenchmarkResult run(String name, Function<Booking, Mono<Long>> addBooking) {
+        this.repository.deleteAll().block();
+        long[] latencies = new long[REQUESTS];
+        long start = System.nanoTime();
+
+        Flux.range(0, REQUESTS)
+                .flatMap(i -> {
+                    long requestStart = System.nanoTime();
+                    return addBooking.apply(nextBooking())
+                            .onErrorResume(e -> Mono.empty())
+                            .doFinally(signal -> latencies[i] = System.nanoTime() - requestStart);
+                }, CONCURRENCY)
+                .blockLast();
+
+        return new BenchmarkResult(name, REQUESTS, System.nanoTime() - start, latencies);
+    }
+
+    private Booking nextBooking() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS).plusMinutes(10 * this.slot.getAndIncrement());
+        return Booking.builder()
+                .customerId("Benchmark")
+                .status(BookingStatus.ACTIVE)
+                .timeIntervalFrom(from)
+                .timeIntervalTo(from.plusMinutes(5))
+                .build();
+    }
+
+    private TransactionalOperator serializableTransactionalOperator() {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        return TransactionalOperator.create(new R2dbcTransactionManager(this.connectionFactory), definition);
+    }
+
+    private static SerializationFailureRetry writeRetry() {
+        return new SerializationFailureRetry(new WriteRetryProperties(10, Duration.ofMillis(5), Duration.ofMillis(500), 0.5),
+                new SimpleMeterRegistry());
+    }
+}
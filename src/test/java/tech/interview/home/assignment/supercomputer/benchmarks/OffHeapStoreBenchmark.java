@@ -0,0 +1,94 @@
+package tech.interview.home.assignment.supercomputer.benchmarks;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.storage.BookingStore;
+import tech.interview.home.assignment.supercomputer.storage.InMemoryBookingStore;
+import tech.interview.home.assignment.supercomputer.storage.OffHeapBookingStore;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.function.Supplier;
+
+/**
+ * Heap footprint and GC activity of the on-heap store compared to the off-heap store, loaded with
+ * {@code benchmark.bookings} bookings (default one million) of which 90% are canceled, as after a long retention
+ * period. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class OffHeapStoreBenchmark {
+    private static final int BOOKINGS = Integer.getInteger("benchmark.bookings", 1_000_000);
+    private static final LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+
+    @Test
+    @DisplayName("Off-heap store: heap footprint and GC pauses")
+    void offHeap() {
+        System.out.println(run("in-memory", InMemoryBookingStore::new));
+        System.out.println(run("off-heap", OffHeapBookingStore::new));
+    }
+
+    private static String run(String name, Supplier<BookingStore> storeFactory) {
+        long heapBefore = usedHeapAfterGc();
+        long directBefore = usedDirectMemory();
+        long gcCountBefore = gcCount();
+        long gcMillisBefore = gcMillis();
+        long start = System.nanoTime();
+
+        BookingStore store = storeFactory.get();
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = store.insertIfAvailable(booking(i)).block();
+            if (i % 10 != 0) {
+                store.compareAndSetStatus(booking.getId(), BookingStatus.ACTIVE, BookingStatus.CANCELED).block();
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        long gcCount = gcCount() - gcCountBefore;
+        long gcMillis = gcMillis() - gcMillisBefore;
+        long heap = usedHeapAfterGc() - heapBefore;
+        long direct = usedDirectMemory() - directBefore;
+        Reference.reachabilityFence(store);
+
+        return String.format("%-10s %,d bookings in %,6d ms   heap %,6d MiB (%4d B/booking)   direct %,6d MiB   GC %,5d collections %,6d ms",
+                name, BOOKINGS, elapsedMillis, heap >> 20, heap / BOOKINGS, direct >> 20, gcCount, gcMillis);
+    }
+
+    private static Booking booking(int i) {
+        LocalDateTime from = base.plusMinutes(10L * i);
+        return Booking.builder()
+                .customerId("Customer" + i % 1_000)
+                .status(BookingStatus.ACTIVE)
+                .timeIntervalFrom(from)
+                .timeIntervalTo(from.plusMinutes(5))
+                .build();
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long usedDirectMemory() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> pool.getName().equals("direct"))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+}
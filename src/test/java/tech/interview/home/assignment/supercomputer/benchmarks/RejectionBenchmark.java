@@ -0,0 +1,160 @@
+package tech.interview.home.assignment.supercomputer.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.admission.AdmissionControl;
+import tech.interview.home.assignment.supercomputer.config.AdmissionProperties;
+import tech.interview.home.assignment.supercomputer.config.LifecycleProperties;
+import tech.interview.home.assignment.supercomputer.config.QuotaProperties;
+import tech.interview.home.assignment.supercomputer.config.ResponseCacheProperties;
+import tech.interview.home.assignment.supercomputer.config.RouterConfig;
+import tech.interview.home.assignment.supercomputer.config.UtilizationProperties;
+import tech.interview.home.assignment.supercomputer.config.WaitlistProperties;
+import tech.interview.home.assignment.supercomputer.controllers.BookingHandler;
+import tech.interview.home.assignment.supercomputer.controllers.BookingJsonCache;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.model.dto.NewBookingRequestDto;
+import tech.interview.home.assignment.supercomputer.model.mappers.BookingMapperImpl;
+import tech.interview.home.assignment.supercomputer.services.BookingLifecycle;
+import tech.interview.home.assignment.supercomputer.services.BookingStateVersion;
+import tech.interview.home.assignment.supercomputer.services.BookingUtilization;
+import tech.interview.home.assignment.supercomputer.services.BookingVersions;
+import tech.interview.home.assignment.supercomputer.services.BookingWaitlist;
+import tech.interview.home.assignment.supercomputer.services.CustomerQuota;
+import tech.interview.home.assignment.supercomputer.services.IntervalCheckCoalescer;
+import tech.interview.home.assignment.supercomputer.services.R2dbcBookingService;
+import tech.interview.home.assignment.supercomputer.storage.BookingStore;
+import tech.interview.home.assignment.supercomputer.storage.InMemoryBookingStore;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cost of a rejected booking: {@code benchmark.rejections} requests (default 200,000) that conflict with an existing
+ * booking, routed and handled through the booking routes without HTTP, one after the other. The stackless run is the
+ * current code. The stack trace run emulates the previous error handling on the same code: every conflict also fills
+ * in the stack trace of an exception where the store signals it, and the request passes the previous per-type
+ * {@code onErrorResume} filters before reaching the dispatch filter. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class RejectionBenchmark {
+    private static final int REJECTIONS = Integer.getInteger("benchmark.rejections", 200_000);
+    private static final LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+
+    private volatile Throwable sink;
+
+    @Test
+    @DisplayName("Rejected requests: stack traces and per-type filters vs. stackless exceptions and one dispatch filter")
+    void rejections() {
+        RouterFunction<ServerResponse> stackless = routes(error -> error, 0);
+        RouterFunction<ServerResponse> stackTrace = routes(error -> {
+            this.sink = new RuntimeException(error.getMessage());
+            return error;
+        }, 4);
+
+        for (int round = 0; round < 2; round++) {
+            System.out.println(run("stack trace, 5 filters", stackTrace));
+            System.out.println(run("stackless, 1 dispatch filter", stackless));
+        }
+    }
+
+    private static BenchmarkResult run(String name, RouterFunction<ServerResponse> routes) {
+        long[] latencies = new long[REJECTIONS];
+        long start = System.nanoTime();
+        for (int i = 0; i < REJECTIONS; i++) {
+            long requestStart = System.nanoTime();
+            ServerRequest request = request();
+            ServerResponse response = routes.route(request)
+                    .flatMap(handler -> handler.handle(request))
+                    .block();
+            latencies[i] = System.nanoTime() - requestStart;
+            assertEquals(HttpStatus.BAD_REQUEST, response.statusCode());
+        }
+        return new BenchmarkResult(name, REJECTIONS, System.nanoTime() - start, latencies);
+    }
+
+    private static ServerRequest request() {
+        URI uri = URI.create("/api/supercomputer/v1/bookings/add");
+        return MockServerRequest.builder()
+                .method(HttpMethod.POST)
+                .uri(uri)
+                .header("Accept", MediaType.APPLICATION_JSON_VALUE)
+                .exchange(MockServerWebExchange.from(MockServerHttpRequest.post(uri.toString()).accept(MediaType.APPLICATION_JSON)))
+                .body(Mono.just(new NewBookingRequestDto("Benchmark", new TimeInterval(base.plusMinutes(10), base.plusMinutes(20)))));
+    }
+
+    /**
+     * Booking routes over a store that holds one booking every request conflicts with.
+     *
+     * @param onConflict applied to the conflict where the store signals it
+     * @param filters    number of additional pass-through error filters
+     */
+    @SuppressWarnings("unchecked")
+    private static RouterFunction<ServerResponse> routes(UnaryOperator<Throwable> onConflict, int filters) {
+        InMemoryBookingStore inMemory = new InMemoryBookingStore();
+        inMemory.insertIfAvailable(Booking.builder()
+                .customerId("Existing")
+                .status(BookingStatus.ACTIVE)
+                .timeIntervalFrom(base)
+                .timeIntervalTo(base.plusHours(1))
+                .build()).block();
+        BookingStore store = spy(inMemory);
+        when(store.insertIfAvailable(any())).thenAnswer(invocation -> ((Mono<Booking>) invocation.callRealMethod()).onErrorMap(onConflict::apply));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BookingStateVersion stateVersion = new BookingStateVersion();
+        BookingUtilization utilization = new BookingUtilization(new UtilizationProperties(LocalDate.of(2000, 1, 1), 36525, 3660));
+        CustomerQuota quota = new CustomerQuota(new QuotaProperties(false, Duration.ofHours(720)), Clock.systemDefaultZone(), meterRegistry);
+        BookingVersions versions = new BookingVersions();
+        BookingLifecycle lifecycle = new BookingLifecycle(store, versions, new LifecycleProperties(Duration.ofHours(1), 64, 1000),
+                Clock.systemDefaultZone(), meterRegistry);
+        BookingWaitlist waitlist = new BookingWaitlist(store, stateVersion, utilization, quota, versions, lifecycle, Optional.empty(),
+                new WaitlistProperties(5, Duration.ofHours(1)), Clock.systemDefaultZone(), meterRegistry);
+        R2dbcBookingService service = new R2dbcBookingService(store, new BookingMapperImpl(), stateVersion, utilization, quota, versions,
+                lifecycle, waitlist, new IntervalCheckCoalescer(stateVersion, meterRegistry), Optional.empty(), Optional.empty(), Optional.empty(),
+                Clock.systemDefaultZone());
+        BookingJsonCache jsonCache = new BookingJsonCache(new ObjectMapper().registerModule(new JavaTimeModule()),
+                new ResponseCacheProperties(true, 100), meterRegistry);
+        AdmissionControl admissionControl = new AdmissionControl(new AdmissionProperties(false, 20, 10, 10_000, 32, 4, 512,
+                Duration.ofMillis(50), 0.9, Duration.ofSeconds(1)), meterRegistry);
+
+        RouterFunction<ServerResponse> routes = new RouterConfig().routes(new BookingHandler(service, versions, jsonCache, admissionControl), admissionControl);
+        for (int i = 0; i < filters; i++) {
+            routes = routes.filter(passThrough());
+        }
+        return routes;
+    }
+
+    private static HandlerFilterFunction<ServerResponse, ServerResponse> passThrough() {
+        return (request, next) -> next.handle(request)
+                .onErrorResume(UnsupportedOperationException.class, e -> ServerResponse.badRequest().build());
+    }
+}
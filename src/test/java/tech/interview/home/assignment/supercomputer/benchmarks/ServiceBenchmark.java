@@ -0,0 +1,196 @@
+package tech.interview.home.assignment.supercomputer.benchmarks;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.config.LifecycleProperties;
+import tech.interview.home.assignment.supercomputer.config.QuotaProperties;
+import tech.interview.home.assignment.supercomputer.config.UtilizationProperties;
+import tech.interview.home.assignment.supercomputer.config.WaitlistProperties;
+import tech.interview.home.assignment.supercomputer.config.WriteRetryProperties;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.model.dto.CheckBookingRequestDto;
+import tech.interview.home.assignment.supercomputer.model.dto.NewBookingRequestDto;
+import tech.interview.home.assignment.supercomputer.model.mappers.BookingMapperImpl;
+import tech.interview.home.assignment.supercomputer.repositories.BookingRepository;
+import tech.interview.home.assignment.supercomputer.services.BookingLifecycle;
+import tech.interview.home.assignment.supercomputer.services.BookingService;
+import tech.interview.home.assignment.supercomputer.services.BookingStateVersion;
+import tech.interview.home.assignment.supercomputer.services.BookingUtilization;
+import tech.interview.home.assignment.supercomputer.services.BookingVersions;
+import tech.interview.home.assignment.supercomputer.services.BookingWaitlist;
+import tech.interview.home.assignment.supercomputer.services.CustomerQuota;
+import tech.interview.home.assignment.supercomputer.services.IntervalCheckCoalescer;
+import tech.interview.home.assignment.supercomputer.services.JdbcBookingService;
+import tech.interview.home.assignment.supercomputer.services.R2dbcBookingService;
+import tech.interview.home.assignment.supercomputer.storage.BookingStore;
+import tech.interview.home.assignment.supercomputer.storage.R2dbcBookingStore;
+import tech.interview.home.assignment.supercomputer.storage.SerializationFailureRetry;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Throughput, tail latency and heap per in-flight request of the reactive R2DBC booking service compared to the
+ * blocking JDBC one, both against the same H2 database. The JDBC service runs on virtual threads when the
+ * benchmark runs on Java 21 ({@code mvn test -Pbenchmark,java21}), otherwise on a platform thread pool.
+ */
+@Tag("benchmark")
+@DataR2dbcTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///service-benchmark;DB_CLOSE_DELAY=-1")
+class ServiceBenchmark {
+    private static final int REQUESTS = 5_000;
+    private static final int POOL_SIZE = 32;
+
+    @Autowired
+    private BookingRepository repository;
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    private final AtomicLong slot = new AtomicLong();
+
+    @Test
+    @DisplayName("Booking service: reactive R2DBC vs. blocking JDBC")
+    void services() throws Exception {
+        ExecutorService executor = jdbcExecutor();
+        try (HikariDataSource dataSource = dataSource()) {
+            BookingService reactive = reactiveService();
+            BookingService jdbc = jdbcService(dataSource, executor);
+            System.out.println("JDBC executor: " + executor.getClass().getSimpleName());
+
+            for (int concurrency : new int[]{16, 128, 512}) {
+                run("reactive add c=" + concurrency, concurrency, i -> reactive.addBooking(Mono.just(nextBooking())));
+                run("jdbc     add c=" + concurrency, concurrency, i -> jdbc.addBooking(Mono.just(nextBooking())));
+                run("reactive check c=" + concurrency, concurrency, i -> reactive.checkTimeInterval(Mono.just(nextCheck())));
+                run("jdbc     check c=" + concurrency, concurrency, i -> jdbc.checkTimeInterval(Mono.just(nextCheck())));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void run(String name, int concurrency, Function<Integer, Mono<?>> operation) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        AtomicLong peak = new AtomicLong(baseline);
+        long[] latencies = new long[REQUESTS];
+        long start = System.nanoTime();
+
+        Flux.range(0, REQUESTS)
+                .flatMap(i -> {
+                    long requestStart = System.nanoTime();
+                    if (i % concurrency == 0) {
+                        peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                    }
+                    return operation.apply(i)
+                            .onErrorResume(e -> Mono.empty())
+                            .doFinally(signal -> latencies[i] = System.nanoTime() - requestStart);
+                }, concurrency)
+                .blockLast();
+
+        BenchmarkResult result = new BenchmarkResult(name, REQUESTS, System.nanoTime() - start, latencies);
+        System.out.printf("%s   peak heap growth per in-flight request %6d KiB%n", result, (peak.get() - baseline) / concurrency / 1024);
+    }
+
+    private NewBookingRequestDto nextBooking() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS).plusMinutes(10 * this.slot.getAndIncrement());
+        return new NewBookingRequestDto("Benchmark", new TimeInterval(from, from.plusMinutes(5)));
+    }
+
+    private CheckBookingRequestDto nextCheck() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS).plusMinutes(10 * (this.slot.getAndIncrement() % 1_000));
+        return new CheckBookingRequestDto(new TimeInterval(from, from.plusMinutes(5)));
+    }
+
+    private R2dbcBookingStore store() {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        TransactionalOperator transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(this.connectionFactory), definition);
+        return new R2dbcBookingStore(this.repository, transactionalOperator, new SerializationFailureRetry(writeRetry(), new SimpleMeterRegistry()));
+    }
+
+    private BookingService reactiveService() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BookingStateVersion stateVersion = new BookingStateVersion();
+
+        R2dbcBookingStore store = store();
+        BookingUtilization utilization = new BookingUtilization(new UtilizationProperties(LocalDate.of(2000, 1, 1), 36525, 3660));
+        CustomerQuota quota = new CustomerQuota(new QuotaProperties(false, Duration.ofHours(720)), Clock.systemDefaultZone(), meterRegistry);
+        BookingVersions versions = new BookingVersions();
+        BookingLifecycle lifecycle = lifecycle(store, versions);
+        return new R2dbcBookingService(store, new BookingMapperImpl(), stateVersion, utilization, quota, versions, lifecycle,
+                waitlist(store, stateVersion, utilization, quota, versions, lifecycle),
+                new IntervalCheckCoalescer(stateVersion, meterRegistry), Optional.empty(), Optional.empty(), Optional.empty(),
+                Clock.systemDefaultZone());
+    }
+
+    private BookingService jdbcService(HikariDataSource dataSource, ExecutorService executor) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+
+        R2dbcBookingStore store = store();
+        BookingStateVersion stateVersion = new BookingStateVersion();
+        BookingUtilization utilization = new BookingUtilization(new UtilizationProperties(LocalDate.of(2000, 1, 1), 36525, 3660));
+        CustomerQuota quota = new CustomerQuota(new QuotaProperties(false, Duration.ofHours(720)), Clock.systemDefaultZone(), new SimpleMeterRegistry());
+        BookingVersions versions = new BookingVersions();
+        BookingLifecycle lifecycle = lifecycle(store, versions);
+        return new JdbcBookingService(new JdbcTemplate(dataSource), store, transactionTemplate, new BookingMapperImpl(),
+                stateVersion, utilization, quota, versions, lifecycle, waitlist(store, stateVersion, utilization, quota, versions, lifecycle),
+                Optional.empty(), Clock.systemDefaultZone(), writeRetry(), new SimpleMeterRegistry(), executor);
+    }
+
+    private static BookingLifecycle lifecycle(BookingStore store, BookingVersions versions) {
+        return new BookingLifecycle(store, versions, new LifecycleProperties(Duration.ofHours(1), 64, 1000), Clock.systemDefaultZone(), new SimpleMeterRegistry());
+    }
+
+    private static BookingWaitlist waitlist(BookingStore store, BookingStateVersion stateVersion, BookingUtilization utilization,
+                                            CustomerQuota quota, BookingVersions versions, BookingLifecycle lifecycle) {
+        return new BookingWaitlist(store, stateVersion, utilization, quota, versions, lifecycle, Optional.empty(),
+                new WaitlistProperties(5, Duration.ofHours(1)), Clock.systemDefaultZone(), new SimpleMeterRegistry());
+    }
+
+    private static HikariDataSource dataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:service-benchmark;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(POOL_SIZE);
+        return dataSource;
+    }
+
+    private static ExecutorService jdbcExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(POOL_SIZE);
+        }
+    }
+
+    private static WriteRetryProperties writeRetry() {
+        return new WriteRetryProperties(10, Duration.ofMillis(5), Duration.ofMillis(500), 0.5);
+    }
+}
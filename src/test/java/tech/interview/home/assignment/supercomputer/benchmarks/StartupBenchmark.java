@@ -0,0 +1,110 @@
+package tech.interview.home.assignment.supercomputer.benchmarks;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Time to first request of a freshly started application: plain, with Spring AOT and with Spring AOT plus the AppCDS
+ * archive. Every variant runs the same thin jar in a separate JVM, the time is measured from process start until the
+ * first {@code 200} of a booking read. Needs the output of the {@code aot-cds} profile, run with
+ * {@code mvn -Paot-cds -DskipTests package} followed by {@code mvn test -Pbenchmark -Dtest=StartupBenchmark}.
+ */
+@Tag("benchmark")
+class StartupBenchmark {
+    private static final int RUNS = 5;
+    private static final Path target = Path.of("target");
+    private static final Path archive = target.resolve("cds/application.jsa");
+    private static final Duration timeout = Duration.ofSeconds(60);
+    private static final String mainClass = "tech.interview.home.assignment.supercomputer.SupercomputerApplication";
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    @Test
+    @DisplayName("Startup: time to first request")
+    void startup() throws Exception {
+        assumeTrue(Files.exists(archive), "build with -Paot-cds first");
+
+        run("plain");
+        run("aot", "-Dspring.aot.enabled=true");
+        run("aot + cds", "-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + archive, "-Xlog:cds=error");
+    }
+
+    private void run(String name, String... options) throws Exception {
+        long[] millis = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            millis[i] = timeToFirstRequest(options);
+        }
+        Arrays.sort(millis);
+        System.out.printf("%-40s %10d ms median   %6d ms min   %6d ms max%n", name, millis[RUNS / 2], millis[0], millis[RUNS - 1]);
+    }
+
+    private long timeToFirstRequest(String... options) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(Arrays.asList(options));
+        command.add("-Dserver.port=" + port);
+        command.add("-cp");
+        command.add(applicationJar() + File.pathSeparator + target.resolve("cds/lib/*"));
+        command.add(mainClass);
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/supercomputer/v1/bookings/customer/Customer1")).build();
+            while (System.nanoTime() - start < timeout.toNanos()) {
+                try {
+                    if (this.client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (ConnectException e) {
+                    // not listening yet
+                }
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue());
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("No response within " + timeout);
+        } finally {
+            process.destroy();
+            process.waitFor(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static Path applicationJar() throws IOException {
+        try (var jars = Files.list(target)) {
+            return jars.filter(jar -> jar.getFileName().toString().matches("supercomputer-.*(?<!-exec)\\.jar"))
+                    .findFirst()
+                    .orElseThrow();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
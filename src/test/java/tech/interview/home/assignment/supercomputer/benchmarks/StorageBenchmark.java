@@ -0,0 +1,103 @@
+package tech.interview.home.assignment.supercomputer.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.config.WriteRetryProperties;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+import tech.interview.home.assignment.supercomputer.repositories.BookingRepository;
+import tech.interview.home.assignment.supercomputer.storage.BookingStore;
+import tech.interview.home.assignment.supercomputer.storage.InMemoryBookingStore;
+import tech.interview.home.assignment.supercomputer.storage.OffHeapBookingStore;
+import tech.interview.home.assignment.supercomputer.storage.R2dbcBookingStore;
+import tech.interview.home.assignment.supercomputer.storage.SerializationFailureRetry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Throughput/latency of the in-memory and off-heap stores compared to the R2DBC store for inserts, availability checks and
+ * customer lookups. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataR2dbcTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///storage-benchmark;DB_CLOSE_DELAY=-1")
+class StorageBenchmark {
+    private static final int REQUESTS = 5_000;
+    private static final int CONCURRENCY = 64;
+    private static final int CUSTOMERS = 50;
+    private static final LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+
+    @Autowired
+    private BookingRepository repository;
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    @Test
+    @DisplayName("Storage: in-memory vs. R2DBC")
+    void storage() {
+        this.repository.deleteAll().block();
+        run("r2dbc", new R2dbcBookingStore(this.repository, serializableTransactionalOperator(), writeRetry()));
+        run("in-memory", new InMemoryBookingStore());
+        run("off-heap", new OffHeapBookingStore());
+    }
+
+    private void run(String name, BookingStore store) {
+        System.out.println(measure(name + " insert", i -> store.insertIfAvailable(booking(i))));
+        System.out.println(measure(name + " check", i -> store.isTimeIntervalAlreadyBooked(
+                EpochInterval.of(base.plusMinutes(10L * i + 6), base.plusMinutes(10L * i + 9)))));
+        System.out.println(measure(name + " customer lookup", i -> store.findActiveByCustomerId("Customer" + i % CUSTOMERS)
+                .then()));
+    }
+
+    private static BenchmarkResult measure(String name, IntFunction<Mono<?>> operation) {
+        long[] latencies = new long[REQUESTS];
+        long start = System.nanoTime();
+
+        Flux.range(0, REQUESTS)
+                .flatMap(i -> {
+                    long requestStart = System.nanoTime();
+                    return operation.apply(i)
+                            .onErrorResume(e -> Mono.empty())
+                            .doFinally(signal -> latencies[i] = System.nanoTime() - requestStart);
+                }, CONCURRENCY)
+                .blockLast();
+
+        return new BenchmarkResult(name, REQUESTS, System.nanoTime() - start, latencies);
+    }
+
+    private static Booking booking(int i) {
+        LocalDateTime from = base.plusMinutes(10L * i);
+        return Booking.builder()
+                .customerId("Customer" + i % CUSTOMERS)
+                .status(BookingStatus.ACTIVE)
+                .timeIntervalFrom(from)
+                .timeIntervalTo(from.plusMinutes(5))
+                .build();
+    }
+
+    private TransactionalOperator serializableTransactionalOperator() {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        return TransactionalOperator.create(new R2dbcTransactionManager(this.connectionFactory), definition);
+    }
+
+    private static SerializationFailureRetry writeRetry() {
+        return new SerializationFailureRetry(new WriteRetryProperties(10, Duration.ofMillis(5), Duration.ofMillis(500), 0.5),
+                new SimpleMeterRegistry());
+    }
+}
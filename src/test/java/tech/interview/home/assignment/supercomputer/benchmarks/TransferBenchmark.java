@@ -0,0 +1,132 @@
+package tech.interview.home.assignment.supercomputer.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+import tech.interview.home.assignment.supercomputer.config.LifecycleProperties;
+import tech.interview.home.assignment.supercomputer.config.QuotaProperties;
+import tech.interview.home.assignment.supercomputer.config.TransferProperties;
+import tech.interview.home.assignment.supercomputer.config.UtilizationProperties;
+import tech.interview.home.assignment.supercomputer.config.WriteRetryProperties;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.model.dto.BookingResponseDto;
+import tech.interview.home.assignment.supercomputer.model.dto.ImportResultDto;
+import tech.interview.home.assignment.supercomputer.model.mappers.BookingMapperImpl;
+import tech.interview.home.assignment.supercomputer.repositories.BookingRepository;
+import tech.interview.home.assignment.supercomputer.services.BookingLifecycle;
+import tech.interview.home.assignment.supercomputer.services.BookingStateVersion;
+import tech.interview.home.assignment.supercomputer.services.BookingTransferService;
+import tech.interview.home.assignment.supercomputer.services.BookingUtilization;
+import tech.interview.home.assignment.supercomputer.services.BookingVersions;
+import tech.interview.home.assignment.supercomputer.services.CustomerQuota;
+import tech.interview.home.assignment.supercomputer.storage.BookingStore;
+import tech.interview.home.assignment.supercomputer.storage.InMemoryBookingStore;
+import tech.interview.home.assignment.supercomputer.storage.R2dbcBookingStore;
+import tech.interview.home.assignment.supercomputer.storage.SerializationFailureRetry;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rows per second and peak used heap of a streaming import of lazily generated NDJSON lines followed by a full export.
+ * The peak heap should stay flat as the number of rows grows. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataR2dbcTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///transfer-benchmark;DB_CLOSE_DELAY=-1")
+class TransferBenchmark {
+    private static final int ROWS = 200_000;
+    private static final int CUSTOMERS = 50;
+    private static final LocalDateTime base = LocalDateTime.now().minusYears(1).truncatedTo(ChronoUnit.DAYS);
+    private static final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Autowired
+    private BookingRepository repository;
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    @Test
+    @DisplayName("Transfer: streaming import and export")
+    void transfer() {
+        this.repository.deleteAll().block();
+        run("r2dbc", new R2dbcBookingStore(this.repository, serializableTransactionalOperator(), writeRetry()));
+        run("in-memory", new InMemoryBookingStore());
+    }
+
+    private void run(String name, BookingStore store) {
+        BookingTransferService service = new BookingTransferService(store, new BookingMapperImpl(), new BookingStateVersion(),
+                new BookingUtilization(new UtilizationProperties(LocalDate.of(2000, 1, 1), 36525, 3660)),
+                new CustomerQuota(new QuotaProperties(false, Duration.ofHours(720)), Clock.systemDefaultZone(), new SimpleMeterRegistry()), new BookingVersions(),
+                new BookingLifecycle(store, new BookingVersions(), new LifecycleProperties(Duration.ofHours(1), 64, 1000), Clock.systemDefaultZone(), new SimpleMeterRegistry()), new TransferProperties(500, 256), Optional.empty(), Clock.systemDefaultZone());
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        AtomicLong peakHeap = new AtomicLong();
+
+        System.gc();
+        long start = System.nanoTime();
+        ImportResultDto result = service.importBookings(Flux.range(0, ROWS)
+                        .map(TransferBenchmark::line)
+                        .doOnNext(line -> peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max)),
+                TransferBenchmark::parse)
+                .block();
+        long importNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        Long exported = service.exportBookings()
+                .doOnNext(booking -> peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max))
+                .count()
+                .block();
+        long exportNanos = System.nanoTime() - start;
+
+        System.out.printf("%-40s %10.0f rows/s   %s%n", name + " import", ROWS / (importNanos / 1_000_000_000.0), result);
+        System.out.printf("%-40s %10.0f rows/s   %d rows%n", name + " export", exported / (exportNanos / 1_000_000_000.0), exported);
+        System.out.printf("%-40s %10d MB peak used heap%n", name, peakHeap.get() / (1024 * 1024));
+    }
+
+    private static String line(int i) {
+        LocalDateTime from = base.plusMinutes(10L * i);
+        try {
+            return objectMapper.writeValueAsString(new BookingResponseDto(0, "Customer" + i % CUSTOMERS, null,
+                    new TimeInterval(from, from.plusMinutes(5))));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static BookingResponseDto parse(String line) {
+        try {
+            return objectMapper.readValue(line, BookingResponseDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private TransactionalOperator serializableTransactionalOperator() {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        return TransactionalOperator.create(new R2dbcTransactionManager(this.connectionFactory), definition);
+    }
+
+    private static SerializationFailureRetry writeRetry() {
+        return new SerializationFailureRetry(new WriteRetryProperties(10, Duration.ofMillis(5), Duration.ofMillis(500), 0.5),
+                new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,117 @@
+package tech.interview.home.assignment.supercomputer.controllers;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import tech.interview.home.assignment.supercomputer.admission.AdmissionControl;
+import tech.interview.home.assignment.supercomputer.config.AdmissionProperties;
+import tech.interview.home.assignment.supercomputer.config.BulkCancelProperties;
+import tech.interview.home.assignment.supercomputer.config.LifecycleProperties;
+import tech.interview.home.assignment.supercomputer.config.QuotaProperties;
+import tech.interview.home.assignment.supercomputer.config.RouterConfig;
+import tech.interview.home.assignment.supercomputer.config.UtilizationProperties;
+import tech.interview.home.assignment.supercomputer.config.WaitlistProperties;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.services.BookingBulkCancelService;
+import tech.interview.home.assignment.supercomputer.services.BookingLifecycle;
+import tech.interview.home.assignment.supercomputer.services.BookingStateVersion;
+import tech.interview.home.assignment.supercomputer.services.BookingUtilization;
+import tech.interview.home.assignment.supercomputer.services.BookingVersions;
+import tech.interview.home.assignment.supercomputer.services.BookingWaitlist;
+import tech.interview.home.assignment.supercomputer.services.CustomerQuota;
+import tech.interview.home.assignment.supercomputer.storage.InMemoryBookingStore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+class BookingBulkCancelHandlerTest {
+    private static final LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+    private InMemoryBookingStore store;
+    private BookingLifecycle lifecycle;
+    private BookingWaitlist waitlist;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryBookingStore();
+        BookingStateVersion stateVersion = new BookingStateVersion();
+        BookingUtilization utilization = new BookingUtilization(new UtilizationProperties(LocalDate.of(2000, 1, 1), 36525, 3660));
+        CustomerQuota quota = new CustomerQuota(new QuotaProperties(true, Duration.ofHours(720)), Clock.systemDefaultZone(), new SimpleMeterRegistry());
+        BookingVersions versions = new BookingVersions();
+        lifecycle = new BookingLifecycle(store, versions, new LifecycleProperties(Duration.ofHours(1), 64, 1000), Clock.systemDefaultZone(), new SimpleMeterRegistry());
+        waitlist = new BookingWaitlist(store, stateVersion, utilization, quota, versions, lifecycle, Optional.empty(),
+                new WaitlistProperties(5, Duration.ofHours(1)), Clock.systemDefaultZone(), new SimpleMeterRegistry());
+        BookingBulkCancelService service = new BookingBulkCancelService(store, stateVersion, utilization, quota, versions, waitlist,
+                new BulkCancelProperties(500), Clock.systemDefaultZone());
+        AdmissionProperties admissionProperties = new AdmissionProperties(false, 20, 10, 10_000, 32, 4, 512,
+                Duration.ofMillis(50), 0.9, Duration.ofSeconds(1));
+        AdmissionControl admissionControl = new AdmissionControl(admissionProperties, new SimpleMeterRegistry());
+        client = WebTestClient
+                .bindToRouterFunction(new RouterConfig().bulkCancelRoutes(new BookingBulkCancelHandler(service), admissionControl))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        waitlist.destroy();
+        lifecycle.destroy();
+    }
+
+    @Test
+    @DisplayName("Bulk cancel for customer and in a time interval return the count and the ids")
+    void bulkCancel() {
+        Booking first = insert("Customer1", 1, 2);
+        Booking second = insert("Customer2", 3, 4);
+
+        client.put()
+                .uri("/api/supercomputer/v1/bookings/bulk-cancel/customer/Customer1")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.canceled").isEqualTo(1)
+                .jsonPath("$.bookingIds[0]").isEqualTo(first.getId());
+
+        client.put()
+                .uri("/api/supercomputer/v1/bookings/bulk-cancel/time-interval")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"from\":\"" + base + "\",\"to\":\"" + base.plusHours(10) + "\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.canceled").isEqualTo(1)
+                .jsonPath("$.bookingIds[0]").isEqualTo(second.getId());
+    }
+
+    @Test
+    @DisplayName("Bulk cancel with an invalid customer id is rejected")
+    void invalidCustomerId() {
+        client.put()
+                .uri("/api/supercomputer/v1/bookings/bulk-cancel/customer/Customer-1")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Illegal arguments");
+    }
+
+    private Booking insert(String customerId, int fromHours, int toHours) {
+        return store.insertIfAvailable(Booking.builder()
+                .customerId(customerId)
+                .status(BookingStatus.ACTIVE)
+                .timeIntervalFrom(base.plusHours(fromHours))
+                .timeIntervalTo(base.plusHours(toHours))
+                .build()).block();
+    }
+}
@@ -1,28 +1,39 @@
 package tech.interview.home.assignment.supercomputer.controllers;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.mock.web.reactive.function.server.MockServerRequest;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import tech.interview.home.assignment.supercomputer.admission.AdmissionControl;
+import tech.interview.home.assignment.supercomputer.config.AdmissionProperties;
+import tech.interview.home.assignment.supercomputer.config.ResponseCacheProperties;
+import tech.interview.home.assignment.supercomputer.exceptions.ResourceNotFoundException;
 import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
 import tech.interview.home.assignment.supercomputer.model.dto.BookingResponseDto;
 import tech.interview.home.assignment.supercomputer.model.dto.CheckBookingRequestDto;
 import tech.interview.home.assignment.supercomputer.model.dto.CheckBookingResponseDto;
 import tech.interview.home.assignment.supercomputer.model.dto.NewBookingRequestDto;
 import tech.interview.home.assignment.supercomputer.services.BookingService;
+import tech.interview.home.assignment.supercomputer.services.BookingVersions;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +41,17 @@ class BookingHandlerTest {
     @Mock
     private BookingService bookingService;
 
+    @Spy
+    private BookingVersions bookingVersions = new BookingVersions();
+
+    @Spy
+    private BookingJsonCache bookingJsonCache = new BookingJsonCache(Jackson2ObjectMapperBuilder.json().build(),
+            new ResponseCacheProperties(true, 100), new SimpleMeterRegistry());
+
+    @Spy
+    private AdmissionControl admissionControl = new AdmissionControl(new AdmissionProperties(false, 20, 10, 10_000, 32, 4, 512,
+            Duration.ofMillis(50), 0.9, Duration.ofSeconds(1)), new SimpleMeterRegistry());
+
     @InjectMocks
     private BookingHandler bookingHandler;
 
@@ -81,6 +103,72 @@ class BookingHandlerTest {
                 .verifyComplete();
     }
 
+    @Test
+    @DisplayName("Test get bookings for customer: Matching ETag is answered from the version counters")
+    void getBookingsNotModified() {
+        String eTag = bookingVersions.customerETag("1");
+        var req = MockServerRequest.builder()
+                .pathVariable("customerId", "1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"other\", " + eTag)
+                .build();
+
+        StepVerifier
+                .create(bookingHandler.getBookings(req))
+                .consumeNextWith(res -> {
+                    assertEquals(HttpStatus.NOT_MODIFIED, res.statusCode());
+                    assertEquals(eTag, res.headers().getETag());
+                })
+                .verifyComplete();
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    @DisplayName("Test get booking by id: ETag changes with the booking")
+    void getBookingByIdModified() {
+        String eTag = bookingVersions.bookingETag(1L);
+        bookingVersions.bookingChanged(1L, customerId);
+        var req = MockServerRequest.builder()
+                .pathVariable("bookingId", "1")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .build();
+
+        when(bookingService.findById(1L)).thenReturn(Mono.just(dto));
+
+        StepVerifier
+                .create(bookingHandler.getBookingById(req))
+                .consumeNextWith(res -> {
+                    assertEquals(HttpStatus.OK, res.statusCode());
+                    assertEquals(bookingVersions.bookingETag(1L), res.headers().getETag());
+                    assertNotEquals(eTag, res.headers().getETag());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test get booking by id: If-None-Match * only matches an existing booking")
+    void getBookingByIdMatchAny() {
+        var req = MockServerRequest.builder()
+                .pathVariable("bookingId", "1")
+                .header(HttpHeaders.IF_NONE_MATCH, "*")
+                .build();
+        var missing = MockServerRequest.builder()
+                .pathVariable("bookingId", "2")
+                .header(HttpHeaders.IF_NONE_MATCH, "*")
+                .build();
+
+        when(bookingService.findById(1L)).thenReturn(Mono.just(dto));
+        when(bookingService.findById(2L)).thenReturn(Mono.error(new ResourceNotFoundException("Booking with id 2 does not exist!")));
+
+        StepVerifier
+                .create(bookingHandler.getBookingById(req))
+                .consumeNextWith(res -> assertEquals(HttpStatus.NOT_MODIFIED, res.statusCode()))
+                .verifyComplete();
+        StepVerifier
+                .create(bookingHandler.getBookingById(missing))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+
     @Test
     @DisplayName("Test check booking time interval")
     void checkBooking() {
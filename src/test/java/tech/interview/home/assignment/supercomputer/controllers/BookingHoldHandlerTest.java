@@ -0,0 +1,131 @@
+package tech.interview.home.assignment.supercomputer.controllers;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import tech.interview.home.assignment.supercomputer.admission.AdmissionControl;
+import tech.interview.home.assignment.supercomputer.config.AdmissionProperties;
+import tech.interview.home.assignment.supercomputer.config.HoldProperties;
+import tech.interview.home.assignment.supercomputer.config.LifecycleProperties;
+import tech.interview.home.assignment.supercomputer.config.QuotaProperties;
+import tech.interview.home.assignment.supercomputer.config.RouterConfig;
+import tech.interview.home.assignment.supercomputer.config.UtilizationProperties;
+import tech.interview.home.assignment.supercomputer.config.WaitlistProperties;
+import tech.interview.home.assignment.supercomputer.model.dto.HoldResponseDto;
+import tech.interview.home.assignment.supercomputer.model.mappers.BookingMapperImpl;
+import tech.interview.home.assignment.supercomputer.services.BookingHoldService;
+import tech.interview.home.assignment.supercomputer.services.BookingLifecycle;
+import tech.interview.home.assignment.supercomputer.services.BookingStateVersion;
+import tech.interview.home.assignment.supercomputer.services.BookingUtilization;
+import tech.interview.home.assignment.supercomputer.services.BookingVersions;
+import tech.interview.home.assignment.supercomputer.services.BookingWaitlist;
+import tech.interview.home.assignment.supercomputer.services.CustomerQuota;
+import tech.interview.home.assignment.supercomputer.storage.InMemoryBookingStore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingHoldHandlerTest {
+    private static final LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+    private BookingHoldService service;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryBookingStore store = new InMemoryBookingStore();
+        BookingStateVersion stateVersion = new BookingStateVersion();
+        BookingUtilization utilization = new BookingUtilization(new UtilizationProperties(LocalDate.of(2000, 1, 1), 36525, 3660));
+        CustomerQuota quota = new CustomerQuota(new QuotaProperties(true, Duration.ofHours(720)), Clock.systemDefaultZone(), new SimpleMeterRegistry());
+        BookingVersions versions = new BookingVersions();
+        BookingLifecycle lifecycle = new BookingLifecycle(store, versions, new LifecycleProperties(Duration.ofHours(1), 64, 1000), Clock.systemDefaultZone(), new SimpleMeterRegistry());
+        BookingWaitlist waitlist = new BookingWaitlist(store, stateVersion, utilization, quota, versions, lifecycle, Optional.empty(),
+                new WaitlistProperties(5, Duration.ofHours(1)), Clock.systemDefaultZone(), new SimpleMeterRegistry());
+        service = new BookingHoldService(store, new BookingMapperImpl(), stateVersion, utilization, quota, versions, lifecycle, waitlist, Optional.empty(),
+                new HoldProperties(Duration.ofSeconds(30), Duration.ofMinutes(15), Duration.ofMillis(100), 64),
+                Clock.systemDefaultZone(), new SimpleMeterRegistry());
+        AdmissionProperties admissionProperties = new AdmissionProperties(false, 20, 10, 10_000, 32, 4, 512,
+                Duration.ofMillis(50), 0.9, Duration.ofSeconds(1));
+        AdmissionControl admissionControl = new AdmissionControl(admissionProperties, new SimpleMeterRegistry());
+        client = WebTestClient
+                .bindToRouterFunction(new RouterConfig().holdRoutes(new BookingHoldHandler(service, admissionControl), admissionControl))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    @DisplayName("Hold, conflicting hold with alternatives, confirm and confirm again")
+    void holdAndConfirm() {
+        HoldResponseDto hold = client.post()
+                .uri("/api/supercomputer/v1/bookings/hold")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(body(10, 12, "\"ttlSeconds\":60"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(HoldResponseDto.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(hold);
+        assertNotNull(hold.token());
+
+        client.post()
+                .uri("/api/supercomputer/v1/bookings/hold")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(body(11, 13, "\"ttlSeconds\":60"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Time interval already booked")
+                .jsonPath("$.conflicting.length()").isEqualTo(1)
+                .jsonPath("$.earlierAlternative.from").exists()
+                .jsonPath("$.laterAlternative.from").exists();
+
+        client.post()
+                .uri("/api/supercomputer/v1/bookings/confirm/" + hold.token())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().location(RouterConfig.VIEW_BOOKING_BY_ID_BASE + hold.bookingId());
+
+        client.post()
+                .uri("/api/supercomputer/v1/bookings/confirm/" + hold.token())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("TTL above the maximum is rejected")
+    void illegalTtl() {
+        client.post()
+                .uri("/api/supercomputer/v1/bookings/hold")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(body(10, 12, "\"ttlSeconds\":3600"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Illegal arguments");
+    }
+
+    private static String body(int fromHours, int toHours, String extra) {
+        return "{\"customerId\":\"Customer1\",\"timeInterval\":{\"from\":\"" + base.plusHours(fromHours)
+                + "\",\"to\":\"" + base.plusHours(toHours) + "\"}," + extra + "}";
+    }
+}
@@ -0,0 +1,72 @@
+package tech.interview.home.assignment.supercomputer.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import tech.interview.home.assignment.supercomputer.config.ResponseCacheProperties;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.model.dto.BookingResponseDto;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingJsonCacheTest {
+    private static final TimeInterval timeInterval = new TimeInterval(LocalDateTime.of(2030, 1, 1, 10, 0), LocalDateTime.of(2030, 1, 1, 12, 0));
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Test cached encoding is reused while the status is unchanged")
+    void reused() throws Exception {
+        BookingJsonCache cache = new BookingJsonCache(objectMapper, new ResponseCacheProperties(true, 100), meterRegistry);
+        BookingResponseDto booking = new BookingResponseDto(1, "Customer1", "ACTIVE", timeInterval);
+
+        byte[] first = cache.json(booking);
+        byte[] second = cache.json(booking);
+
+        assertSame(first, second);
+        assertArrayEquals(objectMapper.writeValueAsBytes(booking), first);
+        assertEquals(1, meterRegistry.counter("booking.response-cache.hits").count());
+        assertEquals(1, meterRegistry.counter("booking.response-cache.misses").count());
+    }
+
+    @Test
+    @DisplayName("Test status change invalidates the cached encoding")
+    void statusChange() throws Exception {
+        BookingJsonCache cache = new BookingJsonCache(objectMapper, new ResponseCacheProperties(true, 100), meterRegistry);
+        BookingResponseDto cancelled = new BookingResponseDto(1, "Customer1", "CANCELLED", timeInterval);
+
+        cache.json(new BookingResponseDto(1, "Customer1", "ACTIVE", timeInterval));
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(cancelled), cache.json(cancelled));
+        assertEquals(2, meterRegistry.counter("booking.response-cache.misses").count());
+    }
+
+    @Test
+    @DisplayName("Test cache stays within its bound")
+    void bounded() {
+        BookingJsonCache cache = new BookingJsonCache(objectMapper, new ResponseCacheProperties(true, 10), meterRegistry);
+
+        for (int i = 0; i < 100; i++) {
+            cache.json(new BookingResponseDto(i, "Customer1", "ACTIVE", timeInterval));
+        }
+        for (int i = 0; i < 100; i++) {
+            cache.json(new BookingResponseDto(i, "Customer1", "ACTIVE", timeInterval));
+        }
+
+        assertTrue(meterRegistry.counter("booking.response-cache.hits").count() <= 10);
+    }
+
+    @Test
+    @DisplayName("Test disabled cache encodes every time")
+    void disabled() {
+        BookingJsonCache cache = new BookingJsonCache(objectMapper, new ResponseCacheProperties(false, 100), meterRegistry);
+        BookingResponseDto booking = new BookingResponseDto(1, "Customer1", "ACTIVE", timeInterval);
+
+        assertNotSame(cache.json(booking), cache.json(booking));
+    }
+}
@@ -0,0 +1,135 @@
+package tech.interview.home.assignment.supercomputer.controllers;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import tech.interview.home.assignment.supercomputer.admission.AdmissionControl;
+import tech.interview.home.assignment.supercomputer.config.AdmissionProperties;
+import tech.interview.home.assignment.supercomputer.config.LifecycleProperties;
+import tech.interview.home.assignment.supercomputer.config.QuotaProperties;
+import tech.interview.home.assignment.supercomputer.config.RouterConfig;
+import tech.interview.home.assignment.supercomputer.config.TransferProperties;
+import tech.interview.home.assignment.supercomputer.config.UtilizationProperties;
+import tech.interview.home.assignment.supercomputer.model.mappers.BookingMapperImpl;
+import tech.interview.home.assignment.supercomputer.services.BookingLifecycle;
+import tech.interview.home.assignment.supercomputer.services.BookingStateVersion;
+import tech.interview.home.assignment.supercomputer.services.BookingTransferService;
+import tech.interview.home.assignment.supercomputer.services.BookingUtilization;
+import tech.interview.home.assignment.supercomputer.services.BookingVersions;
+import tech.interview.home.assignment.supercomputer.services.CustomerQuota;
+import tech.interview.home.assignment.supercomputer.storage.InMemoryBookingStore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingTransferHandlerTest {
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        TransferProperties properties = new TransferProperties(2, 2);
+        InMemoryBookingStore store = new InMemoryBookingStore();
+        BookingTransferService service = new BookingTransferService(store, new BookingMapperImpl(), new BookingStateVersion(),
+                new BookingUtilization(new UtilizationProperties(LocalDate.of(2000, 1, 1), 36525, 3660)),
+                new CustomerQuota(new QuotaProperties(true, Duration.ofHours(720)), Clock.systemDefaultZone(), new SimpleMeterRegistry()), new BookingVersions(),
+                new BookingLifecycle(store, new BookingVersions(), new LifecycleProperties(Duration.ofHours(1), 64, 1000), Clock.systemDefaultZone(), new SimpleMeterRegistry()), properties, Optional.empty(), Clock.systemDefaultZone());
+        BookingTransferHandler handler = new BookingTransferHandler(service, Jackson2ObjectMapperBuilder.json().build(), properties);
+        AdmissionProperties admissionProperties = new AdmissionProperties(false, 20, 10, 10_000, 32, 4, 512,
+                Duration.ofMillis(50), 0.9, Duration.ofSeconds(1));
+        AdmissionControl admissionControl = new AdmissionControl(admissionProperties, new SimpleMeterRegistry());
+        client = WebTestClient
+                .bindToRouterFunction(new RouterConfig().transferRoutes(handler, admissionControl))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Import NDJSON and export it as NDJSON")
+    void importAndExportNdjson() {
+        String body = """
+                {"id":1,"customerId":"Customer1","status":"ACTIVE","timeInterval":{"from":"2020-01-01T10:00:00","to":"2020-01-01T12:00:00"}}
+                {"customerId":"Customer2","timeInterval":{"from":"2020-01-01T11:00:00","to":"2020-01-01T13:00:00"}}
+                {"customerId":"Customer2","timeInterval":{"from":"2020-01-02T11:00:00"
+                {"customerId":"Customer2","status":"CANCELED","timeInterval":{"from":"2020-01-01T11:00:00","to":"2020-01-01T13:00:00"}}
+                """;
+
+        client.post()
+                .uri("/api/supercomputer/v1/bookings/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.imported").isEqualTo(2)
+                .jsonPath("$.conflicting").isEqualTo(1)
+                .jsonPath("$.invalid").isEqualTo(1);
+
+        String exported = client.get()
+                .uri("/api/supercomputer/v1/bookings/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(exported);
+        assertEquals(2, exported.lines().count());
+        assertTrue(exported.contains("\"status\":\"CANCELED\""));
+    }
+
+    @Test
+    @DisplayName("Import CSV with header and CRLF line endings and export it as CSV")
+    void importAndExportCsv() {
+        String body = "id,customerId,status,from,to\r\n"
+                + ",Customer1,,2020-01-01T10:00:00,2020-01-01T12:00:00\r\n"
+                + ",Customer1,ACTIVE,2020-01-01T14:00:00,2020-01-01T15:00:00\r\n"
+                + ",Customer1,ACTIVE,2020-01-01T14:00:00\r\n";
+
+        client.post()
+                .uri("/api/supercomputer/v1/bookings/import")
+                .contentType(TEXT_CSV)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.imported").isEqualTo(2)
+                .jsonPath("$.invalid").isEqualTo(1);
+
+        String exported = client.get()
+                .uri("/api/supercomputer/v1/bookings/export")
+                .accept(TEXT_CSV)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(TEXT_CSV)
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(exported);
+        assertEquals("id,customerId,status,from,to", exported.lines().findFirst().orElseThrow());
+        assertEquals(3, exported.lines().count());
+        assertTrue(exported.lines().skip(1).allMatch(line -> line.matches("\\d+,Customer1,ACTIVE,2020-01-01T\\d\\d:00:00,2020-01-01T\\d\\d:00:00")));
+    }
+
+    @Test
+    @DisplayName("Import with unsupported content type: 404 Not found")
+    void importUnsupportedContentType() {
+        client.post()
+                .uri("/api/supercomputer/v1/bookings/import")
+                .contentType(MediaType.APPLICATION_XML)
+                .bodyValue("<bookings/>")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
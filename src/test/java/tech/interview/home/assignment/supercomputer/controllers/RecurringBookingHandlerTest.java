@@ -0,0 +1,149 @@
+package tech.interview.home.assignment.supercomputer.controllers;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.admission.AdmissionControl;
+import tech.interview.home.assignment.supercomputer.config.AdmissionProperties;
+import tech.interview.home.assignment.supercomputer.config.RecurringProperties;
+import tech.interview.home.assignment.supercomputer.config.RouterConfig;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.dto.RecurringRuleDto;
+import tech.interview.home.assignment.supercomputer.repositories.BookingRepository;
+import tech.interview.home.assignment.supercomputer.services.BookingStateVersion;
+import tech.interview.home.assignment.supercomputer.services.BookingVersions;
+import tech.interview.home.assignment.supercomputer.services.RecurringBookings;
+import tech.interview.home.assignment.supercomputer.storage.InMemoryBookingStore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RecurringBookingHandlerTest {
+    private static final LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+
+    private InMemoryBookingStore store;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryBookingStore();
+        BookingRepository repo = mock(BookingRepository.class);
+        when(repo.insertRule(any())).thenReturn(Mono.empty());
+        when(repo.truncateRule(anyLong(), anyInt())).thenReturn(Mono.empty());
+        when(repo.findMaxRuleId()).thenReturn(Mono.just(0L));
+        when(repo.findRules()).thenReturn(Flux.empty());
+        RecurringBookings recurring = new RecurringBookings(store, repo, new BookingStateVersion(), new BookingVersions(),
+                new RecurringProperties(true, 1000), Clock.systemDefaultZone());
+        recurring.load(List.of());
+        AdmissionProperties admissionProperties = new AdmissionProperties(false, 20, 10, 10_000, 32, 4, 512,
+                Duration.ofMillis(50), 0.9, Duration.ofSeconds(1));
+        AdmissionControl admissionControl = new AdmissionControl(admissionProperties, new SimpleMeterRegistry());
+        client = WebTestClient
+                .bindToRouterFunction(new RouterConfig().recurringRoutes(new RecurringBookingHandler(recurring, admissionControl), admissionControl))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Add, view, cancel and view again")
+    void addAndCancel() {
+        RecurringRuleDto rule = client.post()
+                .uri("/api/supercomputer/v1/bookings/recurring")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(body(12))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().location(RouterConfig.VIEW_RECURRING_BASE + 1)
+                .expectBody(RecurringRuleDto.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(rule);
+        assertEquals(base.plusWeeks(3).plusHours(10), rule.last().from());
+
+        client.get()
+                .uri(RouterConfig.VIEW_RECURRING_BASE + rule.id())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.recurrence").isEqualTo("WEEKLY")
+                .jsonPath("$.occurrences").isEqualTo(4);
+
+        client.delete()
+                .uri(RouterConfig.VIEW_RECURRING_BASE + rule.id())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        client.get()
+                .uri(RouterConfig.VIEW_RECURRING_BASE + rule.id())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.occurrences").isEqualTo(0)
+                .jsonPath("$.last").isEmpty();
+
+        client.get()
+                .uri(RouterConfig.VIEW_RECURRING_BASE + (rule.id() + 1))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Occurrences overlapping a booking: 400 Bad request listing the booking")
+    void conflict() {
+        store.insertIfAvailable(Booking.builder()
+                .customerId("Customer2")
+                .status(BookingStatus.ACTIVE)
+                .timeIntervalFrom(base.plusWeeks(2).plusHours(11))
+                .timeIntervalTo(base.plusWeeks(2).plusHours(13))
+                .build()).block();
+
+        client.post()
+                .uri("/api/supercomputer/v1/bookings/recurring")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(body(12))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Time interval already booked")
+                .jsonPath("$.conflicting.length()").isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Occurrences as long as the period are rejected")
+    void illegalDuration() {
+        client.post()
+                .uri("/api/supercomputer/v1/bookings/recurring")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(body(10 + 7 * 24))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Illegal arguments");
+    }
+
+    private static String body(int toHours) {
+        return "{\"customerId\":\"Customer1\",\"recurrence\":\"WEEKLY\",\"first\":{\"from\":\"" + base.plusHours(10)
+                + "\",\"to\":\"" + base.plusHours(toHours) + "\"},\"occurrences\":4}";
+    }
+}
@@ -0,0 +1,81 @@
+package tech.interview.home.assignment.supercomputer.controllers;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import tech.interview.home.assignment.supercomputer.admission.AdmissionControl;
+import tech.interview.home.assignment.supercomputer.config.AdmissionProperties;
+import tech.interview.home.assignment.supercomputer.config.RouterConfig;
+import tech.interview.home.assignment.supercomputer.config.UtilizationProperties;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.services.BookingUtilization;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+class UtilizationHandlerTest {
+    private static final LocalDate monday = LocalDate.of(2030, 1, 7);
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        BookingUtilization utilization = new BookingUtilization(new UtilizationProperties(LocalDate.of(2000, 1, 1), 36525, 3660));
+        utilization.add(Booking.builder()
+                .customerId("Customer1")
+                .status(BookingStatus.ACTIVE)
+                .timeIntervalFrom(monday.atTime(6, 0))
+                .timeIntervalTo(monday.atTime(12, 0))
+                .build());
+        AdmissionProperties admissionProperties = new AdmissionProperties(false, 20, 10, 10_000, 32, 4, 512,
+                Duration.ofMillis(50), 0.9, Duration.ofSeconds(1));
+        AdmissionControl admissionControl = new AdmissionControl(admissionProperties, new SimpleMeterRegistry());
+        client = WebTestClient
+                .bindToRouterFunction(new RouterConfig().utilizationRoutes(new UtilizationHandler(utilization), admissionControl))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Utilization per week")
+    void utilizationPerWeek() {
+        client.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/supercomputer/v1/bookings/utilization")
+                        .queryParam("from", monday.plusDays(1).toString())
+                        .queryParam("to", monday.plusDays(2).toString())
+                        .queryParam("granularity", "week")
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].from").isNotEmpty()
+                .jsonPath("$[0].to").isNotEmpty()
+                .jsonPath("$[0].bookedSeconds").isEqualTo(6 * 3600);
+    }
+
+    @Test
+    @DisplayName("Utilization with missing or illegal parameters: 400 Bad request")
+    void utilizationIllegalParameters() {
+        client.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/supercomputer/v1/bookings/utilization")
+                        .queryParam("from", monday.toString())
+                        .build())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.BAD_REQUEST)
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Illegal arguments");
+
+        client.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/supercomputer/v1/bookings/utilization")
+                        .queryParam("from", monday.toString())
+                        .queryParam("to", monday.toString())
+                        .queryParam("granularity", "month")
+                        .build())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,130 @@
+package tech.interview.home.assignment.supercomputer.controllers;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import tech.interview.home.assignment.supercomputer.admission.AdmissionControl;
+import tech.interview.home.assignment.supercomputer.config.AdmissionProperties;
+import tech.interview.home.assignment.supercomputer.config.LifecycleProperties;
+import tech.interview.home.assignment.supercomputer.config.QuotaProperties;
+import tech.interview.home.assignment.supercomputer.config.RouterConfig;
+import tech.interview.home.assignment.supercomputer.config.UtilizationProperties;
+import tech.interview.home.assignment.supercomputer.config.WaitlistProperties;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.WaitlistStatus;
+import tech.interview.home.assignment.supercomputer.model.dto.WaitlistEntryDto;
+import tech.interview.home.assignment.supercomputer.services.BookingLifecycle;
+import tech.interview.home.assignment.supercomputer.services.BookingStateVersion;
+import tech.interview.home.assignment.supercomputer.services.BookingUtilization;
+import tech.interview.home.assignment.supercomputer.services.BookingVersions;
+import tech.interview.home.assignment.supercomputer.services.BookingWaitlist;
+import tech.interview.home.assignment.supercomputer.services.CustomerQuota;
+import tech.interview.home.assignment.supercomputer.storage.InMemoryBookingStore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaitlistHandlerTest {
+    private static final LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+    private InMemoryBookingStore store;
+    private BookingLifecycle lifecycle;
+    private BookingWaitlist waitlist;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryBookingStore();
+        BookingVersions versions = new BookingVersions();
+        lifecycle = new BookingLifecycle(store, versions, new LifecycleProperties(Duration.ofHours(1), 64, 1000), Clock.systemDefaultZone(), new SimpleMeterRegistry());
+        waitlist = new BookingWaitlist(store, new BookingStateVersion(),
+                new BookingUtilization(new UtilizationProperties(LocalDate.of(2000, 1, 1), 36525, 3660)),
+                new CustomerQuota(new QuotaProperties(true, Duration.ofHours(720)), Clock.systemDefaultZone(), new SimpleMeterRegistry()),
+                versions, lifecycle, Optional.empty(), new WaitlistProperties(5, Duration.ofHours(1)), Clock.systemDefaultZone(), new SimpleMeterRegistry());
+        AdmissionProperties admissionProperties = new AdmissionProperties(false, 20, 10, 10_000, 32, 4, 512,
+                Duration.ofMillis(50), 0.9, Duration.ofSeconds(1));
+        AdmissionControl admissionControl = new AdmissionControl(admissionProperties, new SimpleMeterRegistry());
+        client = WebTestClient
+                .bindToRouterFunction(new RouterConfig().waitlistRoutes(new WaitlistHandler(waitlist, admissionControl), admissionControl))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        waitlist.destroy();
+        lifecycle.destroy();
+    }
+
+    @Test
+    @DisplayName("Register, view, withdraw and view again")
+    void registerAndWithdraw() {
+        store.insertIfAvailable(Booking.builder()
+                .customerId("Customer2")
+                .status(BookingStatus.ACTIVE)
+                .timeIntervalFrom(base.plusHours(9))
+                .timeIntervalTo(base.plusHours(13))
+                .build()).block();
+        WaitlistEntryDto entry = client.post()
+                .uri("/api/supercomputer/v1/bookings/waitlist")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(body(3600))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(WaitlistEntryDto.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(entry);
+        assertEquals(WaitlistStatus.WAITING, entry.status());
+
+        client.get()
+                .uri(RouterConfig.VIEW_WAITLIST_ENTRY_BASE + entry.id())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.customerId").isEqualTo("Customer1")
+                .jsonPath("$.durationSeconds").isEqualTo(3600);
+
+        client.delete()
+                .uri(RouterConfig.VIEW_WAITLIST_ENTRY_BASE + entry.id())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        client.get()
+                .uri(RouterConfig.VIEW_WAITLIST_ENTRY_BASE + entry.id())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Duration longer than the window is rejected")
+    void illegalDuration() {
+        client.post()
+                .uri("/api/supercomputer/v1/bookings/waitlist")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(body(3 * 3600))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Illegal arguments");
+    }
+
+    private static String body(long durationSeconds) {
+        return "{\"customerId\":\"Customer1\",\"window\":{\"from\":\"" + base.plusHours(10)
+                + "\",\"to\":\"" + base.plusHours(12) + "\"},\"durationSeconds\":" + durationSeconds + "}";
+    }
+}
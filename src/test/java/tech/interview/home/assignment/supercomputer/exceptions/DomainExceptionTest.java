@@ -0,0 +1,32 @@
+package tech.interview.home.assignment.supercomputer.exceptions;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DomainExceptionTest {
+
+    @Test
+    @DisplayName("Rejections carry their message but no stack trace")
+    void stackless() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RuntimeException> rejections = List.of(
+                new TimeIntervalAlreadyBookedException(new TimeInterval(now, now.plusHours(1))),
+                new BookingAlreadyCanceledException("Booking with ID 1 is already canceled!"),
+                new ResourceNotFoundException("Booking with id 1 does not exist!"),
+                new QuotaExceededException("Customer 1 would hold 721.0 booked hours!"),
+                new InvalidRequestException("Illegal arguments: Customer ID is not present!"));
+
+        for (RuntimeException rejection : rejections) {
+            assertAll(
+                    () -> assertNotNull(rejection.getMessage()),
+                    () -> assertEquals(0, rejection.getStackTrace().length)
+            );
+        }
+    }
+}
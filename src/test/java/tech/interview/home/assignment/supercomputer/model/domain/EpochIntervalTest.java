@@ -0,0 +1,45 @@
+package tech.interview.home.assignment.supercomputer.model.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EpochIntervalTest {
+    private static final LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+    private static final LocalDateTime to = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Test
+    @DisplayName("Conversion from and to local date time")
+    void conversion() {
+        EpochInterval interval = EpochInterval.of(from, to);
+
+        assertEquals(7_200, interval.to() - interval.from());
+        assertEquals(new TimeInterval(from, to), interval.toTimeInterval());
+    }
+
+    @Test
+    @DisplayName("Closed intervals overlap when they touch")
+    void overlaps() {
+        EpochInterval interval = EpochInterval.of(from, to);
+
+        assertTrue(interval.overlaps(EpochInterval.of(to, to.plusHours(1))));
+        assertTrue(interval.overlaps(EpochInterval.of(from.plusMinutes(30), from.plusMinutes(40))));
+        assertFalse(interval.overlaps(EpochInterval.of(to.plusSeconds(1), to.plusHours(1))));
+    }
+
+    @Test
+    @DisplayName("Now is the local time of the clock")
+    void now() {
+        ZoneId zone = ZoneId.of("Europe/Ljubljana");
+        Clock clock = Clock.fixed(from.atZone(zone).toInstant(), zone);
+
+        assertEquals(EpochInterval.epochSecond(from), EpochInterval.now(clock));
+        assertEquals(from.atZone(zone).toInstant(), Instant.ofEpochSecond(EpochInterval.now(clock) - 3_600));
+    }
+}
@@ -0,0 +1,71 @@
+package tech.interview.home.assignment.supercomputer.model.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurringRuleTest {
+    private static final long DAY = Recurrence.DAILY.periodSeconds();
+
+    @Test
+    @DisplayName("Occurrences of a weekly rule")
+    void occurrences() {
+        RecurringRule rule = new RecurringRule(1, "Customer1", Recurrence.WEEKLY, new EpochInterval(1_000, 4_600), 3);
+
+        assertEquals(new EpochInterval(1_000 + 14 * DAY, 4_600 + 14 * DAY), rule.last());
+        assertEquals(new EpochInterval(1_000, 4_600 + 14 * DAY), rule.span());
+        assertEquals(List.of(rule.occurrence(1), rule.occurrence(2)),
+                rule.occurrencesIn(new EpochInterval(4_601, 1_000 + 14 * DAY)));
+        assertTrue(rule.occursIn(new EpochInterval(4_600 + 7 * DAY, 4_600 + 7 * DAY)));
+        assertFalse(rule.occursIn(new EpochInterval(4_601, 999 + 7 * DAY)));
+        assertFalse(rule.occursIn(new EpochInterval(4_601 + 14 * DAY, 4_601 + 21 * DAY)));
+        assertFalse(rule.occursIn(new EpochInterval(0, 999)));
+    }
+
+    @Test
+    @DisplayName("Overlap checks match expanding every occurrence")
+    void matchesExpansion() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 2_000; i++) {
+            RecurringRule rule = rule(random, 1);
+            RecurringRule other = rule(random, 2);
+            EpochInterval query = interval(random);
+
+            List<EpochInterval> expected = new ArrayList<>();
+            for (int k = 0; k < rule.occurrences(); k++) {
+                if (rule.occurrence(k).overlaps(query)) {
+                    expected.add(rule.occurrence(k));
+                }
+            }
+            assertEquals(expected, rule.occurrencesIn(query));
+            assertEquals(!expected.isEmpty(), rule.occursIn(query));
+
+            boolean overlapping = false;
+            for (int k = 0; k < rule.occurrences() && !overlapping; k++) {
+                for (int j = 0; j < other.occurrences() && !overlapping; j++) {
+                    overlapping = rule.occurrence(k).overlaps(other.occurrence(j));
+                }
+            }
+            assertEquals(overlapping, rule.overlaps(other), () -> rule + " " + other);
+            assertEquals(overlapping, other.overlaps(rule), () -> other + " " + rule);
+        }
+    }
+
+    private static RecurringRule rule(Random random, long id) {
+        Recurrence recurrence = Recurrence.values()[random.nextInt(Recurrence.values().length)];
+        long from = random.nextInt(30 * (int) DAY);
+        long duration = 1 + random.nextInt((int) Math.min(recurrence.periodSeconds() - 1, 2 * DAY));
+        return new RecurringRule(id, "Customer" + id, recurrence, new EpochInterval(from, from + duration), 1 + random.nextInt(20));
+    }
+
+    private static EpochInterval interval(Random random) {
+        long from = random.nextInt(60 * (int) DAY);
+        return new EpochInterval(from, from + random.nextInt(3 * (int) DAY));
+    }
+}
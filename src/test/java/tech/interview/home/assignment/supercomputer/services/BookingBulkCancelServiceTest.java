@@ -0,0 +1,166 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import tech.interview.home.assignment.supercomputer.config.BulkCancelProperties;
+import tech.interview.home.assignment.supercomputer.config.LifecycleProperties;
+import tech.interview.home.assignment.supercomputer.config.QuotaProperties;
+import tech.interview.home.assignment.supercomputer.config.UtilizationProperties;
+import tech.interview.home.assignment.supercomputer.config.WaitlistProperties;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.model.domain.WaitlistStatus;
+import tech.interview.home.assignment.supercomputer.model.dto.WaitlistEntryDto;
+import tech.interview.home.assignment.supercomputer.model.dto.WaitlistRequestDto;
+import tech.interview.home.assignment.supercomputer.storage.InMemoryBookingStore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingBulkCancelServiceTest {
+    private static final LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+    private InMemoryBookingStore store;
+    private BookingUtilization utilization;
+    private CustomerQuota quota;
+    private BookingVersions versions;
+    private BookingStateVersion stateVersion;
+    private BookingLifecycle lifecycle;
+    private BookingWaitlist waitlist;
+    private BookingBulkCancelService service;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.systemDefaultZone();
+        store = new InMemoryBookingStore();
+        utilization = new BookingUtilization(new UtilizationProperties(LocalDate.of(2000, 1, 1), 36525, 3660));
+        quota = new CustomerQuota(new QuotaProperties(true, Duration.ofHours(720)), clock, new SimpleMeterRegistry());
+        versions = new BookingVersions();
+        stateVersion = new BookingStateVersion();
+        lifecycle = new BookingLifecycle(store, versions, new LifecycleProperties(Duration.ofHours(1), 64, 1000), clock, new SimpleMeterRegistry());
+        waitlist = new BookingWaitlist(store, stateVersion, utilization, quota, versions, lifecycle, Optional.empty(),
+                new WaitlistProperties(5, Duration.ofHours(1)), clock, new SimpleMeterRegistry());
+        service = new BookingBulkCancelService(store, stateVersion, utilization, quota, versions, waitlist,
+                new BulkCancelProperties(2), clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        waitlist.destroy();
+        lifecycle.destroy();
+    }
+
+    @Test
+    @DisplayName("Cancel for customer: All active bookings of the customer, in batches")
+    void cancelForCustomer() {
+        Booking first = insert("Customer1", 1, 2, BookingStatus.ACTIVE);
+        Booking second = insert("Customer1", 3, 4, BookingStatus.ACTIVE);
+        Booking third = insert("Customer1", 5, 6, BookingStatus.ACTIVE);
+        Booking other = insert("Customer2", 7, 8, BookingStatus.ACTIVE);
+        String eTag = versions.customerETag("Customer1");
+        long version = stateVersion.current();
+
+        StepVerifier
+                .create(service.cancelForCustomer("Customer1"))
+                .consumeNextWith(result -> assertAll(
+                        () -> assertEquals(3, result.canceled()),
+                        () -> assertEquals(List.of(first.getId(), second.getId(), third.getId()), result.bookingIds())
+                ))
+                .verifyComplete();
+
+        assertEquals(BookingStatus.CANCELED, store.findById(third.getId()).block().getStatus());
+        assertEquals(BookingStatus.ACTIVE, store.findById(other.getId()).block().getStatus());
+        assertEquals(0, quota.bookedSeconds("Customer1"));
+        assertEquals(3600, utilization.bookedSeconds(base.toLocalDate().minusDays(1), base.toLocalDate().plusDays(1)));
+        assertNotEquals(eTag, versions.customerETag("Customer1"));
+        assertEquals(version + 2, stateVersion.current());
+    }
+
+    @Test
+    @DisplayName("Cancel in time interval: Active bookings overlapping the window, held ones stay")
+    void cancelInTimeInterval() {
+        Booking overlapping = insert("Customer1", 1, 3, BookingStatus.ACTIVE);
+        Booking held = insert("Customer2", 4, 5, BookingStatus.HELD);
+        Booking inside = insert("Customer3", 6, 7, BookingStatus.ACTIVE);
+        Booking outside = insert("Customer1", 9, 10, BookingStatus.ACTIVE);
+
+        StepVerifier
+                .create(service.cancelInTimeInterval(Mono.just(new TimeInterval(base.plusHours(2), base.plusHours(8)))))
+                .consumeNextWith(result -> assertEquals(List.of(overlapping.getId(), inside.getId()), result.bookingIds()))
+                .verifyComplete();
+
+        assertEquals(BookingStatus.HELD, store.findById(held.getId()).block().getStatus());
+        assertEquals(BookingStatus.ACTIVE, store.findById(outside.getId()).block().getStatus());
+    }
+
+    @Test
+    @DisplayName("Adjacent canceled intervals are offered to the waitlist as one")
+    void adjacentIntervalsGoToWaitlistMerged() {
+        store.insertIfAvailable(Booking.builder()
+                .customerId("Customer3")
+                .status(BookingStatus.ACTIVE)
+                .timeIntervalFrom(base)
+                .timeIntervalTo(base.plusHours(1).minusSeconds(1))
+                .build()).block();
+        insert("Customer1", 1, 2, BookingStatus.ACTIVE);
+        Booking adjacent = Booking.builder()
+                .customerId("Customer1")
+                .status(BookingStatus.ACTIVE)
+                .timeIntervalFrom(base.plusHours(2).plusSeconds(1))
+                .timeIntervalTo(base.plusHours(3))
+                .build();
+        store.insertIfAvailable(adjacent).block();
+        WaitlistEntryDto entry = waitlist.register(Mono.just(new WaitlistRequestDto("Customer2",
+                new TimeInterval(base, base.plusHours(4)), 2 * 3600L))).block();
+
+        service.cancelForCustomer("Customer1").block();
+
+        WaitlistEntryDto assigned = waitlist.findById(entry.id()).block();
+        assertEquals(WaitlistStatus.ASSIGNED, assigned.status());
+        assertEquals(base.plusHours(1), store.findById(assigned.bookingId()).block().getTimeIntervalFrom());
+    }
+
+    @Test
+    @DisplayName("Invalid customer id and time interval are rejected")
+    void validation() {
+        StepVerifier
+                .create(service.cancelForCustomer("Customer 1"))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        StepVerifier
+                .create(service.cancelInTimeInterval(Mono.just(new TimeInterval(base.plusHours(2), base.plusHours(1)))))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        StepVerifier
+                .create(service.cancelInTimeInterval(Mono.empty()))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    private Booking insert(String customerId, int fromHours, int toHours, BookingStatus status) {
+        Booking booking = store.insertIfAvailable(Booking.builder()
+                .customerId(customerId)
+                .status(status)
+                .timeIntervalFrom(base.plusHours(fromHours))
+                .timeIntervalTo(base.plusHours(toHours))
+                .build()).block();
+        if (status.confirmed()) {
+            utilization.add(booking);
+            quota.add(booking);
+        }
+        return booking;
+    }
+}
@@ -0,0 +1,141 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import tech.interview.home.assignment.supercomputer.config.CompactionProperties;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.storage.BookingStore;
+import tech.interview.home.assignment.supercomputer.storage.InMemoryBookingStore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingCompactionJobTest {
+    private static final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+
+    private InMemoryBookingStore store;
+    private BookingStateVersion stateVersion;
+    private BookingVersions versions;
+    private SimpleMeterRegistry meterRegistry;
+    private BookingCompactionJob job;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryBookingStore();
+        stateVersion = new BookingStateVersion();
+        versions = new BookingVersions();
+        meterRegistry = new SimpleMeterRegistry();
+        job = new BookingCompactionJob(store, stateVersion, versions,
+                new CompactionProperties(true, Duration.ofHours(1), Duration.ofDays(7), 2, 1_000), Clock.systemDefaultZone(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.destroy();
+    }
+
+    @Test
+    @DisplayName("Compaction: Canceled bookings and bookings past retention are archived in batches")
+    void compact() {
+        for (int i = 0; i < 3; i++) {
+            store.insertIfAvailable(booking(now.minusDays(30).plusHours(2 * i))).block();
+        }
+        Booking recentlyEnded = store.insertIfAvailable(booking(now.minusDays(1))).block();
+        Booking canceled = store.insertIfAvailable(booking(now.plusDays(1))).block();
+        Booking active = store.insertIfAvailable(booking(now.plusDays(2))).block();
+        store.compareAndSetStatus(canceled.getId(), BookingStatus.ACTIVE, BookingStatus.CANCELED).block();
+
+        StepVerifier
+                .create(job.compact())
+                .expectNext(4L)
+                .verifyComplete();
+
+        assertEquals(4, meterRegistry.counter("booking.compaction.archived").count());
+        assertTrue(stateVersion.current() > 0);
+        StepVerifier
+                .create(store.findActiveByCustomerId("Customer1").map(Booking::getId).collectList())
+                .expectNext(List.of(recentlyEnded.getId(), active.getId()))
+                .verifyComplete();
+        StepVerifier
+                .create(store.findById(canceled.getId()))
+                .consumeNextWith(found -> assertEquals(BookingStatus.CANCELED, found.getStatus()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Compaction: Versions are dropped and every tag changes")
+    void compactDropsVersions() {
+        Booking canceled = store.insertIfAvailable(booking(now.plusDays(1))).block();
+        store.compareAndSetStatus(canceled.getId(), BookingStatus.ACTIVE, BookingStatus.CANCELED).block();
+        versions.bookingChanged(canceled.getId(), canceled.getCustomerId());
+        String bookingTag = versions.bookingETag(canceled.getId());
+        String customerTag = versions.customerETag(canceled.getCustomerId());
+        String untouchedTag = versions.customerETag("Customer2");
+        assertEquals(2, versions.trackedVersions());
+
+        StepVerifier
+                .create(job.compact())
+                .expectNext(1L)
+                .verifyComplete();
+
+        assertEquals(0, versions.trackedVersions());
+        assertNotEquals(bookingTag, versions.bookingETag(canceled.getId()));
+        assertNotEquals(customerTag, versions.customerETag(canceled.getCustomerId()));
+        assertNotEquals(untouchedTag, versions.customerETag("Customer2"));
+    }
+
+    @Test
+    @DisplayName("Compaction: Batches are stamped with the time of the job's clock")
+    void compactStampsArchivedAtFromClock() {
+        BookingStore mockStore = mock(BookingStore.class);
+        Clock clock = Clock.fixed(now.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        BookingCompactionJob fixedJob = new BookingCompactionJob(mockStore, stateVersion, versions,
+                new CompactionProperties(true, Duration.ofHours(1), Duration.ofDays(7), 2, 1_000), clock, meterRegistry);
+        when(mockStore.archive(now.minusDays(7), now, 2)).thenReturn(Mono.just(1));
+
+        StepVerifier
+                .create(fixedJob.compact())
+                .expectNext(1L)
+                .verifyComplete();
+
+        verify(mockStore).archive(now.minusDays(7), now, 2);
+        fixedJob.destroy();
+    }
+
+    @Test
+    @DisplayName("Compaction: Nothing to archive")
+    void compactNothing() {
+        store.insertIfAvailable(booking(now.plusDays(1))).block();
+
+        StepVerifier
+                .create(job.compact())
+                .expectNext(0L)
+                .verifyComplete();
+
+        assertEquals(0, stateVersion.current());
+    }
+
+    private static Booking booking(LocalDateTime from) {
+        return Booking.builder()
+                .customerId("Customer1")
+                .status(BookingStatus.ACTIVE)
+                .timeIntervalFrom(from)
+                .timeIntervalTo(from.plusHours(1))
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import tech.interview.home.assignment.supercomputer.config.GroupCommitProperties;
+import tech.interview.home.assignment.supercomputer.exceptions.TimeIntervalAlreadyBookedException;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.storage.InMemoryBookingStore;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingGroupCommitterTest {
+    private static final LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+    private InMemoryBookingStore store;
+    private BookingStateVersion stateVersion;
+    private BookingGroupCommitter committer;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryBookingStore();
+        stateVersion = new BookingStateVersion();
+        committer = new BookingGroupCommitter(store, stateVersion, new GroupCommitProperties(true, Duration.ofMillis(50), 16));
+    }
+
+    @AfterEach
+    void tearDown() {
+        committer.destroy();
+    }
+
+    @Test
+    @DisplayName("Batch is decided in submission order and committed once")
+    void batchIsDecidedInSubmissionOrder() {
+        var first = committer.submit(booking(0, 2));
+        var overlapping = committer.submit(booking(1, 3));
+        var second = committer.submit(booking(4, 5));
+
+        StepVerifier
+                .create(Mono.zip(first, second, overlapping.map(x -> false).onErrorResume(TimeIntervalAlreadyBookedException.class, e -> Mono.just(true))))
+                .consumeNextWith(res -> assertAll(
+                        () -> assertNotEquals(res.getT1(), res.getT2()),
+                        () -> assertTrue(res.getT3())
+                ))
+                .verifyComplete();
+
+        assertEquals(1, stateVersion.current());
+    }
+
+    @Test
+    @DisplayName("Requests conflicting with already persisted bookings are rejected")
+    void conflictWithExistingBooking() {
+        store.insertIfAvailable(booking(0, 2)).block();
+
+        StepVerifier
+                .create(committer.submit(booking(1, 2)))
+                .expectError(TimeIntervalAlreadyBookedException.class)
+                .verify();
+        assertEquals(0, stateVersion.current());
+    }
+
+    @Test
+    @DisplayName("Generated ids are assigned to the matching requests")
+    void generatedIdsMatchRequests() {
+        Booking booking = booking(6, 7);
+
+        StepVerifier
+                .create(committer.submit(booking).flatMap(store::findById))
+                .consumeNextWith(saved -> assertAll(
+                        () -> assertEquals(booking.getId(), saved.getId()),
+                        () -> assertEquals(booking.getTimeIntervalFrom(), saved.getTimeIntervalFrom()),
+                        () -> assertEquals(BookingStatus.ACTIVE, saved.getStatus())
+                ))
+                .verifyComplete();
+    }
+
+    private static Booking booking(int fromHours, int toHours) {
+        return Booking.builder()
+                .customerId("Customer1")
+                .status(BookingStatus.ACTIVE)
+                .timeIntervalFrom(base.plusHours(fromHours))
+                .timeIntervalTo(base.plusHours(toHours).minusSeconds(1))
+                .build();
+    }
+}
@@ -0,0 +1,221 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import tech.interview.home.assignment.supercomputer.config.HoldProperties;
+import tech.interview.home.assignment.supercomputer.config.LifecycleProperties;
+import tech.interview.home.assignment.supercomputer.config.QuotaProperties;
+import tech.interview.home.assignment.supercomputer.config.UtilizationProperties;
+import tech.interview.home.assignment.supercomputer.config.WaitlistProperties;
+import tech.interview.home.assignment.supercomputer.exceptions.ResourceNotFoundException;
+import tech.interview.home.assignment.supercomputer.exceptions.TimeIntervalAlreadyBookedException;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.model.domain.WaitlistStatus;
+import tech.interview.home.assignment.supercomputer.model.dto.HoldRequestDto;
+import tech.interview.home.assignment.supercomputer.model.dto.HoldResponseDto;
+import tech.interview.home.assignment.supercomputer.model.dto.WaitlistEntryDto;
+import tech.interview.home.assignment.supercomputer.model.dto.WaitlistRequestDto;
+import tech.interview.home.assignment.supercomputer.model.mappers.BookingMapperImpl;
+import tech.interview.home.assignment.supercomputer.storage.InMemoryBookingStore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingHoldServiceTest {
+    private static final String customerId = "Customer1";
+    private static final LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS);
+
+    private MutableClock clock;
+    private InMemoryBookingStore store;
+    private BookingUtilization utilization;
+    private CustomerQuota quota;
+    private SimpleMeterRegistry meterRegistry;
+    private BookingWaitlist waitlist;
+    private BookingHoldService service;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(now.toInstant(ZoneOffset.UTC));
+        store = new InMemoryBookingStore();
+        utilization = new BookingUtilization(new UtilizationProperties(LocalDate.of(2000, 1, 1), 36525, 3660));
+        quota = new CustomerQuota(new QuotaProperties(true, Duration.ofHours(720)), clock, new SimpleMeterRegistry());
+        meterRegistry = new SimpleMeterRegistry();
+        BookingStateVersion stateVersion = new BookingStateVersion();
+        BookingVersions versions = new BookingVersions();
+        BookingLifecycle lifecycle = new BookingLifecycle(store, versions, new LifecycleProperties(Duration.ofHours(1), 64, 1000), clock, new SimpleMeterRegistry());
+        waitlist = new BookingWaitlist(store, stateVersion, utilization, quota, versions, lifecycle, Optional.empty(),
+                new WaitlistProperties(5, Duration.ofHours(1)), clock, new SimpleMeterRegistry());
+        service = new BookingHoldService(store, new BookingMapperImpl(), stateVersion, utilization, quota,
+                versions, lifecycle, waitlist, Optional.empty(),
+                new HoldProperties(Duration.ofSeconds(30), Duration.ofMinutes(15), Duration.ofHours(1), 64),
+                clock, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+        waitlist.destroy();
+    }
+
+    @Test
+    @DisplayName("A hold occupies its interval until it is confirmed")
+    void holdAndConfirm() {
+        HoldResponseDto hold = service.hold(Mono.just(request(2, 4, null))).block();
+        assertNotNull(hold);
+        assertEquals(now.plusSeconds(30), hold.expiresAt());
+        assertEquals(BookingStatus.HELD, store.findById(hold.bookingId()).block().getStatus());
+        assertEquals(2 * 3600, quota.bookedSeconds(customerId));
+        assertEquals(0, utilization.bookedSeconds(now.toLocalDate(), now.toLocalDate().plusDays(1)));
+
+        StepVerifier.create(service.hold(Mono.just(request(3, 5, null))))
+                .expectError(TimeIntervalAlreadyBookedException.class)
+                .verify();
+
+        StepVerifier.create(service.confirm(hold.token()))
+                .expectNext(hold.bookingId())
+                .verifyComplete();
+        assertEquals(BookingStatus.ACTIVE, store.findById(hold.bookingId()).block().getStatus());
+        assertEquals(2 * 3600, utilization.bookedSeconds(now.toLocalDate(), now.toLocalDate().plusDays(1)));
+        assertEquals(2 * 3600, quota.bookedSeconds(customerId));
+
+        StepVerifier.create(service.confirm(hold.token()))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("An unconfirmed hold expires after its TTL and frees its interval")
+    void expire() {
+        HoldResponseDto hold = service.hold(Mono.just(request(2, 4, 60L))).block();
+        assertNotNull(hold);
+
+        clock.set(clock.instant().plusSeconds(59));
+        service.expireDue();
+        assertEquals(BookingStatus.HELD, store.findById(hold.bookingId()).block().getStatus());
+
+        clock.set(clock.instant().plus(Duration.ofHours(2)));
+        service.expireDue();
+        assertEquals(BookingStatus.EXPIRED, store.findById(hold.bookingId()).block().getStatus());
+        assertEquals(0, quota.bookedSeconds(customerId));
+        assertEquals(1, meterRegistry.counter("booking.holds.expired").count());
+
+        StepVerifier.create(service.confirm(hold.token()))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+        StepVerifier.create(store.isTimeIntervalAlreadyBooked(EpochInterval.of(now.plusHours(2), now.plusHours(4))))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("The interval of an expired hold goes to the waitlist")
+    void expiredHoldGoesToWaitlist() {
+        HoldResponseDto hold = service.hold(Mono.just(request(2, 4, 60L))).block();
+        assertNotNull(hold);
+        WaitlistEntryDto entry = waitlist.register(Mono.just(new WaitlistRequestDto("Customer2",
+                new TimeInterval(now.plusHours(1), now.plusHours(5)), 3600L))).block();
+        assertNotNull(entry);
+
+        clock.set(clock.instant().plus(Duration.ofHours(1)));
+        service.expireDue();
+
+        WaitlistEntryDto assigned = waitlist.findById(entry.id()).block();
+        assertEquals(WaitlistStatus.ASSIGNED, assigned.status());
+        StepVerifier.create(store.findById(assigned.bookingId()))
+                .consumeNextWith(booking -> assertAll(
+                        () -> assertEquals("Customer2", booking.getCustomerId()),
+                        () -> assertEquals(now.plusHours(1), booking.getTimeIntervalFrom()),
+                        () -> assertEquals(now.plusHours(2), booking.getTimeIntervalTo())
+                ))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Confirming after the TTL, before the wheel expired the hold, fails and expires it")
+    void confirmAfterTtl() {
+        HoldResponseDto hold = service.hold(Mono.just(request(2, 4, 10L))).block();
+        assertNotNull(hold);
+
+        clock.set(clock.instant().plusSeconds(10));
+        StepVerifier.create(service.confirm(hold.token()))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+        assertEquals(BookingStatus.EXPIRED, store.findById(hold.bookingId()).block().getStatus());
+    }
+
+    @Test
+    @DisplayName("TTL must be positive and at most the maximum TTL")
+    void illegalTtl() {
+        StepVerifier.create(service.hold(Mono.just(request(2, 4, 0L))))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        StepVerifier.create(service.hold(Mono.just(request(2, 4, 901L))))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Holds left over by a previous run are expired on load")
+    void loadExpiresLeftovers() {
+        Booking held = store.insertIfAvailable(Booking.builder()
+                .customerId(customerId)
+                .status(BookingStatus.HELD)
+                .timeIntervalFrom(now.plusHours(2))
+                .timeIntervalTo(now.plusHours(4))
+                .build()).block();
+        assertNotNull(held);
+
+        service.load(List.of(held));
+
+        assertEquals(BookingStatus.EXPIRED, store.findById(held.getId()).block().getStatus());
+    }
+
+    private static HoldRequestDto request(int fromHours, int toHours, Long ttlSeconds) {
+        return new HoldRequestDto(customerId, new TimeInterval(now.plusHours(fromHours), now.plusHours(toHours)), ttlSeconds);
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void set(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return this.instant;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.test.StepVerifier;
+import tech.interview.home.assignment.supercomputer.config.LedgerProperties;
+import tech.interview.home.assignment.supercomputer.exceptions.ResourceNotFoundException;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.dto.LedgerEntryDto;
+import tech.interview.home.assignment.supercomputer.model.mappers.BookingMapperImpl;
+import tech.interview.home.assignment.supercomputer.repositories.BookingRepository;
+import tech.interview.home.assignment.supercomputer.storage.BookingEvent;
+import tech.interview.home.assignment.supercomputer.storage.BookingStore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@DataR2dbcTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///booking-ledger;DB_CLOSE_DELAY=-1")
+class BookingLedgerTest {
+    private static final String customerId = "Customer1";
+    private static final LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS);
+
+    @Autowired
+    private BookingRepository repository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private MutableClock clock;
+    private final List<BookingLedger> ledgers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(now.toInstant(ZoneOffset.UTC));
+        for (String table : List.of("BOOKING_EVENTS", "BOOKING_SNAPSHOTS", "BOOKING_SNAPSHOT_ENTRIES")) {
+            databaseClient.sql("DELETE FROM " + table).then().block();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        ledgers.forEach(BookingLedger::destroy);
+    }
+
+    @Test
+    @DisplayName("Events are appended in commit order and make up the history of a booking")
+    void history() {
+        Ledger ledger = ledger(100);
+        ledger.instance().load(List.of());
+        Booking booking = booking(1, 1, 2);
+        ledger.publish(new BookingEvent(1, BookingStatus.ACTIVE, booking, true));
+        clock.advance(Duration.ofMinutes(5));
+        ledger.publish(new BookingEvent(1, BookingStatus.CANCELED, null, false));
+        ledger.awaitAppended(2);
+
+        StepVerifier
+                .create(ledger.instance().history(1).map(LedgerEntryDto::type))
+                .expectNext("CREATED", "CANCELED")
+                .verifyComplete();
+        StepVerifier
+                .create(ledger.instance().history(1).last())
+                .consumeNextWith(entry -> assertAll(
+                        () -> assertEquals(2, entry.seq()),
+                        () -> assertEquals(customerId, entry.customerId()),
+                        () -> assertEquals(BookingStatus.CANCELED.name(), entry.status()),
+                        () -> assertEquals(booking.getTimeIntervalFrom(), entry.timeInterval().from()),
+                        () -> assertEquals(now.plusMinutes(5), entry.recordedAt())
+                ))
+                .verifyComplete();
+        StepVerifier
+                .create(ledger.instance().history(2))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("State as of any time: Latest snapshot before it plus the events recorded after the snapshot")
+    void asOf() {
+        Ledger ledger = ledger(2);
+        Booking loaded = booking(1, 1, 2);
+        ledger.instance().load(List.of(loaded));
+        for (int i = 2; i <= 5; i++) {
+            clock.advance(Duration.ofMinutes(1));
+            ledger.publish(new BookingEvent(i, BookingStatus.ACTIVE, booking(i, 2 * i, 2 * i + 1), true));
+            ledger.awaitAppended(i - 1);
+        }
+        clock.advance(Duration.ofMinutes(1));
+        ledger.publish(new BookingEvent(1, BookingStatus.CANCELED, null, false));
+        ledger.awaitAppended(5);
+
+        assertEquals(3, databaseClient.sql("SELECT COUNT(*) AS C FROM BOOKING_SNAPSHOTS").map(row -> row.get("C", Long.class)).one().block());
+        assertAsOf(ledger, now.minusSeconds(1));
+        assertAsOf(ledger, now, "1:ACTIVE");
+        assertAsOf(ledger, now.plusMinutes(2), "1:ACTIVE", "2:ACTIVE", "3:ACTIVE");
+        assertAsOf(ledger, now.plusMinutes(3), "1:ACTIVE", "2:ACTIVE", "3:ACTIVE", "4:ACTIVE");
+        assertAsOf(ledger, now.plusMinutes(5), "1:CANCELED", "2:ACTIVE", "3:ACTIVE", "4:ACTIVE", "5:ACTIVE");
+    }
+
+    @Test
+    @DisplayName("A restarted ledger continues the sequence and completes transitions known only by id")
+    void restart() {
+        Ledger first = ledger(2);
+        first.instance().load(List.of());
+        first.publish(new BookingEvent(1, BookingStatus.ACTIVE, booking(1, 1, 2), true));
+        first.publish(new BookingEvent(2, BookingStatus.ACTIVE, booking(2, 3, 4), true));
+        first.publish(new BookingEvent(3, BookingStatus.ACTIVE, booking(3, 5, 6), true));
+        first.awaitAppended(3);
+
+        Ledger second = ledger(2);
+        second.instance().load(List.of());
+        second.publish(new BookingEvent(3, BookingStatus.IN_PROGRESS, null, false));
+        second.awaitAppended(1);
+
+        StepVerifier
+                .create(second.instance().history(3).last())
+                .consumeNextWith(entry -> assertAll(
+                        () -> assertEquals(4, entry.seq()),
+                        () -> assertEquals("STARTED", entry.type()),
+                        () -> assertEquals(customerId, entry.customerId())
+                ))
+                .verifyComplete();
+        assertAsOf(second, now, "1:ACTIVE", "2:ACTIVE", "3:IN_PROGRESS");
+    }
+
+    @Test
+    @DisplayName("A restarted ledger records correcting events for loaded bookings it missed or holds differently")
+    void restartReconcilesLoadedBookings() {
+        Ledger first = ledger(100);
+        first.instance().load(List.of());
+        first.publish(new BookingEvent(1, BookingStatus.ACTIVE, booking(1, 1, 2), true));
+        first.publish(new BookingEvent(2, BookingStatus.ACTIVE, booking(2, 3, 4), true));
+        first.awaitAppended(2);
+
+        clock.advance(Duration.ofMinutes(10));
+        Ledger second = ledger(100);
+        Booking canceled = booking(2, 3, 4).toBuilder().status(BookingStatus.CANCELED).build();
+        second.instance().load(List.of(booking(1, 1, 2), canceled, booking(3, 5, 6)));
+
+        StepVerifier
+                .create(second.instance().history(2).map(entry -> entry.seq() + ":" + entry.type()).collectList())
+                .expectNext(List.of("2:CREATED", "3:CANCELED"))
+                .verifyComplete();
+        StepVerifier
+                .create(second.instance().history(3))
+                .consumeNextWith(entry -> assertAll(
+                        () -> assertEquals(4, entry.seq()),
+                        () -> assertEquals("CREATED", entry.type()),
+                        () -> assertEquals(now.plusMinutes(10), entry.recordedAt())
+                ))
+                .verifyComplete();
+        assertAsOf(second, now, "1:ACTIVE", "2:ACTIVE");
+        assertAsOf(second, now.plusMinutes(10), "1:ACTIVE", "2:CANCELED", "3:ACTIVE");
+    }
+
+    @Test
+    @DisplayName("A batch that fails to append leaves neither a sequence gap nor a trace in the next snapshot")
+    void failedAppend() {
+        Ledger ledger = ledger(2);
+        ledger.instance().load(List.of());
+        databaseClient.sql("INSERT INTO BOOKING_EVENTS(SEQ, TYPE, BOOKING_ID) VALUES (1, 'CREATED', 99)").then().block();
+        ledger.publish(new BookingEvent(1, BookingStatus.ACTIVE, booking(1, 1, 2), true));
+        ledger.awaitCounted("booking.ledger.failures", 1);
+        databaseClient.sql("DELETE FROM BOOKING_EVENTS").then().block();
+
+        ledger.publish(new BookingEvent(2, BookingStatus.ACTIVE, booking(2, 3, 4), true));
+        ledger.publish(new BookingEvent(3, BookingStatus.ACTIVE, booking(3, 5, 6), true));
+        ledger.awaitCounted("booking.ledger.appended", 2);
+        assertEquals(1, ledger.meterRegistry().counter("booking.ledger.failures").count());
+
+        StepVerifier
+                .create(ledger.instance().history(2).map(LedgerEntryDto::seq))
+                .expectNext(1L)
+                .verifyComplete();
+        assertEquals(List.of(2L, 3L), databaseClient.sql("SELECT BOOKING_ID FROM BOOKING_SNAPSHOT_ENTRIES WHERE SNAPSHOT_SEQ = 2 ORDER BY BOOKING_ID")
+                .map(row -> row.get("BOOKING_ID", Long.class)).all().collectList().block());
+    }
+
+    @Test
+    @DisplayName("State as of: Illegal customer id")
+    void asOfIllegalCustomerId() {
+        Ledger ledger = ledger(100);
+        ledger.instance().load(List.of());
+
+        StepVerifier
+                .create(ledger.instance().customerAsOf("Customer 1", now))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    private void assertAsOf(Ledger ledger, LocalDateTime at, String... expected) {
+        StepVerifier
+                .create(ledger.instance().customerAsOf(customerId, at)
+                        .map(booking -> booking.id() + ":" + booking.status())
+                        .collectList())
+                .expectNext(List.of(expected))
+                .verifyComplete();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Ledger ledger(int snapshotInterval) {
+        BookingStore store = mock(BookingStore.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BookingLedger ledger = new BookingLedger(store, repository, new BookingMapperImpl(),
+                new LedgerProperties(true, Duration.ofMillis(1), 1000, snapshotInterval), clock, meterRegistry);
+        ledgers.add(ledger);
+        ArgumentCaptor<Consumer<BookingEvent>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(store).addListener(listener.capture());
+        return new Ledger(ledger, listener.getValue(), meterRegistry);
+    }
+
+    private static Booking booking(long id, int fromHours, int toHours) {
+        return Booking.builder()
+                .id(id)
+                .customerId(customerId)
+                .status(BookingStatus.ACTIVE)
+                .timeIntervalFrom(now.plusHours(fromHours))
+                .timeIntervalTo(now.plusHours(toHours))
+                .build();
+    }
+
+    private record Ledger(BookingLedger instance, Consumer<BookingEvent> listener, SimpleMeterRegistry meterRegistry) {
+        void publish(BookingEvent event) {
+            listener.accept(event);
+        }
+
+        void awaitAppended(long events) {
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (meterRegistry.counter("booking.ledger.appended").count() < events) {
+                assertTrue(System.nanoTime() < deadline, "Events were not appended in time");
+                assertEquals(0, meterRegistry.counter("booking.ledger.failures").count());
+                Thread.onSpinWait();
+            }
+        }
+
+        void awaitCounted(String counter, long count) {
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (meterRegistry.counter(counter).count() < count) {
+                assertTrue(System.nanoTime() < deadline, counter + " was not counted in time");
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            this.instant = this.instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return this.instant;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+import tech.interview.home.assignment.supercomputer.config.LifecycleProperties;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+import tech.interview.home.assignment.supercomputer.storage.InMemoryBookingStore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingLifecycleTest {
+    private static final String customerId = "Customer1";
+    private static final LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS);
+
+    private MutableClock clock;
+    private InMemoryBookingStore store;
+    private BookingVersions versions;
+    private SimpleMeterRegistry meterRegistry;
+    private BookingLifecycle lifecycle;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(now.toInstant(ZoneOffset.UTC));
+        store = new InMemoryBookingStore();
+        versions = new BookingVersions();
+        meterRegistry = new SimpleMeterRegistry();
+        lifecycle = new BookingLifecycle(store, versions, new LifecycleProperties(Duration.ofHours(1), 64, 2), clock, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        lifecycle.destroy();
+    }
+
+    @Test
+    @DisplayName("A booking is in progress from its start and completed after its end, at most one tick late")
+    void startAndComplete() {
+        Booking booking = insert(BookingStatus.ACTIVE, 1, 3);
+        lifecycle.schedule(booking);
+        String etag = versions.bookingETag(booking.getId());
+
+        advanceTo(now.plusMinutes(59));
+        assertStatus(BookingStatus.ACTIVE, booking);
+
+        advanceTo(now.plusHours(1));
+        assertStatus(BookingStatus.ACTIVE, booking);
+
+        advanceTo(now.plusHours(2));
+        assertStatus(BookingStatus.IN_PROGRESS, booking);
+        assertNotEquals(etag, versions.bookingETag(booking.getId()));
+        StepVerifier.create(store.findActiveByCustomerId(customerId))
+                .consumeNextWith(found -> assertEquals(booking.getId(), found.getId()))
+                .verifyComplete();
+        StepVerifier.create(store.isTimeIntervalAlreadyBooked(EpochInterval.of(now.plusHours(3), now.plusHours(4))))
+                .expectNext(true)
+                .verifyComplete();
+
+        advanceTo(now.plusHours(4));
+        assertStatus(BookingStatus.COMPLETED, booking);
+        StepVerifier.create(store.findActiveByCustomerId(customerId))
+                .verifyComplete();
+        StepVerifier.create(store.isTimeIntervalAlreadyBooked(EpochInterval.of(now.plusHours(3), now.plusHours(4))))
+                .expectNext(false)
+                .verifyComplete();
+        assertEquals(1, meterRegistry.counter("booking.lifecycle.transitions", "status", "IN_PROGRESS").count());
+        assertEquals(1, meterRegistry.counter("booking.lifecycle.transitions", "status", "COMPLETED").count());
+    }
+
+    @Test
+    @DisplayName("Load catches up on missed transitions in batches")
+    void loadCatchesUp() {
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            bookings.add(insert(BookingStatus.ACTIVE, -20 + 2 * i, -19 + 2 * i));
+        }
+        Booking running = insert(BookingStatus.ACTIVE, -1, 1);
+        Booking upcoming = insert(BookingStatus.ACTIVE, 2, 3);
+        Booking canceled = insert(BookingStatus.CANCELED, 4, 5);
+        bookings.addAll(List.of(running, upcoming, canceled));
+
+        lifecycle.load(bookings);
+        lifecycle.advance().block();
+
+        bookings.subList(0, 5).forEach(booking -> assertStatus(BookingStatus.COMPLETED, booking));
+        assertStatus(BookingStatus.IN_PROGRESS, running);
+        assertStatus(BookingStatus.ACTIVE, upcoming);
+        assertStatus(BookingStatus.CANCELED, canceled);
+    }
+
+    @Test
+    @DisplayName("Bookings canceled before their start are skipped")
+    void canceledBeforeStart() {
+        Booking booking = insert(BookingStatus.ACTIVE, 1, 2);
+        lifecycle.schedule(booking);
+        store.compareAndSetStatus(booking.getId(), BookingStatus.ACTIVE, BookingStatus.CANCELED).block();
+
+        advanceTo(now.plusHours(3));
+
+        assertStatus(BookingStatus.CANCELED, booking);
+        assertEquals(0, meterRegistry.counter("booking.lifecycle.transitions", "status", "IN_PROGRESS").count());
+    }
+
+    private void advanceTo(LocalDateTime time) {
+        clock.set(time.toInstant(ZoneOffset.UTC));
+        lifecycle.advance().block();
+    }
+
+    private Booking insert(BookingStatus status, int fromHours, int toHours) {
+        return store.insertIfAvailable(Booking.builder()
+                .customerId(customerId)
+                .status(status)
+                .timeIntervalFrom(now.plusHours(fromHours))
+                .timeIntervalTo(now.plusHours(toHours))
+                .build()).block();
+    }
+
+    private void assertStatus(BookingStatus expected, Booking booking) {
+        assertEquals(expected, store.findById(booking.getId()).block().getStatus());
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void set(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return this.instant;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import tech.interview.home.assignment.supercomputer.admission.AdmissionControl;
+import tech.interview.home.assignment.supercomputer.config.AdmissionProperties;
+import tech.interview.home.assignment.supercomputer.config.LifecycleProperties;
+import tech.interview.home.assignment.supercomputer.config.ProjectionProperties;
+import tech.interview.home.assignment.supercomputer.config.QuotaProperties;
+import tech.interview.home.assignment.supercomputer.config.ResponseCacheProperties;
+import tech.interview.home.assignment.supercomputer.config.RouterConfig;
+import tech.interview.home.assignment.supercomputer.config.UtilizationProperties;
+import tech.interview.home.assignment.supercomputer.config.WaitlistProperties;
+import tech.interview.home.assignment.supercomputer.controllers.BookingHandler;
+import tech.interview.home.assignment.supercomputer.controllers.BookingJsonCache;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.model.dto.NewBookingRequestDto;
+import tech.interview.home.assignment.supercomputer.model.mappers.BookingMapperImpl;
+import tech.interview.home.assignment.supercomputer.storage.InMemoryBookingStore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingProjectionTest {
+    private static final String customerId = "Customer1";
+    private static final LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+    private InMemoryBookingStore store;
+    private SimpleMeterRegistry meterRegistry;
+    private BookingProjection projection;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryBookingStore();
+        meterRegistry = new SimpleMeterRegistry();
+        projection = new BookingProjection(store, new ProjectionProperties(true, Duration.ofSeconds(1)), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        projection.destroy();
+    }
+
+    @Test
+    @DisplayName("Projections follow inserts and status transitions of the store")
+    void followsStore() {
+        projection.load(List.of());
+        Booking first = store.insertIfAvailable(booking(1, 2)).block();
+        Booking second = store.insertIfAvailable(booking(3, 4)).block();
+        store.compareAndSetStatus(first.getId(), BookingStatus.ACTIVE, BookingStatus.CANCELED).block();
+        store.compareAndSetStatuses(List.of(second.getId()), BookingStatus.ACTIVE, BookingStatus.IN_PROGRESS).block();
+        awaitApplied(4);
+
+        assertAll(
+                () -> assertEquals(BookingStatus.CANCELED, projection.findById(first.getId()).getStatus()),
+                () -> assertEquals(BookingStatus.IN_PROGRESS, projection.findById(second.getId()).getStatus()),
+                () -> assertNull(projection.findById(Long.MAX_VALUE)),
+                () -> assertEquals(List.of(second.getId()), projection.findForCustomer(customerId).stream().map(Booking::getId).toList()),
+                () -> assertTrue(projection.findForCustomer("Customer2").isEmpty()),
+                () -> assertFalse(projection.isTimeIntervalAlreadyBooked(interval(1, 2))),
+                () -> assertTrue(projection.isTimeIntervalAlreadyBooked(interval(2, 3))),
+                () -> assertFalse(projection.isTimeIntervalAlreadyBooked(interval(5, 6))),
+                () -> assertTrue(projection.fresh()),
+                () -> assertEquals(0, meterRegistry.get("booking.projection.pending").gauge().value())
+        );
+    }
+
+    @Test
+    @DisplayName("Events published before the warm-up are replayed on top of the loaded bookings")
+    void replaysAfterLoad() {
+        Booking loaded = store.insertIfAvailable(booking(1, 2)).block();
+        Booking inserted = store.insertIfAvailable(booking(3, 4)).block();
+        store.compareAndSetStatus(loaded.getId(), BookingStatus.ACTIVE, BookingStatus.CANCELED).block();
+
+        assertFalse(projection.fresh());
+        assertEquals(3, meterRegistry.get("booking.projection.pending").gauge().value());
+
+        projection.load(List.of(loaded));
+        awaitApplied(3);
+
+        assertAll(
+                () -> assertTrue(projection.fresh()),
+                () -> assertEquals(BookingStatus.CANCELED, projection.findById(loaded.getId()).getStatus()),
+                () -> assertEquals(inserted, projection.findById(inserted.getId())),
+                () -> assertEquals(List.of(inserted), projection.findForCustomer(customerId))
+        );
+    }
+
+    @Test
+    @DisplayName("Readers get copies of the projected bookings")
+    void returnsCopies() {
+        projection.load(List.of());
+        Booking inserted = store.insertIfAvailable(booking(1, 2)).block();
+        awaitApplied(1);
+
+        projection.findById(inserted.getId()).setStatus(BookingStatus.CANCELED);
+        projection.findForCustomer(customerId).get(0).setStatus(BookingStatus.CANCELED);
+
+        assertEquals(BookingStatus.ACTIVE, projection.findById(inserted.getId()).getStatus());
+    }
+
+    @Test
+    @DisplayName("A conditional GET never gets a tag with older data while the projection lags")
+    void conditionalGetWhileLagging() {
+        List<Runnable> held = new ArrayList<>();
+        BookingProjection lagging = new BookingProjection(store, new ProjectionProperties(true, Duration.ofHours(1)), meterRegistry,
+                Schedulers.fromExecutor(held::add));
+        lagging.load(List.of());
+        BookingVersions versions = new BookingVersions();
+        BookingStateVersion stateVersion = new BookingStateVersion();
+        BookingUtilization utilization = new BookingUtilization(new UtilizationProperties(LocalDate.of(2000, 1, 1), 36525, 3660));
+        CustomerQuota quota = new CustomerQuota(new QuotaProperties(false, Duration.ofHours(720)), Clock.systemDefaultZone(), meterRegistry);
+        BookingLifecycle lifecycle = new BookingLifecycle(store, versions, new LifecycleProperties(Duration.ofHours(1), 64, 1000),
+                Clock.systemDefaultZone(), meterRegistry);
+        BookingWaitlist waitlist = new BookingWaitlist(store, stateVersion, utilization, quota, versions, lifecycle, Optional.empty(),
+                new WaitlistProperties(5, Duration.ofHours(1)), Clock.systemDefaultZone(), meterRegistry);
+        R2dbcBookingService service = new R2dbcBookingService(store, new BookingMapperImpl(), stateVersion, utilization, quota, versions,
+                lifecycle, waitlist, new IntervalCheckCoalescer(stateVersion, meterRegistry), Optional.empty(), Optional.of(lagging),
+                Optional.empty(), Clock.systemDefaultZone());
+        AdmissionControl admissionControl = new AdmissionControl(new AdmissionProperties(false, 20, 10, 10_000, 32, 4, 512,
+                Duration.ofMillis(50), 0.9, Duration.ofSeconds(1)), meterRegistry);
+        BookingHandler handler = new BookingHandler(service, versions,
+                new BookingJsonCache(Jackson2ObjectMapperBuilder.json().build(), new ResponseCacheProperties(true, 100), meterRegistry),
+                admissionControl);
+        WebTestClient client = WebTestClient.bindToRouterFunction(new RouterConfig().routes(handler, admissionControl)).build();
+
+        long id = service.addBooking(Mono.just(new NewBookingRequestDto(customerId, new TimeInterval(base.plusHours(1), base.plusHours(2))))).block();
+        runAll(held);
+        service.cancelBooking(id).block();
+        assertTrue(lagging.fresh());
+        assertFalse(lagging.caughtUp(id));
+        assertFalse(lagging.caughtUp(customerId));
+
+        String eTag = client.get()
+                .uri(RouterConfig.VIEW_BOOKING_BY_ID_BASE + id)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(BookingStatus.CANCELED.name())
+                .returnResult()
+                .getResponseHeaders()
+                .getETag();
+        assertEquals(versions.bookingETag(id), eTag);
+        client.get()
+                .uri("/api/supercomputer/v1/bookings/customer/" + customerId)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(0);
+
+        runAll(held);
+        assertTrue(lagging.caughtUp(id));
+        client.get()
+                .uri(RouterConfig.VIEW_BOOKING_BY_ID_BASE + id)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+        assertEquals(BookingStatus.CANCELED, lagging.findById(id).getStatus());
+
+        waitlist.destroy();
+        lifecycle.destroy();
+        lagging.destroy();
+    }
+
+    private static void runAll(List<Runnable> held) {
+        while (!held.isEmpty()) {
+            held.remove(0).run();
+        }
+    }
+
+    private void awaitApplied(long events) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (meterRegistry.get("booking.projection.lag").timer().count() < events) {
+            assertTrue(System.nanoTime() < deadline, "Events were not applied in time");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static EpochInterval interval(int fromHours, int toHours) {
+        return EpochInterval.of(base.plusHours(fromHours), base.plusHours(toHours));
+    }
+
+    private static Booking booking(int fromHours, int toHours) {
+        return Booking.builder()
+                .customerId(customerId)
+                .status(BookingStatus.ACTIVE)
+                .timeIntervalFrom(base.plusHours(fromHours))
+                .timeIntervalTo(base.plusHours(toHours))
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.interview.home.assignment.supercomputer.exceptions.TimeIntervalAlreadyBookedException;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.model.dto.NewBookingRequestDto;
+import tech.interview.home.assignment.supercomputer.storage.BookingStore;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the booking service at high parallelism against each service and storage implementation.
+ */
+abstract class BookingServiceConcurrencyTest {
+    private static final int PARALLELISM = 64;
+    private static final LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingStore store;
+
+    @Autowired
+    private BookingUtilization utilization;
+
+    @Test
+    @DisplayName("Parallel non-overlapping bookings: none lost, all ids distinct and persisted")
+    void parallelNonOverlappingBookings() {
+        int bookings = 500;
+
+        List<Long> ids = Flux.range(0, bookings)
+                .flatMap(i -> bookingService.addBooking(Mono.just(request("Customer" + (i % 7), base.plusMinutes(10L * i)))), PARALLELISM)
+                .collectList()
+                .block();
+
+        assertNotNull(ids);
+        Set<Long> distinctIds = new HashSet<>(ids);
+        assertAll(
+                () -> assertEquals(bookings, ids.size()),
+                () -> assertEquals(bookings, distinctIds.size()),
+                () -> assertFalse(distinctIds.contains(null))
+        );
+        ids.forEach(id -> assertNotNull(store.findById(id).block()));
+        assertEquals(bookings * 300L, utilization.bookedSeconds(base.toLocalDate(), base.toLocalDate().plusDays(3)));
+    }
+
+    @Test
+    @DisplayName("Parallel bookings of the same interval: exactly one wins")
+    void parallelConflictingBookings() {
+        int bookings = 200;
+
+        List<Optional<Long>> results = Flux.range(0, bookings)
+                .flatMap(i -> bookingService.addBooking(Mono.just(request("Conflict" + i, base.plusDays(10).plusMinutes(i % 3))))
+                        .map(Optional::of)
+                        .onErrorResume(TimeIntervalAlreadyBookedException.class, e -> Mono.just(Optional.empty())), PARALLELISM)
+                .collectList()
+                .block();
+
+        assertNotNull(results);
+        assertEquals(bookings, results.size());
+        assertEquals(1, results.stream().filter(Optional::isPresent).count());
+
+        List<Booking> persisted = Flux.range(0, bookings)
+                .flatMap(i -> store.findActiveByCustomerId("Conflict" + i))
+                .collectList()
+                .block();
+        assertNotNull(persisted);
+        assertEquals(1, persisted.size());
+        assertEquals(results.stream().flatMap(Optional::stream).findFirst().orElseThrow(), persisted.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Parallel cancellations of the same booking: exactly one succeeds")
+    void parallelCancellations() {
+        Long id = bookingService.addBooking(Mono.just(request("Customer1", base.plusDays(20)))).block();
+        assertEquals(300, utilization.bookedSeconds(base.toLocalDate().plusDays(20), base.toLocalDate().plusDays(20)));
+
+        long canceled = Flux.range(0, 50)
+                .flatMap(i -> bookingService.cancelBooking(id).onErrorResume(e -> Mono.just(false)), PARALLELISM)
+                .filter(Boolean::booleanValue)
+                .count()
+                .block();
+
+        assertEquals(1, canceled);
+        assertEquals(0, utilization.bookedSeconds(base.toLocalDate().plusDays(20), base.toLocalDate().plusDays(20)));
+    }
+
+    private static NewBookingRequestDto request(String customerId, LocalDateTime from) {
+        return new NewBookingRequestDto(customerId, new TimeInterval(from, from.plusMinutes(5)));
+    }
+}
@@ -0,0 +1,176 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import tech.interview.home.assignment.supercomputer.config.LifecycleProperties;
+import tech.interview.home.assignment.supercomputer.config.QuotaProperties;
+import tech.interview.home.assignment.supercomputer.config.RecurringProperties;
+import tech.interview.home.assignment.supercomputer.config.TransferProperties;
+import tech.interview.home.assignment.supercomputer.config.UtilizationProperties;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+import tech.interview.home.assignment.supercomputer.model.domain.Recurrence;
+import tech.interview.home.assignment.supercomputer.model.domain.RecurringRule;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.model.dto.BookingResponseDto;
+import tech.interview.home.assignment.supercomputer.model.dto.ImportResultDto;
+import tech.interview.home.assignment.supercomputer.model.mappers.BookingMapperImpl;
+import tech.interview.home.assignment.supercomputer.repositories.BookingRepository;
+import tech.interview.home.assignment.supercomputer.storage.InMemoryBookingStore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingTransferServiceTest {
+    private static final LocalDateTime base = LocalDateTime.now().minusDays(10).truncatedTo(ChronoUnit.HOURS);
+    private static final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private static final Function<String, BookingResponseDto> parser = line -> {
+        try {
+            return objectMapper.readValue(line, BookingResponseDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    };
+
+    private InMemoryBookingStore store;
+    private BookingStateVersion stateVersion;
+    private BookingTransferService service;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryBookingStore();
+        stateVersion = new BookingStateVersion();
+        service = service(Optional.empty());
+    }
+
+    private BookingTransferService service(Optional<RecurringBookings> recurring) {
+        return new BookingTransferService(store, new BookingMapperImpl(), stateVersion,
+                new BookingUtilization(new UtilizationProperties(LocalDate.of(2000, 1, 1), 36525, 3660)),
+                new CustomerQuota(new QuotaProperties(true, Duration.ofHours(720)), Clock.systemDefaultZone(), new SimpleMeterRegistry()), new BookingVersions(),
+                new BookingLifecycle(store, new BookingVersions(), new LifecycleProperties(Duration.ofHours(1), 64, 1000), Clock.systemDefaultZone(), new SimpleMeterRegistry()), new TransferProperties(2, 16),
+                recurring, Clock.systemDefaultZone());
+    }
+
+    @Test
+    @DisplayName("Import: Past bookings are imported with new ids and the status defaults to active")
+    void importBookings() {
+        StepVerifier
+                .create(service.importBookings(Flux.just(
+                        line(42, "Customer1", null, 0, 2),
+                        line(43, "Customer1", "CANCELED", 0, 2),
+                        "",
+                        line(44, "Customer2", "ACTIVE", 4, 5)), parser))
+                .expectNext(new ImportResultDto(3, 0, 0))
+                .verifyComplete();
+
+        List<Booking> imported = store.findAll().collectList().block();
+        assertEquals(3, imported.size());
+        assertEquals(2, imported.stream().filter(booking -> booking.getStatus() == BookingStatus.ACTIVE).count());
+        assertTrue(imported.stream().noneMatch(booking -> booking.getId() >= 42));
+        assertTrue(stateVersion.current() > 0);
+    }
+
+    @Test
+    @DisplayName("Import: Overlaps within a batch, across batches and with existing bookings are conflicts")
+    void importConflicts() {
+        store.insertIfAvailable(booking(20, 21)).block();
+
+        StepVerifier
+                .create(service.importBookings(Flux.just(
+                        line(0, "Customer1", null, 3, 5),
+                        line(0, "Customer1", null, 0, 4),
+                        line(0, "Customer1", null, 4, 6),
+                        line(0, "Customer1", null, 10, 11),
+                        line(0, "Customer1", null, 20, 22)), parser))
+                .expectNext(new ImportResultDto(2, 3, 0))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Import: Overlaps with occurrences of a recurring booking are conflicts")
+    void importOverlappingRecurring() {
+        BookingRepository repo = mock(BookingRepository.class);
+        when(repo.findMaxRuleId()).thenReturn(Mono.just(1L));
+        when(repo.findRules()).thenReturn(Flux.just(new RecurringRule(1, "Customer9", Recurrence.DAILY,
+                EpochInterval.of(base.plusHours(2), base.plusHours(3)), 5)));
+        RecurringBookings recurring = new RecurringBookings(store, repo, stateVersion, new BookingVersions(),
+                new RecurringProperties(true, 1000), Clock.systemDefaultZone());
+        recurring.load(List.of());
+        service = service(Optional.of(recurring));
+
+        StepVerifier
+                .create(service.importBookings(Flux.just(
+                        line(0, "Customer1", null, 2, 4),
+                        line(0, "Customer1", "CANCELED", 2, 3),
+                        line(0, "Customer1", null, 26, 27),
+                        line(0, "Customer1", null, 4, 6)), parser))
+                .expectNext(new ImportResultDto(2, 2, 0))
+                .verifyComplete();
+        assertEquals(0, store.findAll().filter(booking -> booking.getStatus().occupies())
+                .filter(booking -> booking.getTimeIntervalFrom().isBefore(base.plusHours(4))).count().block());
+    }
+
+    @Test
+    @DisplayName("Import: Lines that cannot be parsed or fail validation are counted as invalid")
+    void importInvalid() {
+        StepVerifier
+                .create(service.importBookings(Flux.just(
+                        "{not json",
+                        line(0, "Customer#1", null, 0, 2),
+                        line(0, "Customer1", null, 2, 1),
+                        line(0, "Customer1", "UNKNOWN", 0, 2),
+                        line(0, "Customer1", null, 0, 2)), parser))
+                .expectNext(new ImportResultDto(1, 0, 4))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Export: Streams every booking")
+    void exportBookings() {
+        Booking active = store.insertIfAvailable(booking(0, 1)).block();
+        Booking canceled = store.insertIfAvailable(booking(2, 3)).block();
+        store.compareAndSetStatus(canceled.getId(), BookingStatus.ACTIVE, BookingStatus.CANCELED).block();
+
+        StepVerifier
+                .create(service.exportBookings().map(BookingResponseDto::id).sort().collectList())
+                .expectNext(List.of(active.getId(), canceled.getId()))
+                .verifyComplete();
+    }
+
+    private static String line(long id, String customerId, String status, int fromHours, int toHours) {
+        try {
+            return objectMapper.writeValueAsString(new BookingResponseDto(id, customerId, status,
+                    new TimeInterval(base.plusHours(fromHours), base.plusHours(toHours))));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Booking booking(int fromHours, int toHours) {
+        return Booking.builder()
+                .customerId("Customer1")
+                .status(BookingStatus.ACTIVE)
+                .timeIntervalFrom(base.plusHours(fromHours))
+                .timeIntervalTo(base.plusHours(toHours))
+                .build();
+    }
+}
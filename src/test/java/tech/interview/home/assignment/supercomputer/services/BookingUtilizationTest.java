@@ -0,0 +1,118 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+import tech.interview.home.assignment.supercomputer.config.UtilizationProperties;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.dto.UtilizationDto;
+import tech.interview.home.assignment.supercomputer.storage.InMemoryBookingStore;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingUtilizationTest {
+    private static final LocalDate monday = LocalDate.of(2030, 1, 7);
+
+    private InMemoryBookingStore store;
+    private BookingUtilization utilization;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryBookingStore();
+        utilization = new BookingUtilization(new UtilizationProperties(LocalDate.of(2000, 1, 1), 36525, 10));
+    }
+
+    @Test
+    @DisplayName("Bookings spanning several days are split at midnight")
+    void bookingSpanningDays() {
+        utilization.add(booking(monday.atTime(22, 0), monday.plusDays(3).atTime(1, 30)));
+
+        assertAll(
+                () -> assertEquals(2 * 3600, utilization.bookedSeconds(monday, monday)),
+                () -> assertEquals(86_400, utilization.bookedSeconds(monday.plusDays(1), monday.plusDays(1))),
+                () -> assertEquals(86_400, utilization.bookedSeconds(monday.plusDays(2), monday.plusDays(2))),
+                () -> assertEquals(5400, utilization.bookedSeconds(monday.plusDays(3), monday.plusDays(3))),
+                () -> assertEquals(0, utilization.bookedSeconds(monday.plusDays(4), monday.plusDays(10))),
+                () -> assertEquals(2 * 3600 + 2 * 86_400 + 5400, utilization.bookedSeconds(monday.minusDays(5), monday.plusDays(5)))
+        );
+    }
+
+    @Test
+    @DisplayName("Removing a booking and adding one that is not active leave the counters unchanged")
+    void removeAndNotActive() {
+        Booking booking = booking(monday.atTime(10, 0), monday.atTime(12, 0));
+        Booking canceled = booking(monday.atTime(14, 0), monday.atTime(16, 0));
+        canceled.setStatus(BookingStatus.CANCELED);
+
+        utilization.add(booking);
+        utilization.add(canceled);
+        assertEquals(7200, utilization.bookedSeconds(monday, monday));
+
+        utilization.remove(booking);
+        assertEquals(0, utilization.bookedSeconds(monday, monday));
+    }
+
+    @Test
+    @DisplayName("Days outside the tracked range count as unbooked")
+    void outsideTrackedRange() {
+        utilization.add(booking(LocalDateTime.of(1999, 12, 31, 12, 0), LocalDateTime.of(2000, 1, 1, 12, 0)));
+
+        assertEquals(12 * 3600, utilization.bookedSeconds(LocalDate.of(1999, 1, 1), LocalDate.of(2000, 12, 31)));
+        assertEquals(0, utilization.bookedSeconds(LocalDate.of(2200, 1, 1), LocalDate.of(2200, 1, 2)));
+    }
+
+    @Test
+    @DisplayName("Load counts the active bookings")
+    void load() {
+        store.insertIfAvailable(booking(monday.atTime(10, 0), monday.atTime(11, 0))).block();
+        Booking canceled = store.insertIfAvailable(booking(monday.atTime(12, 0), monday.atTime(13, 0))).block();
+        store.compareAndSetStatus(canceled.getId(), BookingStatus.ACTIVE, BookingStatus.CANCELED).block();
+
+        utilization.load(store.findAll().collectList().block());
+
+        assertEquals(3600, utilization.bookedSeconds(monday, monday));
+    }
+
+    @Test
+    @DisplayName("Report: Days and ISO weeks")
+    void report() {
+        utilization.add(booking(monday.atTime(0, 0), monday.atTime(12, 0)));
+        utilization.add(booking(monday.plusDays(7).atTime(0, 0), monday.plusDays(14).atTime(0, 0)));
+
+        StepVerifier
+                .create(utilization.report(monday, monday.plusDays(1), BookingUtilization.Granularity.DAY))
+                .expectNext(new UtilizationDto(monday, monday, 43_200, 0.5))
+                .expectNext(new UtilizationDto(monday.plusDays(1), monday.plusDays(1), 0, 0.0))
+                .verifyComplete();
+        StepVerifier
+                .create(utilization.report(monday.plusDays(2), monday.plusDays(8), BookingUtilization.Granularity.WEEK))
+                .expectNext(new UtilizationDto(monday, monday.plusDays(6), 43_200, 43_200 / (7 * 86_400.0)))
+                .expectNext(new UtilizationDto(monday.plusDays(7), monday.plusDays(13), 7 * 86_400, 1.0))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Report: Reversed and too long ranges are rejected")
+    void reportIllegalRange() {
+        StepVerifier
+                .create(utilization.report(monday, monday.minusDays(1), BookingUtilization.Granularity.DAY))
+                .verifyError(IllegalArgumentException.class);
+        StepVerifier
+                .create(utilization.report(monday, monday.plusDays(10), BookingUtilization.Granularity.DAY))
+                .verifyError(IllegalArgumentException.class);
+    }
+
+    private static Booking booking(LocalDateTime from, LocalDateTime to) {
+        return Booking.builder()
+                .customerId("Customer1")
+                .status(BookingStatus.ACTIVE)
+                .timeIntervalFrom(from)
+                .timeIntervalTo(to)
+                .build();
+    }
+}
@@ -0,0 +1,245 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import tech.interview.home.assignment.supercomputer.config.LifecycleProperties;
+import tech.interview.home.assignment.supercomputer.config.QuotaProperties;
+import tech.interview.home.assignment.supercomputer.config.RecurringProperties;
+import tech.interview.home.assignment.supercomputer.config.UtilizationProperties;
+import tech.interview.home.assignment.supercomputer.config.WaitlistProperties;
+import tech.interview.home.assignment.supercomputer.exceptions.ResourceNotFoundException;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+import tech.interview.home.assignment.supercomputer.model.domain.Recurrence;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.model.domain.WaitlistStatus;
+import tech.interview.home.assignment.supercomputer.model.dto.RecurringRequestDto;
+import tech.interview.home.assignment.supercomputer.model.dto.WaitlistEntryDto;
+import tech.interview.home.assignment.supercomputer.model.dto.WaitlistRequestDto;
+import tech.interview.home.assignment.supercomputer.repositories.BookingRepository;
+import tech.interview.home.assignment.supercomputer.storage.InMemoryBookingStore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingWaitlistTest {
+    private static final LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS);
+
+    private MutableClock clock;
+    private InMemoryBookingStore store;
+    private CustomerQuota quota;
+    private BookingLifecycle lifecycle;
+    private BookingWaitlist waitlist;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(now.toInstant(ZoneOffset.UTC));
+        store = new InMemoryBookingStore();
+        quota = new CustomerQuota(new QuotaProperties(true, Duration.ofHours(720)), clock, new SimpleMeterRegistry());
+        BookingVersions versions = new BookingVersions();
+        lifecycle = new BookingLifecycle(store, versions, new LifecycleProperties(Duration.ofHours(1), 64, 1000), clock, new SimpleMeterRegistry());
+        waitlist = new BookingWaitlist(store, new BookingStateVersion(),
+                new BookingUtilization(new UtilizationProperties(LocalDate.of(2000, 1, 1), 36525, 3660)), quota, versions, lifecycle, Optional.empty(),
+                new WaitlistProperties(2, Duration.ofHours(1)), clock, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        waitlist.destroy();
+        lifecycle.destroy();
+    }
+
+    @Test
+    @DisplayName("A freed interval goes to the earliest registered requests that fit anywhere in their window, later ones get the rest")
+    void assignInRegistrationOrder() {
+        Booking canceled = insert("Customer1", 2, 6);
+        insert("Customer1", 10, 12);
+        WaitlistEntryDto adjacent = register("Customer2", 1, 3, 2);
+        WaitlistEntryDto first = register("Customer3", 2, 8, 2);
+        WaitlistEntryDto second = register("Customer4", 1, 7, 1);
+        WaitlistEntryDto elsewhere = register("Customer5", 10, 12, 1);
+        assertEquals(WaitlistStatus.WAITING, first.status());
+
+        store.compareAndSetStatus(canceled.getId(), BookingStatus.ACTIVE, BookingStatus.CANCELED).block();
+        waitlist.released(canceled);
+
+        assertEquals(WaitlistStatus.WAITING, waitlist.findById(elsewhere.id()).block().status());
+        assertBooked(adjacent, now.plusHours(1), now.plusHours(3));
+        assertBooked(first, now.plusHours(3).plusSeconds(1), now.plusHours(5).plusSeconds(1));
+        assertBooked(second, now.plusHours(5).plusSeconds(2), now.plusHours(6).plusSeconds(2));
+        assertEquals(2 * 3600, quota.bookedSeconds("Customer3"));
+    }
+
+    @Test
+    @DisplayName("A request whose window has room is booked on registration")
+    void assignOnRegistration() {
+        insert("Customer1", 1, 3);
+
+        WaitlistEntryDto entry = register("Customer2", 1, 6, 2);
+
+        assertEquals(WaitlistStatus.ASSIGNED, entry.status());
+        assertBooked(entry, now.plusHours(3).plusSeconds(1), now.plusHours(5).plusSeconds(1));
+    }
+
+    @Test
+    @DisplayName("The fit search skips the occurrences of recurring bookings")
+    void assignAroundRecurringBookings() {
+        BookingRepository repo = mock(BookingRepository.class);
+        when(repo.insertRule(any())).thenReturn(Mono.empty());
+        when(repo.findMaxRuleId()).thenReturn(Mono.just(0L));
+        when(repo.findRules()).thenReturn(Flux.empty());
+        BookingVersions versions = new BookingVersions();
+        RecurringBookings recurring = new RecurringBookings(store, repo, new BookingStateVersion(), versions,
+                new RecurringProperties(true, 1000), clock);
+        recurring.load(List.of());
+        recurring.add(Mono.just(new RecurringRequestDto("Customer1", Recurrence.DAILY,
+                new TimeInterval(now.plusHours(2), now.plusHours(3)), null, 2))).block();
+        waitlist.destroy();
+        waitlist = new BookingWaitlist(store, new BookingStateVersion(),
+                new BookingUtilization(new UtilizationProperties(LocalDate.of(2000, 1, 1), 36525, 3660)), quota, versions, lifecycle, Optional.of(recurring),
+                new WaitlistProperties(2, Duration.ofHours(1)), clock, new SimpleMeterRegistry());
+
+        WaitlistEntryDto entry = register("Customer2", 1, 6, 2);
+
+        assertBooked(entry, now.plusHours(3).plusSeconds(1), now.plusHours(5).plusSeconds(1));
+    }
+
+    @Test
+    @DisplayName("A request stays waiting if the freed interval was booked before the assignment")
+    void lostRace() {
+        insert("Customer1", 1, 5);
+        WaitlistEntryDto entry = register("Customer2", 1, 5, 1);
+
+        waitlist.assign(EpochInterval.of(now.plusHours(1), now.plusHours(5))).block();
+
+        assertEquals(WaitlistStatus.WAITING, waitlist.findById(entry.id()).block().status());
+        assertEquals(0, quota.bookedSeconds("Customer2"));
+    }
+
+    @Test
+    @DisplayName("Withdrawn requests are not assigned")
+    void withdraw() {
+        Booking canceled = insert("Customer1", 2, 3);
+        WaitlistEntryDto entry = register("Customer2", 1, 4, 1);
+
+        waitlist.withdraw(entry.id()).block();
+        store.compareAndSetStatus(canceled.getId(), BookingStatus.ACTIVE, BookingStatus.CANCELED).block();
+        waitlist.released(canceled);
+
+        StepVerifier.create(waitlist.findById(entry.id()))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+        StepVerifier.create(store.findActiveByCustomerId("Customer2"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Register: Duration must fit the window and customers may only wait for a few windows")
+    void registerValidation() {
+        StepVerifier.create(waitlist.register(Mono.just(new WaitlistRequestDto("Customer2",
+                        new TimeInterval(now.plusHours(1), now.plusHours(2)), 3601L))))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        StepVerifier.create(waitlist.register(Mono.just(new WaitlistRequestDto("Customer2", null, 60L))))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        insert("Customer1", 0, 10);
+        register("Customer2", 1, 2, 1);
+        register("Customer2", 3, 4, 1);
+        StepVerifier.create(waitlist.register(Mono.just(new WaitlistRequestDto("Customer2",
+                        new TimeInterval(now.plusHours(5), now.plusHours(6)), 60L))))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Sweep drops requests whose window can no longer fit the duration")
+    void sweep() {
+        insert("Customer1", 0, 6);
+        WaitlistEntryDto lapsing = register("Customer2", 1, 3, 2);
+        WaitlistEntryDto waiting = register("Customer3", 1, 5, 2);
+
+        clock.set(now.plusHours(2).toInstant(ZoneOffset.UTC));
+        waitlist.sweep();
+
+        StepVerifier.create(waitlist.findById(lapsing.id()))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+        assertEquals(WaitlistStatus.WAITING, waitlist.findById(waiting.id()).block().status());
+    }
+
+    private WaitlistEntryDto register(String customerId, int fromHours, int toHours, int durationHours) {
+        return waitlist.register(Mono.just(new WaitlistRequestDto(customerId,
+                new TimeInterval(now.plusHours(fromHours), now.plusHours(toHours)), durationHours * 3600L))).block();
+    }
+
+    private Booking insert(String customerId, int fromHours, int toHours) {
+        return store.insertIfAvailable(Booking.builder()
+                .customerId(customerId)
+                .status(BookingStatus.ACTIVE)
+                .timeIntervalFrom(now.plusHours(fromHours))
+                .timeIntervalTo(now.plusHours(toHours))
+                .build()).block();
+    }
+
+    private void assertBooked(WaitlistEntryDto entry, LocalDateTime from, LocalDateTime to) {
+        WaitlistEntryDto assigned = waitlist.findById(entry.id()).block();
+        assertEquals(WaitlistStatus.ASSIGNED, assigned.status());
+        StepVerifier.create(store.findById(assigned.bookingId()))
+                .consumeNextWith(booking -> assertAll(
+                        () -> assertEquals(entry.customerId(), booking.getCustomerId()),
+                        () -> assertEquals(BookingStatus.ACTIVE, booking.getStatus()),
+                        () -> assertEquals(from, booking.getTimeIntervalFrom()),
+                        () -> assertEquals(to, booking.getTimeIntervalTo())
+                ))
+                .verifyComplete();
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void set(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return this.instant;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import tech.interview.home.assignment.supercomputer.config.WarmupProperties;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.storage.InMemoryBookingStore;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingWarmupTest {
+    private static final LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+
+    @Test
+    @DisplayName("Warm-up loads live and archived bookings from all chunks, ordered by start")
+    void load() {
+        InMemoryBookingStore store = new InMemoryBookingStore();
+        // inserted out of order so that every chunk holds a run that has to be sorted
+        for (int i = 0; i < 20; i++) {
+            int hour = (i * 7) % 20 * 2;
+            store.insertIfAvailable(booking(hour)).block();
+        }
+        store.archive(base.plusHours(3), base, 100).block();
+        List<Booking> loaded = new ArrayList<>();
+        BookingWarmup warmup = new BookingWarmup(store, List.of(loaded::addAll), new WarmupProperties(3, 2));
+
+        warmup.load();
+
+        assertEquals(20, loaded.size());
+        for (int i = 1; i < loaded.size(); i++) {
+            assertTrue(loaded.get(i - 1).getTimeIntervalFrom().isBefore(loaded.get(i).getTimeIntervalFrom()));
+        }
+    }
+
+    @Test
+    @DisplayName("Warm-up is out of service until loaded and then reports the load rate")
+    void health() {
+        InMemoryBookingStore store = new InMemoryBookingStore();
+        store.insertIfAvailable(booking(0)).block();
+        BookingWarmup warmup = new BookingWarmup(store, List.of(), new WarmupProperties(10, 2));
+
+        assertEquals(Status.OUT_OF_SERVICE, warmup.health().getStatus());
+
+        warmup.load();
+        Health health = warmup.health();
+
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(1L, health.getDetails().get("bookings"));
+        assertEquals(1, health.getDetails().get("chunks"));
+        assertTrue(health.getDetails().containsKey("bookingsPerSecond"));
+    }
+
+    @Test
+    @DisplayName("Warm-up loads once as a lifecycle phase before the web server starts")
+    void lifecycle() {
+        InMemoryBookingStore store = new InMemoryBookingStore();
+        store.insertIfAvailable(booking(0)).block();
+        List<Booking> loaded = new ArrayList<>();
+        BookingWarmup warmup = new BookingWarmup(store, List.of(loaded::addAll), new WarmupProperties(10, 2));
+
+        assertFalse(warmup.isRunning());
+        warmup.start();
+        warmup.stop();
+        warmup.start();
+
+        assertTrue(warmup.isRunning());
+        assertEquals(1, loaded.size());
+        assertTrue(warmup.getPhase() < Integer.MAX_VALUE - 2048);
+    }
+
+    @Test
+    @DisplayName("Warm-up of an empty store")
+    void empty() {
+        List<Booking> loaded = new ArrayList<>();
+        BookingWarmup warmup = new BookingWarmup(new InMemoryBookingStore(), List.of(loaded::addAll), new WarmupProperties(10, 2));
+
+        warmup.load();
+
+        assertTrue(loaded.isEmpty());
+        assertEquals(Status.UP, warmup.health().getStatus());
+    }
+
+    private static Booking booking(int hour) {
+        return Booking.builder()
+                .customerId("Customer1")
+                .status(BookingStatus.ACTIVE)
+                .timeIntervalFrom(base.plusHours(hour))
+                .timeIntervalTo(base.plusHours(hour).plusMinutes(30))
+                .build();
+    }
+}
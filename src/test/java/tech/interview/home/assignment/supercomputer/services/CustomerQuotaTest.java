@@ -0,0 +1,153 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import tech.interview.home.assignment.supercomputer.config.QuotaProperties;
+import tech.interview.home.assignment.supercomputer.exceptions.QuotaExceededException;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.storage.InMemoryBookingStore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerQuotaTest {
+    private static final LocalDateTime now = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final String customerId = "Customer1";
+
+    private MutableClock clock;
+    private InMemoryBookingStore store;
+    private SimpleMeterRegistry meterRegistry;
+    private CustomerQuota quota;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(now.toInstant(ZoneOffset.UTC));
+        store = new InMemoryBookingStore();
+        meterRegistry = new SimpleMeterRegistry();
+        quota = new CustomerQuota(new QuotaProperties(true, Duration.ofHours(10)), clock, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Reservations up to the limit succeed, the next one is rejected")
+    void reserveUpToLimit() {
+        quota.reserve(booking(1, 7)).commit(1);
+        quota.reserve(booking(8, 12)).commit(2);
+
+        assertThrows(QuotaExceededException.class, () -> quota.reserve(booking(13, 14)));
+        assertEquals(10 * 3600, quota.bookedSeconds(customerId));
+        assertEquals(0, quota.bookedSeconds("Customer2"));
+        assertEquals(1, meterRegistry.counter("booking.quota.rejections").count());
+    }
+
+    @Test
+    @DisplayName("Released reservations and canceled bookings give the time back")
+    void releaseAndRemove() {
+        CustomerQuota.Reservation released = quota.reserve(booking(1, 6));
+        released.release();
+        released.commit(1);
+        assertEquals(0, quota.bookedSeconds(customerId));
+
+        quota.reserve(booking(1, 6)).commit(2);
+        quota.remove(booking(1, 6).toBuilder().id(2L).build());
+        quota.remove(booking(1, 6).toBuilder().id(2L).build());
+        assertEquals(0, quota.bookedSeconds(customerId));
+    }
+
+    @Test
+    @DisplayName("Bookings stop counting once they have ended")
+    void decay() {
+        quota.reserve(booking(1, 2)).commit(1);
+        quota.reserve(booking(3, 5)).commit(2);
+        quota.remove(booking(3, 5).toBuilder().id(2L).build());
+        quota.reserve(booking(6, 9)).commit(3);
+        assertEquals(4 * 3600, quota.bookedSeconds(customerId));
+
+        clock.set(now.plusHours(5).toInstant(ZoneOffset.UTC));
+        assertEquals(3 * 3600, quota.bookedSeconds(customerId));
+
+        clock.set(now.plusHours(9).toInstant(ZoneOffset.UTC));
+        assertEquals(0, quota.bookedSeconds(customerId));
+    }
+
+    @Test
+    @DisplayName("Load counts active bookings that have not ended")
+    void load() {
+        store.insertIfAvailable(booking(-4, -2)).block();
+        store.insertIfAvailable(booking(-1, 2)).block();
+        Booking canceled = store.insertIfAvailable(booking(3, 4)).block();
+        store.compareAndSetStatus(canceled.getId(), BookingStatus.ACTIVE, BookingStatus.CANCELED).block();
+
+        quota.load(store.findAll().collectList().block());
+
+        assertEquals(3 * 3600, quota.bookedSeconds(customerId));
+    }
+
+    @Test
+    @DisplayName("Parallel reservations never exceed the limit")
+    void parallelReservations() {
+        long accepted = Flux.range(0, 100)
+                .parallel(8)
+                .runOn(Schedulers.parallel())
+                .map(i -> {
+                    try {
+                        quota.reserve(booking(2 * i, 2 * i + 1)).commit(i);
+                        return 1;
+                    } catch (QuotaExceededException e) {
+                        return 0;
+                    }
+                })
+                .sequential()
+                .reduce(0, Integer::sum)
+                .block();
+
+        assertEquals(10, accepted);
+        assertEquals(10 * 3600, quota.bookedSeconds(customerId));
+    }
+
+    private static Booking booking(int fromHours, int toHours) {
+        return Booking.builder()
+                .customerId(customerId)
+                .status(BookingStatus.ACTIVE)
+                .timeIntervalFrom(now.plusHours(fromHours))
+                .timeIntervalTo(now.plusHours(toHours))
+                .build();
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void set(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return this.instant;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "supercomputer.storage.type=in-memory")
+class InMemoryStoreBookingServiceConcurrencyTest extends BookingServiceConcurrencyTest {
+}
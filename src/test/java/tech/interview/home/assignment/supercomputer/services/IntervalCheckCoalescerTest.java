@@ -0,0 +1,101 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalCheckCoalescerTest {
+    private static final EpochInterval interval = EpochInterval.of(LocalDateTime.now().plusHours(2), LocalDateTime.now().plusHours(4));
+
+    private BookingStateVersion stateVersion;
+    private IntervalCheckCoalescer coalescer;
+    private AtomicInteger lookups;
+
+    @BeforeEach
+    void setUp() {
+        stateVersion = new BookingStateVersion();
+        coalescer = new IntervalCheckCoalescer(stateVersion, new SimpleMeterRegistry());
+        lookups = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Concurrent identical checks share one lookup")
+    void concurrentChecksShareLookup() {
+        Sinks.One<Boolean> result = Sinks.one();
+        var first = coalescer.isTimeIntervalAlreadyBooked(interval, () -> lookup(result.asMono()));
+        var second = coalescer.isTimeIntervalAlreadyBooked(interval, () -> lookup(result.asMono()));
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> result.tryEmitValue(true))
+                .consumeNextWith(res -> assertAll(
+                        () -> assertTrue(res.getT1()),
+                        () -> assertTrue(res.getT2())
+                ))
+                .verifyComplete();
+
+        assertEquals(1, lookups.get());
+        assertEquals(0.5, coalescer.coalescingRatio());
+    }
+
+    @Test
+    @DisplayName("Different intervals are not coalesced")
+    void differentIntervalsAreNotCoalesced() {
+        Sinks.One<Boolean> result = Sinks.one();
+        var first = coalescer.isTimeIntervalAlreadyBooked(interval, () -> lookup(result.asMono()));
+        var second = coalescer.isTimeIntervalAlreadyBooked(new EpochInterval(interval.from(), interval.to() + 3_600), () -> lookup(result.asMono()));
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> result.tryEmitValue(false))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    @DisplayName("Checks issued after a state change do not join older lookups")
+    void stateChangeInvalidatesInFlightLookup() {
+        Sinks.One<Boolean> stale = Sinks.one();
+        var first = coalescer.isTimeIntervalAlreadyBooked(interval, () -> lookup(stale.asMono()));
+        StepVerifier.create(first)
+                .then(() -> {
+                    stateVersion.increment();
+                    StepVerifier.create(coalescer.isTimeIntervalAlreadyBooked(interval, () -> lookup(Mono.just(true))))
+                            .expectNext(true)
+                            .verifyComplete();
+                    stale.tryEmitValue(false);
+                })
+                .expectNext(false)
+                .verifyComplete();
+
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    @DisplayName("Completed lookups are not reused")
+    void completedLookupIsNotReused() {
+        StepVerifier.create(coalescer.isTimeIntervalAlreadyBooked(interval, () -> lookup(Mono.just(false))))
+                .expectNext(false)
+                .verifyComplete();
+        StepVerifier.create(coalescer.isTimeIntervalAlreadyBooked(interval, () -> lookup(Mono.just(true))))
+                .expectNext(true)
+                .verifyComplete();
+
+        assertEquals(2, lookups.get());
+    }
+
+    private Mono<Boolean> lookup(Mono<Boolean> result) {
+        lookups.incrementAndGet();
+        return result;
+    }
+}
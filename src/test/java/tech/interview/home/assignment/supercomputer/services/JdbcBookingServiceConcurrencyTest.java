@@ -0,0 +1,11 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+        "supercomputer.service.type=jdbc",
+        "supercomputer.jdbc.url=jdbc:h2:mem:booking-concurrency-jdbc;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.url=r2dbc:h2:mem:///booking-concurrency-jdbc;DB_CLOSE_DELAY=-1"
+})
+class JdbcBookingServiceConcurrencyTest extends BookingServiceConcurrencyTest {
+}
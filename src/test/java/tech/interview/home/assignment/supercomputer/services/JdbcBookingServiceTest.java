@@ -0,0 +1,179 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.NestedExceptionUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import tech.interview.home.assignment.supercomputer.SupercomputerApplication;
+import tech.interview.home.assignment.supercomputer.exceptions.BookingAlreadyCanceledException;
+import tech.interview.home.assignment.supercomputer.exceptions.ResourceNotFoundException;
+import tech.interview.home.assignment.supercomputer.exceptions.TimeIntervalAlreadyBookedException;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.Recurrence;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.model.dto.CheckBookingRequestDto;
+import tech.interview.home.assignment.supercomputer.model.dto.NewBookingRequestDto;
+import tech.interview.home.assignment.supercomputer.model.dto.RecurringRequestDto;
+import tech.interview.home.assignment.supercomputer.storage.BookingEvent;
+import tech.interview.home.assignment.supercomputer.storage.BookingStore;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "supercomputer.service.type=jdbc",
+        "supercomputer.jdbc.url=jdbc:h2:mem:jdbc-booking-service;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.url=r2dbc:h2:mem:///jdbc-booking-service;DB_CLOSE_DELAY=-1"
+})
+class JdbcBookingServiceTest {
+    private static final LocalDateTime base = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.DAYS);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingStore store;
+
+    @Autowired
+    private RecurringBookings recurring;
+
+    @Test
+    @DisplayName("JDBC implementation is selected by property")
+    void selected() {
+        assertInstanceOf(JdbcBookingService.class, bookingService);
+    }
+
+    @Test
+    @DisplayName("Add, find, check and cancel booking")
+    void lifecycle() {
+        TimeInterval interval = new TimeInterval(base.plusHours(1), base.plusHours(3));
+        Long id = bookingService.addBooking(Mono.just(new NewBookingRequestDto("Lifecycle", interval))).block();
+
+        StepVerifier
+                .create(bookingService.findById(id))
+                .consumeNextWith(found -> assertAll(
+                        () -> assertEquals("Lifecycle", found.customerId()),
+                        () -> assertEquals("ACTIVE", found.status()),
+                        () -> assertEquals(interval, found.timeInterval())
+                ))
+                .verifyComplete();
+        StepVerifier
+                .create(bookingService.findForCustomer(Mono.just("Lifecycle")))
+                .expectNextCount(1)
+                .verifyComplete();
+        StepVerifier
+                .create(bookingService.checkTimeInterval(Mono.just(new CheckBookingRequestDto(interval))))
+                .consumeNextWith(res -> assertFalse(res.available()))
+                .verifyComplete();
+        StepVerifier
+                .create(bookingService.addBooking(Mono.just(new NewBookingRequestDto("Other", interval))))
+                .expectError(TimeIntervalAlreadyBookedException.class)
+                .verify();
+
+        StepVerifier
+                .create(bookingService.cancelBooking(id))
+                .expectNext(true)
+                .verifyComplete();
+        StepVerifier
+                .create(bookingService.cancelBooking(id))
+                .expectError(BookingAlreadyCanceledException.class)
+                .verify();
+        StepVerifier
+                .create(bookingService.checkTimeInterval(Mono.just(new CheckBookingRequestDto(interval))))
+                .consumeNextWith(res -> assertTrue(res.available()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Writes are published through the store, which checks against them under the same lock")
+    void sharedStore() {
+        List<BookingEvent> events = new CopyOnWriteArrayList<>();
+        store.addListener(events::add);
+        TimeInterval interval = new TimeInterval(base.plusHours(5), base.plusHours(6));
+        Long id = bookingService.addBooking(Mono.just(new NewBookingRequestDto("Shared", interval))).block();
+
+        StepVerifier
+                .create(store.insertIfAvailable(Booking.builder()
+                        .customerId("Holder")
+                        .status(BookingStatus.HELD)
+                        .timeIntervalFrom(interval.from())
+                        .timeIntervalTo(interval.to())
+                        .build()))
+                .expectError(TimeIntervalAlreadyBookedException.class)
+                .verify();
+        bookingService.cancelBooking(id).block();
+
+        assertEquals(List.of(BookingStatus.ACTIVE, BookingStatus.CANCELED), events.stream()
+                .filter(event -> event.bookingId() == id)
+                .map(BookingEvent::status)
+                .toList());
+    }
+
+    @Test
+    @DisplayName("Bookings overlapping an occurrence of a recurring booking are rejected")
+    void recurringOccurrence() {
+        TimeInterval first = new TimeInterval(base.plusDays(1).plusHours(8), base.plusDays(1).plusHours(9));
+        recurring.add(Mono.just(new RecurringRequestDto("Recurring", Recurrence.DAILY, first, null, 3))).block();
+        TimeInterval second = new TimeInterval(base.plusDays(2).plusHours(8).plusMinutes(30), base.plusDays(2).plusHours(10));
+
+        StepVerifier
+                .create(bookingService.checkTimeInterval(Mono.just(new CheckBookingRequestDto(second))))
+                .consumeNextWith(res -> assertFalse(res.available()))
+                .verifyComplete();
+        StepVerifier
+                .create(bookingService.addBooking(Mono.just(new NewBookingRequestDto("Other", second))))
+                .expectErrorSatisfies(e -> assertEquals(
+                        List.of(new TimeInterval(base.plusDays(2).plusHours(8), base.plusDays(2).plusHours(9))),
+                        ((TimeIntervalAlreadyBookedException) e).getConflicting()))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("JDBC implementation refuses to start with another store than R2DBC")
+    void requiresR2dbcStore() {
+        SpringApplication application = new SpringApplication(SupercomputerApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+
+        Exception e = assertThrows(Exception.class, () -> application.run(
+                "--supercomputer.service.type=jdbc",
+                "--supercomputer.storage.type=in-memory",
+                "--supercomputer.jdbc.url=jdbc:h2:mem:jdbc-booking-service-in-memory;DB_CLOSE_DELAY=-1",
+                "--spring.r2dbc.url=r2dbc:h2:mem:///jdbc-booking-service-in-memory;DB_CLOSE_DELAY=-1"));
+
+        assertTrue(NestedExceptionUtils.getMostSpecificCause(e).getMessage().contains("supercomputer.storage.type=r2dbc"));
+    }
+
+    @Test
+    @DisplayName("Find and cancel non-existent booking")
+    void nonExistent() {
+        StepVerifier
+                .create(bookingService.findById(Long.MAX_VALUE))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+        StepVerifier
+                .create(bookingService.cancelBooking(Long.MAX_VALUE))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Add booking: Invalid request")
+    void invalidRequest() {
+        TimeInterval past = new TimeInterval(LocalDateTime.now().minusHours(3), LocalDateTime.now().minusHours(1));
+
+        StepVerifier
+                .create(bookingService.addBooking(Mono.just(new NewBookingRequestDto("Customer1", past))))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+}
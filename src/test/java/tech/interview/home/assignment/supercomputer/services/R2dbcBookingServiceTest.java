@@ -1,43 +1,60 @@
 package tech.interview.home.assignment.supercomputer.services;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
+import tech.interview.home.assignment.supercomputer.config.LifecycleProperties;
+import tech.interview.home.assignment.supercomputer.config.ProjectionProperties;
+import tech.interview.home.assignment.supercomputer.config.QuotaProperties;
+import tech.interview.home.assignment.supercomputer.config.UtilizationProperties;
 import tech.interview.home.assignment.supercomputer.exceptions.BookingAlreadyCanceledException;
+import tech.interview.home.assignment.supercomputer.exceptions.InvalidRequestException;
+import tech.interview.home.assignment.supercomputer.exceptions.QuotaExceededException;
 import tech.interview.home.assignment.supercomputer.exceptions.ResourceNotFoundException;
 import tech.interview.home.assignment.supercomputer.exceptions.TimeIntervalAlreadyBookedException;
 import tech.interview.home.assignment.supercomputer.model.domain.Booking;
 import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
 import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
 import tech.interview.home.assignment.supercomputer.model.dto.BookingResponseDto;
 import tech.interview.home.assignment.supercomputer.model.dto.CheckBookingRequestDto;
 import tech.interview.home.assignment.supercomputer.model.dto.NewBookingRequestDto;
 import tech.interview.home.assignment.supercomputer.model.mappers.BookingMapper;
-import tech.interview.home.assignment.supercomputer.repositories.BookingRepository;
+import tech.interview.home.assignment.supercomputer.storage.BookingStore;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.time.ZoneId;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class R2dbcBookingServiceTest {
     @Mock
-    private BookingRepository repo;
+    private BookingStore store;
 
     @Mock
     private BookingMapper mapper;
 
-    @InjectMocks
+    @Mock
+    private BookingWaitlist waitlist;
+
     private R2dbcBookingService bookingService;
 
     private static Booking entity;
@@ -75,10 +92,27 @@ class R2dbcBookingServiceTest {
         responseDto2 = new BookingResponseDto(id2, customerId2, status2.name(), timeInterval2);
     }
 
+    @BeforeEach
+    void setUpService() {
+        bookingService = bookingService(Clock.systemDefaultZone());
+    }
+
+    private R2dbcBookingService bookingService(Clock clock) {
+        return bookingService(clock, Optional.empty());
+    }
+
+    private R2dbcBookingService bookingService(Clock clock, Optional<BookingProjection> projection) {
+        BookingStateVersion stateVersion = new BookingStateVersion();
+        return new R2dbcBookingService(store, mapper, stateVersion, new BookingUtilization(new UtilizationProperties(LocalDate.of(2000, 1, 1), 36525, 3660)),
+                new CustomerQuota(new QuotaProperties(true, Duration.ofHours(720)), clock, new SimpleMeterRegistry()), new BookingVersions(),
+                new BookingLifecycle(store, new BookingVersions(), new LifecycleProperties(Duration.ofHours(1), 64, 1000), clock, new SimpleMeterRegistry()), waitlist,
+                new IntervalCheckCoalescer(stateVersion, new SimpleMeterRegistry()), Optional.empty(), projection, Optional.empty(), clock);
+    }
+
     @Test
     @DisplayName("Find by id: Happy case")
     void findById() {
-        when(repo.findById(id)).thenReturn(Mono.just(entity));
+        when(store.findById(id)).thenReturn(Mono.just(entity));
         when(mapper.entityToResponseDto(entity)).thenReturn(responseDto);
         var find = bookingService.findById(id);
 
@@ -100,7 +134,7 @@ class R2dbcBookingServiceTest {
     @Test
     @DisplayName("Find by id: Resource not found")
     void findByIdEmpty() {
-        when(repo.findById(id)).thenReturn(Mono.empty());
+        when(store.findById(id)).thenReturn(Mono.empty());
         var find = bookingService.findById(id);
 
         StepVerifier
@@ -112,7 +146,7 @@ class R2dbcBookingServiceTest {
     @Test
     @DisplayName("Find for customer: Empty")
     void findForCustomerEmpty() {
-        when(repo.findByCustomerId(any())).thenReturn(Flux.empty());
+        when(store.findActiveByCustomerId(customerId)).thenReturn(Flux.empty());
         var find = bookingService.findForCustomer(Mono.just(customerId));
 
         StepVerifier
@@ -123,7 +157,7 @@ class R2dbcBookingServiceTest {
     @Test
     @DisplayName("Find for customer: One item")
     void findForCustomerOneItem() {
-        when(repo.findByCustomerId(any())).thenReturn(Flux.just(entity));
+        when(store.findActiveByCustomerId(customerId)).thenReturn(Flux.just(entity));
         when(mapper.entityToResponseDto(entity)).thenReturn(responseDto);
         var find = bookingService.findForCustomer(Mono.just(customerId));
 
@@ -145,7 +179,7 @@ class R2dbcBookingServiceTest {
     @Test
     @DisplayName("Find for customer: Multiple items")
     void findForCustomerMultipleItems() {
-        when(repo.findByCustomerId(any())).thenReturn(Flux.just(entity, entity2));
+        when(store.findActiveByCustomerId(customerId)).thenReturn(Flux.just(entity, entity2));
         when(mapper.entityToResponseDto(entity)).thenReturn(responseDto);
         when(mapper.entityToResponseDto(entity2)).thenReturn(responseDto2);
         var find = bookingService.findForCustomer(Mono.just(customerId));
@@ -175,10 +209,34 @@ class R2dbcBookingServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    @DisplayName("Reads are served from a fresh projection without touching the store")
+    void readsFromProjection() {
+        BookingProjection projection = new BookingProjection(store, new ProjectionProperties(true, Duration.ofSeconds(1)), new SimpleMeterRegistry());
+        projection.load(List.of(entity, entity2));
+        bookingService = bookingService(Clock.systemDefaultZone(), Optional.of(projection));
+        when(mapper.entityToResponseDto(entity)).thenReturn(responseDto);
+        when(mapper.entityToResponseDto(entity2)).thenReturn(responseDto2);
+
+        StepVerifier
+                .create(bookingService.findForCustomer(Mono.just(customerId)))
+                .expectNext(responseDto, responseDto2)
+                .verifyComplete();
+        StepVerifier
+                .create(bookingService.findById(id2))
+                .expectNext(responseDto2)
+                .verifyComplete();
+        StepVerifier
+                .create(bookingService.checkTimeInterval(Mono.just(new CheckBookingRequestDto(timeInterval))))
+                .consumeNextWith(response -> assertFalse(response.available()))
+                .verifyComplete();
+        projection.destroy();
+    }
+
     @Test
     @DisplayName("Check time interval: Not booked")
     void checkTimeInterval() {
-        when(repo.isTimeIntervalAlreadyBooked(timeInterval.from(), timeInterval.to())).thenReturn(Mono.just(false));
+        when(store.isTimeIntervalAlreadyBooked(EpochInterval.of(timeInterval.from(), timeInterval.to()))).thenReturn(Mono.just(false));
         var requestDto = new CheckBookingRequestDto(timeInterval);
         var checkTimeInterval = bookingService.checkTimeInterval(Mono.just(requestDto));
 
@@ -197,7 +255,7 @@ class R2dbcBookingServiceTest {
     @Test
     @DisplayName("Check time interval: Already booked")
     void checkTimeIntervalAlreadyBooked() {
-        when(repo.isTimeIntervalAlreadyBooked(timeInterval.from(), timeInterval.to())).thenReturn(Mono.just(true));
+        when(store.isTimeIntervalAlreadyBooked(EpochInterval.of(timeInterval.from(), timeInterval.to()))).thenReturn(Mono.just(true));
         var requestDto = new CheckBookingRequestDto(timeInterval);
         var checkTimeInterval = bookingService.checkTimeInterval(Mono.just(requestDto));
 
@@ -224,9 +282,7 @@ class R2dbcBookingServiceTest {
                 .build();
 
         when(mapper.requestDtoToEntity(requestDto)).thenReturn(mappedEntity);
-        when(repo.isTimeIntervalAlreadyBooked(mappedEntity.getTimeIntervalFrom(), mappedEntity.getTimeIntervalTo())).thenReturn(Mono.just(false));
-
-        when(repo.save(mappedEntity)).thenAnswer(x -> {
+        when(store.insertIfAvailable(mappedEntity)).thenAnswer(x -> {
             Booking booking = (Booking)x.getArguments()[0];
             booking.setId(id);
             return Mono.just(booking);
@@ -243,6 +299,113 @@ class R2dbcBookingServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    @DisplayName("Add booking: Times are stored at the second precision of the conflict checks")
+    void addBookingTruncatesToSeconds() {
+        TimeInterval subSecond = new TimeInterval(timeInterval.from().withNano(250_000_000), timeInterval.to().withNano(750_000_000));
+        NewBookingRequestDto requestDto = new NewBookingRequestDto(customerId, subSecond);
+        Booking mappedEntity = Booking.builder()
+                .customerId(customerId)
+                .timeIntervalFrom(subSecond.from())
+                .timeIntervalTo(subSecond.to())
+                .build();
+
+        when(mapper.requestDtoToEntity(requestDto)).thenReturn(mappedEntity);
+        when(store.insertIfAvailable(mappedEntity)).thenAnswer(x -> {
+            Booking booking = (Booking)x.getArguments()[0];
+            booking.setId(id);
+            return Mono.just(booking);
+        });
+
+        StepVerifier
+                .create(bookingService.addBooking(Mono.just(requestDto)))
+                .expectNext(id)
+                .verifyComplete();
+        assertEquals(subSecond.from().withNano(0), mappedEntity.getTimeIntervalFrom());
+        assertEquals(subSecond.to().withNano(0), mappedEntity.getTimeIntervalTo());
+    }
+
+    @Test
+    @DisplayName("Add booking: Conflict keeps only alternatives that have not started")
+    void addBookingConflictAlternatives() {
+        NewBookingRequestDto requestDto = new NewBookingRequestDto(customerId, timeInterval);
+        Booking mappedEntity = Booking.builder()
+                .customerId(customerId)
+                .timeIntervalFrom(timeInterval.from())
+                .timeIntervalTo(timeInterval.to())
+                .build();
+        TimeInterval conflicting = new TimeInterval(timeInterval.from().minusHours(1), timeInterval.to());
+        TimeInterval later = new TimeInterval(timeInterval.to().plusSeconds(1), timeInterval.to().plusHours(1).plusSeconds(1));
+
+        when(mapper.requestDtoToEntity(requestDto)).thenReturn(mappedEntity);
+        when(store.insertIfAvailable(mappedEntity)).thenReturn(Mono.error(new TimeIntervalAlreadyBookedException(timeInterval,
+                List.of(conflicting), new TimeInterval(timeInterval.from().minusHours(3), timeInterval.from().minusHours(2)), later)));
+
+        StepVerifier
+                .create(bookingService.addBooking(Mono.just(requestDto)))
+                .consumeErrorWith(error -> {
+                    TimeIntervalAlreadyBookedException conflict = assertInstanceOf(TimeIntervalAlreadyBookedException.class, error);
+                    assertAll(
+                            () -> assertEquals(List.of(conflicting), conflict.getConflicting()),
+                            () -> assertNull(conflict.getEarlierAlternative()),
+                            () -> assertEquals(later, conflict.getLaterAlternative())
+                    );
+                })
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Add booking: Canceled caller keeps the quota of a booking that is persisted afterwards")
+    void addBookingCanceledBeforeCommit() {
+        NewBookingRequestDto requestDto = new NewBookingRequestDto(customerId, timeInterval);
+        Booking mappedEntity = Booking.builder()
+                .customerId(customerId)
+                .timeIntervalFrom(timeInterval.from())
+                .timeIntervalTo(timeInterval.to())
+                .build();
+        TimeInterval longInterval = new TimeInterval(timeInterval2.from(), timeInterval2.from().plusHours(720));
+        NewBookingRequestDto longRequestDto = new NewBookingRequestDto(customerId, longInterval);
+        Sinks.One<Booking> committed = Sinks.one();
+
+        when(mapper.requestDtoToEntity(requestDto)).thenReturn(mappedEntity);
+        when(mapper.requestDtoToEntity(longRequestDto)).thenReturn(Booking.builder()
+                .customerId(customerId)
+                .timeIntervalFrom(longInterval.from())
+                .timeIntervalTo(longInterval.to())
+                .build());
+        when(store.insertIfAvailable(mappedEntity)).thenReturn(committed.asMono());
+
+        bookingService.addBooking(Mono.just(requestDto)).subscribe().dispose();
+        mappedEntity.setId(id);
+        committed.tryEmitValue(mappedEntity);
+
+        StepVerifier
+                .create(bookingService.addBooking(Mono.just(longRequestDto)))
+                .expectError(QuotaExceededException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Add booking: Over the booked time quota")
+    void addBookingOverQuota() {
+        TimeInterval longInterval = new TimeInterval(timeInterval.from(), timeInterval.from().plusHours(721));
+        NewBookingRequestDto requestDto = new NewBookingRequestDto(customerId, longInterval);
+        Booking mappedEntity = Booking.builder()
+                .customerId(customerId)
+                .timeIntervalFrom(longInterval.from())
+                .timeIntervalTo(longInterval.to())
+                .build();
+
+        when(mapper.requestDtoToEntity(requestDto)).thenReturn(mappedEntity);
+
+        var addBooking = bookingService.addBooking(Mono.just(requestDto));
+
+        StepVerifier
+                .create(addBooking)
+                .expectError(QuotaExceededException.class)
+                .verify();
+    }
+
     @Test
     @DisplayName("Add booking: Missing time interval from")
     void addBookingMissingTimeIntervalFrom() {
@@ -384,6 +547,27 @@ class R2dbcBookingServiceTest {
                 .verify();
     }
 
+    @Test
+    @DisplayName("Add booking: Time interval in the past according to the injected clock")
+    void addBookingTimeIntervalInThePastOfClock() {
+        NewBookingRequestDto requestDto = new NewBookingRequestDto(customerId, timeInterval);
+        Booking mappedEntity = Booking.builder()
+                .customerId(customerId)
+                .timeIntervalFrom(timeInterval.from())
+                .timeIntervalTo(timeInterval.to())
+                .build();
+        Clock tomorrow = Clock.fixed(timeInterval.from().plusDays(1).atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+
+        when(mapper.requestDtoToEntity(requestDto)).thenReturn(mappedEntity);
+
+        var addBooking = bookingService(tomorrow).addBooking(Mono.just(requestDto));
+
+        StepVerifier
+                .create(addBooking)
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
     @Test
     @DisplayName("Add booking: Time interval from is after time interval to")
     void addBookingMissingTimeIntervalFromAfterTo() {
@@ -416,7 +600,7 @@ class R2dbcBookingServiceTest {
                 .build();
 
         when(mapper.requestDtoToEntity(requestDto)).thenReturn(mappedEntity);
-        when(repo.isTimeIntervalAlreadyBooked(mappedEntity.getTimeIntervalFrom(), mappedEntity.getTimeIntervalTo())).thenReturn(Mono.just(true));
+        when(store.insertIfAvailable(mappedEntity)).thenReturn(Mono.error(new TimeIntervalAlreadyBookedException(timeInterval)));
 
         var addBooking = bookingService.addBooking(Mono.just(requestDto));
 
@@ -429,8 +613,7 @@ class R2dbcBookingServiceTest {
     @Test
     @DisplayName("Cancel booking: Happy case")
     void cancelBooking() {
-        when(repo.findById(id)).thenReturn(Mono.just(entity));
-        when(repo.save(entity)).thenReturn(Mono.just(entity));
+        when(store.compareAndSetStatus(id, BookingStatus.ACTIVE, BookingStatus.CANCELED)).thenReturn(Mono.just(entity));
 
         var cancel = bookingService.cancelBooking(id);
 
@@ -438,12 +621,14 @@ class R2dbcBookingServiceTest {
                 .create(cancel)
                 .consumeNextWith(Assertions::assertTrue)
                 .verifyComplete();
+        verify(waitlist).released(entity);
     }
 
     @Test
     @DisplayName("Cancel booking: Non-existent booking")
     void cancelBookingNonExistentBooking() {
-        when(repo.findById(id)).thenReturn(Mono.empty());
+        when(store.compareAndSetStatus(id, BookingStatus.ACTIVE, BookingStatus.CANCELED)).thenReturn(Mono.empty());
+        when(store.findById(id)).thenReturn(Mono.empty());
 
         var cancel = bookingService.cancelBooking(id);
 
@@ -463,7 +648,51 @@ class R2dbcBookingServiceTest {
                 .timeIntervalFrom(timeInterval.from())
                 .timeIntervalTo(timeInterval.to())
                 .build();
-        when(repo.findById(id)).thenReturn(Mono.just(alreadyCanceledBooking));
+        when(store.compareAndSetStatus(id, BookingStatus.ACTIVE, BookingStatus.CANCELED)).thenReturn(Mono.just(alreadyCanceledBooking));
+
+        var cancel = bookingService.cancelBooking(id);
+
+        StepVerifier
+                .create(cancel)
+                .expectError(BookingAlreadyCanceledException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Cancel booking: Booking is a hold")
+    void cancelBookingOnHeldBooking() {
+        Booking heldBooking = Booking.builder()
+                .id(id)
+                .customerId(customerId)
+                .status(BookingStatus.HELD)
+                .timeIntervalFrom(timeInterval.from())
+                .timeIntervalTo(timeInterval.to())
+                .build();
+        when(store.compareAndSetStatus(id, BookingStatus.ACTIVE, BookingStatus.CANCELED)).thenReturn(Mono.just(heldBooking));
+
+        var cancel = bookingService.cancelBooking(id);
+
+        StepVerifier
+                .create(cancel)
+                .expectErrorSatisfies(e -> {
+                    assertInstanceOf(InvalidRequestException.class, e);
+                    assertTrue(e.getMessage().contains("is a hold"));
+                })
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Cancel booking: Archived booking that was canceled")
+    void cancelBookingOnArchivedCanceledBooking() {
+        Booking archivedBooking = Booking.builder()
+                .id(id)
+                .customerId(customerId)
+                .status(BookingStatus.CANCELED)
+                .timeIntervalFrom(timeInterval.from())
+                .timeIntervalTo(timeInterval.to())
+                .build();
+        when(store.compareAndSetStatus(id, BookingStatus.ACTIVE, BookingStatus.CANCELED)).thenReturn(Mono.empty());
+        when(store.findById(id)).thenReturn(Mono.just(archivedBooking));
 
         var cancel = bookingService.cancelBooking(id);
 
@@ -472,4 +701,18 @@ class R2dbcBookingServiceTest {
                 .expectError(BookingAlreadyCanceledException.class)
                 .verify();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Cancel booking: Archived booking that already ended")
+    void cancelBookingOnArchivedEndedBooking() {
+        when(store.compareAndSetStatus(id, BookingStatus.ACTIVE, BookingStatus.CANCELED)).thenReturn(Mono.empty());
+        when(store.findById(id)).thenReturn(Mono.just(entity));
+
+        var cancel = bookingService.cancelBooking(id);
+
+        StepVerifier
+                .create(cancel)
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+}
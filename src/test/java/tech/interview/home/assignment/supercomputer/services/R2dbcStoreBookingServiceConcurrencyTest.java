@@ -0,0 +1,7 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///booking-concurrency;DB_CLOSE_DELAY=-1")
+class R2dbcStoreBookingServiceConcurrencyTest extends BookingServiceConcurrencyTest {
+}
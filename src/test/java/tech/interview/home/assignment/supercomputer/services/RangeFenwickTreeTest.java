@@ -0,0 +1,50 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RangeFenwickTreeTest {
+
+    @Test
+    @DisplayName("Range adds and range sums match a plain array")
+    void matchesPlainArray() {
+        int size = 97;
+        RangeFenwickTree tree = new RangeFenwickTree(size);
+        long[] expected = new long[size];
+        Random random = new Random(42);
+
+        for (int round = 0; round < 1_000; round++) {
+            int from = random.nextInt(size);
+            int to = from + random.nextInt(size - from);
+            long value = random.nextInt(2_001) - 1_000;
+            tree.add(from, to, value);
+            for (int i = from; i <= to; i++) {
+                expected[i] += value;
+            }
+
+            int sumFrom = random.nextInt(size);
+            int sumTo = sumFrom + random.nextInt(size - sumFrom);
+            long sum = 0;
+            for (int i = sumFrom; i <= sumTo; i++) {
+                sum += expected[i];
+            }
+            assertEquals(sum, tree.sum(sumFrom, sumTo));
+        }
+    }
+
+    @Test
+    @DisplayName("Adding to the last slot")
+    void addToLastSlot() {
+        RangeFenwickTree tree = new RangeFenwickTree(8);
+        tree.add(7, 7, 5);
+        tree.add(0, 7, 1);
+
+        assertEquals(6, tree.sum(7, 7));
+        assertEquals(13, tree.sum(0, 7));
+        assertEquals(1, tree.sum(0, 0));
+    }
+}
@@ -0,0 +1,74 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+import tech.interview.home.assignment.supercomputer.model.domain.Recurrence;
+import tech.interview.home.assignment.supercomputer.model.domain.RecurringRule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurrenceIndexTest {
+    private static final int DAY = (int) Recurrence.DAILY.periodSeconds();
+
+    @Test
+    @DisplayName("Occurrence queries match a plain scan over all rules, in id order")
+    void matchesPlainScan() {
+        RecurrenceIndex index = new RecurrenceIndex();
+        Map<Long, RecurringRule> expected = new TreeMap<>();
+        Random random = new Random(42);
+
+        for (long id = 1; id <= 2_000; id++) {
+            if (!expected.isEmpty() && random.nextInt(3) == 0) {
+                long removed = new ArrayList<>(expected.keySet()).get(random.nextInt(expected.size()));
+                assertTrue(index.remove(removed));
+                expected.remove(removed);
+            } else {
+                RecurringRule rule = rule(random, id);
+                index.add(rule);
+                expected.put(id, rule);
+            }
+
+            long from = random.nextInt(400 * DAY);
+            EpochInterval query = new EpochInterval(from, from + random.nextInt(random.nextBoolean() ? 3_600 : 10 * DAY));
+            List<RecurringRule> occurring = expected.values().stream()
+                    .filter(rule -> !rule.occurrencesIn(query).isEmpty())
+                    .toList();
+            assertEquals(occurring, index.occurringIn(query));
+            assertEquals(expected.size(), index.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Rules overlapping a new rule")
+    void overlapping() {
+        RecurrenceIndex index = new RecurrenceIndex();
+        RecurringRule mondays = new RecurringRule(1, "Customer1", Recurrence.WEEKLY, new EpochInterval(0, 3_600), 10);
+        RecurringRule tuesdays = new RecurringRule(2, "Customer2", Recurrence.WEEKLY, new EpochInterval(DAY, DAY + 3_600), 10);
+        index.add(mondays);
+        index.add(tuesdays);
+
+        RecurringRule mornings = new RecurringRule(3, "Customer3", Recurrence.DAILY, new EpochInterval(1_800, 2_000), 5);
+        RecurringRule lateMornings = new RecurringRule(4, "Customer3", Recurrence.DAILY, new EpochInterval(3_601, 7_200), 30);
+        RecurringRule laterMornings = new RecurringRule(5, "Customer3", Recurrence.DAILY, new EpochInterval(2 * DAY + 1_800, 2 * DAY + 2_000), 5);
+
+        assertEquals(List.of(mondays, tuesdays), index.overlapping(mornings));
+        assertEquals(List.of(), index.overlapping(lateMornings));
+        assertEquals(List.of(), index.overlapping(laterMornings));
+        assertFalse(index.remove(3));
+        assertEquals(mondays, index.get(1));
+    }
+
+    private static RecurringRule rule(Random random, long id) {
+        Recurrence recurrence = Recurrence.values()[random.nextInt(Recurrence.values().length)];
+        long from = random.nextInt(365 * DAY);
+        long duration = 1 + random.nextInt(random.nextBoolean() ? 7_200 : (int) recurrence.periodSeconds() - 1);
+        return new RecurringRule(id, "Customer" + id, recurrence, new EpochInterval(from, from + duration), 1 + random.nextInt(50));
+    }
+}
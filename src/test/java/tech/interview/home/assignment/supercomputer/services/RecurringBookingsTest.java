@@ -0,0 +1,232 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import tech.interview.home.assignment.supercomputer.config.RecurringProperties;
+import tech.interview.home.assignment.supercomputer.exceptions.InvalidRequestException;
+import tech.interview.home.assignment.supercomputer.exceptions.ResourceNotFoundException;
+import tech.interview.home.assignment.supercomputer.exceptions.TimeIntervalAlreadyBookedException;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+import tech.interview.home.assignment.supercomputer.model.domain.Recurrence;
+import tech.interview.home.assignment.supercomputer.model.domain.RecurringRule;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+import tech.interview.home.assignment.supercomputer.model.dto.RecurringRequestDto;
+import tech.interview.home.assignment.supercomputer.model.dto.RecurringRuleDto;
+import tech.interview.home.assignment.supercomputer.repositories.BookingRepository;
+import tech.interview.home.assignment.supercomputer.storage.BatchInsertResult;
+import tech.interview.home.assignment.supercomputer.storage.InMemoryBookingStore;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecurringBookingsTest {
+    private static final LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.DAYS);
+
+    private InMemoryBookingStore store;
+    private BookingRepository repo;
+    private RecurringBookings recurring;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryBookingStore();
+        repo = mock(BookingRepository.class);
+        when(repo.insertRule(any())).thenReturn(Mono.empty());
+        when(repo.truncateRule(anyLong(), anyInt())).thenReturn(Mono.empty());
+        when(repo.findMaxRuleId()).thenReturn(Mono.just(7L));
+        when(repo.findRules()).thenReturn(Flux.just(new RecurringRule(7, "Customer9", Recurrence.DAILY,
+                EpochInterval.of(now.plusDays(1).plusHours(20), now.plusDays(1).plusHours(21)), 100)));
+        recurring = recurring(now);
+    }
+
+    @Test
+    @DisplayName("A weekly rule is stored as one record and occupies every occurrence up to its end date")
+    void addWeekly() {
+        RecurringRuleDto rule = add(Recurrence.WEEKLY, 10, 12, now.plusWeeks(52).plusDays(1).plusHours(10), null);
+
+        assertEquals(8, rule.id());
+        assertEquals(53, rule.occurrences());
+        assertEquals(new TimeInterval(now.plusWeeks(52).plusDays(1).plusHours(10), now.plusWeeks(52).plusDays(1).plusHours(12)), rule.last());
+        verify(repo).insertRule(any());
+        assertTrue(recurring.isTimeIntervalAlreadyBooked(EpochInterval.of(now.plusWeeks(30).plusDays(1).plusHours(11), now.plusWeeks(30).plusDays(1).plusHours(13))));
+        assertFalse(recurring.isTimeIntervalAlreadyBooked(EpochInterval.of(now.plusWeeks(30).plusDays(2).plusHours(11), now.plusWeeks(30).plusDays(2).plusHours(13))));
+        assertFalse(recurring.isTimeIntervalAlreadyBooked(EpochInterval.of(now.plusWeeks(53).plusDays(1).plusHours(11), now.plusWeeks(53).plusDays(1).plusHours(13))));
+    }
+
+    @Test
+    @DisplayName("A rule is rejected if an occurrence overlaps a booking or another rule")
+    void addConflicting() {
+        Booking booked = insert(now.plusWeeks(3).plusDays(1).plusHours(11), now.plusWeeks(3).plusDays(1).plusHours(15));
+
+        StepVerifier.create(recurring.add(Mono.just(request(Recurrence.WEEKLY, 10, 12, null, 10))))
+                .expectErrorSatisfies(e -> assertEquals(List.of(new TimeInterval(booked.getTimeIntervalFrom(), booked.getTimeIntervalTo())),
+                        ((TimeIntervalAlreadyBookedException) e).getConflicting()))
+                .verify();
+        StepVerifier.create(recurring.add(Mono.just(new RecurringRequestDto("Customer1", Recurrence.WEEKLY,
+                        new TimeInterval(now.plusDays(8).plusHours(20).plusMinutes(30), now.plusDays(8).plusHours(22)), null, 3))))
+                .expectError(TimeIntervalAlreadyBookedException.class)
+                .verify();
+        assertFalse(recurring.isTimeIntervalAlreadyBooked(EpochInterval.of(now.plusDays(1).plusHours(10), now.plusDays(1).plusHours(12))));
+        verify(repo, never()).insertRule(any());
+    }
+
+    @Test
+    @DisplayName("Invalid rules")
+    void invalid() {
+        StepVerifier.create(recurring.add(Mono.just(request(Recurrence.DAILY, 10, 12, now.plusDays(5), 5))))
+                .expectError(InvalidRequestException.class)
+                .verify();
+        StepVerifier.create(recurring.add(Mono.just(request(Recurrence.DAILY, 10, 12, null, 1001))))
+                .expectError(InvalidRequestException.class)
+                .verify();
+        StepVerifier.create(recurring.add(Mono.just(new RecurringRequestDto("Customer1", Recurrence.DAILY,
+                        new TimeInterval(now.plusDays(1), now.plusDays(2)), null, 2))))
+                .expectError(InvalidRequestException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Bookings overlapping an occurrence are rejected with the occurrences in the way")
+    void guard() {
+        Booking booking = booking(now.plusDays(3).plusHours(19), now.plusDays(4).plusHours(20));
+
+        StepVerifier.create(recurring.guard(booking, store.insertIfAvailable(booking)))
+                .expectErrorSatisfies(e -> assertEquals(List.of(
+                                new TimeInterval(now.plusDays(3).plusHours(20), now.plusDays(3).plusHours(21)),
+                                new TimeInterval(now.plusDays(4).plusHours(20), now.plusDays(4).plusHours(21))),
+                        ((TimeIntervalAlreadyBookedException) e).getConflicting()))
+                .verify();
+        StepVerifier.create(store.findOccupying(EpochInterval.of(booking)))
+                .verifyComplete();
+
+        Booking free = booking(now.plusDays(3).plusHours(21).plusSeconds(1), now.plusDays(4).plusHours(20).minusSeconds(1));
+        StepVerifier.create(recurring.guard(free, store.insertIfAvailable(free)))
+                .expectNextMatches(inserted -> inserted.getStatus() == BookingStatus.ACTIVE)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("A booking backs out if a rule occurring in its interval was added while it was inserted")
+    void guardBacksOut() {
+        Booking booking = booking(now.plusDays(2).plusHours(10), now.plusDays(2).plusHours(11));
+        Mono<Booking> insert = recurring.add(Mono.just(request(Recurrence.DAILY, 9, 10, null, 3)))
+                .then(store.insertIfAvailable(booking));
+
+        StepVerifier.create(recurring.guard(booking, insert))
+                .expectError(TimeIntervalAlreadyBookedException.class)
+                .verify();
+        StepVerifier.create(store.findById(1))
+                .expectNextMatches(canceled -> canceled.getStatus() == BookingStatus.CANCELED)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Canceling a rule keeps the started occurrences and offers the others to the listeners")
+    void cancel() {
+        recurring = recurring(now.plusDays(3).plusHours(21));
+        List<Booking> released = new ArrayList<>();
+        recurring.addListener(released::addAll);
+
+        StepVerifier.create(recurring.cancel(7))
+                .verifyComplete();
+
+        verify(repo).truncateRule(7, 3);
+        assertTrue(recurring.isTimeIntervalAlreadyBooked(EpochInterval.of(now.plusDays(3).plusHours(20), now.plusDays(3).plusHours(21))));
+        assertFalse(recurring.isTimeIntervalAlreadyBooked(EpochInterval.of(now.plusDays(4).plusHours(20), now.plusDays(4).plusHours(21))));
+        assertEquals(97, released.size());
+        assertEquals(now.plusDays(4).plusHours(20), released.get(0).getTimeIntervalFrom());
+        assertEquals("Customer9", released.get(0).getCustomerId());
+        StepVerifier.create(recurring.findById(7))
+                .expectNextMatches(rule -> rule.occurrences() == 3 && rule.last().from().equals(now.plusDays(3).plusHours(20)))
+                .verifyComplete();
+
+        StepVerifier.create(recurring.cancel(7))
+                .verifyComplete();
+        verify(repo).truncateRule(anyLong(), anyInt());
+        StepVerifier.create(recurring.cancel(8))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("A rule canceled while it is inserted is cut down by the add once the insert is done")
+    void cancelWhileAdding() {
+        when(repo.insertRule(any())).thenReturn(Mono.defer(() -> recurring.cancel(8)));
+
+        RecurringRuleDto rule = add(Recurrence.DAILY, 10, 12, null, 5);
+
+        assertEquals(0, rule.occurrences());
+        assertNull(rule.last());
+        verify(repo).truncateRule(8, 0);
+        assertFalse(recurring.isTimeIntervalAlreadyBooked(EpochInterval.of(now.plusDays(2).plusHours(10), now.plusDays(2).plusHours(12))));
+        StepVerifier.create(recurring.findById(8))
+                .expectNextMatches(found -> found.occurrences() == 0)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("A batch is guarded: bookings a rule occurs in are rejected, also if the rule is added during the insert")
+    void guardAll() {
+        Booking free = booking(now.plusDays(2).plusHours(1), now.plusDays(2).plusHours(2));
+        Booking occurring = booking(now.plusDays(2).plusHours(20), now.plusDays(2).plusHours(22));
+        Booking raced = booking(now.plusDays(1).plusHours(10), now.plusDays(1).plusHours(11));
+
+        BatchInsertResult result = recurring.guardAll(List.of(free, occurring, raced), candidates -> recurring
+                        .add(Mono.just(request(Recurrence.WEEKLY, 10, 12, null, 1)))
+                        .then(store.insertAllIfAvailable(candidates)))
+                .block();
+
+        assertNotNull(result);
+        assertEquals(List.of(free.getTimeIntervalFrom()), result.accepted().stream().map(Booking::getTimeIntervalFrom).toList());
+        assertEquals(List.of(occurring.getTimeIntervalFrom(), raced.getTimeIntervalFrom()),
+                result.rejected().stream().map(Booking::getTimeIntervalFrom).toList());
+        assertEquals(BookingStatus.CANCELED, store.findById(result.rejected().get(1).getId()).block().getStatus());
+    }
+
+    private RecurringBookings recurring(LocalDateTime at) {
+        RecurringBookings recurring = new RecurringBookings(store, repo, new BookingStateVersion(), new BookingVersions(),
+                new RecurringProperties(true, 1000), Clock.fixed(at.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        recurring.load(List.of());
+        return recurring;
+    }
+
+    private RecurringRuleDto add(Recurrence recurrence, int fromHours, int toHours, LocalDateTime until, Integer occurrences) {
+        return recurring.add(Mono.just(request(recurrence, fromHours, toHours, until, occurrences))).block();
+    }
+
+    private static RecurringRequestDto request(Recurrence recurrence, int fromHours, int toHours, LocalDateTime until, Integer occurrences) {
+        return new RecurringRequestDto("Customer1", recurrence,
+                new TimeInterval(now.plusDays(1).plusHours(fromHours), now.plusDays(1).plusHours(toHours)), until, occurrences);
+    }
+
+    private Booking insert(LocalDateTime from, LocalDateTime to) {
+        return store.insertIfAvailable(booking(from, to)).block();
+    }
+
+    private static Booking booking(LocalDateTime from, LocalDateTime to) {
+        return Booking.builder()
+                .customerId("Customer2")
+                .status(BookingStatus.ACTIVE)
+                .timeIntervalFrom(from)
+                .timeIntervalTo(to)
+                .build();
+    }
+}
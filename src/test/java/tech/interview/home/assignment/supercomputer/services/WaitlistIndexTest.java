@@ -0,0 +1,63 @@
+package tech.interview.home.assignment.supercomputer.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaitlistIndexTest {
+
+    @Test
+    @DisplayName("Overlap queries match a plain scan, in id order")
+    void matchesPlainScan() {
+        WaitlistIndex<Long> index = new WaitlistIndex<>();
+        Map<Long, EpochInterval> expected = new TreeMap<>();
+        Random random = new Random(42);
+
+        for (long id = 0; id < 2_000; id++) {
+            if (!expected.isEmpty() && random.nextInt(3) == 0) {
+                long removed = new ArrayList<>(expected.keySet()).get(random.nextInt(expected.size()));
+                assertTrue(index.remove(removed, expected.remove(removed)));
+            } else {
+                EpochInterval window = interval(random, 1_000);
+                index.add(id, window, id);
+                expected.put(id, window);
+            }
+
+            EpochInterval query = interval(random, 50);
+            List<Long> overlapping = new ArrayList<>();
+            expected.forEach((key, window) -> {
+                if (window.overlaps(query)) {
+                    overlapping.add(key);
+                }
+            });
+            assertEquals(overlapping, index.overlapping(query));
+            assertEquals(expected.size(), index.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Removing an unknown item")
+    void removeUnknown() {
+        WaitlistIndex<String> index = new WaitlistIndex<>();
+        index.add(1, new EpochInterval(10, 20), "first");
+
+        assertFalse(index.remove(2, new EpochInterval(10, 20)));
+        assertFalse(index.remove(1, new EpochInterval(11, 20)));
+        assertTrue(index.remove(1, new EpochInterval(10, 20)));
+        assertFalse(index.remove(1, new EpochInterval(10, 20)));
+        assertEquals(List.of(), index.overlapping(new EpochInterval(0, 100)));
+    }
+
+    private static EpochInterval interval(Random random, int maxLength) {
+        long from = random.nextInt(10_000);
+        return new EpochInterval(from, from + random.nextInt(maxLength));
+    }
+}
@@ -0,0 +1,420 @@
+package tech.interview.home.assignment.supercomputer.storage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+import tech.interview.home.assignment.supercomputer.exceptions.TimeIntervalAlreadyBookedException;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.model.domain.BookingStatus;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour every {@link BookingStore} implementation has to provide.
+ */
+abstract class BookingStoreContractTest {
+    protected static final LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    private static final String customerId = "Customer1";
+
+    protected abstract BookingStore store();
+
+    @Test
+    @DisplayName("Check availability on empty store")
+    void checkAvailabilityOnEmptyStore() {
+        StepVerifier
+                .create(store().isTimeIntervalAlreadyBooked(EpochInterval.of(base, base.plusHours(2))))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Insert assigns an id and the booking can be found by it")
+    void insertAndFindById() {
+        Booking inserted = store().insertIfAvailable(booking(customerId, 3, 5)).block();
+
+        assertNotNull(inserted);
+        assertNotNull(inserted.getId());
+        StepVerifier
+                .create(store().findById(inserted.getId()))
+                .consumeNextWith(found -> assertAll(
+                        () -> assertEquals(inserted.getId(), found.getId()),
+                        () -> assertEquals(customerId, found.getCustomerId()),
+                        () -> assertEquals(BookingStatus.ACTIVE, found.getStatus()),
+                        () -> assertEquals(base.plusHours(3), found.getTimeIntervalFrom()),
+                        () -> assertEquals(base.plusHours(5), found.getTimeIntervalTo())
+                ))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Find by id: Non-existent booking")
+    void findByIdNonExistent() {
+        StepVerifier
+                .create(store().findById(Long.MAX_VALUE))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Overlapping intervals are booked, disjoint ones are available")
+    void overlappingIntervals() {
+        store().insertIfAvailable(booking(customerId, 3, 6)).block();
+
+        assertBooked(true, 1, 4);
+        assertBooked(true, 5, 8);
+        assertBooked(true, 4, 5);
+        assertBooked(true, 2, 7);
+        assertBooked(true, 6, 7);
+        assertBooked(false, 1, 2);
+        assertBooked(false, 7, 8);
+    }
+
+    @Test
+    @DisplayName("Insert: Overlapping booking is rejected")
+    void insertOverlappingBooking() {
+        store().insertIfAvailable(booking(customerId, 3, 6)).block();
+
+        StepVerifier
+                .create(store().insertIfAvailable(booking("Customer2", 5, 7)))
+                .expectError(TimeIntervalAlreadyBookedException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Insert: The conflict carries the conflicting intervals and the nearest free intervals around them")
+    void insertConflictAlternatives() {
+        store().insertIfAvailable(booking(customerId, 3, 6)).block();
+        store().insertIfAvailable(booking(customerId, 7, 9)).block();
+        Booking held = booking(customerId, 10, 11);
+        held.setStatus(BookingStatus.HELD);
+        store().insertIfAvailable(held).block();
+        Booking canceled = store().insertIfAvailable(booking(customerId, 12, 13)).block();
+        store().compareAndSetStatus(canceled.getId(), BookingStatus.ACTIVE, BookingStatus.CANCELED).block();
+
+        StepVerifier
+                .create(store().insertIfAvailable(booking("Customer2", 5, 8)))
+                .consumeErrorWith(error -> {
+                    TimeIntervalAlreadyBookedException conflict = assertInstanceOf(TimeIntervalAlreadyBookedException.class, error);
+                    assertAll(
+                            () -> assertEquals(List.of(interval(3, 6), interval(7, 9)), conflict.getConflicting()),
+                            () -> assertEquals(new TimeInterval(base.minusSeconds(1), base.plusHours(3).minusSeconds(1)),
+                                    conflict.getEarlierAlternative()),
+                            () -> assertEquals(new TimeInterval(base.plusHours(11).plusSeconds(1), base.plusHours(14).plusSeconds(1)),
+                                    conflict.getLaterAlternative())
+                    );
+                })
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Find occupying: Active, held and in-progress bookings overlapping the interval")
+    void findOccupying() {
+        Booking before = store().insertIfAvailable(booking(customerId, 1, 3)).block();
+        Booking held = booking("Customer2", 4, 5);
+        held.setStatus(BookingStatus.HELD);
+        store().insertIfAvailable(held).block();
+        Booking canceled = store().insertIfAvailable(booking(customerId, 6, 7)).block();
+        store().compareAndSetStatus(canceled.getId(), BookingStatus.ACTIVE, BookingStatus.CANCELED).block();
+        store().insertIfAvailable(booking(customerId, 9, 10)).block();
+
+        StepVerifier
+                .create(store().findOccupying(EpochInterval.of(base.plusHours(2), base.plusHours(8))).map(Booking::getId).sort())
+                .expectNext(before.getId(), held.getId())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Find active bookings for customer")
+    void findActiveByCustomerId() {
+        Booking first = store().insertIfAvailable(booking(customerId, 1, 2)).block();
+        Booking second = store().insertIfAvailable(booking(customerId, 3, 4)).block();
+        store().insertIfAvailable(booking("Customer2", 5, 6)).block();
+        store().compareAndSetStatus(second.getId(), BookingStatus.ACTIVE, BookingStatus.CANCELED).block();
+
+        StepVerifier
+                .create(store().findActiveByCustomerId(customerId))
+                .consumeNextWith(found -> assertEquals(first.getId(), found.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Compare and set status: Transition happens once and frees the interval")
+    void compareAndSetStatus() {
+        Booking inserted = store().insertIfAvailable(booking(customerId, 3, 5)).block();
+
+        StepVerifier
+                .create(store().compareAndSetStatus(inserted.getId(), BookingStatus.ACTIVE, BookingStatus.CANCELED))
+                .consumeNextWith(previous -> assertEquals(BookingStatus.ACTIVE, previous.getStatus()))
+                .verifyComplete();
+        StepVerifier
+                .create(store().compareAndSetStatus(inserted.getId(), BookingStatus.ACTIVE, BookingStatus.CANCELED))
+                .consumeNextWith(previous -> assertEquals(BookingStatus.CANCELED, previous.getStatus()))
+                .verifyComplete();
+        StepVerifier
+                .create(store().findById(inserted.getId()))
+                .consumeNextWith(found -> assertEquals(BookingStatus.CANCELED, found.getStatus()))
+                .verifyComplete();
+        assertBooked(false, 3, 5);
+    }
+
+    @Test
+    @DisplayName("Holds occupy their interval but are not active bookings of the customer, expired holds are archived")
+    void holds() {
+        Booking held = booking(customerId, 3, 5);
+        held.setStatus(BookingStatus.HELD);
+        store().insertIfAvailable(held).block();
+
+        assertBooked(true, 4, 6);
+        StepVerifier
+                .create(store().insertIfAvailable(booking(customerId, 4, 6)))
+                .expectError(TimeIntervalAlreadyBookedException.class)
+                .verify();
+        StepVerifier
+                .create(store().findActiveByCustomerId(customerId))
+                .verifyComplete();
+
+        store().compareAndSetStatus(held.getId(), BookingStatus.HELD, BookingStatus.EXPIRED).block();
+        assertBooked(false, 4, 6);
+        StepVerifier
+                .create(store().archive(base, base, 10))
+                .expectNext(1)
+                .verifyComplete();
+        StepVerifier
+                .create(store().findById(held.getId()))
+                .consumeNextWith(found -> assertEquals(BookingStatus.EXPIRED, found.getStatus()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Compare and set statuses: Only bookings in the expected status change, in-progress ones stay current")
+    void compareAndSetStatuses() {
+        Booking first = store().insertIfAvailable(booking(customerId, 1, 2)).block();
+        Booking second = store().insertIfAvailable(booking(customerId, 3, 4)).block();
+        Booking canceled = store().insertIfAvailable(booking(customerId, 5, 6)).block();
+        store().compareAndSetStatus(canceled.getId(), BookingStatus.ACTIVE, BookingStatus.CANCELED).block();
+
+        StepVerifier
+                .create(store().compareAndSetStatuses(List.of(first.getId(), second.getId(), canceled.getId(), Long.MAX_VALUE),
+                        BookingStatus.ACTIVE, BookingStatus.IN_PROGRESS))
+                .consumeNextWith(changed -> assertEquals(List.of(first.getId(), second.getId()), changed.stream().sorted().toList()))
+                .verifyComplete();
+        assertBooked(true, 1, 2);
+        StepVerifier
+                .create(store().findActiveByCustomerId(customerId).map(Booking::getStatus))
+                .expectNext(BookingStatus.IN_PROGRESS, BookingStatus.IN_PROGRESS)
+                .verifyComplete();
+
+        StepVerifier
+                .create(store().compareAndSetStatuses(List.of(first.getId()), BookingStatus.IN_PROGRESS, BookingStatus.COMPLETED))
+                .expectNext(List.of(first.getId()))
+                .verifyComplete();
+        assertBooked(false, 1, 2);
+        StepVerifier
+                .create(store().findActiveByCustomerId(customerId))
+                .consumeNextWith(found -> assertEquals(second.getId(), found.getId()))
+                .verifyComplete();
+        StepVerifier
+                .create(store().findById(canceled.getId()))
+                .consumeNextWith(found -> assertEquals(BookingStatus.CANCELED, found.getStatus()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Compare and set status: Non-existent booking")
+    void compareAndSetStatusNonExistent() {
+        StepVerifier
+                .create(store().compareAndSetStatus(Long.MAX_VALUE, BookingStatus.ACTIVE, BookingStatus.CANCELED))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Batch insert: Decided in submission order against state and earlier bookings of the batch")
+    void insertAll() {
+        store().insertIfAvailable(booking(customerId, 0, 1)).block();
+        Booking conflictsWithExisting = booking(customerId, 1, 2);
+        Booking first = booking(customerId, 3, 5);
+        Booking conflictsWithFirst = booking(customerId, 4, 6);
+        Booking second = booking(customerId, 7, 8);
+
+        StepVerifier
+                .create(store().insertAllIfAvailable(List.of(conflictsWithExisting, first, conflictsWithFirst, second)))
+                .consumeNextWith(result -> assertAll(
+                        () -> assertEquals(List.of(first, second), result.accepted()),
+                        () -> assertEquals(List.of(conflictsWithExisting, conflictsWithFirst), result.rejected()),
+                        () -> assertNotNull(first.getId()),
+                        () -> assertNotNull(second.getId()),
+                        () -> assertNotEquals(first.getId(), second.getId())
+                ))
+                .verifyComplete();
+        StepVerifier
+                .create(store().findById(second.getId()))
+                .consumeNextWith(found -> assertEquals(base.plusHours(7), found.getTimeIntervalFrom()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Batch insert: Bookings that are not active never conflict")
+    void insertAllNotActive() {
+        store().insertIfAvailable(booking(customerId, 0, 2)).block();
+        Booking canceled = booking(customerId, 1, 2);
+        canceled.setStatus(BookingStatus.CANCELED);
+
+        StepVerifier
+                .create(store().insertAllIfAvailable(List.of(canceled)))
+                .consumeNextWith(result -> assertAll(
+                        () -> assertEquals(List.of(canceled), result.accepted()),
+                        () -> assertTrue(result.rejected().isEmpty())
+                ))
+                .verifyComplete();
+        StepVerifier
+                .create(store().findById(canceled.getId()))
+                .consumeNextWith(found -> assertEquals(BookingStatus.CANCELED, found.getStatus()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Listeners: See committed inserts and status transitions, rejected writes publish nothing")
+    void listeners() {
+        List<BookingEvent> events = new CopyOnWriteArrayList<>();
+        store().addListener(events::add);
+
+        Booking first = store().insertIfAvailable(booking(customerId, 1, 2)).block();
+        StepVerifier
+                .create(store().insertIfAvailable(booking(customerId, 1, 2)))
+                .expectError(TimeIntervalAlreadyBookedException.class)
+                .verify();
+        Booking second = booking(customerId, 3, 4);
+        store().insertAllIfAvailable(List.of(second, booking(customerId, 1, 2))).block();
+        store().compareAndSetStatus(first.getId(), BookingStatus.ACTIVE, BookingStatus.CANCELED).block();
+        store().compareAndSetStatus(first.getId(), BookingStatus.ACTIVE, BookingStatus.CANCELED).block();
+        store().compareAndSetStatuses(List.of(first.getId(), second.getId()), BookingStatus.ACTIVE, BookingStatus.IN_PROGRESS).block();
+
+        assertEquals(List.of(
+                new BookingEvent(first.getId(), BookingStatus.ACTIVE, first, true),
+                new BookingEvent(second.getId(), BookingStatus.ACTIVE, second, true),
+                new BookingEvent(first.getId(), BookingStatus.CANCELED, first.toBuilder().status(BookingStatus.CANCELED).build(), false)
+        ), events.subList(0, 3));
+        assertEquals(4, events.size());
+        assertAll(
+                () -> assertEquals(second.getId(), events.get(3).bookingId()),
+                () -> assertEquals(BookingStatus.IN_PROGRESS, events.get(3).status()),
+                () -> assertFalse(events.get(3).created())
+        );
+    }
+
+    @Test
+    @DisplayName("Find all: Streams live and archived bookings")
+    void findAll() {
+        String otherCustomerId = "Customer7";
+        Booking ended = store().insertIfAvailable(booking(otherCustomerId, 0, 1)).block();
+        Booking active = store().insertIfAvailable(booking(otherCustomerId, 3, 4)).block();
+        store().archive(base.plusHours(2), base, 10).block();
+
+        StepVerifier
+                .create(store().findAll()
+                        .filter(booking -> otherCustomerId.equals(booking.getCustomerId()))
+                        .map(Booking::getId)
+                        .sort()
+                        .collectList())
+                .expectNext(List.of(ended.getId(), active.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Find by id range: Streams live and archived bookings within the range and knows the highest id")
+    void findAllByIdRange() {
+        Booking ended = store().insertIfAvailable(booking("Customer8", 10, 11)).block();
+        Booking active = store().insertIfAvailable(booking("Customer8", 13, 14)).block();
+        Booking last = store().insertIfAvailable(booking("Customer8", 16, 17)).block();
+        store().archive(base.plusHours(12), base, 10).block();
+
+        StepVerifier
+                .create(store().findAllByIdRange(ended.getId(), active.getId())
+                        .map(Booking::getId)
+                        .sort()
+                        .collectList())
+                .expectNext(List.of(ended.getId(), active.getId()))
+                .verifyComplete();
+        StepVerifier
+                .create(store().findMaxId())
+                .expectNext(last.getId())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Archive: Canceled and ended bookings are moved out of the live set but can still be found by id")
+    void archive() {
+        Booking ended = store().insertIfAvailable(booking(customerId, 0, 1)).block();
+        Booking canceled = store().insertIfAvailable(booking(customerId, 5, 6)).block();
+        Booking active = store().insertIfAvailable(booking(customerId, 7, 8)).block();
+        store().compareAndSetStatus(canceled.getId(), BookingStatus.ACTIVE, BookingStatus.CANCELED).block();
+
+        StepVerifier
+                .create(store().archive(base.plusHours(2), base, 10))
+                .expectNext(2)
+                .verifyComplete();
+        StepVerifier
+                .create(store().findById(ended.getId()))
+                .consumeNextWith(found -> assertEquals(BookingStatus.ACTIVE, found.getStatus()))
+                .verifyComplete();
+        StepVerifier
+                .create(store().findById(canceled.getId()))
+                .consumeNextWith(found -> assertEquals(BookingStatus.CANCELED, found.getStatus()))
+                .verifyComplete();
+        StepVerifier
+                .create(store().findActiveByCustomerId(customerId))
+                .consumeNextWith(found -> assertEquals(active.getId(), found.getId()))
+                .verifyComplete();
+        StepVerifier
+                .create(store().compareAndSetStatus(ended.getId(), BookingStatus.ACTIVE, BookingStatus.CANCELED))
+                .verifyComplete();
+        assertBooked(false, 0, 1);
+    }
+
+    @Test
+    @DisplayName("Archive: Moves at most the given number of bookings")
+    void archiveLimit() {
+        for (int i = 0; i < 5; i++) {
+            store().insertIfAvailable(booking(customerId, 2 * i, 2 * i + 1)).block();
+        }
+
+        StepVerifier
+                .create(store().archive(base.plusDays(1), base, 3))
+                .expectNext(3)
+                .verifyComplete();
+        StepVerifier
+                .create(store().archive(base.plusDays(1), base, 3))
+                .expectNext(2)
+                .verifyComplete();
+        StepVerifier
+                .create(store().archive(base.plusDays(1), base, 3))
+                .expectNext(0)
+                .verifyComplete();
+    }
+
+    private void assertBooked(boolean expected, int fromHours, int toHours) {
+        StepVerifier
+                .create(store().isTimeIntervalAlreadyBooked(EpochInterval.of(base.plusHours(fromHours), base.plusHours(toHours))))
+                .expectNext(expected)
+                .verifyComplete();
+    }
+
+    private static TimeInterval interval(int fromHours, int toHours) {
+        return new TimeInterval(base.plusHours(fromHours), base.plusHours(toHours));
+    }
+
+    protected static Booking booking(String customerId, int fromHours, int toHours) {
+        return Booking.builder()
+                .customerId(customerId)
+                .status(BookingStatus.ACTIVE)
+                .timeIntervalFrom(base.plusHours(fromHours))
+                .timeIntervalTo(base.plusHours(toHours))
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package tech.interview.home.assignment.supercomputer.storage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.interview.home.assignment.supercomputer.exceptions.TimeIntervalAlreadyBookedException;
+import tech.interview.home.assignment.supercomputer.model.domain.EpochInterval;
+import tech.interview.home.assignment.supercomputer.model.domain.TimeInterval;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConflictsTest {
+
+    @Test
+    @DisplayName("Conflicts and alternatives match a plain scan")
+    void matchesPlainScan() {
+        Random random = new Random(42);
+        for (int round = 0; round < 500; round++) {
+            NavigableMap<Long, Long> occupied = new TreeMap<>();
+            long start = random.nextInt(20);
+            for (int i = 0; i < 20; i++) {
+                long end = start + random.nextInt(10);
+                occupied.put(start, end);
+                start = end + 1 + random.nextInt(8);
+            }
+            long from = random.nextInt((int) start);
+            EpochInterval requested = new EpochInterval(from, from + random.nextInt(6));
+
+            List<TimeInterval> conflicting = new ArrayList<>();
+            occupied.forEach((key, end) -> {
+                if (new EpochInterval(key, end).overlaps(requested)) {
+                    conflicting.add(new EpochInterval(key, end).toTimeInterval());
+                }
+            });
+            if (conflicting.isEmpty()) {
+                continue;
+            }
+
+            long length = requested.to() - requested.from();
+            long firstConflict = EpochInterval.epochSecond(conflicting.get(0).from());
+            long lastConflictEnd = EpochInterval.epochSecond(conflicting.get(conflicting.size() - 1).to());
+            long earlier = firstConflict - 1 - length;
+            while (!free(occupied, earlier, earlier + length)) {
+                earlier--;
+            }
+            long later = lastConflictEnd + 1;
+            while (!free(occupied, later, later + length)) {
+                later++;
+            }
+
+            TimeIntervalAlreadyBookedException conflict = Conflicts.of(requested, occupied, end -> end, true, true);
+            assertEquals(conflicting, conflict.getConflicting());
+            assertEquals(new EpochInterval(earlier, earlier + length).toTimeInterval(), conflict.getEarlierAlternative());
+            assertEquals(new EpochInterval(later, later + length).toTimeInterval(), conflict.getLaterAlternative());
+        }
+    }
+
+    @Test
+    @DisplayName("Gaps beyond an incomplete side are not alternatives")
+    void incompleteSides() {
+        NavigableMap<Long, Long> occupied = new TreeMap<>();
+        occupied.put(100L, 110L);
+        occupied.put(112L, 120L);
+
+        TimeIntervalAlreadyBookedException conflict = Conflicts.of(new EpochInterval(105, 115), occupied, end -> end, false, false);
+
+        assertEquals(2, conflict.getConflicting().size());
+        assertNull(conflict.getEarlierAlternative());
+        assertNull(conflict.getLaterAlternative());
+    }
+
+    private static boolean free(NavigableMap<Long, Long> occupied, long from, long to) {
+        return occupied.entrySet().stream()
+                .noneMatch(entry -> EpochInterval.overlap(entry.getKey(), entry.getValue(), from, to));
+    }
+}
@@ -0,0 +1,17 @@
+package tech.interview.home.assignment.supercomputer.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+
+class InMemoryBookingStoreTest extends BookingStoreContractTest {
+    private InMemoryBookingStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryBookingStore();
+    }
+
+    @Override
+    protected BookingStore store() {
+        return store;
+    }
+}
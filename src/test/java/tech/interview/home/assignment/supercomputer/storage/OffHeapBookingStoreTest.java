@@ -0,0 +1,46 @@
+package tech.interview.home.assignment.supercomputer.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapBookingStoreTest extends BookingStoreContractTest {
+    private OffHeapBookingStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new OffHeapBookingStore(4);
+    }
+
+    @Override
+    protected BookingStore store() {
+        return store;
+    }
+
+    @Test
+    @DisplayName("Records spanning several segments can be read back")
+    void multipleSegments() {
+        List<Booking> inserted = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            inserted.add(store.insertIfAvailable(booking("Customer" + i % 3, 2 * i, 2 * i + 1)).block());
+        }
+
+        for (Booking booking : inserted) {
+            StepVerifier
+                    .create(store.findById(booking.getId()))
+                    .consumeNextWith(found -> assertEquals(booking, found))
+                    .verifyComplete();
+        }
+        StepVerifier
+                .create(store.findActiveByCustomerId("Customer1").count())
+                .expectNext(3L)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,82 @@
+package tech.interview.home.assignment.supercomputer.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import tech.interview.home.assignment.supercomputer.config.WriteRetryProperties;
+import tech.interview.home.assignment.supercomputer.model.domain.Booking;
+import tech.interview.home.assignment.supercomputer.repositories.BookingRepository;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataR2dbcTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///booking-store;DB_CLOSE_DELAY=-1")
+class R2dbcBookingStoreTest extends BookingStoreContractTest {
+    @Autowired
+    private BookingRepository repository;
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    private R2dbcBookingStore store;
+
+    @BeforeEach
+    void setUp() {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        TransactionalOperator transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory), definition);
+
+        store = new R2dbcBookingStore(repository, transactionalOperator, writeRetry(new SimpleMeterRegistry()));
+        repository.deleteAll().block();
+    }
+
+    @Override
+    protected BookingStore store() {
+        return store;
+    }
+
+    @Test
+    @DisplayName("Insert: Retried after serialization failure")
+    void insertRetriedAfterSerializationFailure() {
+        BookingRepository repo = mock(BookingRepository.class);
+        TransactionalOperator transactionalOperator = mock(TransactionalOperator.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Booking booking = booking("Customer1", 1, 2);
+
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(x -> x.getArgument(0));
+        when(repo.lockWrites()).thenReturn(Mono.just(1));
+        when(repo.isTimeIntervalAlreadyBooked(booking.getTimeIntervalFrom(), booking.getTimeIntervalTo())).thenReturn(Mono.just(false));
+        when(repo.save(booking))
+                .thenReturn(Mono.error(new CannotAcquireLockException("Serialization failure")))
+                .thenAnswer(x -> {
+                    Booking saved = x.getArgument(0);
+                    saved.setId(1L);
+                    return Mono.just(saved);
+                });
+
+        StepVerifier
+                .create(new R2dbcBookingStore(repo, transactionalOperator, writeRetry(meterRegistry)).insertIfAvailable(booking))
+                .consumeNextWith(saved -> assertEquals(1L, saved.getId()))
+                .verifyComplete();
+        assertEquals(1, meterRegistry.counter("booking.write.retries").count());
+    }
+
+    private static SerializationFailureRetry writeRetry(SimpleMeterRegistry meterRegistry) {
+        return new SerializationFailureRetry(new WriteRetryProperties(3, Duration.ofMillis(1), Duration.ofMillis(10), 0.5), meterRegistry);
+    }
+}
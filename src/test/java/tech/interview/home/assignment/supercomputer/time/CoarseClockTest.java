@@ -0,0 +1,37 @@
+package tech.interview.home.assignment.supercomputer.time;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoarseClockTest {
+
+    @Test
+    @DisplayName("Cached time advances with every tick")
+    void advances() throws InterruptedException {
+        try (CoarseClock clock = new CoarseClock(Duration.ofMillis(5), ZoneOffset.UTC)) {
+            long first = clock.millis();
+            Thread.sleep(50);
+
+            assertTrue(clock.millis() > first);
+            assertTrue(Math.abs(System.currentTimeMillis() - clock.millis()) < 1_000);
+        }
+    }
+
+    @Test
+    @DisplayName("Clock in another zone shares the cached time")
+    void withZone() {
+        try (CoarseClock clock = new CoarseClock(Duration.ofHours(1), ZoneOffset.UTC)) {
+            var zoned = clock.withZone(ZoneId.of("Europe/Ljubljana"));
+
+            assertEquals(ZoneId.of("Europe/Ljubljana"), zoned.getZone());
+            assertEquals(clock.millis(), zoned.millis());
+            assertSame(clock, clock.withZone(ZoneOffset.UTC));
+        }
+    }
+}
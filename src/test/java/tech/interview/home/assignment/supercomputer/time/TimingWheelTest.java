@@ -0,0 +1,88 @@
+package tech.interview.home.assignment.supercomputer.time;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+    private static final long TICK = 10;
+
+    @Test
+    @DisplayName("Items expire in order, never early and at most one tick late")
+    void expiresWithinOneTick() {
+        long start = 1_000_003;
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, 4, start);
+        Random random = new Random(42);
+        Map<Long, Long> expiredAt = new HashMap<>();
+        List<Long> expirations = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            // spans the first four levels: up to 10 * 4^4 ms
+            long expiration = start + random.nextInt(2_560);
+            expirations.add(expiration);
+            assertTrue(wheel.add(expiration, expiration));
+        }
+        assertEquals(2_000, wheel.size());
+
+        long lastExpired = 0;
+        for (long now = start; now <= start + 2_600; now += 3) {
+            long time = now;
+            List<Long> expired = new ArrayList<>();
+            wheel.advance(time, expired::add);
+            for (long expiration : expired) {
+                expiredAt.put(expiration, time);
+                assertTrue(expiration >= lastExpired - TICK, "expired out of tick order");
+                lastExpired = Math.max(lastExpired, expiration);
+            }
+        }
+
+        assertEquals(0, wheel.size());
+        for (long expiration : expirations) {
+            long at = expiredAt.get(expiration);
+            assertTrue(at > expiration, "expired early: " + expiration + " at " + at);
+            assertTrue(at <= expiration + TICK + 3, "expired late: " + expiration + " at " + at);
+        }
+    }
+
+    @Test
+    @DisplayName("Distant expirations add levels on demand")
+    void distantExpirations() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 2, 0);
+        List<String> expired = new ArrayList<>();
+
+        wheel.add("hour", 3600L * 1000);
+        wheel.add("soon", 15);
+        wheel.advance(20, expired::add);
+        assertEquals(List.of("soon"), expired);
+
+        wheel.advance(3600L * 1000 + TICK, expired::add);
+        assertEquals(List.of("soon", "hour"), expired);
+    }
+
+    @Test
+    @DisplayName("An empty wheel jumps to the current time")
+    void emptyWheelJumps() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, 0);
+        wheel.advance(Long.MAX_VALUE / 2, item -> fail());
+
+        assertFalse(wheel.add("past", 1_000));
+        assertTrue(wheel.add("later", Long.MAX_VALUE / 2 + TICK));
+    }
+
+    @Test
+    @DisplayName("Items that already expired are not added")
+    void alreadyExpired() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, 100);
+        wheel.advance(200, item -> fail());
+
+        assertFalse(wheel.add("past", 150));
+        assertTrue(wheel.add("now", 200));
+        assertEquals(1, wheel.size());
+    }
+}